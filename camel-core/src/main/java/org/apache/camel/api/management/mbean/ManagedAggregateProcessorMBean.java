@@ -63,6 +63,9 @@ public interface ManagedAggregateProcessorMBean extends ManagedProcessorMBean {
     @ManagedAttribute(description = "Optimistic locking")
     boolean isOptimisticLocking();
 
+    @ManagedAttribute(description = "Number of locks the correlation keys are striped over")
+    int getLockStripes();
+
     @ManagedAttribute(description = "Whether or not to eager check for completion when a new incoming Exchange has been received")
     boolean isEagerCheckCompletion();
 
@@ -126,6 +129,12 @@ public interface ManagedAggregateProcessorMBean extends ManagedProcessorMBean {
     @ManagedAttribute(description = "Total number of exchanged completed by completion force trigger")
     long getCompletedByForce();
 
+    @ManagedAttribute(description = "Total number of times the aggregation lock was contended and had to be waited for")
+    long getLockContentionCount();
+
+    @ManagedAttribute(description = "Total time in millis spent waiting for the aggregation lock when it was contended")
+    long getLockWaitTime();
+
     @ManagedOperation(description = " Reset the statistics counters")
     void resetStatistics();
 
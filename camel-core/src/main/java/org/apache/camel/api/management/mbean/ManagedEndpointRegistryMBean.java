@@ -38,6 +38,24 @@ public interface ManagedEndpointRegistryMBean extends ManagedServiceMBean {
     @ManagedAttribute(description = "Maximum cache size (capacity)")
     Integer getMaximumCacheSize();
 
+    @ManagedAttribute(description = "Cache hits")
+    Long getHits();
+
+    @ManagedAttribute(description = "Cache misses")
+    Long getMisses();
+
+    @ManagedAttribute(description = "Number of uris found in the cache of normalized uris")
+    Long getNormalizedUriHits();
+
+    @ManagedAttribute(description = "Number of uris which were not found in the cache of normalized uris")
+    Long getNormalizedUriMisses();
+
+    @ManagedAttribute(description = "Number of uris in the cache of normalized uris")
+    Integer getNormalizedUriCacheSize();
+
+    @ManagedOperation(description = "Reset cache statistics")
+    void resetStatistics();
+
     @ManagedOperation(description = "Purges the cache")
     void purge();
 
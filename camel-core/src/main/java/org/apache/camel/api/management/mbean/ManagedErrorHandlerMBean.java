@@ -47,6 +47,15 @@ public interface ManagedErrorHandlerMBean {
     @ManagedAttribute(description = "Number of Exchanges scheduled for redelivery (waiting to be redelivered in the future)")
     Integer getPendingRedeliveryCount();
 
+    @ManagedAttribute(description = "Number of Exchanges from this route waiting to be redelivered")
+    Integer getRoutePendingRedeliveryCount();
+
+    @ManagedAttribute(description = "RedeliveryPolicy for maximum pending redeliveries")
+    Integer getMaximumPendingRedeliveries();
+
+    @ManagedAttribute(description = "RedeliveryPolicy for maximum pending redeliveries")
+    void setMaximumPendingRedeliveries(Integer maximum);
+
     @ManagedAttribute(description = "RedeliveryPolicy for maximum redeliveries")
     Integer getMaximumRedeliveries();
 
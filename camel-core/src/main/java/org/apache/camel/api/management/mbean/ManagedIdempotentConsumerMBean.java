@@ -44,6 +44,15 @@ public interface ManagedIdempotentConsumerMBean extends ManagedProcessorMBean {
 
     @ManagedOperation(description = "Reset the current count of duplicate Messages")
     void resetDuplicateMessageCount();
+
+    @ManagedAttribute(description = "Number of times a key was already in the idempotent repository when adding it, or -1 if the repository does not keep statistics")
+    long getRepositoryHitCount();
+
+    @ManagedAttribute(description = "Number of times a key was not in the idempotent repository when adding it, or -1 if the repository does not keep statistics")
+    long getRepositoryMissCount();
+
+    @ManagedAttribute(description = "Number of keys evicted from the idempotent repository, or -1 if the repository does not keep statistics")
+    long getRepositoryEvictionCount();
     
     @ManagedOperation(description = "Clear the repository containing Messages")
     void clear();
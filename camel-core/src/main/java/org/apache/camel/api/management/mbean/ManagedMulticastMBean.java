@@ -35,6 +35,9 @@ public interface ManagedMulticastMBean extends ManagedProcessorMBean {
     @ManagedAttribute(description = "Shares the UnitOfWork with the parent and the resource exchange")
     Boolean isShareUnitOfWork();
 
+    @ManagedAttribute(description = "Whether the copies of the exchange share the properties and headers with the original exchange until they are changed")
+    Boolean isCopyOnWrite();
+
     @ManagedAttribute(description = "The total timeout specified in millis, when using parallel processing.")
     Long getTimeout();
 
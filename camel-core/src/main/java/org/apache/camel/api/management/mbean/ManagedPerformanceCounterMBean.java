@@ -50,6 +50,15 @@ public interface ManagedPerformanceCounterMBean extends ManagedCounterMBean {
     @ManagedAttribute(description = "Max Processing Time [milliseconds]")
     long getMaxProcessingTime() throws Exception;
 
+    @ManagedAttribute(description = "Median Processing Time [milliseconds]")
+    long getMedianProcessingTime() throws Exception;
+
+    @ManagedAttribute(description = "99th Percentile Processing Time [milliseconds]")
+    long getP99ProcessingTime() throws Exception;
+
+    @ManagedAttribute(description = "99.9th Percentile Processing Time [milliseconds]")
+    long getP999ProcessingTime() throws Exception;
+
     @ManagedAttribute(description = "Total Processing Time [milliseconds]")
     long getTotalProcessingTime() throws Exception;
 
@@ -44,4 +44,16 @@ public interface ManagedResequencerMBean extends ManagedProcessorMBean {
     @ManagedAttribute(description = "If true, throws an exception when messages older than the last delivered message are processed")
     Boolean isRejectOld();
 
+    @ManagedAttribute(description = "Whether the stream resequencer indexes messages by sequence number in a ring buffer")
+    Boolean isRingBuffer();
+
+    @ManagedAttribute(description = "Number of messages currently held by the stream resequencer")
+    Integer getSize();
+
+    @ManagedAttribute(description = "Number of missing sequence numbers the ring buffer stream resequencer is currently waiting for")
+    Long getGaps();
+
+    @ManagedAttribute(description = "Number of gaps the ring buffer stream resequencer skipped because the messages after them timed out")
+    Long getTimedOutGaps();
+
 }
\ No newline at end of file
@@ -55,6 +55,12 @@ public interface ManagedStreamCachingStrategyMBean extends ManagedServiceMBean {
     @ManagedAttribute(description = "Buffer size in bytes to use when coping between buffers")
     int getBufferSize();
 
+    @ManagedAttribute(description = "Maximum number of bytes of off-heap memory to use for in-memory StreamCache")
+    long getOffHeapMemory();
+
+    @ManagedAttribute(description = "Number of bytes of off-heap memory currently used by StreamCache")
+    long getOffHeapMemoryUsed();
+
     @ManagedAttribute(description = "Whether to remove spool directory when stopping")
     void setRemoveSpoolDirectoryWhenStopping(boolean remove);
 
@@ -38,6 +38,15 @@ public interface ManagedTypeConverterRegistryMBean extends ManagedServiceMBean {
     @ManagedAttribute(description = "Number of type conversion failures (failed conversions)")
     long getFailedCounter();
 
+    @ManagedAttribute(description = "Number of type converter lookups served from the cache of previous lookups")
+    long getCacheHitCounter();
+
+    @ManagedAttribute(description = "Number of type converter lookups which had to search the registry")
+    long getCacheMissCounter();
+
+    @ManagedAttribute(description = "Total time in millis spent searching the registry for type converters")
+    long getLookupTime();
+
     @ManagedOperation(description = "Resets the type conversion counters")
     void resetTypeConversionCounters();
 
@@ -236,6 +236,18 @@ public class DefaultErrorHandlerBuilder extends ErrorHandlerBuilderSupport {
         return this;
     }
 
+    /**
+     * Sets the maximum number of asynchronous delayed redeliveries which can be pending at the same time.
+     *
+     * @param maximumPendingRedeliveries the maximum number of pending redeliveries, or 0 for no limit
+     * @return the builder
+     * @see org.apache.camel.processor.RedeliveryPolicy#setMaximumPendingRedeliveries(int)
+     */
+    public DefaultErrorHandlerBuilder maximumPendingRedeliveries(int maximumPendingRedeliveries) {
+        getRedeliveryPolicy().setMaximumPendingRedeliveries(maximumPendingRedeliveries);
+        return this;
+    }
+
     /**
      * Controls whether to allow redelivery while stopping/shutting down a route that uses error handling.
      *
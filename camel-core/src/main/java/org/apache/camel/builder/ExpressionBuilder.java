@@ -16,8 +16,15 @@
  */
 package org.apache.camel.builder;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintWriter;
+import java.io.RandomAccessFile;
 import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
 import java.text.SimpleDateFormat;
 import java.util.Collection;
 import java.util.Collections;
@@ -40,13 +47,14 @@ import org.apache.camel.Message;
 import org.apache.camel.NoSuchEndpointException;
 import org.apache.camel.NoSuchLanguageException;
 import org.apache.camel.Producer;
+import org.apache.camel.WrappedFile;
 import org.apache.camel.component.bean.BeanInvocation;
 import org.apache.camel.component.properties.PropertiesComponent;
 import org.apache.camel.language.bean.BeanLanguage;
-import org.apache.camel.model.language.MethodCallExpression;
 import org.apache.camel.spi.Language;
 import org.apache.camel.spi.RouteContext;
 import org.apache.camel.spi.UnitOfWork;
+import org.apache.camel.support.ByteTokenIterator;
 import org.apache.camel.support.ExpressionAdapter;
 import org.apache.camel.support.TokenPairExpressionIterator;
 import org.apache.camel.support.TokenXMLExpressionIterator;
@@ -361,6 +369,7 @@ public final class ExpressionBuilder {
      * @param ognl  methods to invoke on the body in a simple OGNL syntax
      */
     public static Expression exchangeExceptionOgnlExpression(final String ognl) {
+        final OgnlInvoker invoker = new OgnlInvoker(ognl);
         return new ExpressionAdapter() {
             public Object evaluate(Exchange exchange) {
                 Object exception = exchange.getException();
@@ -371,7 +380,7 @@ public final class ExpressionBuilder {
                 if (exception == null) {
                     return null;
                 }
-                return new MethodCallExpression(exception, ognl).evaluate(exchange);
+                return invoker.invoke(exchange, exception);
             }
 
             @Override
@@ -838,13 +847,14 @@ public final class ExpressionBuilder {
      * @param ognl  methods to invoke on the body in a simple OGNL syntax
      */
     public static Expression bodyOgnlExpression(final String ognl) {
+        final OgnlInvoker invoker = new OgnlInvoker(ognl);
         return new ExpressionAdapter() {
             public Object evaluate(Exchange exchange) {
                 Object body = exchange.getIn().getBody();
                 if (body == null) {
                     return null;
                 }
-                return new MethodCallExpression(body, ognl).evaluate(exchange);
+                return invoker.invoke(exchange, body);
             }
 
             @Override
@@ -861,13 +871,14 @@ public final class ExpressionBuilder {
      * @param ognl  methods to invoke on the evaluated expression in a simple OGNL syntax
      */
     public static Expression ognlExpression(final Expression exp, final String ognl) {
+        final OgnlInvoker invoker = new OgnlInvoker(ognl);
         return new ExpressionAdapter() {
             public Object evaluate(Exchange exchange) {
                 Object value = exp.evaluate(exchange, Object.class);
                 if (value == null) {
                     return null;
                 }
-                return new MethodCallExpression(value, ognl).evaluate(exchange);
+                return invoker.invoke(exchange, value);
             }
 
             @Override
@@ -884,13 +895,14 @@ public final class ExpressionBuilder {
      * @param ognl  methods to invoke on the context in a simple OGNL syntax
      */
     public static Expression camelContextOgnlExpression(final String ognl) {
+        final OgnlInvoker invoker = new OgnlInvoker(ognl);
         return new ExpressionAdapter() {
             public Object evaluate(Exchange exchange) {
                 CamelContext context = exchange.getContext();
                 if (context == null) {
                     return null;
                 }
-                return new MethodCallExpression(context, ognl).evaluate(exchange);
+                return invoker.invoke(exchange, context);
             }
 
             @Override
@@ -907,9 +919,10 @@ public final class ExpressionBuilder {
      * @param ognl  methods to invoke on the exchange in a simple OGNL syntax
      */
     public static Expression exchangeOgnlExpression(final String ognl) {
+        final OgnlInvoker invoker = new OgnlInvoker(ognl);
         return new ExpressionAdapter() {
             public Object evaluate(Exchange exchange) {
-                return new MethodCallExpression(exchange, ognl).evaluate(exchange);
+                return invoker.invoke(exchange, exchange);
             }
 
             @Override
@@ -1273,6 +1286,70 @@ public final class ExpressionBuilder {
         };
     }
 
+    /**
+     * Returns a tokenize expression which will tokenize the bytes of files and streams with the
+     * given token without decoding them, using a {@link ByteTokenIterator}.
+     * <p/>
+     * Other values, or content in a charset which cannot be tokenized by bytes, are tokenized
+     * using a {@link Scanner} with the token as a literal delimiter.
+     *
+     * @param expression the expression to tokenize
+     * @param token      the token
+     * @param group      number of parts to group together, or <tt>0</tt> to not group
+     * @param skipFirst  whether to skip the first part
+     */
+    public static Expression tokenizeBinaryExpression(final Expression expression, final String token,
+                                                      final int group, final boolean skipFirst) {
+        return new ExpressionAdapter() {
+            public Object evaluate(Exchange exchange) {
+                Object value = expression.evaluate(exchange, Object.class);
+                if (value instanceof WrappedFile) {
+                    // generic file is just a wrapper for the real file
+                    value = ((WrappedFile<?>) value).getFile();
+                }
+
+                String charset = IOHelper.getCharsetName(exchange);
+                if (ByteTokenIterator.isSupportedCharset(charset)) {
+                    byte[] delimiter = token.getBytes(Charset.forName(charset));
+                    int parts = group > 0 ? group : 1;
+                    try {
+                        if (value instanceof File) {
+                            RandomAccessFile file = new RandomAccessFile((File) value, "r");
+                            try {
+                                return new ByteTokenIterator(file.getChannel(), delimiter, parts, skipFirst, ByteTokenIterator.DEFAULT_REGION_SIZE);
+                            } catch (RuntimeException e) {
+                                IOHelper.close(file);
+                                throw e;
+                            }
+                        } else if (value instanceof ReadableByteChannel) {
+                            return new ByteTokenIterator((ReadableByteChannel) value, delimiter, parts, skipFirst, ByteTokenIterator.DEFAULT_CHUNK_SIZE);
+                        } else if (value instanceof InputStream) {
+                            ReadableByteChannel channel = Channels.newChannel((InputStream) value);
+                            return new ByteTokenIterator(channel, delimiter, parts, skipFirst, ByteTokenIterator.DEFAULT_CHUNK_SIZE);
+                        }
+                    } catch (IOException e) {
+                        throw ObjectHelper.wrapRuntimeCamelException(e);
+                    }
+                }
+
+                Scanner scanner = ObjectHelper.getScanner(exchange, value);
+                scanner.useDelimiter(Pattern.quote(token));
+                if (group > 0) {
+                    return new GroupTokenIterator(exchange, scanner, token, group, skipFirst);
+                }
+                if (skipFirst && scanner.hasNext()) {
+                    scanner.next();
+                }
+                return scanner;
+            }
+
+            @Override
+            public String toString() {
+                return "tokenizeBinary(" + expression + ", " + token + ")";
+            }
+        };
+    }
+
     /**
      * Returns an expression that skips the first element
      */
@@ -1308,6 +1385,14 @@ public final class ExpressionBuilder {
      * Returns an {@link TokenXMLExpressionIterator} expression
      */
     public static Expression tokenizeXMLExpression(String tagName, String inheritNamespaceTagName) {
+        return tokenizeXMLExpression(tagName, inheritNamespaceTagName, false);
+    }
+
+    /**
+     * Returns an {@link TokenXMLExpressionIterator} expression, which scans the input using regular expressions
+     * instead of parsing it when lenient, so the input does not have to be well-formed XML.
+     */
+    public static Expression tokenizeXMLExpression(String tagName, String inheritNamespaceTagName, boolean lenient) {
         ObjectHelper.notEmpty(tagName, "tagName");
 
         // must be XML tokens
@@ -1326,7 +1411,7 @@ public final class ExpressionBuilder {
                 inheritNamespaceTagName = inheritNamespaceTagName + ">";
             }
         }
-        return new TokenXMLExpressionIterator(tagName, inheritNamespaceTagName);
+        return new TokenXMLExpressionIterator(tagName, inheritNamespaceTagName, lenient);
     }
 
     public static Expression tokenizeXMLAwareExpression(String path, char mode) {
@@ -2032,12 +2117,23 @@ public final class ExpressionBuilder {
         private final String ognl;
         private final String toStringValue;
         private final KeyedEntityRetrievalStrategy keyedEntityRetrievalStrategy;
+        private final String key;
+        private final OgnlInvoker invoker;
 
         public KeyedOgnlExpressionAdapter(String ognl, String toStringValue, 
                                           KeyedEntityRetrievalStrategy keyedEntityRetrievalStrategy) {
             this.ognl = ognl;
             this.toStringValue = toStringValue;
             this.keyedEntityRetrievalStrategy = keyedEntityRetrievalStrategy;
+
+            // Split ognl except when this is not a Map, Array
+            // and we would like to keep the dots within the key name
+            List<String> methods = OgnlHelper.splitOgnl(ognl);
+
+            // remove any OGNL operators so we got the pure key name
+            this.key = OgnlHelper.removeOperators(methods.get(0));
+            // the remainder is the rest of the ognl without the key
+            this.invoker = new OgnlInvoker(ObjectHelper.after(ognl, key));
         }
 
         public Object evaluate(Exchange exchange) {
@@ -2047,20 +2143,11 @@ public final class ExpressionBuilder {
                 return property;
             }
 
-            // Split ognl except when this is not a Map, Array
-            // and we would like to keep the dots within the key name
-            List<String> methods = OgnlHelper.splitOgnl(ognl);
-
-            // remove any OGNL operators so we got the pure key name
-            String key = OgnlHelper.removeOperators(methods.get(0));
-
             property = keyedEntityRetrievalStrategy.getKeyedEntity(exchange, key);
             if (property == null) {
                 return null;
             }
-            // the remainder is the rest of the ognl without the key
-            String remainder = ObjectHelper.after(ognl, key);
-            return new MethodCallExpression(property, remainder).evaluate(exchange);
+            return invoker.invoke(exchange, property);
         }
 
         @Override
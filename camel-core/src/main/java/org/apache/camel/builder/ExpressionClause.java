@@ -574,6 +574,30 @@ public class ExpressionClause<T> extends ExpressionDefinition {
         return delegate.tokenize(token, headerName, regex);
     }
 
+    /**
+     * Evaluates a token expression on the message body which tokenizes the bytes without decoding them.
+     * This is faster when splitting big files, and the parts are only decoded when converted to String.
+     *
+     * @param token the token
+     * @return the builder to continue processing the DSL
+     */
+    public T tokenizeBinary(String token) {
+        return delegate.tokenizeBinary(token, 0, false);
+    }
+
+    /**
+     * Evaluates a token expression on the message body which tokenizes the bytes without decoding them.
+     * This is faster when splitting big files, and the parts are only decoded when converted to String.
+     *
+     * @param token the token
+     * @param group to group by the given number
+     * @param skipFirst whether to skip the first element
+     * @return the builder to continue processing the DSL
+     */
+    public T tokenizeBinary(String token, int group, boolean skipFirst) {
+        return delegate.tokenizeBinary(token, group, skipFirst);
+    }
+
     /**
      * Evaluates a token pair expression on the message body.
      * <p/>
@@ -667,6 +667,26 @@ public class ExpressionClauseSupport<T> {
         return result;
     }
 
+    /**
+     * Evaluates a token expression on the message body which tokenizes the bytes without decoding them
+     *
+     * @param token the token
+     * @param group to group by the given number, or <tt>0</tt> to not group
+     * @param skipFirst whether to skip the very first element
+     * @return the builder to continue processing the DSL
+     */
+    public T tokenizeBinary(String token, int group, boolean skipFirst) {
+        TokenizerExpression expression = new TokenizerExpression();
+        expression.setToken(token);
+        expression.setBinary(true);
+        if (group > 0) {
+            expression.setGroup(group);
+        }
+        expression.setSkipFirst(skipFirst);
+        setExpressionType(expression);
+        return result;
+    }
+
     /**
      * Evaluates a token pair expression on the message body
      *
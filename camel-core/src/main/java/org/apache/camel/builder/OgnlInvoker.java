@@ -0,0 +1,195 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.builder;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.language.bean.RuntimeBeanExpressionException;
+import org.apache.camel.model.language.MethodCallExpression;
+import org.apache.camel.util.IntrospectionSupport;
+import org.apache.camel.util.OgnlHelper;
+
+/**
+ * Invokes a simple OGNL notation such as <tt>.address.zip</tt> on a value.
+ * <p/>
+ * The OGNL is split into its methods once, and each method which is a plain getter style call is invoked using
+ * a method handle which is resolved once per class of the value it is invoked on. Anything else, such as index
+ * lookups, methods with parameters, or methods which are not unambiguously resolved, continues using the
+ * {@link MethodCallExpression} just as before, from the value where the fast path could not go any further.
+ */
+final class OgnlInvoker {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    // marker for methods which cannot be invoked using the fast path
+    private static final MethodHandle UNRESOLVED = MethodHandles.constant(Object.class, null);
+
+    private final String ognl;
+    private final Step[] steps;
+
+    OgnlInvoker(String ognl) {
+        this.ognl = ognl;
+        this.steps = compile(ognl);
+    }
+
+    /**
+     * Invokes the OGNL on the given value.
+     */
+    Object invoke(Exchange exchange, Object value) {
+        Object result = value;
+        for (int i = 0; i < steps.length; i++) {
+            Step step = steps[i];
+            if (result == null) {
+                // let the regular OGNL invocation report the null value
+                return new MethodCallExpression(value, ognl).evaluate(exchange);
+            }
+
+            MethodHandle handle = step.getHandle(result.getClass());
+            if (handle == UNRESOLVED) {
+                return new MethodCallExpression(result, step.remainder).evaluate(exchange);
+            }
+            try {
+                result = (Object) handle.invokeExact(result);
+            } catch (Throwable e) {
+                throw new RuntimeBeanExpressionException(exchange, null, ognl, e);
+            }
+
+            if (result == null && step.nullSafe) {
+                return null;
+            }
+        }
+        return result;
+    }
+
+    private static Step[] compile(String ognl) {
+        List<String> methods = OgnlHelper.splitOgnl(ognl);
+        List<Step> answer = new ArrayList<Step>(methods.size());
+        StringBuilder remainder = new StringBuilder();
+        for (int i = methods.size() - 1; i >= 0; i--) {
+            String method = methods.get(i);
+            remainder.insert(0, method);
+            answer.add(0, new Step(method, remainder.toString()));
+        }
+        return answer.toArray(new Step[answer.size()]);
+    }
+
+    /**
+     * Resolves the getter style method with the given name, or <tt>null</tt> if it cannot be resolved unambiguously
+     * the same way as the bean component would.
+     */
+    private static Method resolveMethod(Class<?> type, String name) {
+        if (Processor.class.isAssignableFrom(type) || Proxy.isProxyClass(type)) {
+            return null;
+        }
+
+        Method answer = null;
+        int named = 0;
+        List<Method> getters = new ArrayList<Method>(1);
+        for (Method method : type.getMethods()) {
+            if (method.getName().equals(name)) {
+                named++;
+                answer = method;
+            } else if (IntrospectionSupport.isGetter(method) && name.equals(IntrospectionSupport.getGetterShorthandName(method))) {
+                getters.add(method);
+            }
+        }
+        if (named == 0 && getters.size() == 1) {
+            // there must not be any overloaded methods with the name of the getter
+            answer = getters.get(0);
+            for (Method method : type.getMethods()) {
+                if (method != answer && method.getName().equals(answer.getName())) {
+                    return null;
+                }
+            }
+        } else if (named != 1) {
+            return null;
+        }
+
+        if (answer.getParameterTypes().length > 0 || answer.getReturnType() == void.class || answer.isBridge()
+                || Modifier.isStatic(answer.getModifiers()) || Exchange.class.isAssignableFrom(answer.getReturnType())) {
+            return null;
+        }
+        // the methods from java.lang.Object are not invoked by the bean component, except for toString
+        if (!"toString".equals(answer.getName())) {
+            try {
+                Object.class.getMethod(answer.getName());
+                return null;
+            } catch (NoSuchMethodException e) {
+                // not a method from java.lang.Object
+            }
+        }
+        if (!Modifier.isPublic(answer.getDeclaringClass().getModifiers())) {
+            return null;
+        }
+        return answer;
+    }
+
+    /**
+     * A method in the OGNL, with the handles resolved per class of the value it is invoked on.
+     */
+    private static final class Step extends ClassValue<MethodHandle> {
+        private final String remainder;
+        private final boolean nullSafe;
+        private final String name;
+
+        Step(String method, String remainder) {
+            this.remainder = remainder;
+            this.nullSafe = OgnlHelper.isNullSafeOperator(method);
+
+            String name = OgnlHelper.removeLeadingOperators(method);
+            if (name.endsWith("()")) {
+                name = name.substring(0, name.length() - 2);
+            }
+            // only plain method names can be invoked using the fast path
+            for (int i = 0; i < name.length(); i++) {
+                if (i == 0 ? !Character.isJavaIdentifierStart(name.charAt(i)) : !Character.isJavaIdentifierPart(name.charAt(i))) {
+                    name = null;
+                    break;
+                }
+            }
+            this.name = name != null && name.length() > 0 ? name : null;
+        }
+
+        MethodHandle getHandle(Class<?> type) {
+            return name != null ? get(type) : UNRESOLVED;
+        }
+
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+            Method method = resolveMethod(type, name);
+            if (method == null) {
+                return UNRESOLVED;
+            }
+            try {
+                return MethodHandles.publicLookup().unreflect(method).asType(GETTER_TYPE);
+            } catch (IllegalAccessException e) {
+                return UNRESOLVED;
+            } catch (WrongMethodTypeException e) {
+                return UNRESOLVED;
+            }
+        }
+    }
+}
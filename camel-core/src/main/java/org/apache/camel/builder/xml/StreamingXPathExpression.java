@@ -0,0 +1,470 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.builder.xml;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.xml.XMLConstants;
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * An XPath expression within a subset of XPath 1.0 which can be evaluated in a single StAX pass
+ * over the message, without building a DOM.
+ * <p/>
+ * The subset is an absolute location path of child steps, such as <tt>/order/customer</tt>, which may end
+ * with an attribute step <tt>/@type</tt> or a <tt>text()</tt> step, and which may be compared to a string literal
+ * using <tt>=</tt> or <tt>!=</tt>. Each child step is a name test (a qualified name or <tt>*</tt>) with an optional
+ * predicate which is either a position such as <tt>[1]</tt>, or an attribute test such as <tt>[@type]</tt>
+ * or <tt>[@type='gold']</tt>.
+ * <p/>
+ * Use {@link #compile(String, NamespaceContext)} to check whether an expression is within the subset.
+ * <p/>
+ * This implementation is thread safe.
+ */
+final class StreamingXPathExpression {
+
+    private final String text;
+    private final Step[] steps;
+    private final String attributeNamespaceURI;
+    private final String attributeLocalName;
+    private final boolean textNode;
+    private final String literal;
+    private final boolean notEquals;
+
+    private StreamingXPathExpression(String text, Step[] steps, String attributeNamespaceURI, String attributeLocalName,
+                                     boolean textNode, String literal, boolean notEquals) {
+        this.text = text;
+        this.steps = steps;
+        this.attributeNamespaceURI = attributeNamespaceURI;
+        this.attributeLocalName = attributeLocalName;
+        this.textNode = textNode;
+        this.literal = literal;
+        this.notEquals = notEquals;
+    }
+
+    /**
+     * Compiles the expression if its within the subset which can be evaluated by streaming.
+     *
+     * @param text             the xpath expression
+     * @param namespaceContext the namespace context to resolve prefixes
+     * @return the compiled expression, or <tt>null</tt> if the expression must be evaluated by the XPath engine
+     */
+    static StreamingXPathExpression compile(String text, NamespaceContext namespaceContext) {
+        if (text == null) {
+            return null;
+        }
+        return new Parser(text.trim(), namespaceContext).parse();
+    }
+
+    /**
+     * Evaluates the expression as a boolean.
+     *
+     * @param reader    the reader positioned at the start of the document
+     * @param earlyExit whether to stop reading as soon as the result is known, or to read until the end of
+     *                  the document to ensure its well formed
+     */
+    boolean matches(XMLStreamReader reader, boolean earlyExit) throws XMLStreamException {
+        return find(reader, literal != null, earlyExit) != null;
+    }
+
+    /**
+     * Evaluates the expression as a string, which is the string value of the first node found, or the
+     * result of the comparison.
+     *
+     * @param reader    the reader positioned at the start of the document
+     * @param earlyExit whether to stop reading as soon as the result is known, or to read until the end of
+     *                  the document to ensure its well formed
+     */
+    String evaluateAsString(XMLStreamReader reader, boolean earlyExit) throws XMLStreamException {
+        if (literal != null) {
+            return String.valueOf(matches(reader, earlyExit));
+        }
+        String answer = find(reader, false, earlyExit);
+        return answer != null ? answer : "";
+    }
+
+    /**
+     * Finds the string value of the first node selected by the location path.
+     *
+     * @param compare whether the node must also satisfy the comparison with the literal
+     * @return the string value, or <tt>null</tt> if no node was found
+     */
+    private String find(XMLStreamReader reader, boolean compare, boolean earlyExit) throws XMLStreamException {
+        String answer = doFind(reader, compare);
+        if (!earlyExit) {
+            while (reader.hasNext()) {
+                reader.next();
+            }
+        }
+        return answer;
+    }
+
+    private String doFind(XMLStreamReader reader, boolean compare) throws XMLStreamException {
+        final int last = steps.length;
+        // the number of matching children seen per depth, to evaluate positional predicates
+        final int[] positions = new int[last + 1];
+        // the current depth, and the depth of the deepest element which matches the location path so far
+        int depth = 0;
+        int matched = 0;
+        // the string value being collected when an element or text node is selected
+        StringBuilder value = null;
+
+        while (reader.hasNext()) {
+            int event = reader.next();
+            switch (event) {
+            case XMLStreamConstants.START_ELEMENT:
+                depth++;
+                if (value != null && textNode) {
+                    // a child element ends the text node
+                    String answer = accept(value, compare);
+                    if (answer != null) {
+                        return answer;
+                    }
+                    value = null;
+                }
+                if (matched == depth - 1 && depth <= last) {
+                    Step step = steps[depth - 1];
+                    if (step.matches(reader, positions, depth)) {
+                        matched = depth;
+                        if (depth < last) {
+                            positions[depth + 1] = 0;
+                        } else if (attributeLocalName != null) {
+                            String attribute = getAttributeValue(reader, attributeNamespaceURI, attributeLocalName);
+                            if (attribute != null) {
+                                String answer = accept(attribute, compare);
+                                if (answer != null) {
+                                    return answer;
+                                }
+                            }
+                        } else if (!textNode) {
+                            value = new StringBuilder();
+                        }
+                    } else if (depth == 1) {
+                        // the root element does not match so nothing can be selected
+                        return null;
+                    }
+                }
+                break;
+            case XMLStreamConstants.END_ELEMENT:
+                if (matched == last && depth == last && value != null) {
+                    // the selected element (or its text node) is complete
+                    String answer = accept(value, compare);
+                    if (answer != null) {
+                        return answer;
+                    }
+                    value = null;
+                }
+                if (matched == depth) {
+                    matched--;
+                    if (matched == 0) {
+                        // the root element is complete
+                        return null;
+                    }
+                }
+                depth--;
+                break;
+            case XMLStreamConstants.CHARACTERS:
+            case XMLStreamConstants.CDATA:
+            case XMLStreamConstants.SPACE:
+            case XMLStreamConstants.ENTITY_REFERENCE:
+                if (matched == last && attributeLocalName == null) {
+                    if (textNode) {
+                        if (depth == last) {
+                            if (value == null) {
+                                value = new StringBuilder();
+                            }
+                            value.append(reader.getText());
+                        }
+                    } else if (value != null) {
+                        value.append(reader.getText());
+                    }
+                }
+                break;
+            case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                if (value != null && textNode) {
+                    // processing instructions separate text nodes, whereas comments are ignored as when building a DOM
+                    String answer = accept(value, compare);
+                    if (answer != null) {
+                        return answer;
+                    }
+                    value = null;
+                }
+                break;
+            default:
+                break;
+            }
+        }
+        return null;
+    }
+
+    private String accept(CharSequence value, boolean compare) {
+        String answer = value.toString();
+        if (compare && literal.equals(answer) == notEquals) {
+            return null;
+        }
+        return answer;
+    }
+
+    private static String getAttributeValue(XMLStreamReader reader, String namespaceURI, String localName) {
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            if (localName.equals(reader.getAttributeLocalName(i))
+                    && namespaceURI.equals(emptyIfNull(reader.getAttributeNamespace(i)))) {
+                return reader.getAttributeValue(i);
+            }
+        }
+        return null;
+    }
+
+    private static String emptyIfNull(String namespaceURI) {
+        return namespaceURI != null ? namespaceURI : XMLConstants.NULL_NS_URI;
+    }
+
+    @Override
+    public String toString() {
+        return "StreamingXPath: " + text;
+    }
+
+    /**
+     * A child step with an optional predicate.
+     */
+    private static final class Step {
+        // null matches any element
+        private final String namespaceURI;
+        private final String localName;
+        // zero when there is no positional predicate
+        private final int position;
+        private final String attributeNamespaceURI;
+        private final String attributeLocalName;
+        private final String attributeValue;
+
+        Step(String namespaceURI, String localName, int position,
+             String attributeNamespaceURI, String attributeLocalName, String attributeValue) {
+            this.namespaceURI = namespaceURI;
+            this.localName = localName;
+            this.position = position;
+            this.attributeNamespaceURI = attributeNamespaceURI;
+            this.attributeLocalName = attributeLocalName;
+            this.attributeValue = attributeValue;
+        }
+
+        boolean matches(XMLStreamReader reader, int[] positions, int depth) {
+            if (localName != null && (!localName.equals(reader.getLocalName())
+                    || !namespaceURI.equals(emptyIfNull(reader.getNamespaceURI())))) {
+                return false;
+            }
+            if (position > 0) {
+                return ++positions[depth] == position;
+            }
+            if (attributeLocalName != null) {
+                String value = getAttributeValue(reader, attributeNamespaceURI, attributeLocalName);
+                return value != null && (attributeValue == null || attributeValue.equals(value));
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Parses the expression, returning <tt>null</tt> as soon as it leaves the supported subset.
+     */
+    private static final class Parser {
+        private final String text;
+        private final NamespaceContext namespaceContext;
+        private int index;
+
+        Parser(String text, NamespaceContext namespaceContext) {
+            this.text = text;
+            this.namespaceContext = namespaceContext;
+        }
+
+        StreamingXPathExpression parse() {
+            List<Step> steps = new ArrayList<Step>();
+            String[] attribute = null;
+            boolean textNode = false;
+
+            while (attribute == null && !textNode && consume('/')) {
+                skipWhitespace();
+                if (consume('@')) {
+                    attribute = parseQName();
+                    if (attribute == null) {
+                        return null;
+                    }
+                } else if (text.startsWith("text()", index)) {
+                    index += 6;
+                    textNode = true;
+                } else {
+                    Step step = parseStep();
+                    if (step == null) {
+                        return null;
+                    }
+                    steps.add(step);
+                }
+                skipWhitespace();
+            }
+            if (steps.isEmpty()) {
+                return null;
+            }
+
+            String literal = null;
+            boolean notEquals = false;
+            if (index < text.length()) {
+                notEquals = consume('!');
+                if (!consume('=')) {
+                    return null;
+                }
+                skipWhitespace();
+                literal = parseLiteral();
+                skipWhitespace();
+                if (literal == null || index < text.length()) {
+                    return null;
+                }
+            }
+
+            return new StreamingXPathExpression(text, steps.toArray(new Step[steps.size()]),
+                    attribute != null ? attribute[0] : null, attribute != null ? attribute[1] : null,
+                    textNode, literal, notEquals);
+        }
+
+        private Step parseStep() {
+            String[] name = null;
+            if (!consume('*')) {
+                name = parseQName();
+                if (name == null) {
+                    return null;
+                }
+            }
+            skipWhitespace();
+            if (!consume('[')) {
+                return new Step(name != null ? name[0] : null, name != null ? name[1] : null, 0, null, null, null);
+            }
+            skipWhitespace();
+
+            int position = 0;
+            String[] attribute = null;
+            String attributeValue = null;
+            if (consume('@')) {
+                attribute = parseQName();
+                if (attribute == null) {
+                    return null;
+                }
+                skipWhitespace();
+                if (consume('=')) {
+                    skipWhitespace();
+                    attributeValue = parseLiteral();
+                    if (attributeValue == null) {
+                        return null;
+                    }
+                }
+            } else {
+                int start = index;
+                while (index < text.length() && text.charAt(index) >= '0' && text.charAt(index) <= '9') {
+                    index++;
+                }
+                if (index == start || index - start > 9) {
+                    return null;
+                }
+                position = Integer.parseInt(text.substring(start, index));
+                if (position == 0) {
+                    return null;
+                }
+            }
+            skipWhitespace();
+            if (!consume(']')) {
+                return null;
+            }
+            return new Step(name != null ? name[0] : null, name != null ? name[1] : null, position,
+                    attribute != null ? attribute[0] : null, attribute != null ? attribute[1] : null, attributeValue);
+        }
+
+        /**
+         * Parses a qualified name into its namespace uri and local name.
+         */
+        private String[] parseQName() {
+            String name = parseNCName();
+            if (name == null) {
+                return null;
+            }
+            String namespaceURI = XMLConstants.NULL_NS_URI;
+            if (consume(':')) {
+                String localName = parseNCName();
+                if (localName == null || namespaceContext == null) {
+                    return null;
+                }
+                namespaceURI = namespaceContext.getNamespaceURI(name);
+                if (namespaceURI == null || namespaceURI.length() == 0) {
+                    // let the XPath engine report the unknown prefix
+                    return null;
+                }
+                name = localName;
+            }
+            // a name followed by a parenthesis is a function call or node type test
+            if (index < text.length() && text.charAt(index) == '(') {
+                return null;
+            }
+            return new String[]{namespaceURI, name};
+        }
+
+        private String parseNCName() {
+            int start = index;
+            if (index < text.length() && (Character.isLetter(text.charAt(index)) || text.charAt(index) == '_')) {
+                index++;
+                while (index < text.length()) {
+                    char ch = text.charAt(index);
+                    if (Character.isLetterOrDigit(ch) || ch == '_' || ch == '-' || ch == '.') {
+                        index++;
+                    } else {
+                        break;
+                    }
+                }
+            }
+            return index > start ? text.substring(start, index) : null;
+        }
+
+        private String parseLiteral() {
+            if (index >= text.length()) {
+                return null;
+            }
+            char quote = text.charAt(index);
+            if (quote != '\'' && quote != '"') {
+                return null;
+            }
+            int end = text.indexOf(quote, index + 1);
+            if (end == -1) {
+                return null;
+            }
+            String answer = text.substring(index + 1, end);
+            index = end + 1;
+            return answer;
+        }
+
+        private boolean consume(char ch) {
+            if (index < text.length() && text.charAt(index) == ch) {
+                index++;
+                return true;
+            }
+            return false;
+        }
+
+        private void skipWhitespace() {
+            while (index < text.length() && Character.isWhitespace(text.charAt(index))) {
+                index++;
+            }
+        }
+    }
+}
@@ -27,6 +27,8 @@ import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
@@ -50,6 +52,7 @@ import org.apache.camel.NoTypeConversionAvailableException;
 import org.apache.camel.Predicate;
 import org.apache.camel.RuntimeExpressionException;
 import org.apache.camel.WrappedFile;
+import org.apache.camel.converter.jaxp.StaxConverter;
 import org.apache.camel.impl.DefaultExchange;
 import org.apache.camel.spi.Language;
 import org.apache.camel.spi.NamespaceAware;
@@ -113,6 +116,11 @@ public class XPathBuilder extends ServiceSupport implements Expression, Predicat
     private volatile XPathFunction outHeaderFunction;
     private volatile XPathFunction propertiesFunction;
     private volatile XPathFunction simpleFunction;
+    private volatile boolean streaming;
+    private volatile boolean streamingEarlyExit;
+    private volatile StreamingXPathExpression streamingExpression;
+    private volatile boolean streamingExpressionCompiled;
+    private final StaxConverter staxConverter = new StaxConverter();
     /**
      * The name of the header we want to apply the XPath expression to, which when set will cause
      * the xpath to be evaluated on the required header, otherwise it will be applied to the body
@@ -433,6 +441,20 @@ public class XPathBuilder extends ServiceSupport implements Expression, Predicat
         return this;
     }
 
+    /**
+     * Enables evaluating boolean and string results of simple location paths by streaming the message,
+     * instead of building a DOM.
+     * <p/>
+     * This feature is disabled by default.
+     *
+     * @return the current builder.
+     * @see #setStreaming(boolean)
+     */
+    public XPathBuilder streaming() {
+        setStreaming(true);
+        return this;
+    }
+
     // Properties
     // -------------------------------------------------------------------------
 
@@ -743,6 +765,36 @@ public class XPathBuilder extends ServiceSupport implements Expression, Predicat
         this.objectModelUri = objectModelUri;
     }
 
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    /**
+     * Whether to evaluate boolean and string results by streaming the message using StAX, instead of
+     * building a DOM, when the expression is a simple location path such as <tt>/order/customer/@type = 'gold'</tt>.
+     * <p/>
+     * Is default <tt>false</tt>. Other expressions are always evaluated by the XPath engine, and so are all
+     * expressions when a custom XPath factory, object model (such as Saxon) or function resolver is configured,
+     * as the streaming evaluation only has the XPath semantics of the JDK.
+     */
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    public boolean isStreamingEarlyExit() {
+        return streamingEarlyExit;
+    }
+
+    /**
+     * Whether the streaming evaluation should stop reading the message as soon as the result is known.
+     * <p/>
+     * Is default <tt>false</tt>, which reads the rest of the message to ensure its well formed, as when
+     * building a DOM. Enabling this avoids parsing the remainder of large messages.
+     */
+    public void setStreamingEarlyExit(boolean streamingEarlyExit) {
+        this.streamingEarlyExit = streamingEarlyExit;
+    }
+
     // Implementation methods
     // -------------------------------------------------------------------------
 
@@ -758,6 +810,18 @@ public class XPathBuilder extends ServiceSupport implements Expression, Predicat
      * Evaluates the expression as the given result type
      */
     protected Object evaluateAs(Exchange exchange, QName resultQName) {
+        // simple location paths can be evaluated by streaming the message without building a DOM
+        if (streaming && !logNamespaces
+                && (XPathConstants.BOOLEAN.equals(resultQName) || XPathConstants.STRING.equals(resultQName))) {
+            StreamingXPathExpression streamingExpression = getStreamingExpression();
+            if (streamingExpression != null) {
+                Object answer = doInEvaluateStreaming(streamingExpression, exchange, resultQName);
+                if (answer != null) {
+                    return answer;
+                }
+            }
+        }
+
         // pool a pre compiled expression from pool
         XPathExpression xpathExpression = pool.poll();
         if (xpathExpression == null) {
@@ -925,6 +989,94 @@ public class XPathBuilder extends ServiceSupport implements Expression, Predicat
         return answer;
     }
 
+    /**
+     * Evaluates the expression by streaming the message.
+     *
+     * @return the result, or <tt>null</tt> if the message cannot be streamed and the XPath engine must be used
+     */
+    private Object doInEvaluateStreaming(StreamingXPathExpression expression, Exchange exchange, QName resultQName) {
+        String headerName = getHeaderName();
+        boolean header = ObjectHelper.isNotEmpty(headerName);
+        Object obj = header ? exchange.getIn().getHeader(headerName) : exchange.getIn().getBody();
+        if (!isStreamingSupportedForObject(exchange, obj)) {
+            return null;
+        }
+
+        LOG.trace("Evaluating exchange: {} as: {} using streaming", exchange, resultQName);
+
+        Object answer = null;
+        InputStream is = null;
+        XMLStreamReader reader = null;
+        try {
+            if (obj instanceof String) {
+                reader = staxConverter.createXMLStreamReader((String) obj);
+            } else {
+                is = header ? exchange.getIn().getHeader(headerName, InputStream.class) : exchange.getIn().getBody(InputStream.class);
+                if (is != null) {
+                    reader = staxConverter.createXMLStreamReader(is, exchange);
+                }
+            }
+            if (reader != null) {
+                if (XPathConstants.BOOLEAN.equals(resultQName)) {
+                    answer = expression.matches(reader, streamingEarlyExit);
+                } else {
+                    answer = expression.evaluateAsString(reader, streamingEarlyExit);
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw ObjectHelper.wrapRuntimeCamelException(e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    LOG.trace("Error closing XMLStreamReader. This exception will be ignored.", e);
+                }
+            }
+            // leave the message content open, as when building a DOM from it
+            if (is != obj) {
+                IOHelper.close(is);
+            }
+            MessageHelper.resetStreamCache(exchange.getIn());
+        }
+
+        if (LOG.isTraceEnabled()) {
+            LOG.trace("Done evaluating exchange: {} as: {} with result: {}", new Object[]{exchange, resultQName, answer});
+        }
+        return answer;
+    }
+
+    private StreamingXPathExpression getStreamingExpression() {
+        if (!streamingExpressionCompiled) {
+            createStreamingXPathExpression();
+        }
+        return streamingExpression;
+    }
+
+    /**
+     * Compiles the expression for streaming, if its within the supported subset.
+     * <p/>
+     * This implementation must be synchronized as the namespace context is created when starting.
+     */
+    private synchronized void createStreamingXPathExpression() {
+        if (streamingExpressionCompiled) {
+            return;
+        }
+        // ensure we are started
+        try {
+            start();
+        } catch (Exception e) {
+            throw new RuntimeExpressionException("Error starting XPathBuilder", e);
+        }
+
+        // the default factory has been assigned when started, unless a custom factory or object model is used
+        if (xpathFactory == defaultXPathFactory && objectModelUri == null && functionResolver == null) {
+            streamingExpression = StreamingXPathExpression.compile(text, getNamespaceContext());
+        }
+        streamingExpressionCompiled = true;
+        LOG.debug("XPath expression: {} can be evaluated using streaming: {}", text, streamingExpression != null);
+    }
+
     /**
      * Creates a new xpath expression as there we no available in the pool.
      * <p/>
@@ -1086,6 +1238,27 @@ public class XPathBuilder extends ServiceSupport implements Expression, Predicat
         return false;
     }
 
+    /**
+     * Checks whether the object can be streamed using StAX to evaluate the expression.
+     * <p/>
+     * Only XML content such as {@link String}, byte arrays, {@link InputStream} and {@link File} is streamed, and only
+     * when using the default document type, as otherwise the object is converted to the configured document type.
+     *
+     * @param exchange the current exchange
+     * @return <tt>true</tt> to stream the object, <tt>false</tt> to use the XPath engine
+     */
+    protected boolean isStreamingSupportedForObject(Exchange exchange, Object obj) {
+        Class<?> type = getDocumentType();
+        if (type != Document.class && type != InputSource.class) {
+            return false;
+        }
+
+        if (obj instanceof WrappedFile) {
+            obj = ((WrappedFile<?>) obj).getFile();
+        }
+        return obj instanceof String || obj instanceof byte[] || obj instanceof InputStream || obj instanceof File;
+    }
+
     /**
      * Strategy method to extract the document from the exchange.
      */
@@ -1175,6 +1348,8 @@ public class XPathBuilder extends ServiceSupport implements Expression, Predicat
     public void doStop() throws Exception {
         pool.clear();
         poolLogNamespaces.clear();
+        streamingExpression = null;
+        streamingExpressionCompiled = false;
     }
 
     protected synchronized XPathFactory createXPathFactory() throws XPathFactoryConfigurationException {
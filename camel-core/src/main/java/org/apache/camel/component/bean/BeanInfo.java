@@ -31,6 +31,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.camel.Attachments;
 import org.apache.camel.Body;
@@ -51,6 +52,7 @@ import org.apache.camel.language.LanguageAnnotation;
 import org.apache.camel.spi.Registry;
 import org.apache.camel.util.CastUtils;
 import org.apache.camel.util.IntrospectionSupport;
+import org.apache.camel.util.LRUCache;
 import org.apache.camel.util.ObjectHelper;
 import org.apache.camel.util.StringQuoteHelper;
 import org.slf4j.Logger;
@@ -76,6 +78,8 @@ public class BeanInfo {
     private List<MethodInfo> operationsWithCustomAnnotation = new ArrayList<MethodInfo>();
     private List<MethodInfo> operationsWithHandlerAnnotation = new ArrayList<MethodInfo>();
     private Map<Method, MethodInfo> methodMap = new HashMap<Method, MethodInfo>();
+    // the methods chosen per type of message body, which is only created by the bean info added to the cache and shared from there
+    private LRUCache<MethodChoiceKey, MethodInfo> chosenMethods;
 
     static {
         // exclude all java.lang.Object methods as we dont want to invoke them
@@ -122,6 +126,7 @@ public class BeanInfo {
             operationsWithCustomAnnotation = beanInfo.operationsWithCustomAnnotation;
             operationsWithHandlerAnnotation = beanInfo.operationsWithHandlerAnnotation;
             methodMap = beanInfo.methodMap;
+            chosenMethods = beanInfo.chosenMethods;
             return;
         }
 
@@ -153,6 +158,7 @@ public class BeanInfo {
         operationsWithCustomAnnotation = Collections.unmodifiableList(operationsWithCustomAnnotation);
         operationsWithHandlerAnnotation = Collections.unmodifiableList(operationsWithHandlerAnnotation);
         methodMap = Collections.unmodifiableMap(methodMap);
+        chosenMethods = new LRUCache<MethodChoiceKey, MethodInfo>(16, 1000);
 
         // add new bean info to cache
         component.addBeanInfoToCache(key, this);
@@ -251,7 +257,7 @@ public class BeanInfo {
 
                     // but first let's try to choose a method and see if that complies with the name
                     // must use the method name which may have qualifiers
-                    methodInfo = chooseMethod(pojo, exchange, methodName);
+                    methodInfo = chooseMethodCached(pojo, exchange, methodName);
 
                     // validate that if we want an explicit no-arg method, then that's what we get
                     if (emptyParameters) {
@@ -273,7 +279,7 @@ public class BeanInfo {
 
         if (methodInfo == null) {
             // no name or type
-            methodInfo = chooseMethod(pojo, exchange, null);
+            methodInfo = chooseMethodCached(pojo, exchange, null);
         }
         if (methodInfo == null) {
             methodInfo = defaultMethod;
@@ -287,6 +293,36 @@ public class BeanInfo {
         return null;
     }
 
+    /**
+     * Chooses the method to invoke, reusing the method chosen before for the same type of message body.
+     *
+     * @see #chooseMethod(Object, org.apache.camel.Exchange, String)
+     */
+    private MethodInfo chooseMethodCached(Object pojo, Exchange exchange, String name) throws AmbiguousMethodCallException {
+        Object body = exchange.getIn().getBody();
+        if (body == null || chosenMethods == null) {
+            // a null body has no type to remember the chosen method by
+            return chooseMethod(pojo, exchange, name, null);
+        }
+        boolean exception = exchange.getException() != null || exchange.getProperty(Exchange.EXCEPTION_CAUGHT) != null;
+        // besides the name and type of body, the chosen method depends on the exchange pattern and whether there is an exception
+        MethodChoiceKey key = new MethodChoiceKey(name, body.getClass(), exchange.getPattern().isOutCapable(), exception);
+
+        MethodInfo answer = chosenMethods.get(key);
+        if (answer != null) {
+            LOG.trace("Using previously chosen method: {} for: {}", answer, key);
+            return answer;
+        }
+
+        AtomicBoolean chosenByValue = new AtomicBoolean();
+        answer = chooseMethod(pojo, exchange, name, chosenByValue);
+        // only remember the method if it was chosen by the type of the body, as converting the body depends on its value
+        if (answer != null && !chosenByValue.get()) {
+            chosenMethods.put(key, answer);
+        }
+        return answer;
+    }
+
     /**
      * Introspects the given class
      *
@@ -545,6 +581,16 @@ public class BeanInfo {
      * @throws AmbiguousMethodCallException is thrown if cannot choose method due to ambiguity
      */
     protected MethodInfo chooseMethod(Object pojo, Exchange exchange, String name) throws AmbiguousMethodCallException {
+        return chooseMethod(pojo, exchange, name, null);
+    }
+
+    /**
+     * Chooses the method to invoke.
+     *
+     * @param chosenByValue optional flag which is set if the method could not be chosen by the type of the message body alone,
+     *                      but depended on whether its value could be converted
+     */
+    private MethodInfo chooseMethod(Object pojo, Exchange exchange, String name, AtomicBoolean chosenByValue) throws AmbiguousMethodCallException {
         // @Handler should be select first
         // then any single method that has a custom @annotation
         // or any single method that has a match parameter type that matches the Exchange payload
@@ -618,7 +664,7 @@ public class BeanInfo {
             }
             if (answer == null) {
                 // multiple possible operations so find the best suited if possible
-                answer = chooseMethodWithMatchingBody(exchange, possibleOperations, localOperationsWithCustomAnnotation);
+                answer = chooseMethodWithMatchingBody(exchange, possibleOperations, localOperationsWithCustomAnnotation, chosenByValue);
             }
             if (answer == null && possibleOperations.size() > 1) {
                 answer = getSingleCovariantMethod(possibleOperations);
@@ -726,7 +772,7 @@ public class BeanInfo {
     }
 
     private MethodInfo chooseMethodWithMatchingBody(Exchange exchange, Collection<MethodInfo> operationList,
-                                                    List<MethodInfo> operationsWithCustomAnnotation)
+                                                    List<MethodInfo> operationsWithCustomAnnotation, AtomicBoolean chosenByValue)
         throws AmbiguousMethodCallException {
         // see if we can find a method whose body param type matches the message body
         Message in = exchange.getIn();
@@ -761,7 +807,7 @@ public class BeanInfo {
             }
 
             // find best suited method to use
-            return chooseBestPossibleMethodInfo(exchange, operationList, body, possibles, possiblesWithException, operationsWithCustomAnnotation);
+            return chooseBestPossibleMethodInfo(exchange, operationList, body, possibles, possiblesWithException, operationsWithCustomAnnotation, chosenByValue);
         }
 
         // no match so return null
@@ -770,7 +816,7 @@ public class BeanInfo {
 
     private MethodInfo chooseBestPossibleMethodInfo(Exchange exchange, Collection<MethodInfo> operationList, Object body,
                                                     List<MethodInfo> possibles, List<MethodInfo> possiblesWithException,
-                                                    List<MethodInfo> possibleWithCustomAnnotation)
+                                                    List<MethodInfo> possibleWithCustomAnnotation, AtomicBoolean chosenByValue)
         throws AmbiguousMethodCallException {
 
         Exception exception = ExpressionBuilder.exchangeExceptionExpression().evaluate(exchange, Exception.class);
@@ -782,6 +828,9 @@ public class BeanInfo {
             return possibles.get(0);
         } else if (possibles.isEmpty()) {
             LOG.trace("No possible methods so now trying to convert body to parameter types");
+            if (chosenByValue != null) {
+                chosenByValue.set(true);
+            }
 
             // let's try converting
             Object newBody = null;
@@ -1200,4 +1249,47 @@ public class BeanInfo {
         return null;
     }
 
+    /**
+     * Key for the methods chosen per type of message body
+     */
+    private static final class MethodChoiceKey {
+        private final String name;
+        private final Class<?> bodyType;
+        private final boolean outCapable;
+        private final boolean exception;
+
+        private MethodChoiceKey(String name, Class<?> bodyType, boolean outCapable, boolean exception) {
+            this.name = name;
+            this.bodyType = bodyType;
+            this.outCapable = outCapable;
+            this.exception = exception;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof MethodChoiceKey)) {
+                return false;
+            }
+            MethodChoiceKey that = (MethodChoiceKey) o;
+            return outCapable == that.outCapable && exception == that.exception && bodyType == that.bodyType
+                    && (name != null ? name.equals(that.name) : that.name == null);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = name != null ? name.hashCode() : 0;
+            result = 31 * result + (bodyType != null ? bodyType.hashCode() : 0);
+            result = 31 * result + (outCapable ? 1 : 0);
+            result = 31 * result + (exception ? 1 : 0);
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "MethodChoiceKey[name=" + name + ", bodyType=" + bodyType + ", outCapable=" + outCapable + ", exception=" + exception + "]";
+        }
+    }
 }
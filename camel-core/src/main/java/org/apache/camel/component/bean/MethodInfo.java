@@ -17,6 +17,9 @@
 package org.apache.camel.component.bean;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.InvocationTargetException;
@@ -62,6 +65,9 @@ import static org.apache.camel.util.ObjectHelper.asString;
  */
 public class MethodInfo {
     private static final Logger LOG = LoggerFactory.getLogger(MethodInfo.class);
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+    // marker for methods which cannot be invoked using a method handle
+    private static final MethodHandle UNRESOLVED = MethodHandles.constant(Object.class, null);
 
     private CamelContext camelContext;
     private Class<?> type;
@@ -75,6 +81,9 @@ public class MethodInfo {
     private RecipientList recipientList;
     private RoutingSlip routingSlip;
     private DynamicRouter dynamicRouter;
+    private volatile MethodHandle methodHandle;
+    private Class<?>[] parameterTypes;
+    private Class<?>[] boxedParameterTypes;
 
     /**
      * Adapter to invoke the method which has been annotated with the @DynamicRouter
@@ -404,6 +413,18 @@ public class MethodInfo {
     }
 
     protected Object invoke(Method mth, Object pojo, Object[] arguments, Exchange exchange) throws InvocationTargetException {
+        if (mth == method) {
+            MethodHandle handle = getMethodHandle();
+            if (handle != UNRESOLVED && isApplicable(pojo, arguments)) {
+                try {
+                    return (Object) handle.invokeExact(pojo, arguments);
+                } catch (Throwable e) {
+                    // wrap the exception thrown by the method the same way as reflection does
+                    throw new InvocationTargetException(e);
+                }
+            }
+        }
+
         try {
             return mth.invoke(pojo, arguments);
         } catch (IllegalAccessException e) {
@@ -413,6 +434,62 @@ public class MethodInfo {
         }
     }
 
+    /**
+     * Gets the method handle to invoke the method, which is resolved on first use, as the handle is much faster
+     * to invoke than using reflection.
+     *
+     * @return the handle which takes the bean and the arguments as an array, or {@link #UNRESOLVED} if the method
+     * cannot be invoked using a method handle
+     */
+    private MethodHandle getMethodHandle() {
+        MethodHandle answer = methodHandle;
+        if (answer == null) {
+            Class<?>[] types = method.getParameterTypes();
+            Class<?>[] boxed = new Class<?>[types.length];
+            for (int i = 0; i < types.length; i++) {
+                boxed[i] = ObjectHelper.convertPrimitiveTypeToWrapperType(types[i]);
+            }
+            parameterTypes = types;
+            boxedParameterTypes = boxed;
+            try {
+                answer = MethodHandles.publicLookup().unreflect(method).asFixedArity();
+                answer = answer.asType(answer.type().generic()).asSpreader(Object[].class, types.length);
+                if (isStaticMethod()) {
+                    // static methods has no bean to invoke the method on
+                    answer = MethodHandles.dropArguments(answer, 0, Object.class);
+                }
+                answer = answer.asType(INVOKER_TYPE);
+            } catch (IllegalAccessException e) {
+                // for example public methods on a class which is not public
+                LOG.trace("Cannot use method handle for method: {} due {}", method, e.getMessage());
+                answer = UNRESOLVED;
+            }
+            methodHandle = answer;
+        }
+        return answer;
+    }
+
+    /**
+     * Whether the arguments can be passed to the method handle as-is. Otherwise reflection is used, which can widen
+     * primitive values and reports invalid arguments the same way as before.
+     */
+    private boolean isApplicable(Object pojo, Object[] arguments) {
+        Class<?>[] types = boxedParameterTypes;
+        if (arguments == null || arguments.length != types.length) {
+            return false;
+        }
+        if (!isStaticMethod() && !method.getDeclaringClass().isInstance(pojo)) {
+            return false;
+        }
+        for (int i = 0; i < types.length; i++) {
+            Object argument = arguments[i];
+            if (argument == null ? parameterTypes[i].isPrimitive() : !types[i].isInstance(argument)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     protected Expression[] createParameterExpressions() {
         final int size = parameters.size();
         LOG.trace("Creating parameters expression for {} parameters", size);
@@ -112,40 +112,7 @@ public class FileConsumer extends GenericFileConsumer<File> {
                 if (depth >= endpoint.minDepth && isValidFile(gf, false, files)) {
                     log.trace("Adding valid file: {}", file);
                     // matched file so add
-                    if (extendedAttributes != null) {
-                        Path path = file.toPath();
-                        Map<String, Object> allAttributes = new HashMap<>();
-                        for (String attribute : extendedAttributes) {
-                            try {
-                                String prefix = null;
-                                if (attribute.endsWith(":*")) {
-                                    prefix = attribute.substring(0, attribute.length() - 1);
-                                } else if (attribute.equals("*")) {
-                                    prefix = "basic:";
-                                }
-
-                                if (ObjectHelper.isNotEmpty(prefix)) {
-                                    Map<String, Object> attributes = Files.readAttributes(path, attribute);
-                                    if (attributes != null) {
-                                        for (Map.Entry<String, Object> entry : attributes.entrySet()) {
-                                            allAttributes.put(prefix + entry.getKey(), entry.getValue());
-                                        }
-                                    }
-                                } else if (!attribute.contains(":")) {
-                                    allAttributes.put("basic:" + attribute, Files.getAttribute(path, attribute));
-                                } else {
-                                    allAttributes.put(attribute, Files.getAttribute(path, attribute));
-                                }
-                            } catch (IOException e) {
-                                if (log.isDebugEnabled()) {
-                                    log.debug("Unable to read attribute {} on file {}", attribute, file, e);
-                                }
-                            }
-                        }
-
-                        gf.setExtendedAttributes(allAttributes);
-                    }
-
+                    populateExtendedAttributes(gf);
                     fileList.add(gf);
                 }
 
@@ -155,6 +122,50 @@ public class FileConsumer extends GenericFileConsumer<File> {
         return true;
     }
 
+    /**
+     * Reads the configured extended attributes of the file (if any) and stores them on the given file.
+     *
+     * @param gf the file
+     */
+    protected void populateExtendedAttributes(GenericFile<File> gf) {
+        if (extendedAttributes == null) {
+            return;
+        }
+
+        File file = gf.getFile();
+        Path path = file.toPath();
+        Map<String, Object> allAttributes = new HashMap<>();
+        for (String attribute : extendedAttributes) {
+            try {
+                String prefix = null;
+                if (attribute.endsWith(":*")) {
+                    prefix = attribute.substring(0, attribute.length() - 1);
+                } else if (attribute.equals("*")) {
+                    prefix = "basic:";
+                }
+
+                if (ObjectHelper.isNotEmpty(prefix)) {
+                    Map<String, Object> attributes = Files.readAttributes(path, attribute);
+                    if (attributes != null) {
+                        for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+                            allAttributes.put(prefix + entry.getKey(), entry.getValue());
+                        }
+                    }
+                } else if (!attribute.contains(":")) {
+                    allAttributes.put("basic:" + attribute, Files.getAttribute(path, attribute));
+                } else {
+                    allAttributes.put(attribute, Files.getAttribute(path, attribute));
+                }
+            } catch (IOException e) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Unable to read attribute {} on file {}", attribute, file, e);
+                }
+            }
+        }
+
+        gf.setExtendedAttributes(allAttributes);
+    }
+
     @Override
     protected boolean isMatched(GenericFile<File> file, String doneFileName, List<File> files) {
         String onlyName = FileUtil.stripPath(doneFileName);
@@ -59,6 +59,10 @@ public class FileEndpoint extends GenericFileEndpoint<File> {
     private boolean probeContentType;
     @UriParam(label = "consumer,advanced")
     private String extendedAttributes;
+    @UriParam(label = "consumer,advanced")
+    private boolean watchDirectory;
+    @UriParam(label = "consumer,advanced", defaultValue = "60000")
+    private long watchReconcileInterval = 60000;
     @UriParam(label = "producer,advanced")
     private String chmod;
     @UriParam(label = "producer,advanced")
@@ -153,6 +157,9 @@ public class FileEndpoint extends GenericFileEndpoint<File> {
      * @return the created consumer
      */
     protected FileConsumer newFileConsumer(Processor processor, GenericFileOperations<File> operations) {
+        if (isWatchDirectory()) {
+            return new FileWatchConsumer(this, processor, operations);
+        }
         return new FileConsumer(this, processor, operations);
     }
 
@@ -252,6 +259,33 @@ public class FileEndpoint extends GenericFileEndpoint<File> {
         this.extendedAttributes = extendedAttributes;
     }
 
+    public boolean isWatchDirectory() {
+        return watchDirectory;
+    }
+
+    /**
+     * Whether the consumer should keep an incremental view of the directory instead of listing all the files on every poll.
+     * The view is seeded once by scanning the directory, and then kept up to date using the file system watch service,
+     * so each poll only picks up the files that are new or has changed since the last poll.
+     * This reduces the polling cost considerably on directories with many files.
+     */
+    public void setWatchDirectory(boolean watchDirectory) {
+        this.watchDirectory = watchDirectory;
+    }
+
+    public long getWatchReconcileInterval() {
+        return watchReconcileInterval;
+    }
+
+    /**
+     * When watchDirectory is enabled, then the interval in millis between full scans of the directory, which
+     * reconciles the view with the file system in case any watch events was lost. Use 0 or a negative value to only scan
+     * when the watch service reports events was lost.
+     */
+    public void setWatchReconcileInterval(long watchReconcileInterval) {
+        this.watchReconcileInterval = watchReconcileInterval;
+    }
+
     /**
      * Chmod value must be between 000 and 777; If there is a leading digit like in 0755 we will ignore it.
      */
@@ -0,0 +1,340 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.camel.Processor;
+import org.apache.camel.util.FileUtil;
+import org.apache.camel.util.IOHelper;
+
+/**
+ * File consumer which keeps an incremental view of the directory instead of listing all the files on every poll.
+ * <p/>
+ * The view is seeded by streaming the directory once using a {@link DirectoryStream}, and is then kept up to date
+ * by the events from a {@link WatchService}. Only the files which are new or has changed since they were last seen
+ * are passed on to the regular {@link GenericFileConsumer} processing, which means the cost of a poll is no longer
+ * proportional to the number of files in the directory. As watch events can be lost (for example when the event queue
+ * overflows) the view is reconciled with a full scan of the directory at the configured
+ * {@link FileEndpoint#getWatchReconcileInterval() interval}.
+ * <p/>
+ * A file stays pending until it has been consumed, so files which failed or could not be acquired by the read lock
+ * are tried again on the next poll, just as with the regular consumer.
+ */
+public class FileWatchConsumer extends FileConsumer {
+
+    private final Map<Path, FileState> view = new HashMap<Path, FileState>();
+    private final Set<Path> pending = new LinkedHashSet<Path>();
+    private final Map<WatchKey, Path> watchKeys = new HashMap<WatchKey, Path>();
+    private WatchService watchService;
+    private Path root;
+    private long lastReconcile;
+    private int generation;
+
+    /**
+     * The last seen state of a file in the view.
+     */
+    private static final class FileState {
+        private long size;
+        private long lastModified;
+        private int generation;
+
+        private FileState(long size, long lastModified, int generation) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.generation = generation;
+        }
+    }
+
+    public FileWatchConsumer(FileEndpoint endpoint, Processor processor, GenericFileOperations<File> operations) {
+        super(endpoint, processor, operations);
+    }
+
+    /**
+     * Number of files in the incremental view of the directory
+     */
+    public int getViewSize() {
+        return view.size();
+    }
+
+    /**
+     * Number of files which are new or changed and yet to be consumed
+     */
+    public int getPendingSize() {
+        return pending.size();
+    }
+
+    @Override
+    protected boolean pollDirectory(String fileName, List<GenericFile<File>> fileList, int depth) {
+        log.trace("pollDirectory from fileName: {}", fileName);
+
+        File directory = new File(fileName);
+        if (!directory.exists() || !directory.isDirectory()) {
+            log.debug("Cannot poll as directory does not exists or its not a directory: {}", directory);
+            // the directory may be re-created later, and if so then we must start over
+            closeWatchService();
+            if (getEndpoint().isDirectoryMustExist()) {
+                throw new GenericFileOperationFailedException("Directory does not exist: " + directory);
+            }
+            return true;
+        }
+
+        try {
+            Path path = directory.toPath();
+            if (watchService == null || !path.equals(root)) {
+                closeWatchService();
+                root = path;
+                watchService = path.getFileSystem().newWatchService();
+                reconcile();
+            } else if (isReconcileDue() || !processEvents()) {
+                reconcile();
+            }
+        } catch (IOException e) {
+            throw new GenericFileOperationFailedException("Cannot watch directory: " + directory, e);
+        }
+
+        return pollPending(fileList);
+    }
+
+    @Override
+    protected boolean isMatched(GenericFile<File> file, String doneFileName, List<File> files) {
+        // we do not have the listing of the directory so check the file system
+        File doneFile = new File(file.getFile().getParentFile(), FileUtil.stripPath(doneFileName));
+        if (doneFile.exists()) {
+            return true;
+        }
+        log.trace("Done file: {} does not exist", doneFileName);
+        return false;
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        super.doStop();
+        closeWatchService();
+    }
+
+    private boolean isReconcileDue() {
+        long interval = getEndpoint().getWatchReconcileInterval();
+        return interval > 0 && System.currentTimeMillis() - lastReconcile >= interval;
+    }
+
+    /**
+     * Scans the entire directory and updates the view, marking new or changed files as pending,
+     * and forgetting about files which no longer exists.
+     */
+    private void reconcile() throws IOException {
+        log.trace("Reconciling view of directory: {}", root);
+
+        generation++;
+        scanDirectory(root, 0);
+
+        // sweep the files we did not see during the scan
+        for (Iterator<Map.Entry<Path, FileState>> it = view.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<Path, FileState> entry = it.next();
+            if (entry.getValue().generation != generation) {
+                pending.remove(entry.getKey());
+                it.remove();
+            }
+        }
+        lastReconcile = System.currentTimeMillis();
+
+        log.debug("Reconciled view of directory: {} with {} files of which {} are pending", new Object[]{root, view.size(), pending.size()});
+    }
+
+    private void scanDirectory(Path directory, int depth) throws IOException {
+        // register before scanning so we do not miss any files created in the meantime
+        WatchKey key = directory.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        watchKeys.put(key, directory);
+
+        depth++;
+        DirectoryStream<Path> stream = Files.newDirectoryStream(directory);
+        try {
+            for (Path path : stream) {
+                BasicFileAttributes attributes = readAttributes(path);
+                if (attributes == null) {
+                    // the file was removed while scanning
+                    continue;
+                }
+                if (attributes.isDirectory()) {
+                    if (isValidDirectory(path, depth)) {
+                        scanDirectory(path, depth);
+                    }
+                } else {
+                    observe(path, attributes);
+                }
+            }
+        } finally {
+            IOHelper.close(stream);
+        }
+    }
+
+    /**
+     * Drains the pending watch events into the view.
+     *
+     * @return <tt>false</tt> if events was lost and the view must be reconciled
+     */
+    private boolean processEvents() throws IOException {
+        boolean complete = true;
+        WatchKey key;
+        while ((key = watchService.poll()) != null) {
+            Path directory = watchKeys.get(key);
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW || directory == null) {
+                    complete = false;
+                    continue;
+                }
+                Path path = directory.resolve((Path) event.context());
+                if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                    forget(path);
+                    continue;
+                }
+
+                BasicFileAttributes attributes = readAttributes(path);
+                if (attributes == null) {
+                    forget(path);
+                } else if (attributes.isDirectory()) {
+                    // a new directory which may already have files
+                    if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && isValidDirectory(path, depthOf(path))) {
+                        scanDirectory(path, depthOf(path));
+                    }
+                } else {
+                    observe(path, attributes);
+                }
+            }
+            if (!key.reset()) {
+                // the directory is no longer accessible
+                watchKeys.remove(key);
+            }
+        }
+        return complete;
+    }
+
+    /**
+     * Picks the pending files which are valid for consumption
+     */
+    private boolean pollPending(List<GenericFile<File>> fileList) {
+        String endpointPath = getEndpoint().getConfiguration().getDirectory();
+        boolean keepRejected = getEndpoint().getDoneFileName() != null;
+
+        for (Iterator<Path> it = pending.iterator(); it.hasNext();) {
+            // check if we can continue polling in files
+            if (!canPollMoreFiles(fileList)) {
+                return false;
+            }
+
+            Path path = it.next();
+            File file = path.toFile();
+            if (!file.exists()) {
+                // consumed and moved/deleted, or deleted by someone else
+                view.remove(path);
+                it.remove();
+                continue;
+            }
+            if (depthOf(path) < endpoint.minDepth) {
+                it.remove();
+                continue;
+            }
+            if (getEndpoint().getInProgressRepository().contains(file.getAbsolutePath())) {
+                // still being processed so check it again on the next poll
+                continue;
+            }
+
+            // creates a generic file
+            GenericFile<File> gf = asGenericFile(endpointPath, file, getEndpoint().getCharset(), getEndpoint().isProbeContentType());
+            if (isValidFile(gf, false, null)) {
+                log.trace("Adding valid file: {}", file);
+                populateExtendedAttributes(gf);
+                fileList.add(gf);
+            } else if (!keepRejected) {
+                // filtered or already consumed, so we do not need to check it again until it changes
+                // (when using done files then the file must be kept until the done file is present)
+                it.remove();
+            }
+        }
+
+        return true;
+    }
+
+    private void observe(Path path, BasicFileAttributes attributes) {
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+
+        FileState state = view.get(path);
+        if (state == null) {
+            view.put(path, new FileState(size, lastModified, generation));
+            pending.add(path);
+        } else {
+            state.generation = generation;
+            if (state.size != size || state.lastModified != lastModified) {
+                state.size = size;
+                state.lastModified = lastModified;
+                pending.add(path);
+            }
+        }
+    }
+
+    private void forget(Path path) {
+        view.remove(path);
+        pending.remove(path);
+    }
+
+    private boolean isValidDirectory(Path path, int depth) {
+        if (!endpoint.isRecursive() || depth >= endpoint.getMaxDepth()) {
+            return false;
+        }
+        GenericFile<File> gf = asGenericFile(getEndpoint().getConfiguration().getDirectory(), path.toFile(),
+                getEndpoint().getCharset(), getEndpoint().isProbeContentType());
+        return isValidFile(gf, true, null);
+    }
+
+    private int depthOf(Path path) {
+        return root.relativize(path).getNameCount();
+    }
+
+    private BasicFileAttributes readAttributes(Path path) {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void closeWatchService() {
+        IOHelper.close(watchService, "watchService", log);
+        watchService = null;
+        watchKeys.clear();
+        view.clear();
+        pending.clear();
+        root = null;
+    }
+}
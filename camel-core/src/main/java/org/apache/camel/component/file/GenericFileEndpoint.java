@@ -168,6 +168,8 @@ public abstract class GenericFileEndpoint<T> extends ScheduledPollEndpoint imple
     protected long readLockMinLength = 1;
     @UriParam(label = "consumer,lock", defaultValue = "0")
     protected long readLockMinAge;
+    @UriParam(label = "consumer,lock")
+    protected boolean readLockNonBlocking;
     @UriParam(label = "consumer,lock", defaultValue = "true")
     protected boolean readLockRemoveOnRollback = true;
     @UriParam(label = "consumer,lock")
@@ -867,6 +869,21 @@ public abstract class GenericFileEndpoint<T> extends ScheduledPollEndpoint imple
         this.readLockMinAge = readLockMinAge;
     }
 
+    public boolean isReadLockNonBlocking() {
+        return readLockNonBlocking;
+    }
+
+    /**
+     * This option applied only for readLock=changed.
+     * Whether to check if the file has stopped changing across polls, instead of sleeping in the poll thread for the
+     * readLockCheckInterval until the file has stopped changing. Files which are still changing are skipped and checked
+     * again on the next poll, so files which are slow to arrive no longer stall the consumer from picking up other files.
+     * The readLockTimeout is then the maximum time a file is tracked before its skipped, and the checking starts over.
+     */
+    public void setReadLockNonBlocking(boolean readLockNonBlocking) {
+        this.readLockNonBlocking = readLockNonBlocking;
+    }
+
     public boolean isReadLockRemoveOnRollback() {
         return readLockRemoveOnRollback;
     }
@@ -1212,6 +1229,7 @@ public abstract class GenericFileEndpoint<T> extends ScheduledPollEndpoint imple
         params.put("readLockMinLength", readLockMinLength);
         params.put("readLockLoggingLevel", readLockLoggingLevel);
         params.put("readLockMinAge", readLockMinAge);
+        params.put("readLockNonBlocking", readLockNonBlocking);
         params.put("readLockRemoveOnRollback", readLockRemoveOnRollback);
         params.put("readLockRemoveOnCommit", readLockRemoveOnCommit);
         return params;
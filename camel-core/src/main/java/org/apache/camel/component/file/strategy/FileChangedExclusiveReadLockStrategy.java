@@ -22,6 +22,7 @@ import java.util.Date;
 import org.apache.camel.Exchange;
 import org.apache.camel.LoggingLevel;
 import org.apache.camel.component.file.GenericFile;
+import org.apache.camel.component.file.GenericFileEndpoint;
 import org.apache.camel.component.file.GenericFileOperations;
 import org.apache.camel.util.CamelLogger;
 import org.apache.camel.util.StopWatch;
@@ -33,6 +34,9 @@ import org.slf4j.LoggerFactory;
  * changed by scanning the file at different intervals (to detect changes).
  * <p/>
  * Setting the option {@link #setMarkerFiler(boolean)} to <tt>false</tt> allows to turn off using marker files.
+ * <p/>
+ * Setting the option {@link #setNonBlocking(boolean)} to <tt>true</tt> uses a {@link FileChangedReadinessTracker}
+ * to check the file across polls, instead of sleeping in the poll thread until the file has stopped changing.
  */
 public class FileChangedExclusiveReadLockStrategy extends MarkerFileExclusiveReadLockStrategy {
     private static final Logger LOG = LoggerFactory.getLogger(FileChangedExclusiveReadLockStrategy.class);
@@ -41,15 +45,31 @@ public class FileChangedExclusiveReadLockStrategy extends MarkerFileExclusiveRea
     private long minLength = 1;
     private long minAge;
     private LoggingLevel readLockLoggingLevel = LoggingLevel.WARN;
+    private boolean nonBlocking;
+    private FileChangedReadinessTracker readinessTracker;
+
+    @Override
+    public void prepareOnStartup(GenericFileOperations<File> operations, GenericFileEndpoint<File> endpoint) {
+        super.prepareOnStartup(operations, endpoint);
+        // start over with a clean slate
+        readinessTracker = null;
+    }
 
     @Override
     public boolean acquireExclusiveReadLock(GenericFileOperations<File> operations, GenericFile<File> file, Exchange exchange) throws Exception {
+        File target = new File(file.getAbsoluteFilePath());
+
+        if (nonBlocking) {
+            // check the file is ready first, so files which are still changing are skipped without creating a marker file
+            return getReadinessTracker().isReady(file, target.length(), target.lastModified())
+                    && super.acquireExclusiveReadLock(operations, file, exchange);
+        }
+
         // must call super
         if (!super.acquireExclusiveReadLock(operations, file, exchange)) {
             return false;
         }
 
-        File target = new File(file.getAbsoluteFilePath());
         boolean exclusive = false;
 
         LOG.trace("Waiting for exclusive read lock to file: {}", file);
@@ -109,6 +129,19 @@ public class FileChangedExclusiveReadLockStrategy extends MarkerFileExclusiveRea
         }
     }
 
+    private FileChangedReadinessTracker getReadinessTracker() {
+        if (readinessTracker == null) {
+            FileChangedReadinessTracker tracker = new FileChangedReadinessTracker();
+            tracker.setTimeout(timeout);
+            tracker.setCheckInterval(checkInterval);
+            tracker.setMinLength(minLength);
+            tracker.setMinAge(minAge);
+            tracker.setReadLockLoggingLevel(readLockLoggingLevel);
+            readinessTracker = tracker;
+        }
+        return readinessTracker;
+    }
+
     public long getTimeout() {
         return timeout;
     }
@@ -147,4 +180,12 @@ public class FileChangedExclusiveReadLockStrategy extends MarkerFileExclusiveRea
     public void setMinAge(long minAge) {
         this.minAge = minAge;
     }
+
+    public boolean isNonBlocking() {
+        return nonBlocking;
+    }
+
+    public void setNonBlocking(boolean nonBlocking) {
+        this.nonBlocking = nonBlocking;
+    }
 }
@@ -0,0 +1,199 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.file.strategy;
+
+import org.apache.camel.LoggingLevel;
+import org.apache.camel.component.file.GenericFile;
+import org.apache.camel.util.CamelLogger;
+import org.apache.camel.util.LRUCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tracks the length and last modified timestamp of candidate files across polls, to tell when a file
+ * has stopped changing, without blocking the poll thread.
+ * <p/>
+ * This is used by the <tt>changed</tt> read lock strategies when the <tt>readLockNonBlocking</tt> option is enabled.
+ * Instead of sleeping and checking the same file again until its stable, each poll records an observation of the file
+ * and the file is only regarded as ready when it has not changed for at least the check interval (or when its older than
+ * the minimum age). Files which are not ready are skipped, and checked again on the next poll.
+ * <p/>
+ * The observations are kept in a {@link LRUCache} so files which disappear are eventually forgotten.
+ */
+public class FileChangedReadinessTracker {
+
+    public static final int DEFAULT_MAXIMUM_CACHE_SIZE = 10000;
+
+    private static final Logger LOG = LoggerFactory.getLogger(FileChangedReadinessTracker.class);
+
+    private final LRUCache<String, Observation> observations;
+    private long timeout;
+    private long checkInterval = 1000;
+    private long minLength = 1;
+    private long minAge;
+    private LoggingLevel readLockLoggingLevel = LoggingLevel.WARN;
+
+    public enum Readiness {
+        Ready, Changing, TimedOut
+    }
+
+    private static final class Observation {
+        private final long length;
+        private final long lastModified;
+        private final long since;
+        private final long firstSeen;
+
+        private Observation(long length, long lastModified, long since, long firstSeen) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.since = since;
+            this.firstSeen = firstSeen;
+        }
+    }
+
+    public FileChangedReadinessTracker() {
+        this(DEFAULT_MAXIMUM_CACHE_SIZE);
+    }
+
+    public FileChangedReadinessTracker(int maximumCacheSize) {
+        this.observations = new LRUCache<String, Observation>(maximumCacheSize);
+    }
+
+    /**
+     * Records an observation of the file and logs if the file did not become ready within the timeout.
+     *
+     * @param file         the file
+     * @param length       the current length of the file
+     * @param lastModified the current last modified timestamp of the file
+     * @return <tt>true</tt> if the file is ready to be consumed, <tt>false</tt> to skip the file in this poll
+     */
+    public boolean isReady(GenericFile<?> file, long length, long lastModified) {
+        Readiness readiness = observe(file.getAbsoluteFilePath(), length, lastModified, System.currentTimeMillis());
+        if (readiness == Readiness.TimedOut) {
+            CamelLogger.log(LOG, readLockLoggingLevel,
+                    "Cannot acquire read lock within " + timeout + " millis. Will skip the file: " + file);
+        } else if (readiness == Readiness.Changing) {
+            LOG.trace("File is not ready as its still changing. Will check the file again on next poll: {}", file);
+        } else {
+            LOG.trace("Read lock acquired.");
+        }
+        return readiness == Readiness.Ready;
+    }
+
+    /**
+     * Records an observation of the file with the given key.
+     *
+     * @param key          the key of the file, such as its absolute path
+     * @param length       the current length of the file
+     * @param lastModified the current last modified timestamp of the file
+     * @param now          the current time in millis
+     * @return the readiness of the file
+     */
+    public Readiness observe(String key, long length, long lastModified, long now) {
+        Observation previous = observations.get(key);
+        boolean unchanged = previous != null && previous.length == length && previous.lastModified == lastModified;
+
+        if (LOG.isTraceEnabled() && previous != null) {
+            LOG.trace("Previous length: {}, new length: {} of file: {}", new Object[]{previous.length, length, key});
+            LOG.trace("Previous last modified: {}, new last modified: {} of file: {}", new Object[]{previous.lastModified, lastModified, key});
+        }
+
+        boolean ready;
+        if (minAge != 0) {
+            ready = length >= minLength && lastModified < now - minAge;
+        } else {
+            ready = length >= minLength && unchanged && now - previous.since >= checkInterval;
+        }
+
+        if (ready) {
+            observations.remove(key);
+            return Readiness.Ready;
+        }
+
+        if (timeout > 0 && previous != null && now - previous.firstSeen > timeout) {
+            // start over if the file is seen again
+            observations.remove(key);
+            return Readiness.TimedOut;
+        }
+
+        if (!unchanged) {
+            observations.put(key, new Observation(length, lastModified, now, previous != null ? previous.firstSeen : now));
+        }
+        return Readiness.Changing;
+    }
+
+    /**
+     * Forgets about the file with the given key
+     */
+    public void remove(String key) {
+        observations.remove(key);
+    }
+
+    /**
+     * Forgets about all the files
+     */
+    public void clear() {
+        observations.clear();
+    }
+
+    /**
+     * Number of files currently being tracked
+     */
+    public int size() {
+        return observations.size();
+    }
+
+    public long getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(long timeout) {
+        this.timeout = timeout;
+    }
+
+    public long getCheckInterval() {
+        return checkInterval;
+    }
+
+    public void setCheckInterval(long checkInterval) {
+        this.checkInterval = checkInterval;
+    }
+
+    public long getMinLength() {
+        return minLength;
+    }
+
+    public void setMinLength(long minLength) {
+        this.minLength = minLength;
+    }
+
+    public long getMinAge() {
+        return minAge;
+    }
+
+    public void setMinAge(long minAge) {
+        this.minAge = minAge;
+    }
+
+    public LoggingLevel getReadLockLoggingLevel() {
+        return readLockLoggingLevel;
+    }
+
+    public void setReadLockLoggingLevel(LoggingLevel readLockLoggingLevel) {
+        this.readLockLoggingLevel = readLockLoggingLevel;
+    }
+}
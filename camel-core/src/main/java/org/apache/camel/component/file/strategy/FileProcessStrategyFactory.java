@@ -127,6 +127,10 @@ public final class FileProcessStrategyFactory {
                 if (null != minAge) {
                     readLockStrategy.setMinAge(minAge);
                 }
+                Boolean nonBlocking = (Boolean) params.get("readLockNonBlocking");
+                if (nonBlocking != null) {
+                    readLockStrategy.setNonBlocking(nonBlocking);
+                }
                 strategy = readLockStrategy;
             } else if ("idempotent".equals(readLock)) {
                 FileIdempotentRepositoryReadLockStrategy readLockStrategy = new FileIdempotentRepositoryReadLockStrategy();
@@ -0,0 +1,60 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.seda;
+
+import org.apache.camel.util.concurrent.LockFreeArrayBlockingQueue;
+
+/**
+ * Implementation of {@link BlockingQueueFactory} producing {@link org.apache.camel.util.concurrent.LockFreeArrayBlockingQueue}
+ * which scales better than the lock based queues when there are many producers and concurrent consumers.
+ * <p/>
+ * The queue is bounded and its slots are allocated up front, so it cannot be created unbounded.
+ * When no size is configured on the endpoint the default capacity is used.
+ */
+public class LockFreeBlockingQueueFactory<E> implements BlockingQueueFactory<E> {
+    /**
+     * Capacity used when none provided
+     */
+    private int defaultCapacity = 1000;
+
+    /**
+     * @return Default capacity
+     */
+    public int getDefaultCapacity() {
+        return defaultCapacity;
+    }
+
+    /**
+     * @param defaultCapacity Default capacity
+     */
+    public void setDefaultCapacity(int defaultCapacity) {
+        this.defaultCapacity = defaultCapacity;
+    }
+
+    @Override
+    public LockFreeArrayBlockingQueue<E> create() {
+        return create(defaultCapacity);
+    }
+
+    @Override
+    public LockFreeArrayBlockingQueue<E> create(int capacity) {
+        if (capacity == Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Cannot create an unbounded lock free queue, the size must be configured");
+        }
+        return new LockFreeArrayBlockingQueue<E>(capacity);
+    }
+}
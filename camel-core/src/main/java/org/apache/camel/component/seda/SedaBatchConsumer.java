@@ -0,0 +1,101 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.seda;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+
+import org.apache.camel.BatchConsumer;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link BatchConsumer} for the SEDA component.
+ * <p/>
+ * The exchanges a consumer thread takes from the queue at once, up till the batch size of the endpoint,
+ * are processed as a batch, so each exchange has the batch index, size and complete properties set.
+ * This allows for example the aggregator to complete when the batch is done.
+ */
+public class SedaBatchConsumer extends SedaConsumer implements BatchConsumer {
+    private static final Logger LOG = LoggerFactory.getLogger(SedaBatchConsumer.class);
+
+    public SedaBatchConsumer(SedaEndpoint endpoint, Processor processor) {
+        super(endpoint, processor);
+    }
+
+    @Override
+    public String toString() {
+        return "SedaBatchConsumer[" + getEndpoint() + "]";
+    }
+
+    @Override
+    public void setMaxMessagesPerPoll(int maxMessagesPerPoll) {
+        setBatchSize(maxMessagesPerPoll);
+    }
+
+    @Override
+    protected boolean isBatching() {
+        // always set the batch properties, also when a single exchange is taken
+        return true;
+    }
+
+    @Override
+    protected void processExchanges(List<Exchange> exchanges) {
+        Queue<Object> remaining = new ArrayDeque<Object>(exchanges);
+        processBatch(remaining);
+        if (remaining.isEmpty()) {
+            return;
+        }
+
+        // the consumer was forced to stop, so put the rest of the batch back on the queue for the next consumer
+        LOG.debug("Stopped processing the batch as the consumer is not running, so {} exchanges are put back on the queue", remaining.size());
+        BlockingQueue<Exchange> queue = ((SedaEndpoint) getEndpoint()).getQueue();
+        Exchange exchange;
+        while ((exchange = (Exchange) remaining.poll()) != null) {
+            if (!queue.offer(exchange)) {
+                // the queue is full, so complete the exchange here rather than losing it
+                processExchange(exchange);
+            }
+        }
+    }
+
+    @Override
+    public int processBatch(Queue<Object> exchanges) {
+        int total = exchanges.size();
+        int index = 0;
+        for (; index < total && isBatchAllowed(); index++) {
+            // use poll to remove the head so it does not consume memory even after we have processed it
+            Exchange exchange = (Exchange) exchanges.poll();
+            // add current index and total as properties
+            exchange.setProperty(Exchange.BATCH_INDEX, index);
+            exchange.setProperty(Exchange.BATCH_SIZE, total);
+            exchange.setProperty(Exchange.BATCH_COMPLETE, index == total - 1);
+            processExchange(exchange);
+        }
+        return index;
+    }
+
+    @Override
+    public boolean isBatchAllowed() {
+        // the exchanges have been taken from the queue, so complete the batch unless we are forced to stop
+        return isRunAllowed();
+    }
+}
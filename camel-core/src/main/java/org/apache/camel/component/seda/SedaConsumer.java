@@ -16,6 +16,7 @@
  */
 package org.apache.camel.component.seda;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
@@ -56,6 +57,7 @@ public class SedaConsumer extends ServiceSupport implements Consumer, Runnable,
     private static final Logger LOG = LoggerFactory.getLogger(SedaConsumer.class);
 
     private final AtomicInteger taskCount = new AtomicInteger();
+    private final AtomicInteger batchPending = new AtomicInteger();
     private volatile CountDownLatch latch;
     private volatile boolean shutdownPending;
     private volatile boolean forceShutdown;
@@ -64,11 +66,13 @@ public class SedaConsumer extends ServiceSupport implements Consumer, Runnable,
     private ExecutorService executor;
     private ExceptionHandler exceptionHandler;
     private final int pollTimeout;
+    private volatile int batchSize;
 
     public SedaConsumer(SedaEndpoint endpoint, Processor processor) {
         this.endpoint = endpoint;
         this.processor = AsyncProcessorConverterHelper.convert(processor);
         this.pollTimeout = endpoint.getPollTimeout();
+        this.batchSize = endpoint.getBatchSize();
         this.exceptionHandler = new LoggingExceptionHandler(endpoint.getCamelContext(), getClass());
     }
 
@@ -93,6 +97,20 @@ public class SedaConsumer extends ServiceSupport implements Consumer, Runnable,
         return processor;
     }
 
+    /**
+     * Gets the maximum number of exchanges taken from the queue each time a consumer thread wakes up.
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sets the maximum number of exchanges taken from the queue each time a consumer thread wakes up.
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
     public boolean deferShutdown(ShutdownRunningTask shutdownRunningTask) {
         // deny stopping on shutdown as we want seda consumers to run in case some other queues
         // depend on this consumer to run, so it can complete its exchanges
@@ -105,7 +123,8 @@ public class SedaConsumer extends ServiceSupport implements Consumer, Runnable,
         if (endpoint.isPurgeWhenStopping()) {
             endpoint.purgeQueue();
         }
-        return endpoint.getQueue().size();
+        // the exchanges taken from the queue as a batch are pending until the batch is done
+        return endpoint.getQueue().size() + batchPending.get();
     }
 
     @Override
@@ -159,6 +178,7 @@ public class SedaConsumer extends ServiceSupport implements Consumer, Runnable,
 
     protected void doRun() {
         BlockingQueue<Exchange> queue = endpoint.getQueue();
+        List<Exchange> batch = new ArrayList<Exchange>();
         // loop while we are allowed, or if we are stopping loop until the queue is empty
         while (queue != null && (isRunAllowed())) {
 
@@ -200,24 +220,22 @@ public class SedaConsumer extends ServiceSupport implements Consumer, Runnable,
                     LOG.trace("Polled queue {} with timeout {} ms. -> {}", new Object[]{ObjectHelper.getIdentityHashCode(queue), pollTimeout, exchange});
                 }
                 if (exchange != null) {
-                    try {
-                        // send a new copied exchange with new camel context
-                        Exchange newExchange = prepareExchange(exchange);
-                        // process the exchange
-                        sendToConsumers(newExchange);
-                        // copy the message back
-                        if (newExchange.hasOut()) {
-                            exchange.setOut(newExchange.getOut().copy());
-                        } else {
-                            exchange.setIn(newExchange.getIn());
-                        }
-                        // log exception if an exception occurred and was not handled
-                        if (newExchange.getException() != null) {
-                            exchange.setException(newExchange.getException());
-                            getExceptionHandler().handleException("Error processing exchange", exchange, exchange.getException());
+                    int max = batchSize;
+                    if (max > 1 || isBatching()) {
+                        // take the exchanges which are already waiting as well, so we only hit the queue once for them
+                        batch.add(exchange);
+                        exchange = null;
+                        queue.drainTo(batch, max - 1);
+                        int size = batch.size();
+                        batchPending.addAndGet(size);
+                        try {
+                            processExchanges(batch);
+                        } finally {
+                            batch.clear();
+                            batchPending.addAndGet(-size);
                         }
-                    } catch (Exception e) {
-                        getExceptionHandler().handleException("Error processing exchange", exchange, e);
+                    } else {
+                        processExchange(exchange);
                     }
                 } else if (shutdownPending && queue.isEmpty()) {
                     LOG.trace("Shutdown is pending, so this consumer thread is breaking out because the task queue is empty.");
@@ -240,6 +258,51 @@ public class SedaConsumer extends ServiceSupport implements Consumer, Runnable,
         LOG.debug("Ending this polling consumer thread, there are still {} consumer threads left.", latch.getCount());
     }
 
+    /**
+     * Whether the exchanges taken from the queue are always processed as a batch, even when the batch size is 1.
+     */
+    protected boolean isBatching() {
+        return false;
+    }
+
+    /**
+     * Processes the given {@link Exchange} taken from the queue.
+     *
+     * @param exchange the exchange
+     */
+    protected void processExchange(Exchange exchange) {
+        try {
+            // send a new copied exchange with new camel context
+            Exchange newExchange = prepareExchange(exchange);
+            // process the exchange
+            sendToConsumers(newExchange);
+            // copy the message back
+            if (newExchange.hasOut()) {
+                exchange.setOut(newExchange.getOut().copy());
+            } else {
+                exchange.setIn(newExchange.getIn());
+            }
+            // log exception if an exception occurred and was not handled
+            if (newExchange.getException() != null) {
+                exchange.setException(newExchange.getException());
+                getExceptionHandler().handleException("Error processing exchange", exchange, exchange.getException());
+            }
+        } catch (Exception e) {
+            getExceptionHandler().handleException("Error processing exchange", exchange, e);
+        }
+    }
+
+    /**
+     * Processes the exchanges taken from the queue at once, one after the other.
+     *
+     * @param exchanges the exchanges
+     */
+    protected void processExchanges(List<Exchange> exchanges) {
+        for (Exchange exchange : exchanges) {
+            processExchange(exchange);
+        }
+    }
+
     /**
      * Strategy to prepare exchange for being processed by this consumer
      *
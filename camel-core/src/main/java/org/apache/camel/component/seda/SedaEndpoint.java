@@ -77,6 +77,10 @@ public class SedaEndpoint extends DefaultEndpoint implements BrowsableEndpoint,
     private boolean purgeWhenStopping;
     @UriParam(label = "consumer,advanced", defaultValue = "1000")
     private int pollTimeout = 1000;
+    @UriParam(label = "consumer,advanced", defaultValue = "1")
+    private int batchSize = 1;
+    @UriParam(label = "consumer,advanced")
+    private boolean batchConsumer;
 
     @UriParam(label = "producer", defaultValue = "IfReplyExpected")
     private WaitForTaskToComplete waitForTaskToComplete = WaitForTaskToComplete.IfReplyExpected;
@@ -146,6 +150,9 @@ public class SedaEndpoint extends DefaultEndpoint implements BrowsableEndpoint,
     }
 
     protected SedaConsumer createNewConsumer(Processor processor) {
+        if (isBatchConsumer()) {
+            return new SedaBatchConsumer(this, processor);
+        }
         return new SedaConsumer(this, processor);
     }
 
@@ -182,7 +189,8 @@ public class SedaEndpoint extends DefaultEndpoint implements BrowsableEndpoint,
     }
 
     protected BlockingQueue<Exchange> createQueue() {
-        if (size > 0) {
+        // the max value means no size has been configured, so let the factory use its default
+        if (size > 0 && size != Integer.MAX_VALUE) {
             return queueFactory.create(size);
         } else {
             return queueFactory.create();
@@ -256,6 +264,7 @@ public class SedaEndpoint extends DefaultEndpoint implements BrowsableEndpoint,
 
     /**
      * The maximum capacity of the SEDA queue (i.e., the number of messages it can hold).
+     * When not configured the queue factory decides, for example the bounded lock free queue factory uses a capacity of 1000.
      */
     public void setSize(int size) {
         this.size = size;
@@ -401,6 +410,33 @@ public class SedaEndpoint extends DefaultEndpoint implements BrowsableEndpoint,
         this.purgeWhenStopping = purgeWhenStopping;
     }
 
+    @ManagedAttribute
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * The maximum number of exchanges a consumer thread takes from the queue each time it wakes up,
+     * which are then processed one after the other. Draining several exchanges at once reduces the contention
+     * on the queue when there are many producers and concurrent consumers.
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    @ManagedAttribute
+    public boolean isBatchConsumer() {
+        return batchConsumer;
+    }
+
+    /**
+     * Whether the consumer is a {@link org.apache.camel.BatchConsumer} which exposes the exchanges taken
+     * from the queue at once as a batch, by setting the batch index, size and complete properties on the exchanges.
+     */
+    public void setBatchConsumer(boolean batchConsumer) {
+        this.batchConsumer = batchConsumer;
+    }
+
     public boolean isSingleton() {
         return true;
     }
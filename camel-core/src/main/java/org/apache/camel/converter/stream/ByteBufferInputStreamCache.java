@@ -0,0 +1,127 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.converter.stream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.StreamCache;
+
+/**
+ * A {@link StreamCache} which is a view of a {@link ByteBuffer}, such as a slice of a memory mapped file.
+ * <p/>
+ * The bytes are not copied and only decoded when the cache is converted to a String.
+ */
+public final class ByteBufferInputStreamCache extends InputStream implements StreamCache {
+
+    private final ByteBuffer data;
+    private final ByteBuffer buffer;
+    private int mark;
+
+    public ByteBufferInputStreamCache(ByteBuffer data) {
+        this.data = data.slice().asReadOnlyBuffer();
+        this.buffer = this.data.duplicate();
+    }
+
+    /**
+     * Returns a read-only view of the cached bytes, which is independent of the position of this stream.
+     */
+    public ByteBuffer getByteBuffer() {
+        return data.duplicate();
+    }
+
+    /**
+     * Decodes the cached bytes using the given charset.
+     */
+    public String toString(String charset) {
+        return Charset.forName(charset).decode(data.duplicate()).toString();
+    }
+
+    @Override
+    public int read() {
+        if (!buffer.hasRemaining()) {
+            return -1;
+        }
+        return buffer.get() & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if (len == 0) {
+            return 0;
+        }
+        if (!buffer.hasRemaining()) {
+            return -1;
+        }
+        len = Math.min(len, buffer.remaining());
+        buffer.get(b, off, len);
+        return len;
+    }
+
+    @Override
+    public long skip(long n) {
+        int skip = (int) Math.max(0, Math.min(n, buffer.remaining()));
+        buffer.position(buffer.position() + skip);
+        return skip;
+    }
+
+    @Override
+    public int available() {
+        return buffer.remaining();
+    }
+
+    @Override
+    public boolean markSupported() {
+        return true;
+    }
+
+    @Override
+    public void mark(int readlimit) {
+        mark = buffer.position();
+    }
+
+    @Override
+    public void reset() {
+        buffer.position(mark);
+    }
+
+    public void writeTo(OutputStream os) throws IOException {
+        ByteBuffer source = buffer.duplicate();
+        byte[] chunk = new byte[Math.min(source.remaining(), 8192)];
+        while (source.hasRemaining()) {
+            int len = Math.min(chunk.length, source.remaining());
+            source.get(chunk, 0, len);
+            os.write(chunk, 0, len);
+        }
+    }
+
+    public StreamCache copy(Exchange exchange) throws IOException {
+        return new ByteBufferInputStreamCache(data);
+    }
+
+    public boolean inMemory() {
+        return true;
+    }
+
+    public long length() {
+        return data.remaining();
+    }
+}
@@ -24,7 +24,9 @@ import java.io.OutputStream;
 import org.apache.camel.Exchange;
 import org.apache.camel.StreamCache;
 import org.apache.camel.converter.stream.FileInputStreamCache.TempFileManager;
+import org.apache.camel.impl.DefaultStreamCachingStrategy;
 import org.apache.camel.spi.StreamCachingStrategy;
+import org.apache.camel.util.ObjectHelper;
 
 /**
  * This output stream will store the content into a File if the stream context size is exceed the
@@ -37,6 +39,9 @@ import org.apache.camel.spi.StreamCachingStrategy;
  * You can get a cached input stream of this stream. The temp file which is created with this 
  * output stream will be deleted when you close this output stream or the cached 
  * fileInputStream(s) is/are closed after all the exchanges using the temp file are completed.
+ * <p/>
+ * If the {@link StreamCachingStrategy} has an off-heap buffer pool, and no spool cipher is configured, the content is
+ * stored in pooled direct buffers instead, and spooled to memory mapped files. See {@link OffHeapInputStreamCache}.
  */
 public class CachedOutputStream extends OutputStream {
     @Deprecated
@@ -62,9 +67,20 @@ public class CachedOutputStream extends OutputStream {
     public CachedOutputStream(Exchange exchange, final boolean closedOnCompletion) {
         this.closedOnCompletion = closedOnCompletion;
         tempFileManager = new TempFileManager(closedOnCompletion);
-        tempFileManager.addExchange(exchange);
         this.strategy = exchange.getContext().getStreamCachingStrategy();
-        currentStream = new CachedByteArrayOutputStream(strategy.getBufferSize());
+        DirectBufferPool pool = null;
+        if (strategy instanceof DefaultStreamCachingStrategy) {
+            pool = ((DefaultStreamCachingStrategy) strategy).getOffHeapBufferPool();
+        }
+        if (pool != null && ObjectHelper.isEmpty(strategy.getSpoolChiper())) {
+            // memory mapped files cannot be encrypted, so off-heap is only used without a cipher
+            OffHeapOutputStream offHeap = new OffHeapOutputStream(strategy, pool, closedOnCompletion);
+            offHeap.addExchange(exchange);
+            currentStream = offHeap;
+        } else {
+            tempFileManager.addExchange(exchange);
+            currentStream = new CachedByteArrayOutputStream(strategy.getBufferSize());
+        }
     }
 
     public void flush() throws IOException {
@@ -75,6 +91,9 @@ public class CachedOutputStream extends OutputStream {
         currentStream.close();
         // need to clean up the temp file this time
         if (!closedOnCompletion) {
+            if (currentStream instanceof OffHeapOutputStream) {
+                ((OffHeapOutputStream) currentStream).release();
+            }
             tempFileManager.closeFileInputStreams();
             tempFileManager.cleanUpTempFile();
         }
@@ -143,7 +162,9 @@ public class CachedOutputStream extends OutputStream {
     public StreamCache newStreamCache() throws IOException {
         flush();
 
-        if (inMemory) {
+        if (currentStream instanceof OffHeapOutputStream) {
+            return ((OffHeapOutputStream) currentStream).newStreamCache();
+        } else if (inMemory) {
             if (currentStream instanceof CachedByteArrayOutputStream) {
                 return ((CachedByteArrayOutputStream) currentStream).newInputStreamCache();
             } else {
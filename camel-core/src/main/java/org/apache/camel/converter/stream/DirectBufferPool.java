@@ -0,0 +1,154 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.converter.stream;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A pool of fixed size direct {@link ByteBuffer}s which are used by off-heap stream caches.
+ * <p/>
+ * The buffers are sliced from larger direct slabs which are allocated on demand, until the
+ * capacity of the pool has been reached. Buffers which are released are kept in the pool for reuse,
+ * so the off-heap memory used by stream caching never exceeds the capacity.
+ */
+public final class DirectBufferPool {
+
+    /**
+     * The default size of the slabs which the buffers are sliced from (1mb).
+     */
+    public static final int DEFAULT_SLAB_SIZE = 1024 * 1024;
+
+    private final long capacity;
+    private final int bufferSize;
+    private final int slabSize;
+    private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<ByteBuffer>();
+    private final AtomicLong allocated = new AtomicLong();
+    private final AtomicLong used = new AtomicLong();
+
+    public DirectBufferPool(long capacity, int bufferSize) {
+        this(capacity, bufferSize, DEFAULT_SLAB_SIZE);
+    }
+
+    public DirectBufferPool(long capacity, int bufferSize, int slabSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("BufferSize must be positive, was: " + bufferSize);
+        }
+        this.capacity = capacity;
+        this.bufferSize = bufferSize;
+        // a slab holds a whole number of buffers
+        this.slabSize = Math.max(1, slabSize / bufferSize) * bufferSize;
+    }
+
+    /**
+     * Acquires a cleared buffer from the pool.
+     *
+     * @return the buffer, or <tt>null</tt> if all the off-heap memory of the pool is in use
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer answer = buffers.poll();
+        if (answer == null) {
+            answer = allocateSlab();
+        }
+        if (answer != null) {
+            used.addAndGet(bufferSize);
+            answer.clear();
+        }
+        return answer;
+    }
+
+    /**
+     * Returns a buffer which was acquired from this pool, so it can be reused.
+     */
+    public void release(ByteBuffer buffer) {
+        used.addAndGet(-bufferSize);
+        buffers.offer(buffer);
+    }
+
+    /**
+     * Gives up a buffer which was acquired from this pool, but cannot be reused as it may still be in use.
+     * The buffer no longer counts towards the capacity, so the pool can allocate another buffer in its place.
+     */
+    public void discard(ByteBuffer buffer) {
+        used.addAndGet(-bufferSize);
+        allocated.addAndGet(-bufferSize);
+    }
+
+    private synchronized ByteBuffer allocateSlab() {
+        // another thread may have allocated a slab while we were waiting
+        ByteBuffer answer = buffers.poll();
+        if (answer != null) {
+            return answer;
+        }
+
+        long size = Math.min(slabSize, capacity - allocated.get());
+        int count = (int) (size / bufferSize);
+        if (count <= 0) {
+            return null;
+        }
+
+        ByteBuffer slab = ByteBuffer.allocateDirect(count * bufferSize);
+        allocated.addAndGet(count * bufferSize);
+        for (int i = 0; i < count; i++) {
+            slab.limit((i + 1) * bufferSize);
+            slab.position(i * bufferSize);
+            ByteBuffer buffer = slab.slice();
+            if (answer == null) {
+                answer = buffer;
+            } else {
+                buffers.offer(buffer);
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * The maximum number of bytes of off-heap memory used by the pool
+     */
+    public long getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * The size in bytes of the buffers in the pool
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * The number of bytes of off-heap memory allocated by the pool so far
+     */
+    public long getAllocated() {
+        return allocated.get();
+    }
+
+    /**
+     * The number of bytes of off-heap memory which are currently held by stream caches
+     */
+    public long getUsed() {
+        return used.get();
+    }
+
+    @Override
+    public String toString() {
+        return "DirectBufferPool[capacity=" + capacity + ", bufferSize=" + bufferSize
+            + ", allocated=" + allocated.get() + ", used=" + used.get() + "]";
+    }
+}
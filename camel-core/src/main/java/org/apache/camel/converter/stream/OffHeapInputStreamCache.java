@@ -0,0 +1,235 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.converter.stream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.StreamCache;
+
+/**
+ * A {@link StreamCache} for a {@link CachedOutputStream} which is stored off-heap, in pooled direct buffers
+ * and memory mapped segments of a spool file.
+ * <p/>
+ * The cache is a view of the stored bytes, which can be accessed without copying using {@link #getByteBuffers()}.
+ * The cache can be read until all the exchanges using it are done, and the views until the cache is closed.
+ */
+public final class OffHeapInputStreamCache extends InputStream implements StreamCache {
+
+    private final OffHeapOutputStream owner;
+    private final OffHeapOutputStream.Storage storage;
+    private final ByteBuffer[] data;
+    private final ByteBuffer[] buffers;
+    private final boolean inMemory;
+    private final AtomicBoolean viewsInUse = new AtomicBoolean();
+    private int index;
+    private long position;
+    private long mark;
+
+    OffHeapInputStreamCache(OffHeapOutputStream owner, OffHeapOutputStream.Storage storage, ByteBuffer[] data) {
+        this.owner = owner;
+        this.storage = storage;
+        this.data = data;
+        this.buffers = duplicate(data);
+        this.inMemory = owner.inMemory();
+    }
+
+    /**
+     * Returns read-only views of the cached bytes, in order, which are independent of the position of this stream.
+     * <p/>
+     * The buffers are not returned to the pool while the views are in use, so this cache must be closed when
+     * the views are no longer used. The views must not be used after the cache has been closed.
+     *
+     * @throws IllegalStateException if the buffers have already been returned to the pool
+     */
+    public ByteBuffer[] getByteBuffers() {
+        if (viewsInUse.compareAndSet(false, true) && !storage.retainViews()) {
+            viewsInUse.set(false);
+            throw new IllegalStateException("The stream cache has already been released");
+        }
+        return duplicate(data);
+    }
+
+    private static ByteBuffer[] duplicate(ByteBuffer[] data) {
+        ByteBuffer[] answer = new ByteBuffer[data.length];
+        for (int i = 0; i < data.length; i++) {
+            answer[i] = data[i].duplicate();
+        }
+        return answer;
+    }
+
+    /**
+     * Ends the use of the views returned from {@link #getByteBuffers()}, so the buffers can be returned to the pool.
+     * The cache itself can still be read until the exchanges using it are done.
+     */
+    @Override
+    public void close() {
+        if (viewsInUse.compareAndSet(true, false)) {
+            storage.releaseViews();
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        retain();
+        try {
+            ByteBuffer buffer = currentBuffer();
+            if (buffer == null) {
+                return -1;
+            }
+            position++;
+            return buffer.get() & 0xff;
+        } finally {
+            storage.release();
+        }
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        retain();
+        try {
+            ByteBuffer buffer = currentBuffer();
+            if (buffer == null) {
+                return -1;
+            }
+            int count = 0;
+            while (buffer != null && count < len) {
+                int n = Math.min(len - count, buffer.remaining());
+                buffer.get(b, off + count, n);
+                count += n;
+                buffer = currentBuffer();
+            }
+            position += count;
+            return count;
+        } finally {
+            storage.release();
+        }
+    }
+
+    /**
+     * Acquires a reference to the storage while reading, so the buffers are not returned to the pool meanwhile.
+     */
+    private void retain() throws IOException {
+        if (!storage.retain()) {
+            throw new IOException("The stream cache has already been released");
+        }
+    }
+
+    private ByteBuffer currentBuffer() {
+        while (index < buffers.length) {
+            if (buffers[index].hasRemaining()) {
+                return buffers[index];
+            }
+            index++;
+        }
+        return null;
+    }
+
+    @Override
+    public long skip(long n) {
+        long target = Math.max(position, Math.min(position + n, length()));
+        long skipped = target - position;
+        seek(target);
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return (int) Math.min(Integer.MAX_VALUE, length() - position);
+    }
+
+    @Override
+    public boolean markSupported() {
+        return true;
+    }
+
+    @Override
+    public void mark(int readlimit) {
+        mark = position;
+    }
+
+    @Override
+    public void reset() {
+        seek(mark);
+    }
+
+    private void seek(long target) {
+        long start = 0;
+        index = buffers.length;
+        for (int i = 0; i < buffers.length; i++) {
+            int size = buffers[i].limit();
+            int offset = (int) Math.max(0, Math.min(size, target - start));
+            buffers[i].position(offset);
+            if (offset < size && i < index) {
+                index = i;
+            }
+            start += size;
+        }
+        position = target;
+    }
+
+    public void writeTo(OutputStream os) throws IOException {
+        retain();
+        try {
+            WritableByteChannel out;
+            if (os instanceof WritableByteChannel) {
+                out = (WritableByteChannel) os;
+            } else {
+                out = Channels.newChannel(os);
+            }
+            for (int i = index; i < buffers.length; i++) {
+                ByteBuffer source = buffers[i].duplicate();
+                while (source.hasRemaining()) {
+                    out.write(source);
+                }
+            }
+        } finally {
+            storage.release();
+        }
+    }
+
+    public StreamCache copy(Exchange exchange) throws IOException {
+        retain();
+        try {
+            owner.addExchange(exchange);
+            return new OffHeapInputStreamCache(owner, storage, data);
+        } finally {
+            storage.release();
+        }
+    }
+
+    public boolean inMemory() {
+        return inMemory;
+    }
+
+    public long length() {
+        long answer = 0;
+        for (ByteBuffer buffer : data) {
+            answer += buffer.limit();
+        }
+        return answer;
+    }
+}
@@ -0,0 +1,340 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.converter.stream;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.spi.StreamCachingStrategy;
+import org.apache.camel.spi.Synchronization;
+import org.apache.camel.spi.UnitOfWork;
+import org.apache.camel.support.SynchronizationAdapter;
+import org.apache.camel.util.FileUtil;
+import org.apache.camel.util.IOHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stores the content of a {@link CachedOutputStream} in direct buffers acquired from a {@link DirectBufferPool}.
+ * <p/>
+ * When the pool is exhausted, or the strategy decides the stream should be spooled, the remaining content
+ * is written into memory mapped segments of a temporary file. The content is never copied, and the
+ * {@link OffHeapInputStreamCache}s created from this stream are views of the buffers and segments.
+ * <p/>
+ * The buffers and the temporary file are reference counted. This stream holds a reference until it is released,
+ * which is when all the exchanges using the stream caches are done, or when the {@link CachedOutputStream} is
+ * closed if it is not closed on completion. The stream caches hold a reference while they are being read,
+ * and while the views returned from {@link OffHeapInputStreamCache#getByteBuffers()} are in use.
+ * The buffers are returned to the pool, and the segments are unmapped and the temporary file deleted,
+ * when the last reference is released. The storage of a stream which is garbage collected without
+ * being released is reclaimed as well.
+ */
+final class OffHeapOutputStream extends OutputStream {
+
+    static final int SEGMENT_SIZE = 4 * 1024 * 1024;
+
+    private static final Logger LOG = LoggerFactory.getLogger(OffHeapOutputStream.class);
+    // the storage of the streams which have not been freed, which must be kept reachable to be enqueued
+    private static final Set<Storage> STORAGES = Collections.newSetFromMap(new ConcurrentHashMap<Storage, Boolean>());
+    private static final ReferenceQueue<OffHeapOutputStream> UNREACHABLE = new ReferenceQueue<OffHeapOutputStream>();
+
+    private final StreamCachingStrategy strategy;
+    private final DirectBufferPool pool;
+    private final boolean closedOnCompletion;
+    private final AtomicInteger exchangeCounter = new AtomicInteger();
+    private final AtomicBoolean released = new AtomicBoolean();
+    private final Storage storage;
+    private ByteBuffer current;
+    private long length;
+
+    OffHeapOutputStream(StreamCachingStrategy strategy, DirectBufferPool pool, boolean closedOnCompletion) {
+        reclaimUnreachable();
+        this.strategy = strategy;
+        this.pool = pool;
+        this.closedOnCompletion = closedOnCompletion;
+        this.storage = new Storage(this, pool);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        retain();
+        try {
+            ensureCapacity();
+            current.put((byte) b);
+            length++;
+        } finally {
+            storage.release();
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        retain();
+        try {
+            while (len > 0) {
+                ensureCapacity();
+                int n = Math.min(len, current.remaining());
+                current.put(b, off, n);
+                off += n;
+                len -= n;
+                length += n;
+            }
+        } finally {
+            storage.release();
+        }
+    }
+
+    private void retain() throws IOException {
+        if (released.get() || !storage.retain()) {
+            throw new IOException("The stream cache has already been released");
+        }
+    }
+
+    private void ensureCapacity() throws IOException {
+        if (current != null && current.hasRemaining()) {
+            return;
+        }
+
+        if (storage.file == null) {
+            ByteBuffer buffer = null;
+            if (!strategy.shouldSpoolCache(length + pool.getBufferSize())) {
+                buffer = pool.acquire();
+            }
+            if (buffer != null) {
+                storage.buffers.add(buffer);
+                current = buffer;
+                return;
+            }
+
+            storage.tempFile = FileUtil.createTempFile("cos", ".tmp", strategy.getSpoolDirectory());
+            LOG.trace("Creating memory mapped stream cache file: {}", storage.tempFile);
+            storage.file = new RandomAccessFile(storage.tempFile, "rw");
+        }
+
+        long position = (long) storage.segments.size() * SEGMENT_SIZE;
+        current = storage.file.getChannel().map(FileChannel.MapMode.READ_WRITE, position, SEGMENT_SIZE);
+        storage.segments.add(current);
+    }
+
+    /**
+     * Whether the stream is held in pooled direct buffers only, and not spooled to a file.
+     */
+    boolean inMemory() {
+        return storage.file == null;
+    }
+
+    long length() {
+        return length;
+    }
+
+    OffHeapInputStreamCache newStreamCache() throws IOException {
+        retain();
+        try {
+            List<ByteBuffer> views = new ArrayList<ByteBuffer>(storage.buffers.size() + storage.segments.size());
+            addViews(storage.buffers, views);
+            addViews(storage.segments, views);
+            return new OffHeapInputStreamCache(this, storage, views.toArray(new ByteBuffer[views.size()]));
+        } finally {
+            storage.release();
+        }
+    }
+
+    private static void addViews(List<ByteBuffer> source, List<ByteBuffer> views) {
+        for (ByteBuffer buffer : source) {
+            ByteBuffer view = buffer.duplicate();
+            view.flip();
+            views.add(view.slice().asReadOnlyBuffer());
+        }
+    }
+
+    void addExchange(Exchange exchange) {
+        if (closedOnCompletion) {
+            exchangeCounter.incrementAndGet();
+            // add on completion so we can return the buffers to the pool after the exchange is done
+            Synchronization onCompletion = new SynchronizationAdapter() {
+                @Override
+                public void onDone(Exchange exchange) {
+                    if (exchangeCounter.decrementAndGet() == 0) {
+                        release();
+                    }
+                }
+
+                @Override
+                public String toString() {
+                    return "OnCompletion[CachedOutputStream]";
+                }
+            };
+            UnitOfWork streamCacheUnitOfWork = exchange.getProperty(Exchange.STREAM_CACHE_UNIT_OF_WORK, UnitOfWork.class);
+            if (streamCacheUnitOfWork != null) {
+                // the cached streams of sub-routes which are aggregated later must be released with the main route
+                streamCacheUnitOfWork.addSynchronization(onCompletion);
+            } else {
+                exchange.addOnCompletion(onCompletion);
+            }
+        }
+    }
+
+    /**
+     * Releases the reference of this stream, so the buffers are returned to the pool and the temporary file
+     * is deleted once the stream caches created from this stream are no longer in use.
+     */
+    void release() {
+        if (released.compareAndSet(false, true)) {
+            storage.release();
+        }
+    }
+
+    /**
+     * Reclaims the storage of the streams which have been garbage collected without being released.
+     */
+    private static void reclaimUnreachable() {
+        Storage storage;
+        while ((storage = (Storage) UNREACHABLE.poll()) != null) {
+            // nothing can retain the storage anymore, but the views of a stream cache which was not closed may still be in use
+            storage.references.set(0);
+            if (storage.views.get() == 0) {
+                LOG.debug("Reclaiming stream cache which has not been released: {}", storage);
+                storage.free(true);
+            } else {
+                LOG.warn("Stream cache was garbage collected with views in use, so its buffers are discarded from the pool: {}", storage);
+                storage.free(false);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "OffHeapOutputStream[length=" + length + ", " + storage + "]";
+    }
+
+    /**
+     * The buffers and temporary file holding the content of a stream, which are freed when the last reference is released.
+     * <p/>
+     * This is a phantom reference to the stream, which must not be referenced from here, so it is enqueued when the
+     * stream and its stream caches have been garbage collected.
+     */
+    static final class Storage extends PhantomReference<OffHeapOutputStream> {
+        private final DirectBufferPool pool;
+        private final List<ByteBuffer> buffers = new ArrayList<ByteBuffer>();
+        private final List<ByteBuffer> segments = new ArrayList<ByteBuffer>();
+        // the stream holds the initial reference
+        private final AtomicInteger references = new AtomicInteger(1);
+        // the number of stream caches whose views are in use
+        private final AtomicInteger views = new AtomicInteger();
+        private File tempFile;
+        private RandomAccessFile file;
+
+        Storage(OffHeapOutputStream stream, DirectBufferPool pool) {
+            super(stream, UNREACHABLE);
+            this.pool = pool;
+            STORAGES.add(this);
+        }
+
+        /**
+         * Acquires a reference, unless the storage has already been freed.
+         *
+         * @return <tt>true</tt> if a reference was acquired, which must be released afterwards
+         */
+        boolean retain() {
+            while (true) {
+                int count = references.get();
+                if (count == 0) {
+                    return false;
+                }
+                if (references.compareAndSet(count, count + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        void release() {
+            if (references.decrementAndGet() == 0) {
+                free(true);
+            }
+        }
+
+        boolean retainViews() {
+            if (retain()) {
+                views.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        void releaseViews() {
+            views.decrementAndGet();
+            release();
+        }
+
+        /**
+         * Frees the storage. Buffers which cannot be reused are discarded from the pool, so its capacity is not lost.
+         *
+         * @param reuse whether no views can be in use, so the buffers can be returned to the pool and the segments unmapped
+         */
+        private synchronized void free(boolean reuse) {
+            if (!STORAGES.remove(this)) {
+                return;
+            }
+            clear();
+            for (ByteBuffer buffer : buffers) {
+                if (reuse) {
+                    pool.release(buffer);
+                } else {
+                    pool.discard(buffer);
+                }
+            }
+            if (reuse) {
+                // the file can only be deleted on some platforms when it is no longer mapped
+                for (ByteBuffer segment : segments) {
+                    IOHelper.unmap(segment);
+                }
+            }
+            buffers.clear();
+            segments.clear();
+
+            if (file != null) {
+                IOHelper.close(file, tempFile.getName(), LOG);
+                try {
+                    FileUtil.deleteFile(tempFile);
+                } catch (Exception e) {
+                    LOG.warn("Error deleting temporary cache file: " + tempFile + ". This exception will be ignored.", e);
+                }
+                file = null;
+                tempFile = null;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Storage[buffers=" + buffers.size() + ", segments=" + segments.size() + ", references=" + references.get() + "]";
+        }
+    }
+}
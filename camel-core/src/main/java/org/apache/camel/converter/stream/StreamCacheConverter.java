@@ -22,6 +22,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.sax.SAXSource;
 import javax.xml.transform.stream.StreamSource;
@@ -103,4 +104,15 @@ public final class StreamCacheConverter {
         return os.toByteArray();
     }
 
+    @Converter
+    public static String convertToString(ByteBufferInputStreamCache cache, Exchange exchange) {
+        // decode the bytes directly without reading the stream
+        return cache.toString(IOHelper.getCharsetName(exchange));
+    }
+
+    @Converter
+    public static ByteBuffer convertToByteBuffer(ByteBufferInputStreamCache cache) {
+        return cache.getByteBuffer();
+    }
+
 }
@@ -0,0 +1,209 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.MessageHistory;
+import org.apache.camel.NamedNode;
+
+/**
+ * A compact message history which records the nodes an exchange has been processed by in arrays,
+ * with the start and elapsed times as {@link System#nanoTime()} deltas.
+ * <p/>
+ * No objects are allocated per node. The history is a {@link java.util.List} of {@link MessageHistory}
+ * so it can be used in place of the default message history, and the entries are created on demand
+ * when the list is read, such as when dumping the message history of a failed exchange.
+ *
+ * @see CompactMessageHistoryFactory
+ */
+public final class CompactMessageHistory extends AbstractList<MessageHistory> {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private final long timestamp;
+    private final long origin;
+    private String[] routeIds;
+    private NamedNode[] nodes;
+    // the start and the elapsed nanos of each node, where the elapsed nanos is -1 while in progress
+    private long[] times;
+    private int size;
+
+    public CompactMessageHistory() {
+        this.timestamp = System.currentTimeMillis();
+        this.origin = System.nanoTime();
+        this.routeIds = new String[INITIAL_CAPACITY];
+        this.nodes = new NamedNode[INITIAL_CAPACITY];
+        this.times = new long[INITIAL_CAPACITY * 2];
+    }
+
+    private CompactMessageHistory(CompactMessageHistory source) {
+        this.timestamp = source.timestamp;
+        this.origin = source.origin;
+        this.routeIds = Arrays.copyOf(source.routeIds, source.routeIds.length);
+        this.nodes = Arrays.copyOf(source.nodes, source.nodes.length);
+        this.times = Arrays.copyOf(source.times, source.times.length);
+        this.size = source.size;
+    }
+
+    /**
+     * Records that processing of the node has started.
+     */
+    public void nodeProcessingStarted(String routeId, NamedNode node) {
+        if (size == nodes.length) {
+            int capacity = size * 2;
+            routeIds = Arrays.copyOf(routeIds, capacity);
+            nodes = Arrays.copyOf(nodes, capacity);
+            times = Arrays.copyOf(times, capacity * 2);
+        }
+        routeIds[size] = routeId;
+        nodes[size] = node;
+        times[size * 2] = System.nanoTime() - origin;
+        times[size * 2 + 1] = -1;
+        size++;
+    }
+
+    /**
+     * Records that processing of the latest entry of the node, which is still in progress, is done.
+     */
+    public void nodeProcessingDone(NamedNode node) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (nodes[i] == node && times[i * 2 + 1] < 0) {
+                nodeProcessingDone(i);
+                return;
+            }
+        }
+    }
+
+    void nodeProcessingDone(int index) {
+        if (times[index * 2 + 1] < 0) {
+            times[index * 2 + 1] = System.nanoTime() - origin - times[index * 2];
+        }
+    }
+
+    /**
+     * Creates a copy of this history, to be used by a copy of the exchange.
+     */
+    public CompactMessageHistory copy() {
+        return new CompactMessageHistory(this);
+    }
+
+    /**
+     * Gets the time in millis when the history was created.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getRouteId(int index) {
+        checkIndex(index);
+        return routeIds[index];
+    }
+
+    public NamedNode getNode(int index) {
+        checkIndex(index);
+        return nodes[index];
+    }
+
+    /**
+     * Gets the nanos since the history was created, when processing of the node started.
+     */
+    public long getStartNanos(int index) {
+        checkIndex(index);
+        return times[index * 2];
+    }
+
+    /**
+     * Gets the nanos processing of the node took, or the nanos taken so far if the node is still in progress.
+     */
+    public long getElapsedNanos(int index) {
+        checkIndex(index);
+        long elapsed = times[index * 2 + 1];
+        return elapsed >= 0 ? elapsed : System.nanoTime() - origin - times[index * 2];
+    }
+
+    /**
+     * Whether processing of the node is done.
+     */
+    public boolean isDone(int index) {
+        checkIndex(index);
+        return times[index * 2 + 1] >= 0;
+    }
+
+    @Override
+    public MessageHistory get(int index) {
+        checkIndex(index);
+        return new Entry(this, index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    /**
+     * A view of an entry in the compact history.
+     */
+    private static final class Entry implements MessageHistory {
+
+        private final CompactMessageHistory history;
+        private final int index;
+
+        private Entry(CompactMessageHistory history, int index) {
+            this.history = history;
+            this.index = index;
+        }
+
+        public String getRouteId() {
+            return history.getRouteId(index);
+        }
+
+        public NamedNode getNode() {
+            return history.getNode(index);
+        }
+
+        public Date getTimestamp() {
+            return new Date(history.getTimestamp() + TimeUnit.NANOSECONDS.toMillis(history.getStartNanos(index)));
+        }
+
+        public long getElapsed() {
+            return TimeUnit.NANOSECONDS.toMillis(history.getElapsedNanos(index));
+        }
+
+        public void nodeProcessingDone() {
+            history.nodeProcessingDone(index);
+        }
+
+        @Override
+        public String toString() {
+            NamedNode node = getNode();
+            return "CompactMessageHistory["
+                    + "routeId=" + getRouteId()
+                    + ", node=" + (node != null ? node.getId() : null)
+                    + ']';
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.MessageHistory;
+import org.apache.camel.NamedNode;
+import org.apache.camel.spi.MessageHistoryExporter;
+import org.apache.camel.spi.MessageHistoryFactory;
+import org.apache.camel.support.SynchronizationAdapter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link MessageHistoryFactory} which records the message history in a {@link CompactMessageHistory}
+ * instead of creating a {@link MessageHistory} per node.
+ * <p/>
+ * The message history can be sampled, so only 1 in N exchanges is recorded, and the history of the
+ * recorded exchanges can be exported when they are done using a {@link MessageHistoryExporter}.
+ * Exchanges which are not sampled have an empty message history.
+ */
+public class CompactMessageHistoryFactory implements MessageHistoryFactory {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CompactMessageHistoryFactory.class);
+
+    private int sampleRate = 1;
+    private MessageHistoryExporter exporter;
+
+    public CompactMessageHistoryFactory() {
+    }
+
+    public CompactMessageHistoryFactory(int sampleRate) {
+        setSampleRate(sampleRate);
+    }
+
+    @Override
+    public MessageHistory newMessageHistory(String routeId, NamedNode node, Date timestamp) {
+        return new DefaultMessageHistory(routeId, node, timestamp);
+    }
+
+    /**
+     * Gets the message history of the exchange, which is created when the exchange is processed by the first node.
+     *
+     * @return the message history, or <tt>null</tt> if the exchange is not sampled
+     */
+    public CompactMessageHistory getMessageHistory(Exchange exchange) {
+        Object history = exchange.getProperty(Exchange.MESSAGE_HISTORY);
+        if (history instanceof CompactMessageHistory) {
+            return (CompactMessageHistory) history;
+        } else if (history != null) {
+            // not sampled
+            return null;
+        }
+
+        if (sampleRate > 1 && ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+            exchange.setProperty(Exchange.MESSAGE_HISTORY, Collections.emptyList());
+            return null;
+        }
+
+        final CompactMessageHistory answer = new CompactMessageHistory();
+        exchange.setProperty(Exchange.MESSAGE_HISTORY, answer);
+        if (exporter != null) {
+            exchange.addOnCompletion(new SynchronizationAdapter() {
+                @Override
+                public void onDone(Exchange exchange) {
+                    try {
+                        exporter.export(exchange, answer);
+                    } catch (Throwable e) {
+                        LOG.warn("Error exporting message history of exchange: " + exchange.getExchangeId() + ". This exception will be ignored.", e);
+                    }
+                }
+
+                @Override
+                public String toString() {
+                    return "OnCompletion[MessageHistoryExporter]";
+                }
+            });
+        }
+        return answer;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * Sets the sample rate, so the message history is only recorded for 1 in N exchanges picked at random.
+     * <p/>
+     * The default is <tt>1</tt> which records the message history for every exchange.
+     */
+    public void setSampleRate(int sampleRate) {
+        if (sampleRate < 1) {
+            throw new IllegalArgumentException("SampleRate must be 1 or higher, was: " + sampleRate);
+        }
+        this.sampleRate = sampleRate;
+    }
+
+    public MessageHistoryExporter getExporter() {
+        return exporter;
+    }
+
+    /**
+     * Sets an exporter which is invoked with the message history of the sampled exchanges when they are done.
+     */
+    public void setExporter(MessageHistoryExporter exporter) {
+        this.exporter = exporter;
+    }
+
+    @Override
+    public String toString() {
+        return "CompactMessageHistoryFactory[sampleRate=" + sampleRate + "]";
+    }
+}
@@ -543,13 +543,14 @@ public class DefaultCamelContext extends ServiceSupport implements ModelCamelCon
         final String rawUri = uri;
 
         // normalize uri so we can do endpoint hits with minor mistakes and parameters is not in the same order
-        uri = normalizeEndpointUri(uri);
+        // (the key is cached by the raw uri so the uri is only normalized the first time)
+        EndpointKey key = getEndpointKey(uri);
+        uri = key.get();
 
         log.trace("Getting endpoint with raw uri: {}, normalized uri: {}", rawUri, uri);
 
         Endpoint answer;
         String scheme = null;
-        EndpointKey key = getEndpointKey(uri);
         answer = endpoints.get(key);
         if (answer == null) {
             try {
@@ -673,6 +674,9 @@ public class DefaultCamelContext extends ServiceSupport implements ModelCamelCon
      * @return the key
      */
     protected EndpointKey getEndpointKey(String uri) {
+        if (endpoints instanceof DefaultEndpointRegistry) {
+            return ((DefaultEndpointRegistry) endpoints).getEndpointKey(uri);
+        }
         return new EndpointKey(uri);
     }
 
@@ -688,7 +692,7 @@ public class DefaultCamelContext extends ServiceSupport implements ModelCamelCon
             int counter = endpointKeyCounter.incrementAndGet();
             return new EndpointKey(uri + ":" + counter);
         } else {
-            return new EndpointKey(uri);
+            return getEndpointKey(uri);
         }
     }
 
@@ -37,6 +37,8 @@ import org.apache.camel.util.ServiceHelper;
 public class DefaultEndpointRegistry extends LRUCache<EndpointKey, Endpoint> implements EndpointRegistry<EndpointKey> {
     private static final long serialVersionUID = 1L;
     private ConcurrentMap<EndpointKey, Endpoint> staticMap;
+    // cache of the keys by the raw uris, so uris are not normalized on every lookup
+    private final LRUCache<String, EndpointKey> keys;
     private final CamelContext context;
 
     public DefaultEndpointRegistry(CamelContext context) {
@@ -44,6 +46,7 @@ public class DefaultEndpointRegistry extends LRUCache<EndpointKey, Endpoint> imp
         super(CamelContextHelper.getMaximumEndpointCacheSize(context), CamelContextHelper.getMaximumEndpointCacheSize(context), false);
         // static map to hold endpoints we do not want to be evicted
         this.staticMap = new ConcurrentHashMap<EndpointKey, Endpoint>();
+        this.keys = new LRUCache<String, EndpointKey>(CamelContextHelper.getMaximumEndpointCacheSize(context));
         this.context = context;
     }
 
@@ -57,6 +60,50 @@ public class DefaultEndpointRegistry extends LRUCache<EndpointKey, Endpoint> imp
         resetStatistics();
     }
 
+    @Override
+    public void resetStatistics() {
+        super.resetStatistics();
+        keys.resetStatistics();
+    }
+
+    /**
+     * Gets the key for the endpoint with the given uri, which is the normalized uri.
+     * <p/>
+     * The keys are cached by the uri, so an uri is only normalized the first time it is looked up.
+     *
+     * @param uri the endpoint uri
+     * @return the key
+     */
+    EndpointKey getEndpointKey(String uri) {
+        EndpointKey answer = keys.get(uri);
+        if (answer == null) {
+            answer = new EndpointKey(uri);
+            keys.put(uri, answer);
+        }
+        return answer;
+    }
+
+    /**
+     * Number of times an uri was found in the cache of normalized uris
+     */
+    public long getNormalizedUriHits() {
+        return keys.getHits();
+    }
+
+    /**
+     * Number of times an uri was not found in the cache of normalized uris, and had to be normalized
+     */
+    public long getNormalizedUriMisses() {
+        return keys.getMisses();
+    }
+
+    /**
+     * Number of uris in the cache of normalized uris
+     */
+    public int getNormalizedUriCacheSize() {
+        return keys.size();
+    }
+
     @Override
     public Endpoint get(Object o) {
         // try static map first
@@ -188,12 +235,12 @@ public class DefaultEndpointRegistry extends LRUCache<EndpointKey, Endpoint> imp
 
     @Override
     public boolean isStatic(String key) {
-        return staticMap.containsKey(new EndpointKey(key));
+        return staticMap.containsKey(getEndpointKey(key));
     }
 
     @Override
     public boolean isDynamic(String key) {
-        return super.containsKey(new EndpointKey(key));
+        return super.containsKey(getEndpointKey(key));
     }
 
     @Override
@@ -201,6 +248,7 @@ public class DefaultEndpointRegistry extends LRUCache<EndpointKey, Endpoint> imp
         ServiceHelper.stopServices(staticMap.values());
         ServiceHelper.stopServices(values());
         purge();
+        keys.clear();
     }
 
     @Override
@@ -17,6 +17,7 @@
 package org.apache.camel.impl;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -29,9 +30,10 @@ import org.apache.camel.Message;
 import org.apache.camel.MessageHistory;
 import org.apache.camel.spi.Synchronization;
 import org.apache.camel.spi.UnitOfWork;
-import org.apache.camel.util.CaseInsensitiveMap;
+import org.apache.camel.util.CaseInsensitiveHashMap;
 import org.apache.camel.util.EndpointHelper;
 import org.apache.camel.util.ExchangeHelper;
+import org.apache.camel.util.MessageHelper;
 import org.apache.camel.util.ObjectHelper;
 
 /**
@@ -42,7 +44,10 @@ import org.apache.camel.util.ObjectHelper;
 public final class DefaultExchange implements Exchange {
 
     protected final CamelContext context;
-    private Map<String, Object> properties;
+    private volatile Map<String, Object> properties;
+    // an immutable snapshot of properties shared with other copies, which is used until
+    // the properties are changed for the first time (see copyOnWrite)
+    private volatile Map<String, Object> sharedProperties;
     private Message in;
     private Message out;
     private Exception exception;
@@ -93,24 +98,11 @@ public final class DefaultExchange implements Exchange {
         DefaultExchange exchange = new DefaultExchange(this);
 
         if (hasProperties()) {
-            exchange.setProperties(safeCopyProperties(getProperties()));
+            exchange.setProperties(safeCopyProperties(currentProperties()));
         }
 
         if (safeCopy) {
-            exchange.getIn().setBody(getIn().getBody());
-            if (getIn().hasHeaders()) {
-                exchange.getIn().setHeaders(safeCopyHeaders(getIn().getHeaders()));
-                // just copy the attachments here
-                exchange.getIn().copyAttachments(getIn());
-            }
-            if (hasOut()) {
-                exchange.getOut().setBody(getOut().getBody());
-                if (getOut().hasHeaders()) {
-                    exchange.getOut().setHeaders(safeCopyHeaders(getOut().getHeaders()));
-                }
-                // Just copy the attachments here
-                exchange.getOut().copyAttachments(getOut());
-            }
+            safeCopyMessages(exchange);
         } else {
             // old way of doing copy which is @deprecated
             // TODO: remove this in Camel 3.0, and always do a safe copy
@@ -123,15 +115,50 @@ public final class DefaultExchange implements Exchange {
         return exchange;
     }
 
+    /**
+     * Creates a safe copy of this exchange, the same as {@link #copy(boolean)} with <tt>true</tt>,
+     * but where the copy shares the properties and headers with this exchange until they are changed.
+     * <p/>
+     * The copy is given an immutable snapshot of the properties, and only creates its own properties
+     * when they are changed for the first time. This exchange is not changed, and when it is itself an unchanged
+     * copy its snapshot is reused, which makes copying cheap for the EIPs which create many copies, such as the splitter.
+     * The headers are copy on write by the {@link CaseInsensitiveHashMap}.
+     *
+     * @return the copy
+     */
+    public Exchange copyOnWrite() {
+        DefaultExchange exchange = new DefaultExchange(this);
+        exchange.sharedProperties = snapshotProperties();
+        safeCopyMessages(exchange);
+        exchange.setException(getException());
+        return exchange;
+    }
+
+    private void safeCopyMessages(DefaultExchange exchange) {
+        exchange.getIn().setBody(getIn().getBody());
+        if (getIn().hasHeaders()) {
+            exchange.getIn().setHeaders(safeCopyHeaders(getIn().getHeaders()));
+            // just copy the attachments here
+            exchange.getIn().copyAttachments(getIn());
+        }
+        if (hasOut()) {
+            exchange.getOut().setBody(getOut().getBody());
+            if (getOut().hasHeaders()) {
+                exchange.getOut().setHeaders(safeCopyHeaders(getOut().getHeaders()));
+            }
+            // Just copy the attachments here
+            exchange.getOut().copyAttachments(getOut());
+        }
+    }
+
     @SuppressWarnings("unchecked")
     private static Map<String, Object> safeCopyHeaders(Map<String, Object> headers) {
         if (headers == null) {
             return null;
         }
 
-        Map<String, Object> answer = new CaseInsensitiveMap();
-        answer.putAll(headers);
-        return answer;
+        // the copy shares the entries with the source headers until either is modified
+        return new CaseInsensitiveHashMap(headers);
     }
 
     @SuppressWarnings("unchecked")
@@ -146,7 +173,7 @@ public final class DefaultExchange implements Exchange {
         // safe copy message history using a defensive copy
         List<MessageHistory> history = (List<MessageHistory>) answer.remove(Exchange.MESSAGE_HISTORY);
         if (history != null) {
-            answer.put(Exchange.MESSAGE_HISTORY, new ArrayList<MessageHistory>(history));
+            answer.put(Exchange.MESSAGE_HISTORY, MessageHelper.copyMessageHistory(history));
         }
 
         return answer;
@@ -157,8 +184,17 @@ public final class DefaultExchange implements Exchange {
     }
 
     public Object getProperty(String name) {
-        if (properties != null) {
-            return properties.get(name);
+        Map<String, Object> map = properties;
+        if (map != null) {
+            return map.get(name);
+        }
+        map = sharedProperties;
+        if (map != null) {
+            if (Exchange.MESSAGE_HISTORY.equals(name) && map.containsKey(name)) {
+                // the message history is added to so it must not be shared
+                return getProperties().get(name);
+            }
+            return map.get(name);
         }
         return null;
     }
@@ -237,14 +273,15 @@ public final class DefaultExchange implements Exchange {
         }
 
         boolean matches = false;
-        for (Map.Entry<String, Object> entry : properties.entrySet()) {
+        Map<String, Object> map = getProperties();
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
             String key = entry.getKey();
             if (EndpointHelper.matchPattern(key, pattern)) {
                 if (excludePatterns != null && isExcludePatternMatch(key, excludePatterns)) {
                     continue;
                 }
                 matches = true;
-                properties.remove(entry.getKey());
+                map.remove(entry.getKey());
             }
 
         }
@@ -252,18 +289,63 @@ public final class DefaultExchange implements Exchange {
     }
 
     public Map<String, Object> getProperties() {
-        if (properties == null) {
-            properties = new ConcurrentHashMap<String, Object>();
+        Map<String, Object> answer = properties;
+        if (answer == null) {
+            answer = createProperties();
         }
-        return properties;
+        return answer;
     }
 
     public boolean hasProperties() {
-        return properties != null && !properties.isEmpty();
+        Map<String, Object> map = currentProperties();
+        return map != null && !map.isEmpty();
     }
 
     public void setProperties(Map<String, Object> properties) {
         this.properties = properties;
+        this.sharedProperties = null;
+    }
+
+    /**
+     * Creates the properties of this exchange on first use, from the shared snapshot if any.
+     */
+    private synchronized Map<String, Object> createProperties() {
+        if (properties == null) {
+            Map<String, Object> snapshot = sharedProperties;
+            properties = snapshot != null ? safeCopyProperties(snapshot) : new ConcurrentHashMap<String, Object>();
+            sharedProperties = null;
+        }
+        return properties;
+    }
+
+    /**
+     * Gets the current properties without creating them, which must not be modified.
+     */
+    private Map<String, Object> currentProperties() {
+        Map<String, Object> answer = properties;
+        return answer != null ? answer : sharedProperties;
+    }
+
+    /**
+     * Takes an immutable snapshot of the current properties to share with a copy of this exchange.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> snapshotProperties() {
+        Map<String, Object> map = properties;
+        if (map == null) {
+            // unchanged since copied so the snapshot can be shared again
+            return sharedProperties;
+        }
+        if (map.isEmpty()) {
+            return null;
+        }
+        Map<String, Object> answer = new HashMap<String, Object>(map);
+        // the message history is added to, so the snapshot must have its own copy
+        List<MessageHistory> history = (List<MessageHistory>) answer.get(Exchange.MESSAGE_HISTORY);
+        if (history != null) {
+            answer.put(Exchange.MESSAGE_HISTORY, MessageHelper.copyMessageHistory(history));
+        }
+        return answer;
     }
 
     public Message getIn() {
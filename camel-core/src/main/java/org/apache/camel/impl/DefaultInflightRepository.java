@@ -24,6 +24,7 @@ import java.util.Date;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.camel.Endpoint;
@@ -174,6 +175,11 @@ public class DefaultInflightRepository extends ServiceSupport implements Infligh
             if (list == null || list.isEmpty()) {
                 return 0;
             }
+            if (list instanceof CompactMessageHistory) {
+                // avoid creating an entry of the compact history
+                CompactMessageHistory compact = (CompactMessageHistory) list;
+                return TimeUnit.NANOSECONDS.toMillis(compact.getElapsedNanos(compact.size() - 1));
+            }
 
             // get latest entry
             MessageHistory history = list.get(list.size() - 1);
@@ -191,6 +197,10 @@ public class DefaultInflightRepository extends ServiceSupport implements Infligh
             if (list == null || list.isEmpty()) {
                 return null;
             }
+            if (list instanceof CompactMessageHistory) {
+                CompactMessageHistory compact = (CompactMessageHistory) list;
+                return compact.getNode(compact.size() - 1).getId();
+            }
 
             // get latest entry
             MessageHistory history = list.get(list.size() - 1);
@@ -208,6 +218,10 @@ public class DefaultInflightRepository extends ServiceSupport implements Infligh
             if (list == null || list.isEmpty()) {
                 return null;
             }
+            if (list instanceof CompactMessageHistory) {
+                CompactMessageHistory compact = (CompactMessageHistory) list;
+                return compact.getRouteId(compact.size() - 1);
+            }
 
             // get latest entry
             MessageHistory history = list.get(list.size() - 1);
@@ -23,16 +23,17 @@ import java.util.Set;
 import javax.activation.DataHandler;
 
 import org.apache.camel.Exchange;
+import org.apache.camel.util.CaseInsensitiveHashMap;
 import org.apache.camel.util.CaseInsensitiveMap;
 import org.apache.camel.util.EndpointHelper;
 
 /**
  * The default implementation of {@link org.apache.camel.Message}
  * <p/>
- * This implementation uses a {@link org.apache.camel.util.CaseInsensitiveMap} storing the headers.
+ * This implementation uses a {@link org.apache.camel.util.CaseInsensitiveHashMap} storing the headers.
  * This allows us to be able to lookup headers using case insensitive keys, making it easier for end users
  * as they do not have to be worried about using exact keys.
- * See more details at {@link org.apache.camel.util.CaseInsensitiveMap}.
+ * See more details at {@link org.apache.camel.util.CaseInsensitiveHashMap}.
  *
  * @version 
  */
@@ -164,11 +165,11 @@ public class DefaultMessage extends MessageSupport {
     }
 
     public void setHeaders(Map<String, Object> headers) {
-        if (headers instanceof CaseInsensitiveMap) {
+        if (headers instanceof CaseInsensitiveHashMap || headers instanceof CaseInsensitiveMap) {
             this.headers = headers;
         } else {
             // wrap it in a case insensitive map
-            this.headers = new CaseInsensitiveMap(headers);
+            this.headers = new CaseInsensitiveHashMap(headers);
         }
     }
 
@@ -193,7 +194,7 @@ public class DefaultMessage extends MessageSupport {
      *         the underlying inbound transport
      */
     protected Map<String, Object> createHeaders() {
-        Map<String, Object> map = new CaseInsensitiveMap();
+        Map<String, Object> map = new CaseInsensitiveHashMap();
         populateInitialHeaders(map);
         return map;
     }
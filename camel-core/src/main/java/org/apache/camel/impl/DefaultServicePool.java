@@ -18,7 +18,6 @@ package org.apache.camel.impl;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -26,11 +25,15 @@ import java.util.concurrent.ConcurrentMap;
 import org.apache.camel.spi.ServicePool;
 import org.apache.camel.support.ServiceSupport;
 import org.apache.camel.util.ServiceHelper;
+import org.apache.camel.util.concurrent.LockFreeArrayBlockingQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Default implementation to inherit for a basic service pool.
+ * <p/>
+ * Each key has its own pool using a lock-free queue, so acquiring and releasing services does not lock,
+ * and threads using different keys do not contend with each other.
  *
  * @version 
  */
@@ -54,7 +57,7 @@ public abstract class DefaultServicePool<Key, Service> extends ServiceSupport im
         this.capacity = capacity;
     }
 
-    public synchronized int size() {
+    public int size() {
         int size = 0;
         for (BlockingQueue<Service> entry : pool.values()) {
             size += entry.size();
@@ -62,11 +65,14 @@ public abstract class DefaultServicePool<Key, Service> extends ServiceSupport im
         return size;
     }
 
-    public synchronized Service addAndAcquire(Key key, Service service) {
+    public Service addAndAcquire(Key key, Service service) {
         BlockingQueue<Service> entry = pool.get(key);
         if (entry == null) {
-            entry = new ArrayBlockingQueue<Service>(capacity);
-            pool.put(key, entry);
+            entry = new LockFreeArrayBlockingQueue<Service>(capacity);
+            BlockingQueue<Service> existing = pool.putIfAbsent(key, entry);
+            if (existing != null) {
+                entry = existing;
+            }
         }
         log.trace("AddAndAcquire key: {} service: {}", key, service);
 
@@ -77,19 +83,19 @@ public abstract class DefaultServicePool<Key, Service> extends ServiceSupport im
         return service;
     }
 
-    public synchronized Service acquire(Key key) {
+    public Service acquire(Key key) {
         BlockingQueue<Service> services = pool.get(key);
-        if (services == null || services.isEmpty()) {
+        Service answer = services != null ? services.poll() : null;
+        if (answer == null) {
             log.trace("No free services in pool to acquire for key: {}", key);
             return null;
         }
 
-        Service answer = services.poll();
         log.trace("Acquire: {} service: {}", key, answer);
         return answer;
     }
 
-    public synchronized void release(Key key, Service service) {
+    public void release(Key key, Service service) {
         log.trace("Release: {} service: {}", key, service);
         BlockingQueue<Service> services = pool.get(key);
         if (services != null) {
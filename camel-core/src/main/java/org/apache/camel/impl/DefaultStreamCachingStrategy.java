@@ -27,6 +27,7 @@ import org.apache.camel.CamelContext;
 import org.apache.camel.CamelContextAware;
 import org.apache.camel.Exchange;
 import org.apache.camel.StreamCache;
+import org.apache.camel.converter.stream.DirectBufferPool;
 import org.apache.camel.spi.StreamCachingStrategy;
 import org.apache.camel.util.FilePathResolver;
 import org.apache.camel.util.FileUtil;
@@ -59,6 +60,8 @@ public class DefaultStreamCachingStrategy extends org.apache.camel.support.Servi
     private SpoolUsedHeapMemoryLimit spoolUsedHeapMemoryLimit;
     private String spoolChiper;
     private int bufferSize = IOHelper.DEFAULT_BUFFER_SIZE;
+    private long offHeapMemory;
+    private volatile DirectBufferPool offHeapBufferPool;
     private boolean removeSpoolDirectoryWhenStopping = true;
     private final UtilizationStatistics statistics = new UtilizationStatistics();
     private final Set<SpoolRule> spoolRules = new LinkedHashSet<SpoolRule>();
@@ -132,6 +135,31 @@ public class DefaultStreamCachingStrategy extends org.apache.camel.support.Servi
         this.bufferSize = bufferSize;
     }
 
+    public long getOffHeapMemory() {
+        return offHeapMemory;
+    }
+
+    /**
+     * Sets the maximum number of bytes of off-heap (direct) memory to use for in-memory stream caches.
+     * <p/>
+     * When set the stream caches are stored in pooled direct buffers instead of on the heap, and overflow
+     * is spooled to memory mapped files. The buffers have the size of {@link #getBufferSize()}.
+     * <p/>
+     * The default is <tt>0</tt> which keeps the in-memory stream caches on the heap.
+     */
+    public void setOffHeapMemory(long offHeapMemory) {
+        this.offHeapMemory = offHeapMemory;
+    }
+
+    /**
+     * Gets the pool of direct buffers used for off-heap stream caches.
+     *
+     * @return the pool, or <tt>null</tt> if off-heap memory is not in use
+     */
+    public DirectBufferPool getOffHeapBufferPool() {
+        return offHeapBufferPool;
+    }
+
     public boolean isRemoveSpoolDirectoryWhenStopping() {
         return removeSpoolDirectoryWhenStopping;
     }
@@ -264,7 +292,7 @@ public class DefaultStreamCachingStrategy extends org.apache.camel.support.Servi
         }
 
         // if we can overflow to disk then make sure directory exists / is created
-        if (spoolThreshold > 0 || spoolUsedHeapMemoryThreshold > 0) {
+        if (spoolThreshold > 0 || spoolUsedHeapMemoryThreshold > 0 || offHeapMemory > 0) {
 
             if (spoolDirectory == null && spoolDirectoryName == null) {
                 throw new IllegalArgumentException("SpoolDirectory must be configured when using SpoolThreshold > 0");
@@ -308,6 +336,11 @@ public class DefaultStreamCachingStrategy extends org.apache.camel.support.Servi
             }
         }
 
+        if (offHeapMemory > 0) {
+            offHeapBufferPool = new DirectBufferPool(offHeapMemory, this.bufferSize);
+            LOG.debug("Using off-heap buffer pool: {}", offHeapBufferPool);
+        }
+
         LOG.debug("StreamCaching configuration {}", this.toString());
 
         if (spoolDirectory != null) {
@@ -329,6 +362,8 @@ public class DefaultStreamCachingStrategy extends org.apache.camel.support.Servi
         }
 
         statistics.reset();
+        // the direct buffers are freed when the pool is garbage collected
+        offHeapBufferPool = null;
     }
 
     @Override
@@ -339,6 +374,7 @@ public class DefaultStreamCachingStrategy extends org.apache.camel.support.Servi
             + ", spoolThreshold=" + spoolThreshold
             + ", spoolUsedHeapMemoryThreshold=" + spoolUsedHeapMemoryThreshold
             + ", bufferSize=" + bufferSize
+            + ", offHeapMemory=" + offHeapMemory
             + ", anySpoolRules=" + anySpoolRules + "]";
     }
 
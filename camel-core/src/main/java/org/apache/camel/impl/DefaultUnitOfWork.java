@@ -177,6 +177,18 @@ public class DefaultUnitOfWork implements UnitOfWork, Service {
     }
 
     public synchronized void addSynchronization(Synchronization synchronization) {
+        doAddSynchronization(synchronization);
+    }
+
+    public synchronized void removeSynchronization(Synchronization synchronization) {
+        doRemoveSynchronization(synchronization);
+    }
+
+    public synchronized boolean containsSynchronization(Synchronization synchronization) {
+        return doContainsSynchronization(synchronization);
+    }
+
+    void doAddSynchronization(Synchronization synchronization) {
         if (synchronizations == null) {
             synchronizations = new ArrayList<Synchronization>();
         }
@@ -184,13 +196,13 @@ public class DefaultUnitOfWork implements UnitOfWork, Service {
         synchronizations.add(synchronization);
     }
 
-    public synchronized void removeSynchronization(Synchronization synchronization) {
+    void doRemoveSynchronization(Synchronization synchronization) {
         if (synchronizations != null) {
             synchronizations.remove(synchronization);
         }
     }
 
-    public synchronized boolean containsSynchronization(Synchronization synchronization) {
+    boolean doContainsSynchronization(Synchronization synchronization) {
         return synchronizations != null && synchronizations.contains(synchronization);
     }
 
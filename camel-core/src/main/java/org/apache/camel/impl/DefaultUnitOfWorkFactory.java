@@ -25,11 +25,31 @@ import org.apache.camel.spi.UnitOfWorkFactory;
  */
 public class DefaultUnitOfWorkFactory implements UnitOfWorkFactory {
 
+    private boolean threadConfined;
+
+    public boolean isThreadConfined() {
+        return threadConfined;
+    }
+
+    /**
+     * Whether to create unit of works which do not lock when accessing their route context stack and
+     * synchronizations, as an exchange is only routed by a single thread at any time.
+     * <p/>
+     * This is not in use when MDC logging is enabled.
+     *
+     * @see ThreadConfinedUnitOfWork
+     */
+    public void setThreadConfined(boolean threadConfined) {
+        this.threadConfined = threadConfined;
+    }
+
     @Override
     public UnitOfWork createUnitOfWork(Exchange exchange) {
         UnitOfWork answer;
         if (exchange.getContext().isUseMDCLogging()) {
             answer = new MDCUnitOfWork(exchange);
+        } else if (threadConfined) {
+            answer = new ThreadConfinedUnitOfWork(exchange);
         } else {
             answer = new DefaultUnitOfWork(exchange);
         }
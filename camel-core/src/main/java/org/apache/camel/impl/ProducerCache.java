@@ -16,7 +16,14 @@
  */
 package org.apache.camel.impl;
 
+import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.camel.AsyncCallback;
 import org.apache.camel.AsyncProcessor;
@@ -45,6 +52,9 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Cache containing created {@link Producer}.
+ * <p/>
+ * Looking up a cached producer does not lock, and when a producer has to be created only the threads
+ * which need a producer for the same endpoint wait for it to be created.
  *
  * @version 
  */
@@ -55,6 +65,9 @@ public class ProducerCache extends ServiceSupport {
     private final ServicePool<Endpoint, Producer> pool;
     private final Map<String, Producer> producers;
     private final Object source;
+    private final ConcurrentMap<String, CreateProducerTask> creating = new ConcurrentHashMap<String, CreateProducerTask>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
 
     private EndpointUtilizationStatistics statistics;
     private boolean eventNotifierEnabled = true;
@@ -85,7 +98,8 @@ public class ProducerCache extends ServiceSupport {
             this.pool = producerServicePool;
             this.stopServicePool = true;
         }
-        this.producers = cache;
+        // the cache is looked up without locking, so a map which is not thread safe must be synchronized
+        this.producers = cache instanceof ConcurrentMap || cache instanceof LRUCache ? cache : Collections.synchronizedMap(cache);
         if (producers instanceof LRUCache) {
             maxCacheSize = ((LRUCache) producers).getMaxCacheSize();
         }
@@ -425,7 +439,7 @@ public class ProducerCache extends ServiceSupport {
         });
     }
 
-    protected synchronized Producer doGetProducer(Endpoint endpoint, boolean pooled) {
+    protected Producer doGetProducer(Endpoint endpoint, boolean pooled) {
         String key = endpoint.getEndpointUri();
         Producer answer = producers.get(key);
         if (pooled && answer == null) {
@@ -433,34 +447,87 @@ public class ProducerCache extends ServiceSupport {
             answer = pool.acquire(endpoint);
         }
 
-        if (answer == null) {
-            // create a new producer
+        if (answer != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            answer = createProducer(endpoint, key, pooled);
+        }
+
+        // record statistics
+        if (extendedStatistics) {
+            statistics.onHit(key);
+        }
+
+        return answer;
+    }
+
+    private Producer createProducer(final Endpoint endpoint, final String key, final boolean pooled) {
+        // only one thread creates the producer for the endpoint, and the others wait for it instead of creating their own
+        CreateProducerTask task = new CreateProducerTask(new Callable<Producer>() {
+            public Producer call() throws Exception {
+                // another thread may just have created it before we got here
+                Producer answer = producers.get(key);
+                return answer != null ? answer : doCreateProducer(endpoint, key, pooled);
+            }
+        });
+        CreateProducerTask existing = creating.putIfAbsent(key, task);
+        if (existing == null) {
             try {
-                answer = endpoint.createProducer();
-                // add as service which will also start the service
-                // (false => we and handling the lifecycle of the producer in this cache)
-                getCamelContext().addService(answer, false);
-            } catch (Exception e) {
-                throw new FailedToCreateProducerException(endpoint, e);
+                task.run();
+                return getCreatedProducer(endpoint, task);
+            } finally {
+                creating.remove(key, task);
             }
+        }
 
-            // add producer to cache or pool if applicable
-            if (pooled && answer instanceof ServicePoolAware) {
-                LOG.debug("Adding to producer service pool with key: {} for producer: {}", endpoint, answer);
-                answer = pool.addAndAcquire(endpoint, answer);
-            } else if (answer.isSingleton()) {
-                LOG.debug("Adding to producer cache with key: {} for producer: {}", endpoint, answer);
-                producers.put(key, answer);
-            }
+        if (existing.owner == Thread.currentThread()) {
+            // the producer for the same endpoint is needed while this thread is creating it, so we must not wait for it
+            return doCreateProducer(endpoint, key, pooled);
         }
 
-        if (answer != null) {
-            // record statistics
-            if (extendedStatistics) {
-                statistics.onHit(key);
+        getCreatedProducer(endpoint, existing);
+        // the producer can only be shared if it was added to the cache, as otherwise it is not a singleton
+        // or it has been acquired from the pool by the other thread
+        Producer answer = producers.get(key);
+        return answer != null ? answer : doCreateProducer(endpoint, key, pooled);
+    }
+
+    private static Producer getCreatedProducer(Endpoint endpoint, FutureTask<Producer> task) {
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
             }
+            throw new FailedToCreateProducerException(endpoint, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FailedToCreateProducerException(endpoint, e);
+        }
+    }
+
+    protected Producer doCreateProducer(Endpoint endpoint, String key, boolean pooled) {
+        Producer answer;
+        try {
+            answer = endpoint.createProducer();
+            // add as service which will also start the service
+            // (false => we and handling the lifecycle of the producer in this cache)
+            getCamelContext().addService(answer, false);
+        } catch (Exception e) {
+            throw new FailedToCreateProducerException(endpoint, e);
         }
 
+        // add producer to cache or pool if applicable
+        if (pooled && answer instanceof ServicePoolAware) {
+            LOG.debug("Adding to producer service pool with key: {} for producer: {}", endpoint, answer);
+            answer = pool.addAndAcquire(endpoint, answer);
+        } else if (answer.isSingleton()) {
+            LOG.debug("Adding to producer cache with key: {} for producer: {}", endpoint, answer);
+            producers.put(key, answer);
+        }
         return answer;
     }
 
@@ -524,35 +591,21 @@ public class ProducerCache extends ServiceSupport {
     }
 
     /**
-     * Gets the cache hits statistic
-     * <p/>
-     * Will return <tt>-1</tt> if it cannot determine this if a custom cache was used.
+     * Gets the cache hits statistic, which is the number of producers acquired from the cache or pool
      *
      * @return the hits
      */
     public long getHits() {
-        long hits = -1;
-        if (producers instanceof LRUCache) {
-            LRUCache<String, Producer> cache = (LRUCache<String, Producer>)producers;
-            hits = cache.getHits();
-        }
-        return hits;
+        return hits.get();
     }
 
     /**
-     * Gets the cache misses statistic
-     * <p/>
-     * Will return <tt>-1</tt> if it cannot determine this if a custom cache was used.
+     * Gets the cache misses statistic, which is the number of producers which had to be created
      *
      * @return the misses
      */
     public long getMisses() {
-        long misses = -1;
-        if (producers instanceof LRUCache) {
-            LRUCache<String, Producer> cache = (LRUCache<String, Producer>)producers;
-            misses = cache.getMisses();
-        }
-        return misses;
+        return misses.get();
     }
 
     /**
@@ -575,6 +628,8 @@ public class ProducerCache extends ServiceSupport {
      * Resets the cache statistics
      */
     public void resetCacheStatistics() {
+        hits.set(0);
+        misses.set(0);
         if (producers instanceof LRUCache) {
             LRUCache<String, Producer> cache = (LRUCache<String, Producer>)producers;
             cache.resetStatistics();
@@ -603,4 +658,15 @@ public class ProducerCache extends ServiceSupport {
     public String toString() {
         return "ProducerCache for source: " + source + ", capacity: " + getCapacity();
     }
+
+    /**
+     * Creates a producer, and remembers the thread which creates it.
+     */
+    private static final class CreateProducerTask extends FutureTask<Producer> {
+        private final Thread owner = Thread.currentThread();
+
+        private CreateProducerTask(Callable<Producer> callable) {
+            super(callable);
+        }
+    }
 }
@@ -0,0 +1,102 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.spi.RouteContext;
+import org.apache.camel.spi.Synchronization;
+import org.apache.camel.spi.UnitOfWork;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link org.apache.camel.spi.UnitOfWork} which does not lock when the route context stack and the
+ * synchronizations are accessed, as the unit of work is confined to the thread which is routing the exchange.
+ * <p/>
+ * The route context stack is kept in an unsynchronized {@link ArrayDeque} and the synchronizations are
+ * added without locking. When the exchange continues being routed by another thread, such as when
+ * an asynchronous processor completes, the exchange is handed over using the executors and queues of the
+ * routing engine, which safely publishes the state of this unit of work to the next thread.
+ * <p/>
+ * This unit of work must only be used when the exchange is not accessed by multiple threads concurrently,
+ * which is the case unless custom code adds on completions to the exchange from other threads.
+ *
+ * @see DefaultUnitOfWorkFactory#setThreadConfined(boolean)
+ */
+public class ThreadConfinedUnitOfWork extends DefaultUnitOfWork {
+    private static final Logger LOG = LoggerFactory.getLogger(ThreadConfinedUnitOfWork.class);
+
+    private Deque<RouteContext> routeContextStack;
+
+    public ThreadConfinedUnitOfWork(Exchange exchange) {
+        super(exchange, LOG);
+    }
+
+    @Override
+    UnitOfWork newInstance(Exchange exchange) {
+        return new ThreadConfinedUnitOfWork(exchange);
+    }
+
+    @Override
+    public void stop() throws Exception {
+        super.stop();
+        if (routeContextStack != null) {
+            routeContextStack.clear();
+        }
+    }
+
+    @Override
+    public void addSynchronization(Synchronization synchronization) {
+        doAddSynchronization(synchronization);
+    }
+
+    @Override
+    public void removeSynchronization(Synchronization synchronization) {
+        doRemoveSynchronization(synchronization);
+    }
+
+    @Override
+    public boolean containsSynchronization(Synchronization synchronization) {
+        return doContainsSynchronization(synchronization);
+    }
+
+    @Override
+    public RouteContext getRouteContext() {
+        return routeContextStack != null ? routeContextStack.peek() : null;
+    }
+
+    @Override
+    public void pushRouteContext(RouteContext routeContext) {
+        if (routeContextStack == null) {
+            routeContextStack = new ArrayDeque<RouteContext>(4);
+        }
+        routeContextStack.push(routeContext);
+    }
+
+    @Override
+    public RouteContext popRouteContext() {
+        return routeContextStack != null ? routeContextStack.poll() : null;
+    }
+
+    @Override
+    public String toString() {
+        return "ThreadConfinedUnitOfWork";
+    }
+}
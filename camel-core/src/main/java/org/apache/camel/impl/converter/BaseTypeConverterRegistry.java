@@ -27,6 +27,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.camel.CamelExecutionException;
@@ -61,9 +62,20 @@ import org.slf4j.LoggerFactory;
  * @version 
  */
 public abstract class BaseTypeConverterRegistry extends ServiceSupport implements TypeConverter, TypeConverterRegistry {
+    // cached for pairs of types which no type converter in the registry can convert
+    private static final Object NO_CONVERTER = new Object();
+    // cached for pairs of types which cannot be converted at all, not even by the fallback type converters
+    private static final Object MISS = new Object();
+
     protected final Logger log = LoggerFactory.getLogger(getClass());
     protected final ConcurrentMap<TypeMapping, TypeConverter> typeMappings = new ConcurrentHashMap<TypeMapping, TypeConverter>();
-    // for misses use a soft reference cache map, as the classes may be un-deployed at runtime
+    /**
+     * For misses use a soft reference cache map, as the classes may be un-deployed at runtime.
+     *
+     * @deprecated the misses are looked up in the cache of the type converter lookups, and this cache
+     * is only kept up to date for subclasses. Will be removed in Camel 3.0.
+     */
+    @Deprecated
     protected final LRUSoftCache<TypeMapping, TypeMapping> misses = new LRUSoftCache<TypeMapping, TypeMapping>(1000);
     protected final List<TypeConverterLoader> typeConverterLoaders = new ArrayList<TypeConverterLoader>();
     protected final List<FallbackTypeConverter> fallbackConverters = new CopyOnWriteArrayList<FallbackTypeConverter>();
@@ -78,6 +90,11 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
     protected final AtomicLong missCounter = new AtomicLong();
     protected final AtomicLong hitCounter = new AtomicLong();
     protected final AtomicLong failedCounter = new AtomicLong();
+    protected final AtomicLong cacheHitCounter = new AtomicLong();
+    protected final AtomicLong cacheMissCounter = new AtomicLong();
+    protected final AtomicLong lookupTime = new AtomicLong();
+    // the outcome of the lookups per pair of types, which is cleared whenever the type converters changes
+    private final TypeConverterCache converterCache = new TypeConverterCache();
 
     public BaseTypeConverterRegistry(PackageScanClassResolver resolver, Injector injector, FactoryFinder factoryFinder) {
         this.resolver = resolver;
@@ -276,16 +293,17 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
         }
 
         // check if we have tried it before and if its a miss
-        TypeMapping key = new TypeMapping(type, value.getClass());
-        if (misses.containsKey(key)) {
+        int generation = converterCache.getGeneration();
+        Class<?> fromType = value.getClass();
+        if (converterCache.get(type, fromType) == MISS) {
             // we have tried before but we cannot convert this one
             return Void.TYPE;
         }
         
         // try to find a suitable type converter
-        TypeConverter converter = getOrFindTypeConverter(key);
+        TypeConverter converter = getCachedTypeConverter(type, fromType);
         if (converter != null) {
-            log.trace("Using converter: {} to convert {}", converter, key);
+            log.trace("Using converter: {} to convert [{}=>{}]", new Object[]{converter, fromType, type});
             Object rc;
             if (tryConvert) {
                 rc = converter.tryConvertTo(type, exchange, value);
@@ -303,8 +321,7 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
         if (type.isPrimitive()) {
             Class<?> primitiveType = ObjectHelper.convertPrimitiveTypeToWrapperType(type);
             if (primitiveType != type) {
-                Class<?> fromType = value.getClass();
-                TypeConverter tc = getOrFindTypeConverter(new TypeMapping(primitiveType, fromType));
+                TypeConverter tc = getCachedTypeConverter(primitiveType, fromType);
                 if (tc != null) {
                     // add the type as a known type converter as we can convert from primitive to object converter
                     addTypeConverter(type, fromType, tc);
@@ -366,6 +383,8 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
         if (!tryConvert) {
             // Could not find suitable conversion, so remember it
             // do not register misses for try conversions
+            converterCache.replace(type, fromType, NO_CONVERTER, MISS, generation);
+            TypeMapping key = new TypeMapping(type, fromType);
             misses.put(key, key);
         }
 
@@ -403,7 +422,8 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
 
             if (add) {
                 typeMappings.put(key, typeConverter);
-                // remove any previous misses, as we added the new type converter
+                // clear any previous lookups, as we added the new type converter
+                converterCache.clear();
                 misses.remove(key);
             }
         }
@@ -428,6 +448,7 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
         TypeConverter converter = typeMappings.remove(key);
         if (converter != null) {
             typeMappings.remove(key);
+            converterCache.clear();
             misses.remove(key);
         }
         return converter != null;
@@ -440,6 +461,8 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
         // add in top of fallback as the toString() fallback will nearly always be able to convert
         // the last one which is add to the FallbackTypeConverter will be called at the first place
         fallbackConverters.add(0, new FallbackTypeConverter(typeConverter, canPromote));
+        // clear any previous misses, as the new fallback type converter may be able to convert them
+        converterCache.clear();
         if (typeConverter instanceof TypeConverterAware) {
             TypeConverterAware typeConverterAware = (TypeConverterAware) typeConverter;
             typeConverterAware.setTypeConverter(this);
@@ -484,6 +507,35 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
         return typeMappings;
     }
 
+    /**
+     * Gets the type converter for the pair of types, using the cached outcome of any previous lookup.
+     */
+    protected TypeConverter getCachedTypeConverter(Class<?> toType, Class<?> fromType) {
+        int generation = converterCache.getGeneration();
+        Object cached = converterCache.get(toType, fromType);
+        if (cached != null && cached != MISS) {
+            if (statistics.isStatisticsEnabled()) {
+                cacheHitCounter.incrementAndGet();
+            }
+            return cached != NO_CONVERTER ? (TypeConverter) cached : null;
+        }
+
+        long start = 0;
+        if (statistics.isStatisticsEnabled()) {
+            cacheMissCounter.incrementAndGet();
+            start = System.nanoTime();
+        }
+        TypeConverter converter = getOrFindTypeConverter(new TypeMapping(toType, fromType));
+        if (statistics.isStatisticsEnabled()) {
+            lookupTime.addAndGet(System.nanoTime() - start);
+        }
+        // do not override a miss which may have been cached meanwhile
+        if (cached == null) {
+            converterCache.put(toType, fromType, converter != null ? converter : NO_CONVERTER, generation);
+        }
+        return converter;
+    }
+
     protected <T> TypeConverter getOrFindTypeConverter(TypeMapping key) {
         TypeConverter converter = typeMappings.get(key);
         if (converter == null) {
@@ -610,6 +662,27 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
         return new TypeConversionException(body, type, cause);
     }
 
+    /**
+     * Number of type converter lookups which was served from the cache of previous lookups
+     */
+    public long getCacheHitCounter() {
+        return cacheHitCounter.get();
+    }
+
+    /**
+     * Number of type converter lookups which had to search the registry
+     */
+    public long getCacheMissCounter() {
+        return cacheMissCounter.get();
+    }
+
+    /**
+     * Total time in millis spent searching the registry for type converters
+     */
+    public long getLookupTime() {
+        return TimeUnit.NANOSECONDS.toMillis(lookupTime.get());
+    }
+
     @Override
     public Statistics getStatistics() {
         return statistics;
@@ -646,11 +719,12 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
         // log utilization statistics when stopping, including mappings
         if (statistics.isStatisticsEnabled()) {
             String info = statistics.toString();
-            info += String.format(" mappings[total=%s, misses=%s]", typeMappings.size(), misses.size());
+            info += String.format(" mappings[total=%s, cached=%s]", typeMappings.size(), converterCache.size());
             log.info(info);
         }
 
         typeMappings.clear();
+        converterCache.clear();
         misses.clear();
         statistics.reset();
     }
@@ -694,6 +768,9 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
             hitCounter.set(0);
             missCounter.set(0);
             failedCounter.set(0);
+            cacheHitCounter.set(0);
+            cacheMissCounter.set(0);
+            lookupTime.set(0);
         }
 
         @Override
@@ -708,8 +785,9 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
 
         @Override
         public String toString() {
-            return String.format("TypeConverterRegistry utilization[noop=%s, attempts=%s, hits=%s, misses=%s, failures=%s]",
-                    getNoopCounter(), getAttemptCounter(), getHitCounter(), getMissCounter(), getFailedCounter());
+            return String.format("TypeConverterRegistry utilization[noop=%s, attempts=%s, hits=%s, misses=%s, failures=%s, cacheHits=%s, cacheMisses=%s, lookupTime=%sms]",
+                    getNoopCounter(), getAttemptCounter(), getHitCounter(), getMissCounter(), getFailedCounter(),
+                    getCacheHitCounter(), getCacheMissCounter(), getLookupTime());
         }
     }
 
@@ -0,0 +1,194 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl.converter;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A cache of the outcome of looking up a type converter for a pair of types, keyed by the identity
+ * of the to and from classes.
+ * <p/>
+ * The entries are kept in an open addressing table where entries are added by compare and set, so lookups
+ * never lock. The classes are only weakly referenced as they may be un-deployed at runtime, and the cache
+ * is bounded, as it starts over once it holds {@link #MAXIMUM_SIZE} entries. The cache must be cleared when
+ * the type converters in the registry changes, which starts a new generation so values looked up in an older
+ * generation are not cached.
+ */
+final class TypeConverterCache {
+
+    static final int MAXIMUM_SIZE = 1000;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private volatile Table table = new Table(INITIAL_CAPACITY, 0);
+
+    /**
+     * Gets the cached value, or <tt>null</tt> if nothing has been cached for the pair of types.
+     */
+    Object get(Class<?> toType, Class<?> fromType) {
+        AtomicReferenceArray<Entry> entries = table.entries;
+        int mask = entries.length() - 1;
+        int index = hash(toType, fromType) & mask;
+        while (true) {
+            Entry entry = entries.get(index);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.matches(toType, fromType)) {
+                return entry.value;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * Gets the current generation, which must be obtained before looking up the value to cache.
+     */
+    int getGeneration() {
+        return table.generation;
+    }
+
+    /**
+     * Caches the value for the pair of types, unless the cache has been cleared since the given generation.
+     */
+    void put(Class<?> toType, Class<?> fromType, Object value, int generation) {
+        replace(toType, fromType, null, value, generation);
+    }
+
+    /**
+     * Caches the value for the pair of types if nothing or the expected value has been cached,
+     * unless the cache has been cleared since the given generation.
+     */
+    void replace(Class<?> toType, Class<?> fromType, Object expected, Object value, int generation) {
+        Table current = table;
+        if (current.generation != generation) {
+            return;
+        }
+        // keep the load factor at most one half so the probe sequences stay short
+        int size = current.size.get();
+        if (size >= MAXIMUM_SIZE || (size + 1) * 2 > current.entries.length()) {
+            current = resize(current);
+        }
+
+        Entry created = new Entry(toType, fromType, value);
+        AtomicReferenceArray<Entry> entries = current.entries;
+        int mask = entries.length() - 1;
+        int index = hash(toType, fromType) & mask;
+        while (true) {
+            Entry entry = entries.get(index);
+            if (entry == null) {
+                if (entries.compareAndSet(index, null, created)) {
+                    current.size.incrementAndGet();
+                    return;
+                }
+                // another entry was added to this slot meanwhile, so check it again
+                continue;
+            }
+            if (entry.matches(toType, fromType)) {
+                // replace the expected value, or keep the value which has already been cached by another thread
+                if (expected != null && entry.value == expected && !entries.compareAndSet(index, entry, created)) {
+                    continue;
+                }
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    synchronized void clear() {
+        table = new Table(INITIAL_CAPACITY, table.generation + 1);
+    }
+
+    int size() {
+        return table.size.get();
+    }
+
+    /**
+     * Replaces the table with a table of twice the capacity, or with an empty table if the maximum size
+     * has been reached. Entries added to the old table while resizing may be lost, which is fine for a cache.
+     */
+    private synchronized Table resize(Table current) {
+        if (table != current) {
+            return table;
+        }
+        Table answer;
+        if (current.size.get() >= MAXIMUM_SIZE) {
+            answer = new Table(INITIAL_CAPACITY, current.generation);
+        } else {
+            answer = new Table(current.entries.length() * 2, current.generation);
+            for (int i = 0; i < current.entries.length(); i++) {
+                Entry entry = current.entries.get(i);
+                // skip the entries of classes which have been un-deployed
+                if (entry != null && entry.isLive()) {
+                    answer.add(entry);
+                }
+            }
+        }
+        table = answer;
+        return answer;
+    }
+
+    private static int hash(Class<?> toType, Class<?> fromType) {
+        int h = System.identityHashCode(fromType) * 31 + System.identityHashCode(toType);
+        // spread the bits as the table size is a power of two
+        return h ^ (h >>> 16);
+    }
+
+    private static final class Entry {
+        private final WeakReference<Class<?>> toType;
+        private final WeakReference<Class<?>> fromType;
+        private final int hash;
+        private final Object value;
+
+        Entry(Class<?> toType, Class<?> fromType, Object value) {
+            this.toType = new WeakReference<Class<?>>(toType);
+            this.fromType = new WeakReference<Class<?>>(fromType);
+            this.hash = hash(toType, fromType);
+            this.value = value;
+        }
+
+        boolean matches(Class<?> to, Class<?> from) {
+            return fromType.get() == from && toType.get() == to;
+        }
+
+        boolean isLive() {
+            return fromType.get() != null && toType.get() != null;
+        }
+    }
+
+    private static final class Table {
+        private final AtomicReferenceArray<Entry> entries;
+        private final AtomicInteger size = new AtomicInteger();
+        private final int generation;
+
+        Table(int capacity, int generation) {
+            this.generation = generation;
+            this.entries = new AtomicReferenceArray<Entry>(capacity);
+        }
+
+        void add(Entry entry) {
+            int mask = entries.length() - 1;
+            int index = entry.hash & mask;
+            while (entries.get(index) != null) {
+                index = (index + 1) & mask;
+            }
+            entries.set(index, entry);
+            size.incrementAndGet();
+        }
+    }
+}
@@ -16,10 +16,14 @@
  */
 package org.apache.camel.language.simple;
 
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.apache.camel.Expression;
 import org.apache.camel.Predicate;
 import org.apache.camel.builder.ExpressionBuilder;
 import org.apache.camel.support.LanguageSupport;
+import org.apache.camel.util.LRUCache;
 import org.apache.camel.util.ObjectHelper;
 import org.apache.camel.util.PredicateToExpressionAdapter;
 
@@ -86,19 +90,35 @@ import org.apache.camel.util.PredicateToExpressionAdapter;
  * return the full path including the starting directory.
  * <br/>
  * The <b>only</b> file is the filename only with all paths clipped.
- *
+ * <p/>
+ * The expressions and predicates created are cached by their text, so parsing the same text again reuses
+ * the already created expression or predicate.
  */
 public class SimpleLanguage extends LanguageSupport {
 
+    /**
+     * The default maximum number of expressions and predicates to cache.
+     */
+    public static final int DEFAULT_CACHE_SIZE = 1000;
+
+    // changing the function tokens changes how the same text is parsed, so the caches must be cleared
+    private static final AtomicInteger TOKENS_VERSION = new AtomicInteger();
+
     // singleton for expressions without a result type
     private static final SimpleLanguage SIMPLE = new SimpleLanguage();
 
     protected boolean allowEscape = true;
 
+    private volatile Map<String, Expression> cacheExpression;
+    private volatile Map<String, Predicate> cachePredicate;
+    private volatile int cacheTokensVersion;
+    private int cacheSize = DEFAULT_CACHE_SIZE;
+
     /**
      * Default constructor.
      */
     public SimpleLanguage() {
+        clearCache();
     }
 
     public Predicate createPredicate(String expression) {
@@ -106,14 +126,22 @@ public class SimpleLanguage extends LanguageSupport {
 
         expression = loadResource(expression);
 
+        checkTokensVersion();
+        Predicate answer = cachePredicate.get(expression);
+        if (answer != null) {
+            return answer;
+        }
+
         // support old simple language syntax
         @SuppressWarnings("deprecation")
-        Predicate answer = SimpleBackwardsCompatibleParser.parsePredicate(expression, allowEscape);
+        Predicate predicate = SimpleBackwardsCompatibleParser.parsePredicate(expression, allowEscape);
+        answer = predicate;
         if (answer == null) {
             // use the new parser
             SimplePredicateParser parser = new SimplePredicateParser(expression, allowEscape);
             answer = parser.parsePredicate();
         }
+        cachePredicate.put(expression, answer);
         return answer;
     }
 
@@ -122,17 +150,57 @@ public class SimpleLanguage extends LanguageSupport {
 
         expression = loadResource(expression);
 
+        checkTokensVersion();
+        Expression answer = cacheExpression.get(expression);
+        if (answer != null) {
+            return answer;
+        }
+
         // support old simple language syntax
         @SuppressWarnings("deprecation")
-        Expression answer = SimpleBackwardsCompatibleParser.parseExpression(expression, allowEscape);
+        Expression exp = SimpleBackwardsCompatibleParser.parseExpression(expression, allowEscape);
+        answer = exp;
         if (answer == null) {
             // use the new parser
             SimpleExpressionParser parser = new SimpleExpressionParser(expression, allowEscape);
             answer = parser.parseExpression();
         }
+        cacheExpression.put(expression, answer);
         return answer;
     }
 
+    /**
+     * Gets the maximum number of expressions and predicates to cache.
+     */
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    /**
+     * Sets the maximum number of expressions and predicates to cache.
+     * <p/>
+     * Is by default <tt>1000</tt>.
+     */
+    public void setCacheSize(int cacheSize) {
+        this.cacheSize = cacheSize;
+        clearCache();
+    }
+
+    /**
+     * Clears the cached expressions and predicates.
+     */
+    public void clearCache() {
+        cacheExpression = new LRUCache<String, Expression>(16, cacheSize, false);
+        cachePredicate = new LRUCache<String, Predicate>(16, cacheSize, false);
+        cacheTokensVersion = TOKENS_VERSION.get();
+    }
+
+    private void checkTokensVersion() {
+        if (cacheTokensVersion != TOKENS_VERSION.get()) {
+            clearCache();
+        }
+    }
+
     /**
      * Creates a new {@link Expression}.
      * <p/>
@@ -194,6 +262,7 @@ public class SimpleLanguage extends LanguageSupport {
      */
     public static void changeFunctionStartToken(String... startToken) {
         SimpleTokenizer.changeFunctionStartToken(startToken);
+        TOKENS_VERSION.incrementAndGet();
     }
     
     /**
@@ -208,6 +277,7 @@ public class SimpleLanguage extends LanguageSupport {
      */
     public static void changeFunctionEndToken(String... endToken) {
         SimpleTokenizer.changeFunctionEndToken(endToken);
+        TOKENS_VERSION.incrementAndGet();
     }
 
     /**
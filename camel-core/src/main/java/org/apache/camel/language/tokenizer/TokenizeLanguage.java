@@ -33,9 +33,9 @@ import org.apache.camel.util.ObjectHelper;
  *     <li>pair - using both start and end tokens</li>
  *     <li>xml - using both start and end tokens in XML mode, support inheriting namespaces</li>
  * </ul>
- * The default mode supports the <tt>headerName</tt> and <tt>regex</tt> options.
+ * The default mode supports the <tt>headerName</tt>, <tt>regex</tt> and <tt>binary</tt> options.
  * Where as the pair mode only supports <tt>token</tt> and <tt>endToken</tt>.
- * And the <tt>xml</tt> mode supports the <tt>inheritNamespaceTagName</tt> option.
+ * And the <tt>xml</tt> mode supports the <tt>inheritNamespaceTagName</tt> and <tt>lenientXml</tt> options.
  */
 public class TokenizeLanguage implements Language, IsSingleton {
 
@@ -48,6 +48,8 @@ public class TokenizeLanguage implements Language, IsSingleton {
     private boolean includeTokens;
     private int group;
     private boolean skipFirst;
+    private boolean binary;
+    private boolean lenientXml;
 
     public static Expression tokenize(String token) {
         return tokenize(token, false);
@@ -105,10 +107,13 @@ public class TokenizeLanguage implements Language, IsSingleton {
         if (isXml() && (endToken != null || includeTokens)) {
             throw new IllegalArgumentException("Cannot have both xml and pair tokenizer enabled.");
         }
+        if (binary && (isXml() || endToken != null || regex)) {
+            throw new IllegalArgumentException("Cannot have binary tokenizer enabled together with xml, pair or regex tokenizer.");
+        }
 
         Expression answer = null;
         if (isXml()) {
-            answer = ExpressionBuilder.tokenizeXMLExpression(token, inheritNamespaceTagName);
+            answer = ExpressionBuilder.tokenizeXMLExpression(token, inheritNamespaceTagName, lenientXml);
         } else if (endToken != null) {
             answer = ExpressionBuilder.tokenizePairExpression(token, endToken, includeTokens);
         }
@@ -116,7 +121,10 @@ public class TokenizeLanguage implements Language, IsSingleton {
         if (answer == null) {
             // use the regular tokenizer
             Expression exp = headerName == null ? ExpressionBuilder.bodyExpression() : ExpressionBuilder.headerExpression(headerName);
-            if (regex) {
+            if (binary) {
+                // the binary tokenizer groups and skips the first part by itself
+                return ExpressionBuilder.tokenizeBinaryExpression(exp, token, group, skipFirst);
+            } else if (regex) {
                 answer = ExpressionBuilder.regexTokenizeExpression(exp, token);
             } else {
                 answer = ExpressionBuilder.tokenizeExpression(exp, token);
@@ -218,6 +226,22 @@ public class TokenizeLanguage implements Language, IsSingleton {
         this.skipFirst = skipFirst;
     }
 
+    public boolean isBinary() {
+        return binary;
+    }
+
+    public void setBinary(boolean binary) {
+        this.binary = binary;
+    }
+
+    public boolean isLenientXml() {
+        return lenientXml;
+    }
+
+    public void setLenientXml(boolean lenientXml) {
+        this.lenientXml = lenientXml;
+    }
+
     public boolean isSingleton() {
         return false;
     }
@@ -0,0 +1,161 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.management.mbean;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Records latencies without locking, keeping the min, max and mean latency together with a
+ * histogram of the latencies, from which the latency at a given percentile can be computed.
+ * <p/>
+ * The histogram is bucketed the same way as a high dynamic range histogram: latencies below 64
+ * are counted exactly, and larger latencies are counted in 32 linear sub buckets for each power of two,
+ * so the latency at a given percentile is accurate to within about 3% regardless of its magnitude.
+ * Latencies larger than 2^36 are counted in the last bucket.
+ * <p/>
+ * Recording a latency is a few atomic updates which do not contend with one another when the latencies
+ * are recorded concurrently, which makes the recorder cheap enough to keep enabled in production.
+ */
+public class LatencyRecorder {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int EXACT_BUCKETS = SUB_BUCKETS * 2;
+    private static final int EXACT_MAGNITUDE = SUB_BUCKET_BITS + 1;
+    private static final int MAX_MAGNITUDE = 35;
+    private static final int BUCKETS = EXACT_BUCKETS + (MAX_MAGNITUDE - EXACT_MAGNITUDE + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final StripedLongCounter count = new StripedLongCounter();
+    private final StripedLongCounter total = new StripedLongCounter();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        buckets.incrementAndGet(bucketIndex(value));
+        count.add(1);
+        total.add(value);
+
+        // only compare and set if this is a new min or max, so reading is all it takes most of the time
+        long current = min.get();
+        while (value < current && !min.compareAndSet(current, value)) {
+            current = min.get();
+        }
+        current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getTotal() {
+        return total.sum();
+    }
+
+    public long getMin() {
+        long answer = min.get();
+        return answer == Long.MAX_VALUE ? 0 : answer;
+    }
+
+    public long getMax() {
+        long answer = max.get();
+        return answer == Long.MIN_VALUE ? 0 : answer;
+    }
+
+    public long getMean() {
+        long answer = count.sum();
+        return answer > 0 ? total.sum() / answer : 0;
+    }
+
+    /**
+     * Gets the latency at the given percentile, such as <tt>99.9</tt>, which is the highest latency
+     * counted in the same bucket as the latency at the percentile.
+     *
+     * @param percentile the percentile between 0 and 100
+     * @return the latency, or <tt>0</tt> if no latencies has been recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        // take a snapshot of the buckets so the percentile is computed from a consistent count
+        long[] snapshot = new long[BUCKETS];
+        long size = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = buckets.get(i);
+            size += snapshot[i];
+        }
+        if (size == 0) {
+            return 0;
+        }
+
+        double ratio = Math.min(Math.max(percentile, 0.0), 100.0) / 100.0;
+        long rank = Math.max(1, (long) Math.ceil(ratio * size));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                // no need to report a latency higher than what has been recorded
+                return Math.min(highestValueInBucket(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        total.reset();
+        min.set(Long.MAX_VALUE);
+        max.set(Long.MIN_VALUE);
+    }
+
+    static int bucketIndex(long value) {
+        if (value < EXACT_BUCKETS) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        if (magnitude > MAX_MAGNITUDE) {
+            return BUCKETS - 1;
+        }
+        int subBucket = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) - SUB_BUCKETS;
+        return EXACT_BUCKETS + (magnitude - EXACT_MAGNITUDE) * SUB_BUCKETS + subBucket;
+    }
+
+    static long highestValueInBucket(int index) {
+        if (index < EXACT_BUCKETS) {
+            return index;
+        }
+        if (index == BUCKETS - 1) {
+            return Long.MAX_VALUE;
+        }
+        int magnitude = EXACT_MAGNITUDE + (index - EXACT_BUCKETS) / SUB_BUCKETS;
+        long subBucket = SUB_BUCKETS + (index - EXACT_BUCKETS) % SUB_BUCKETS;
+        return ((subBucket + 1) << (magnitude - SUB_BUCKET_BITS)) - 1;
+    }
+
+    public String toString() {
+        return "LatencyRecorder[count=" + getCount() + ", min=" + getMin() + ", max=" + getMax() + ", mean=" + getMean() + "]";
+    }
+
+}
@@ -130,6 +130,10 @@ public class ManagedAggregateProcessor extends ManagedProcessor implements Manag
         return processor.isOptimisticLocking();
     }
 
+    public int getLockStripes() {
+        return processor.getLockStripes();
+    }
+
     public boolean isEagerCheckCompletion() {
         return processor.isEagerCheckCompletion();
     }
@@ -236,6 +240,14 @@ public class ManagedAggregateProcessor extends ManagedProcessor implements Manag
         return processor.getStatistics().getCompletedByForce();
     }
 
+    public long getLockContentionCount() {
+        return processor.getStatistics().getLockContentionCount();
+    }
+
+    public long getLockWaitTime() {
+        return processor.getStatistics().getLockWaitTime();
+    }
+
     public void resetStatistics() {
         processor.getStatistics().reset();
     }
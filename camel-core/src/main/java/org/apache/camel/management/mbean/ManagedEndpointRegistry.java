@@ -28,6 +28,7 @@ import org.apache.camel.Endpoint;
 import org.apache.camel.api.management.ManagedResource;
 import org.apache.camel.api.management.mbean.CamelOpenMBeanTypes;
 import org.apache.camel.api.management.mbean.ManagedEndpointRegistryMBean;
+import org.apache.camel.impl.DefaultEndpointRegistry;
 import org.apache.camel.spi.EndpointRegistry;
 import org.apache.camel.spi.ManagementStrategy;
 import org.apache.camel.util.ObjectHelper;
@@ -75,6 +76,47 @@ public class ManagedEndpointRegistry extends ManagedService implements ManagedEn
         return endpointRegistry.getMaximumCacheSize();
     }
 
+    public Long getHits() {
+        if (endpointRegistry instanceof DefaultEndpointRegistry) {
+            return ((DefaultEndpointRegistry) endpointRegistry).getHits();
+        }
+        return null;
+    }
+
+    public Long getMisses() {
+        if (endpointRegistry instanceof DefaultEndpointRegistry) {
+            return ((DefaultEndpointRegistry) endpointRegistry).getMisses();
+        }
+        return null;
+    }
+
+    public Long getNormalizedUriHits() {
+        if (endpointRegistry instanceof DefaultEndpointRegistry) {
+            return ((DefaultEndpointRegistry) endpointRegistry).getNormalizedUriHits();
+        }
+        return null;
+    }
+
+    public Long getNormalizedUriMisses() {
+        if (endpointRegistry instanceof DefaultEndpointRegistry) {
+            return ((DefaultEndpointRegistry) endpointRegistry).getNormalizedUriMisses();
+        }
+        return null;
+    }
+
+    public Integer getNormalizedUriCacheSize() {
+        if (endpointRegistry instanceof DefaultEndpointRegistry) {
+            return ((DefaultEndpointRegistry) endpointRegistry).getNormalizedUriCacheSize();
+        }
+        return null;
+    }
+
+    public void resetStatistics() {
+        if (endpointRegistry instanceof DefaultEndpointRegistry) {
+            ((DefaultEndpointRegistry) endpointRegistry).resetStatistics();
+        }
+    }
+
     public void purge() {
         endpointRegistry.purge();
     }
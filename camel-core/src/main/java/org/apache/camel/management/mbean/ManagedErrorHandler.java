@@ -484,4 +484,31 @@ public class ManagedErrorHandler implements ManagedErrorHandlerMBean {
         return redelivery.getPendingRedeliveryCount();
     }
 
+    public Integer getRoutePendingRedeliveryCount() {
+        if (!isSupportRedelivery() || routeContext == null) {
+            return null;
+        }
+
+        RedeliveryErrorHandler redelivery = (RedeliveryErrorHandler) errorHandler;
+        return redelivery.getPendingRedeliveryCount(routeContext.getRoute().getId());
+    }
+
+    public Integer getMaximumPendingRedeliveries() {
+        if (!isSupportRedelivery()) {
+            return null;
+        }
+
+        RedeliveryErrorHandler redelivery = (RedeliveryErrorHandler) errorHandler;
+        return redelivery.getRedeliveryPolicy().getMaximumPendingRedeliveries();
+    }
+
+    public void setMaximumPendingRedeliveries(Integer maximum) {
+        if (!isSupportRedelivery()) {
+            throw new IllegalArgumentException("This error handler does not support redelivery");
+        }
+
+        RedeliveryErrorHandler redelivery = (RedeliveryErrorHandler) errorHandler;
+        redelivery.getRedeliveryPolicy().setMaximumPendingRedeliveries(maximum);
+    }
+
 }
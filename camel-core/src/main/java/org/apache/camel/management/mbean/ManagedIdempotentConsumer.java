@@ -20,6 +20,7 @@ import org.apache.camel.CamelContext;
 import org.apache.camel.api.management.ManagedResource;
 import org.apache.camel.api.management.mbean.ManagedIdempotentConsumerMBean;
 import org.apache.camel.model.IdempotentConsumerDefinition;
+import org.apache.camel.processor.idempotent.ConcurrentMemoryIdempotentRepository;
 import org.apache.camel.processor.idempotent.IdempotentConsumer;
 
 @ManagedResource(description = "Managed Idempotent Consumer")
@@ -79,6 +80,31 @@ public class ManagedIdempotentConsumer extends ManagedProcessor implements Manag
         getProcessor().resetDuplicateMessageCount();
     }
 
+    @Override
+    public long getRepositoryHitCount() {
+        ConcurrentMemoryIdempotentRepository repository = getStatisticsRepository();
+        return repository != null ? repository.getHitCount() : -1;
+    }
+
+    @Override
+    public long getRepositoryMissCount() {
+        ConcurrentMemoryIdempotentRepository repository = getStatisticsRepository();
+        return repository != null ? repository.getMissCount() : -1;
+    }
+
+    @Override
+    public long getRepositoryEvictionCount() {
+        ConcurrentMemoryIdempotentRepository repository = getStatisticsRepository();
+        return repository != null ? repository.getEvictionCount() : -1;
+    }
+
+    private ConcurrentMemoryIdempotentRepository getStatisticsRepository() {
+        if (getProcessor().getIdempotentRepository() instanceof ConcurrentMemoryIdempotentRepository) {
+            return (ConcurrentMemoryIdempotentRepository) getProcessor().getIdempotentRepository();
+        }
+        return null;
+    }
+
     @Override
     public void clear() {
         getProcessor().clear();
@@ -59,6 +59,11 @@ public class ManagedMulticast extends ManagedProcessor implements ManagedMultica
         return processor.isShareUnitOfWork();
     }
 
+    @Override
+    public Boolean isCopyOnWrite() {
+        return processor.isCopyOnWrite();
+    }
+
     @Override
     public Long getTimeout() {
         return processor.getTimeout();
@@ -37,20 +37,17 @@ public abstract class ManagedPerformanceCounter extends ManagedCounter implement
     private Statistic failuresHandled;
     private Statistic redeliveries;
     private Statistic externalRedeliveries;
-    private Statistic minProcessingTime;
-    private Statistic maxProcessingTime;
-    private Statistic totalProcessingTime;
+    private LatencyRecorder processingTime;
     private Statistic lastProcessingTime;
     private Statistic deltaProcessingTime;
-    private Statistic meanProcessingTime;
     private Statistic firstExchangeCompletedTimestamp;
-    private String firstExchangeCompletedExchangeId;
+    private volatile String firstExchangeCompletedExchangeId;
     private Statistic firstExchangeFailureTimestamp;
-    private String firstExchangeFailureExchangeId;
+    private volatile String firstExchangeFailureExchangeId;
     private Statistic lastExchangeCompletedTimestamp;
-    private String lastExchangeCompletedExchangeId;
+    private volatile String lastExchangeCompletedExchangeId;
     private Statistic lastExchangeFailureTimestamp;
-    private String lastExchangeFailureExchangeId;
+    private volatile String lastExchangeFailureExchangeId;
     private boolean statisticsEnabled = true;
 
     public void init(ManagementStrategy strategy) {
@@ -63,12 +60,9 @@ public abstract class ManagedPerformanceCounter extends ManagedCounter implement
         this.redeliveries = new Statistic("org.apache.camel.redeliveries", this, Statistic.UpdateMode.COUNTER);
         this.externalRedeliveries = new Statistic("org.apache.camel.externalRedeliveries", this, Statistic.UpdateMode.COUNTER);
 
-        this.minProcessingTime = new Statistic("org.apache.camel.minimumProcessingTime", this, Statistic.UpdateMode.MINIMUM);
-        this.maxProcessingTime = new Statistic("org.apache.camel.maximumProcessingTime", this, Statistic.UpdateMode.MAXIMUM);
-        this.totalProcessingTime = new Statistic("org.apache.camel.totalProcessingTime", this, Statistic.UpdateMode.COUNTER);
+        this.processingTime = new LatencyRecorder();
         this.lastProcessingTime = new Statistic("org.apache.camel.lastProcessingTime", this, Statistic.UpdateMode.VALUE);
         this.deltaProcessingTime = new Statistic("org.apache.camel.deltaProcessingTime", this, Statistic.UpdateMode.DELTA);
-        this.meanProcessingTime = new Statistic("org.apache.camel.meanProcessingTime", this, Statistic.UpdateMode.VALUE);
 
         this.firstExchangeCompletedTimestamp = new Statistic("org.apache.camel.firstExchangeCompletedTimestamp", this, Statistic.UpdateMode.VALUE);
         this.firstExchangeFailureTimestamp = new Statistic("org.apache.camel.firstExchangeFailureTimestamp", this, Statistic.UpdateMode.VALUE);
@@ -85,12 +79,9 @@ public abstract class ManagedPerformanceCounter extends ManagedCounter implement
         failuresHandled.reset();
         redeliveries.reset();
         externalRedeliveries.reset();
-        minProcessingTime.reset();
-        maxProcessingTime.reset();
-        totalProcessingTime.reset();
+        processingTime.reset();
         lastProcessingTime.reset();
         deltaProcessingTime.reset();
-        meanProcessingTime.reset();
         firstExchangeCompletedTimestamp.reset();
         firstExchangeCompletedExchangeId = null;
         firstExchangeFailureTimestamp.reset();
@@ -126,19 +117,31 @@ public abstract class ManagedPerformanceCounter extends ManagedCounter implement
     }
 
     public long getMinProcessingTime() throws Exception {
-        return minProcessingTime.getValue();
+        return processingTime.getMin();
     }
 
     public long getMeanProcessingTime() throws Exception {
-        return meanProcessingTime.getValue();
+        return processingTime.getMean();
     }
 
     public long getMaxProcessingTime() throws Exception {
-        return maxProcessingTime.getValue();
+        return processingTime.getMax();
     }
 
     public long getTotalProcessingTime() throws Exception {
-        return totalProcessingTime.getValue();
+        return processingTime.getTotal();
+    }
+
+    public long getMedianProcessingTime() throws Exception {
+        return processingTime.getValueAtPercentile(50);
+    }
+
+    public long getP99ProcessingTime() throws Exception {
+        return processingTime.getValueAtPercentile(99);
+    }
+
+    public long getP999ProcessingTime() throws Exception {
+        return processingTime.getValueAtPercentile(99.9);
     }
 
     public long getLastProcessingTime() throws Exception {
@@ -193,11 +196,11 @@ public abstract class ManagedPerformanceCounter extends ManagedCounter implement
         this.statisticsEnabled = statisticsEnabled;
     }
 
-    public synchronized void processExchange(Exchange exchange) {
+    public void processExchange(Exchange exchange) {
         exchangesInflight.increment();
     }
 
-    public synchronized void completedExchange(Exchange exchange, long time) {
+    public void completedExchange(Exchange exchange, long time) {
         increment();
         exchangesCompleted.increment();
         exchangesInflight.decrement();
@@ -210,30 +213,26 @@ public abstract class ManagedPerformanceCounter extends ManagedCounter implement
             externalRedeliveries.increment();
         }
 
-        minProcessingTime.updateValue(time);
-        maxProcessingTime.updateValue(time);
-        totalProcessingTime.updateValue(time);
+        processingTime.record(time);
         lastProcessingTime.updateValue(time);
         deltaProcessingTime.updateValue(time);
 
         long now = new Date().getTime();
         if (firstExchangeCompletedTimestamp.getUpdateCount() == 0) {
-            firstExchangeCompletedTimestamp.updateValue(now);
+            // only lock for the very first exchange
+            synchronized (this) {
+                if (firstExchangeCompletedTimestamp.getUpdateCount() == 0) {
+                    firstExchangeCompletedExchangeId = exchange.getExchangeId();
+                    firstExchangeCompletedTimestamp.updateValue(now);
+                }
+            }
         }
 
         lastExchangeCompletedTimestamp.updateValue(now);
-        if (firstExchangeCompletedExchangeId == null) {
-            firstExchangeCompletedExchangeId = exchange.getExchangeId();
-        }
         lastExchangeCompletedExchangeId = exchange.getExchangeId();
-
-        // update mean
-        long count = exchangesCompleted.getValue();
-        long mean = count > 0 ? totalProcessingTime.getValue() / count : 0;
-        meanProcessingTime.updateValue(mean);
     }
 
-    public synchronized void failedExchange(Exchange exchange) {
+    public void failedExchange(Exchange exchange) {
         increment();
         exchangesFailed.increment();
         exchangesInflight.decrement();
@@ -248,13 +247,16 @@ public abstract class ManagedPerformanceCounter extends ManagedCounter implement
 
         long now = new Date().getTime();
         if (firstExchangeFailureTimestamp.getUpdateCount() == 0) {
-            firstExchangeFailureTimestamp.updateValue(now);
+            // only lock for the very first exchange
+            synchronized (this) {
+                if (firstExchangeFailureTimestamp.getUpdateCount() == 0) {
+                    firstExchangeFailureExchangeId = exchange.getExchangeId();
+                    firstExchangeFailureTimestamp.updateValue(now);
+                }
+            }
         }
 
         lastExchangeFailureTimestamp.updateValue(now);
-        if (firstExchangeFailureExchangeId == null) {
-            firstExchangeFailureExchangeId = exchange.getExchangeId();
-        }
         lastExchangeFailureExchangeId = exchange.getExchangeId();
     }
 
@@ -266,12 +268,15 @@ public abstract class ManagedPerformanceCounter extends ManagedCounter implement
         sb.append(String.format(" failuresHandled=\"%s\"", failuresHandled.getValue()));
         sb.append(String.format(" redeliveries=\"%s\"", redeliveries.getValue()));
         sb.append(String.format(" externalRedeliveries=\"%s\"", externalRedeliveries.getValue()));
-        sb.append(String.format(" minProcessingTime=\"%s\"", minProcessingTime.getValue()));
-        sb.append(String.format(" maxProcessingTime=\"%s\"", maxProcessingTime.getValue()));
-        sb.append(String.format(" totalProcessingTime=\"%s\"", totalProcessingTime.getValue()));
+        sb.append(String.format(" minProcessingTime=\"%s\"", processingTime.getMin()));
+        sb.append(String.format(" maxProcessingTime=\"%s\"", processingTime.getMax()));
+        sb.append(String.format(" totalProcessingTime=\"%s\"", processingTime.getTotal()));
         sb.append(String.format(" lastProcessingTime=\"%s\"", lastProcessingTime.getValue()));
         sb.append(String.format(" deltaProcessingTime=\"%s\"", deltaProcessingTime.getValue()));
-        sb.append(String.format(" meanProcessingTime=\"%s\"", meanProcessingTime.getValue()));
+        sb.append(String.format(" meanProcessingTime=\"%s\"", processingTime.getMean()));
+        sb.append(String.format(" medianProcessingTime=\"%s\"", processingTime.getValueAtPercentile(50)));
+        sb.append(String.format(" p99ProcessingTime=\"%s\"", processingTime.getValueAtPercentile(99)));
+        sb.append(String.format(" p999ProcessingTime=\"%s\"", processingTime.getValueAtPercentile(99.9)));
 
         if (fullStats) {
             sb.append(String.format(" startTimestamp=\"%s\"", dateAsString(startTimestamp.getValue())));
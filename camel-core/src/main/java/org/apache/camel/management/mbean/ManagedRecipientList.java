@@ -121,6 +121,11 @@ public class ManagedRecipientList extends ManagedProcessor implements ManagedRec
         return processor.isShareUnitOfWork();
     }
 
+    @Override
+    public Boolean isCopyOnWrite() {
+        return processor.isCopyOnWrite();
+    }
+
     @Override
     public Long getTimeout() {
         return processor.getTimeout();
@@ -113,4 +113,40 @@ public class ManagedResequencer extends ManagedProcessor implements ManagedReseq
             return streamProcessor.isRejectOld();
         }
     }
+
+    @Override
+    public Boolean isRingBuffer() {
+        if (processor != null) {
+            return null;
+        } else {
+            return streamProcessor.isRingBuffer();
+        }
+    }
+
+    @Override
+    public Integer getSize() {
+        if (processor != null) {
+            return null;
+        } else {
+            return streamProcessor.getSize();
+        }
+    }
+
+    @Override
+    public Long getGaps() {
+        if (processor != null || !streamProcessor.isRingBuffer()) {
+            return null;
+        } else {
+            return streamProcessor.getGaps();
+        }
+    }
+
+    @Override
+    public Long getTimedOutGaps() {
+        if (processor != null || !streamProcessor.isRingBuffer()) {
+            return null;
+        } else {
+            return streamProcessor.getTimedOutGaps();
+        }
+    }
 }
@@ -19,6 +19,8 @@ package org.apache.camel.management.mbean;
 import org.apache.camel.CamelContext;
 import org.apache.camel.api.management.ManagedResource;
 import org.apache.camel.api.management.mbean.ManagedStreamCachingStrategyMBean;
+import org.apache.camel.converter.stream.DirectBufferPool;
+import org.apache.camel.impl.DefaultStreamCachingStrategy;
 import org.apache.camel.spi.ManagementStrategy;
 import org.apache.camel.spi.StreamCachingStrategy;
 
@@ -90,6 +92,21 @@ public class ManagedStreamCachingStrategy extends ManagedService implements Mana
         return streamCachingStrategy.getBufferSize();
     }
 
+    public long getOffHeapMemory() {
+        if (streamCachingStrategy instanceof DefaultStreamCachingStrategy) {
+            return ((DefaultStreamCachingStrategy) streamCachingStrategy).getOffHeapMemory();
+        }
+        return 0;
+    }
+
+    public long getOffHeapMemoryUsed() {
+        if (streamCachingStrategy instanceof DefaultStreamCachingStrategy) {
+            DirectBufferPool pool = ((DefaultStreamCachingStrategy) streamCachingStrategy).getOffHeapBufferPool();
+            return pool != null ? pool.getUsed() : 0;
+        }
+        return 0;
+    }
+
     public void setRemoveSpoolDirectoryWhenStopping(boolean remove) {
         streamCachingStrategy.setRemoveSpoolDirectoryWhenStopping(remove);
     }
@@ -27,6 +27,7 @@ import org.apache.camel.CamelContext;
 import org.apache.camel.api.management.ManagedResource;
 import org.apache.camel.api.management.mbean.CamelOpenMBeanTypes;
 import org.apache.camel.api.management.mbean.ManagedTypeConverterRegistryMBean;
+import org.apache.camel.impl.converter.BaseTypeConverterRegistry;
 import org.apache.camel.spi.TypeConverterRegistry;
 import org.apache.camel.util.ObjectHelper;
 
@@ -67,6 +68,27 @@ public class ManagedTypeConverterRegistry extends ManagedService implements Mana
         return registry.getStatistics().getFailedCounter();
     }
 
+    public long getCacheHitCounter() {
+        if (registry instanceof BaseTypeConverterRegistry) {
+            return ((BaseTypeConverterRegistry) registry).getCacheHitCounter();
+        }
+        return 0;
+    }
+
+    public long getCacheMissCounter() {
+        if (registry instanceof BaseTypeConverterRegistry) {
+            return ((BaseTypeConverterRegistry) registry).getCacheMissCounter();
+        }
+        return 0;
+    }
+
+    public long getLookupTime() {
+        if (registry instanceof BaseTypeConverterRegistry) {
+            return ((BaseTypeConverterRegistry) registry).getLookupTime();
+        }
+        return 0;
+    }
+
     public void resetTypeConversionCounters() {
         registry.getStatistics().reset();
     }
@@ -91,6 +91,11 @@ public class ManagedWireTapProcessor extends ManagedProcessor implements Managed
         return processor.isCopy();
     }
 
+    @Override
+    public Boolean isCopyOnWrite() {
+        return processor.isCopyOnWrite();
+    }
+
     @Override
     public TabularData extendedInformation() {
         try {
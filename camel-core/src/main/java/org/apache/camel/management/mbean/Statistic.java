@@ -16,6 +16,8 @@
  */
 package org.apache.camel.management.mbean;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Default implementation of {@link Statistic}
  */
@@ -45,9 +47,10 @@ public class Statistic {
     }
 
     private final UpdateMode updateMode;
-    private long lastValue;
-    private long value;
-    private long updateCount;
+    private final AtomicLong value = new AtomicLong();
+    private final StripedLongCounter counter;
+    private final StripedLongCounter updateCount = new StripedLongCounter();
+    private volatile long lastValue;
 
     /**
      * Instantiates a new statistic.
@@ -58,77 +61,94 @@ public class Statistic {
      */
     public Statistic(String name, Object owner, UpdateMode updateMode) {
         this.updateMode = updateMode;
+        // counters are updated by many threads so spread the updates to avoid contention
+        this.counter = updateMode == UpdateMode.COUNTER ? new StripedLongCounter() : null;
+        this.value.set(initialValue());
     }
 
-    public synchronized void updateValue(long newValue) {
+    public void updateValue(long newValue) {
+        long current;
         switch (this.updateMode) {
         case COUNTER:
-            this.value += newValue;
+            this.counter.add(newValue);
             break;
         case VALUE:
-            this.value = newValue;
+            this.value.set(newValue);
             break;
         case DIFFERENCE:
-            this.value -= newValue;
-            if (this.value < 0) {
-                this.value = -this.value;
-            }
+            do {
+                current = this.value.get();
+            } while (!this.value.compareAndSet(current, Math.abs(current - newValue)));
             break;
         case DELTA:
-            if (updateCount > 0) {
-                this.lastValue = this.value;
-            }
-            this.value = newValue;
+            this.lastValue = this.value.getAndSet(newValue);
             break;
         case MAXIMUM:
-            // initialize value at first time
-            if (this.updateCount == 0 || this.value < newValue) {
-                this.value = newValue;
+            // only compare and set if this is a new maximum, so reading is all it takes most of the time
+            current = this.value.get();
+            while (newValue > current && !this.value.compareAndSet(current, newValue)) {
+                current = this.value.get();
             }
             break;
         case MINIMUM:
-            // initialize value at first time
-            if (this.updateCount == 0 || this.value > newValue) {
-                this.value = newValue;
+            current = this.value.get();
+            while (newValue < current && !this.value.compareAndSet(current, newValue)) {
+                current = this.value.get();
             }
             break;
         default:
         }
-        this.updateCount++;
+        this.updateCount.add(1);
     }
 
-    public synchronized void increment() {
+    public void increment() {
         updateValue(1);
     }
 
-    public synchronized void decrement() {
+    public void decrement() {
         updateValue(-1);
     }
 
-    public synchronized long getValue() {
-        if (updateMode == UpdateMode.DELTA) {
-            if (updateCount == 0) {
-                return this.value;
-            } else {
-                return this.value - this.lastValue;
-            }
-        } else {
-            return this.value;
+    public long getValue() {
+        switch (this.updateMode) {
+        case COUNTER:
+            return this.counter.sum();
+        case DELTA:
+            return this.value.get() - this.lastValue;
+        case MAXIMUM:
+        case MINIMUM:
+            // the value is zero until the first update
+            long answer = this.value.get();
+            return answer == initialValue() ? 0 : answer;
+        default:
+            return this.value.get();
         }
     }
 
-    public synchronized long getUpdateCount() {
-        return this.updateCount;
+    public long getUpdateCount() {
+        return this.updateCount.sum();
     }
 
-    public synchronized void reset() {
-        this.value = 0;
+    public void reset() {
+        if (this.counter != null) {
+            this.counter.reset();
+        }
+        this.value.set(initialValue());
         this.lastValue = 0;
-        this.updateCount = 0;
+        this.updateCount.reset();
+    }
+
+    private long initialValue() {
+        if (updateMode == UpdateMode.MAXIMUM) {
+            return Long.MIN_VALUE;
+        } else if (updateMode == UpdateMode.MINIMUM) {
+            return Long.MAX_VALUE;
+        }
+        return 0;
     }
 
     public String toString() {
-        return "" + value;
+        return "" + getValue();
     }
 
 }
@@ -0,0 +1,91 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.management.mbean;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A counter which is updated without locking and which spreads the updates over a number of
+ * cells when multiple threads update the counter concurrently, so the threads do not contend
+ * on the same cache line.
+ * <p/>
+ * The cells are only created when an update has failed due to contention, so a counter which
+ * is only updated by a single thread at a time takes up no more memory than an {@link AtomicLong}.
+ */
+final class StripedLongCounter {
+
+    // keep each cell on its own cache line (8 longs of 8 bytes)
+    private static final int PADDING = 8;
+    private static final int STRIPES;
+
+    static {
+        int stripes = 1;
+        int cpus = Runtime.getRuntime().availableProcessors();
+        while (stripes < cpus && stripes < 64) {
+            stripes <<= 1;
+        }
+        STRIPES = stripes;
+    }
+
+    private final AtomicLong base = new AtomicLong();
+    private volatile AtomicLongArray cells;
+
+    public void add(long delta) {
+        AtomicLongArray cs = cells;
+        if (cs == null) {
+            long current = base.get();
+            if (base.compareAndSet(current, current + delta)) {
+                return;
+            }
+            // contended so spread the updates from now on
+            cs = createCells();
+        }
+        // thread ids are assigned in sequence so they spread evenly over the stripes
+        int index = ((int) Thread.currentThread().getId() & (STRIPES - 1)) * PADDING;
+        cs.getAndAdd(index, delta);
+    }
+
+    public long sum() {
+        long sum = base.get();
+        AtomicLongArray cs = cells;
+        if (cs != null) {
+            for (int i = 0; i < STRIPES; i++) {
+                sum += cs.get(i * PADDING);
+            }
+        }
+        return sum;
+    }
+
+    public void reset() {
+        base.set(0);
+        AtomicLongArray cs = cells;
+        if (cs != null) {
+            for (int i = 0; i < STRIPES; i++) {
+                cs.set(i * PADDING, 0);
+            }
+        }
+    }
+
+    private synchronized AtomicLongArray createCells() {
+        if (cells == null) {
+            cells = new AtomicLongArray(STRIPES * PADDING);
+        }
+        return cells;
+    }
+
+}
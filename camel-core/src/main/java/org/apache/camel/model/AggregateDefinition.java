@@ -83,6 +83,8 @@ public class AggregateDefinition extends ProcessorDefinition<AggregateDefinition
     @XmlAttribute
     private Boolean optimisticLocking;
     @XmlAttribute
+    private Integer lockStripes;
+    @XmlAttribute
     private String executorServiceRef;
     @XmlAttribute
     private String timeoutCheckerExecutorServiceRef;
@@ -220,6 +222,9 @@ public class AggregateDefinition extends ProcessorDefinition<AggregateDefinition
 
         // set other options
         answer.setParallelProcessing(parallel);
+        if (getLockStripes() != null) {
+            answer.setLockStripes(getLockStripes());
+        }
         if (getOptimisticLocking() != null) {
             answer.setOptimisticLocking(getOptimisticLocking());
         }
@@ -540,6 +545,14 @@ public class AggregateDefinition extends ProcessorDefinition<AggregateDefinition
         this.optimisticLocking = optimisticLocking;
     }
 
+    public Integer getLockStripes() {
+        return lockStripes;
+    }
+
+    public void setLockStripes(Integer lockStripes) {
+        this.lockStripes = lockStripes;
+    }
+
     public Boolean getParallelProcessing() {
         return parallelProcessing;
     }
@@ -923,6 +936,18 @@ public class AggregateDefinition extends ProcessorDefinition<AggregateDefinition
         return this;
     }
 
+    /**
+     * Sets the number of locks the correlation keys are striped over, which allows different correlation keys
+     * to be aggregated concurrently. The number is rounded up to a power of two. By default a single lock is used.
+     * <p/>
+     * Only enable this if the aggregation strategy and the aggregation repository are thread safe,
+     * as they are then called concurrently for different correlation keys.
+     */
+    public AggregateDefinition lockStripes(int lockStripes) {
+        setLockStripes(lockStripes);
+        return this;
+    }
+
     /**
      * Allows to configure retry settings when using optimistic locking.
      */
@@ -74,6 +74,8 @@ public class MulticastDefinition extends OutputDefinition<MulticastDefinition> i
     private Boolean shareUnitOfWork;
     @XmlAttribute
     private Boolean parallelAggregate;
+    @XmlAttribute
+    private Boolean copyOnWrite;
 
     public MulticastDefinition() {
     }
@@ -287,6 +289,18 @@ public class MulticastDefinition extends OutputDefinition<MulticastDefinition> i
         return this;
     }
 
+    /**
+     * Whether the copies of the exchange should share the properties and headers with the original exchange
+     * until they are changed, instead of copying them eagerly. This reduces the copying and memory usage
+     * when there are many copies which only change a few of their properties or headers.
+     *
+     * @return the builder
+     */
+    public MulticastDefinition copyOnWrite() {
+        setCopyOnWrite(true);
+        return this;
+    }
+
     protected Processor createCompositeProcessor(RouteContext routeContext, List<Processor> list) throws Exception {
         final AggregationStrategy strategy = createAggregationStrategy(routeContext);
 
@@ -309,6 +323,7 @@ public class MulticastDefinition extends OutputDefinition<MulticastDefinition> i
 
         MulticastProcessor answer = new MulticastProcessor(routeContext.getCamelContext(), list, strategy, isParallelProcessing,
                                       threadPool, shutdownThreadPool, isStreaming, isStopOnException, timeout, onPrepare, isShareUnitOfWork, isParallelAggregate);
+        answer.setCopyOnWrite(getCopyOnWrite() != null && getCopyOnWrite());
         return answer;
     }
 
@@ -475,4 +490,12 @@ public class MulticastDefinition extends OutputDefinition<MulticastDefinition> i
         this.parallelAggregate = parallelAggregate;
     }
 
+    public Boolean getCopyOnWrite() {
+        return copyOnWrite;
+    }
+
+    public void setCopyOnWrite(Boolean copyOnWrite) {
+        this.copyOnWrite = copyOnWrite;
+    }
+
 }
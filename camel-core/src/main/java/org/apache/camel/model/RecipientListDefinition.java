@@ -83,6 +83,8 @@ public class RecipientListDefinition<Type extends ProcessorDefinition<Type>> ext
     private Integer cacheSize;
     @XmlAttribute
     private Boolean parallelAggregate;
+    @XmlAttribute
+    private Boolean copyOnWrite;
 
     public RecipientListDefinition() {
     }
@@ -127,6 +129,7 @@ public class RecipientListDefinition<Type extends ProcessorDefinition<Type>> ext
         answer.setParallelAggregate(isParallelAggregate);
         answer.setStreaming(isStreaming);
         answer.setShareUnitOfWork(isShareUnitOfWork);
+        answer.setCopyOnWrite(getCopyOnWrite() != null && getCopyOnWrite());
         answer.setStopOnException(isStopOnException);
         answer.setIgnoreInvalidEndpoints(isIgnoreInvalidEndpoints);
         if (getCacheSize() != null) {
@@ -423,6 +426,18 @@ public class RecipientListDefinition<Type extends ProcessorDefinition<Type>> ext
         return this;
     }
 
+    /**
+     * Whether the copies of the exchange should share the properties and headers with the original exchange
+     * until they are changed, instead of copying them eagerly. This reduces the copying and memory usage
+     * when there are many copies which only change a few of their properties or headers.
+     *
+     * @return the builder
+     */
+    public RecipientListDefinition<Type> copyOnWrite() {
+        setCopyOnWrite(true);
+        return this;
+    }
+
     /**
      * Sets the maximum size used by the {@link org.apache.camel.impl.ProducerCache} which is used
      * to cache and reuse producers when using this recipient list, when uris are reused.
@@ -599,4 +614,12 @@ public class RecipientListDefinition<Type extends ProcessorDefinition<Type>> ext
     public void setParallelAggregate(Boolean parallelAggregate) {
         this.parallelAggregate = parallelAggregate;
     }
+
+    public Boolean getCopyOnWrite() {
+        return copyOnWrite;
+    }
+
+    public void setCopyOnWrite(Boolean copyOnWrite) {
+        this.copyOnWrite = copyOnWrite;
+    }
 }
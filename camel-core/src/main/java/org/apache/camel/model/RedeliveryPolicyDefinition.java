@@ -44,6 +44,8 @@ public class RedeliveryPolicyDefinition {
     @XmlAttribute
     private String asyncDelayedRedelivery;
     @XmlAttribute
+    private String maximumPendingRedeliveries;
+    @XmlAttribute
     private String backOffMultiplier;
     @XmlAttribute
     private String useExponentialBackOff;
@@ -107,6 +109,9 @@ public class RedeliveryPolicyDefinition {
                     answer.asyncDelayedRedelivery();
                 }
             }
+            if (maximumPendingRedeliveries != null) {
+                answer.setMaximumPendingRedeliveries(CamelContextHelper.parseInteger(context, maximumPendingRedeliveries));
+            }
             if (retriesExhaustedLogLevel != null) {
                 answer.setRetriesExhaustedLogLevel(retriesExhaustedLogLevel);
             }
@@ -194,6 +199,35 @@ public class RedeliveryPolicyDefinition {
         return this;
     }
 
+    /**
+     * Sets the maximum number of asynchronous delayed redeliveries which can be pending at the same time.
+     * When the maximum has been reached, further redeliveries are delayed by blocking the thread of the consumer,
+     * which applies back pressure to the consumer. Is default 0 for no limit.
+     * <p/>
+     * This option is only used by the error handler, and is ignored by <tt>onException</tt>.
+     *
+     * @param maximumPendingRedeliveries the maximum number of pending redeliveries
+     * @return the builder
+     */
+    public RedeliveryPolicyDefinition maximumPendingRedeliveries(int maximumPendingRedeliveries) {
+        return maximumPendingRedeliveries(Integer.toString(maximumPendingRedeliveries));
+    }
+
+    /**
+     * Sets the maximum number of asynchronous delayed redeliveries which can be pending at the same time.
+     * When the maximum has been reached, further redeliveries are delayed by blocking the thread of the consumer,
+     * which applies back pressure to the consumer. Is default 0 for no limit.
+     * <p/>
+     * This option is only used by the error handler, and is ignored by <tt>onException</tt>.
+     *
+     * @param maximumPendingRedeliveries the maximum number of pending redeliveries
+     * @return the builder
+     */
+    public RedeliveryPolicyDefinition maximumPendingRedeliveries(String maximumPendingRedeliveries) {
+        setMaximumPendingRedeliveries(maximumPendingRedeliveries);
+        return this;
+    }
+
     /**
      * Controls whether to allow redelivery while stopping/shutting down a route that uses error handling.
      *
@@ -657,6 +691,14 @@ public class RedeliveryPolicyDefinition {
         this.asyncDelayedRedelivery = asyncDelayedRedelivery;
     }
 
+    public String getMaximumPendingRedeliveries() {
+        return maximumPendingRedeliveries;
+    }
+
+    public void setMaximumPendingRedeliveries(String maximumPendingRedeliveries) {
+        this.maximumPendingRedeliveries = maximumPendingRedeliveries;
+    }
+
     public String getBackOffMultiplier() {
         return backOffMultiplier;
     }
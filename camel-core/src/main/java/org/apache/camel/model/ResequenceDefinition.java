@@ -197,6 +197,20 @@ public class ResequenceDefinition extends ProcessorDefinition<ResequenceDefiniti
 
     }
 
+    /**
+     * Indexes the messages by their sequence number in a ring buffer for the stream resequencer
+     * instead of sorting them.
+     *
+     * @return the builder
+     */
+    public ResequenceDefinition ringBuffer() {
+        if (streamConfig == null) {
+            throw new IllegalStateException("ringBuffer() only supported for stream resequencer");
+        }
+        streamConfig.setRingBuffer(true);
+        return this;
+    }
+
     /**
      * Enables duplicates for the batch resequencer mode
      * @return the builder
@@ -403,7 +417,8 @@ public class ResequenceDefinition extends ProcessorDefinition<ResequenceDefiniti
         }
         comparator.setExpression(expression);
 
-        StreamResequencer resequencer = new StreamResequencer(routeContext.getCamelContext(), internal, comparator, expression);
+        boolean ringBuffer = config.getRingBuffer() != null && config.getRingBuffer();
+        StreamResequencer resequencer = new StreamResequencer(routeContext.getCamelContext(), internal, comparator, expression, ringBuffer);
         resequencer.setTimeout(config.getTimeout());
         resequencer.setCapacity(config.getCapacity());
         resequencer.setRejectOld(config.getRejectOld());
@@ -73,6 +73,8 @@ public class SplitDefinition extends ExpressionNode implements ExecutorServiceAw
     private Boolean shareUnitOfWork;
     @XmlAttribute
     private Boolean parallelAggregate;
+    @XmlAttribute
+    private Boolean copyOnWrite;
 
     public SplitDefinition() {
     }
@@ -120,6 +122,7 @@ public class SplitDefinition extends ExpressionNode implements ExecutorServiceAw
         Splitter answer = new Splitter(routeContext.getCamelContext(), exp, childProcessor, aggregationStrategy,
                             isParallelProcessing, threadPool, shutdownThreadPool, isStreaming, isStopOnException(),
                             timeout, onPrepare, isShareUnitOfWork, isParallelAggregate);
+        answer.setCopyOnWrite(getCopyOnWrite() != null && getCopyOnWrite());
 //        if (isShareUnitOfWork) {
             // wrap answer in a sub unit of work, since we share the unit of work
 //            CamelInternalProcessor internalProcessor = new CamelInternalProcessor(answer);
@@ -350,6 +353,18 @@ public class SplitDefinition extends ExpressionNode implements ExecutorServiceAw
         return this;
     }
 
+    /**
+     * Whether the copies of the exchange should share the properties and headers with the original exchange
+     * until they are changed, instead of copying them eagerly. This reduces the copying and memory usage
+     * when there are many copies which only change a few of their properties or headers.
+     *
+     * @return the builder
+     */
+    public SplitDefinition copyOnWrite() {
+        setCopyOnWrite(true);
+        return this;
+    }
+
     // Properties
     //-------------------------------------------------------------------------
 
@@ -493,4 +508,12 @@ public class SplitDefinition extends ExpressionNode implements ExecutorServiceAw
         this.shareUnitOfWork = shareUnitOfWork;
     }
 
+    public Boolean getCopyOnWrite() {
+        return copyOnWrite;
+    }
+
+    public void setCopyOnWrite(Boolean copyOnWrite) {
+        this.copyOnWrite = copyOnWrite;
+    }
+
 }
@@ -21,6 +21,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
 import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.XmlTransient;
 
@@ -29,6 +30,7 @@ import org.apache.camel.Processor;
 import org.apache.camel.builder.ExpressionBuilder;
 import org.apache.camel.model.language.ExpressionDefinition;
 import org.apache.camel.processor.Throttler;
+import org.apache.camel.processor.TokenBucketThrottler;
 import org.apache.camel.spi.Metadata;
 import org.apache.camel.spi.RouteContext;
 
@@ -55,6 +57,10 @@ public class ThrottleDefinition extends ExpressionNode implements ExecutorServic
     private Boolean callerRunsWhenRejected;
     @XmlAttribute
     private Boolean rejectExecution;
+    @XmlAttribute
+    private Boolean tokenBucket;
+    @XmlElement(name = "correlationExpression")
+    private ExpressionSubElementDefinition correlationExpression;
     
     public ThrottleDefinition() {
     }
@@ -95,7 +101,17 @@ public class ThrottleDefinition extends ExpressionNode implements ExecutorServic
         }
 
         boolean reject = getRejectExecution() != null && getRejectExecution();
-        Throttler answer = new Throttler(routeContext.getCamelContext(), childProcessor, maxRequestsExpression, period, threadPool, shutdownThreadPool, reject);
+        Throttler answer;
+        // throttling per correlation key is only supported by the token bucket throttler
+        if ((getTokenBucket() != null && getTokenBucket()) || getCorrelationExpression() != null) {
+            TokenBucketThrottler throttler = new TokenBucketThrottler(routeContext.getCamelContext(), childProcessor, maxRequestsExpression, period, threadPool, shutdownThreadPool, reject);
+            if (getCorrelationExpression() != null) {
+                throttler.setCorrelationExpression(getCorrelationExpression().createExpression(routeContext));
+            }
+            answer = throttler;
+        } else {
+            answer = new Throttler(routeContext.getCamelContext(), childProcessor, maxRequestsExpression, period, threadPool, shutdownThreadPool, reject);
+        }
 
         answer.setAsyncDelayed(async);
         if (getCallerRunsWhenRejected() == null) {
@@ -175,6 +191,30 @@ public class ThrottleDefinition extends ExpressionNode implements ExecutorServic
         return this;
     }
 
+    /**
+     * Whether to use a lock free token bucket to throttle, instead of a delay queue shared by all callers.
+     * The bucket lets a burst of up to the maximum requests through, and is then refilled evenly over the time period.
+     * <p/>
+     * The token bucket is always used when a correlation expression is configured.
+     *
+     * @return the builder
+     */
+    public ThrottleDefinition tokenBucket() {
+        setTokenBucket(true);
+        return this;
+    }
+
+    /**
+     * Throttles each correlation key independently, using a token bucket per key.
+     *
+     * @param correlationExpression the expression used to calculate the correlation key
+     * @return the builder
+     */
+    public ThrottleDefinition correlationExpression(Expression correlationExpression) {
+        setCorrelationExpression(new ExpressionSubElementDefinition(correlationExpression));
+        return this;
+    }
+
     /**
      * Sets the ExecutorService which could be used by throttle definition
      *
@@ -256,4 +296,23 @@ public class ThrottleDefinition extends ExpressionNode implements ExecutorServic
     public void setRejectExecution(Boolean rejectExecution) {
         this.rejectExecution = rejectExecution;
     }
+
+    public Boolean getTokenBucket() {
+        return tokenBucket;
+    }
+
+    public void setTokenBucket(Boolean tokenBucket) {
+        this.tokenBucket = tokenBucket;
+    }
+
+    public ExpressionSubElementDefinition getCorrelationExpression() {
+        return correlationExpression;
+    }
+
+    /**
+     * The expression used to calculate the correlation key, where each key is throttled independently
+     */
+    public void setCorrelationExpression(ExpressionSubElementDefinition correlationExpression) {
+        this.correlationExpression = correlationExpression;
+    }
 }
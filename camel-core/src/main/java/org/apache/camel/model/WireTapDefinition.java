@@ -59,6 +59,8 @@ public class WireTapDefinition<Type extends ProcessorDefinition<Type>> extends T
     @XmlAttribute @Metadata(defaultValue = "true")
     private Boolean copy;
     @XmlAttribute
+    private Boolean copyOnWrite;
+    @XmlAttribute
     private String onPrepareRef;
     @XmlTransient
     private Processor onPrepare;
@@ -90,6 +92,7 @@ public class WireTapDefinition<Type extends ProcessorDefinition<Type>> extends T
 
         WireTapProcessor answer = new WireTapProcessor(dynamicTo, internal, getPattern(), threadPool, shutdownThreadPool);
         answer.setCopy(isCopy);
+        answer.setCopyOnWrite(getCopyOnWrite() != null && getCopyOnWrite());
         if (newExchangeProcessorRef != null) {
             newExchangeProcessor = routeContext.mandatoryLookup(newExchangeProcessorRef, Processor.class);
         }
@@ -191,6 +194,18 @@ public class WireTapDefinition<Type extends ProcessorDefinition<Type>> extends T
         return this;
     }
 
+    /**
+     * Whether the copies of the exchange should share the properties and headers with the original exchange
+     * until they are changed, instead of copying them eagerly. This reduces the copying and memory usage
+     * when there are many copies which only change a few of their properties or headers.
+     *
+     * @return the builder
+     */
+    public WireTapDefinition<Type> copyOnWrite() {
+        setCopyOnWrite(true);
+        return this;
+    }
+
     /**
      * @deprecated will be removed in Camel 3.0 Instead use {@link #newExchangeBody(org.apache.camel.Expression)}
      */
@@ -373,6 +388,14 @@ public class WireTapDefinition<Type extends ProcessorDefinition<Type>> extends T
         this.copy = copy;
     }
 
+    public Boolean getCopyOnWrite() {
+        return copyOnWrite;
+    }
+
+    public void setCopyOnWrite(Boolean copyOnWrite) {
+        this.copyOnWrite = copyOnWrite;
+    }
+
     public String getOnPrepareRef() {
         return onPrepareRef;
     }
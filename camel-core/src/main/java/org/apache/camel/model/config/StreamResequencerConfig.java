@@ -45,6 +45,8 @@ public class StreamResequencerConfig extends ResequencerConfig {
     private String comparatorRef;
     @XmlAttribute
     private Boolean rejectOld;
+    @XmlAttribute
+    private Boolean ringBuffer;
 
     /**
      * Creates a new {@link StreamResequencerConfig} instance using default
@@ -192,4 +194,16 @@ public class StreamResequencerConfig extends ResequencerConfig {
         return rejectOld;
     }
 
+    public Boolean getRingBuffer() {
+        return ringBuffer;
+    }
+
+    /**
+     * Whether to index messages by their sequence number in a ring buffer instead of sorting them.
+     * This requires the comparator to provide sequence numbers, such as the default comparator.
+     */
+    public void setRingBuffer(Boolean ringBuffer) {
+        this.ringBuffer = ringBuffer;
+    }
+
 }
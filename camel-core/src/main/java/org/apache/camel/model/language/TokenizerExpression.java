@@ -55,6 +55,10 @@ public class TokenizerExpression extends ExpressionDefinition {
     private Integer group;
     @XmlAttribute
     private Boolean skipFirst;
+    @XmlAttribute
+    private Boolean binary;
+    @XmlAttribute
+    private Boolean lenientXml;
 
     public TokenizerExpression() {
     }
@@ -168,6 +172,32 @@ public class TokenizerExpression extends ExpressionDefinition {
         this.skipFirst = skipFirst;
     }
 
+    public Boolean getBinary() {
+        return binary;
+    }
+
+    /**
+     * To tokenize the bytes of files and streams without decoding them, which is faster for big files.
+     * The parts are stream caches which are only decoded when converted to String.
+     * This requires the content to use a charset such as UTF-8 or a single byte charset, and cannot be combined with regex.
+     */
+    public void setBinary(Boolean binary) {
+        this.binary = binary;
+    }
+
+    public Boolean getLenientXml() {
+        return lenientXml;
+    }
+
+    /**
+     * Whether to find the XML tokens by scanning the input using regular expressions, instead of parsing it.
+     * By default the input is parsed, which requires it to be well-formed XML. Enable this to tolerate input
+     * which is not well-formed, as the tokenizer did in earlier Camel releases.
+     */
+    public void setLenientXml(Boolean lenientXml) {
+        this.lenientXml = lenientXml;
+    }
+
     @Override
     public Expression createExpression(CamelContext camelContext) {
         // special for new line tokens, if defined from XML then its 2 characters, so we replace that back to a single char
@@ -198,6 +228,12 @@ public class TokenizerExpression extends ExpressionDefinition {
         if (skipFirst != null) {
             language.setSkipFirst(skipFirst);
         }
+        if (binary != null) {
+            language.setBinary(binary);
+        }
+        if (lenientXml != null) {
+            language.setLenientXml(lenientXml);
+        }
         return language.createExpression();
     }
 
@@ -51,6 +51,8 @@ public class XPathExpression extends NamespaceAwareExpression {
     private Boolean logNamespaces;
     @XmlAttribute
     private String headerName;
+    @XmlAttribute
+    private Boolean streaming;
     @XmlTransient
     private Class<?> documentType;
     @XmlTransient
@@ -180,6 +182,21 @@ public class XPathExpression extends NamespaceAwareExpression {
         this.headerName = headerName;
     }
 
+    public Boolean getStreaming() {
+        return streaming;
+    }
+
+    /**
+     * Whether to evaluate boolean and string results of simple location paths, such as
+     * <tt>/order/customer/@type = 'gold'</tt>, by streaming the message instead of building a DOM.
+     * <p/>
+     * Is by default false. Other expressions, and expressions using saxon, a custom factory or object model,
+     * are always evaluated by the XPath engine.
+     */
+    public void setStreaming(Boolean streaming) {
+        this.streaming = streaming;
+    }
+
     @Override
     public Expression createExpression(CamelContext camelContext) {
         if (documentType == null && documentTypeName != null) {
@@ -239,6 +256,9 @@ public class XPathExpression extends NamespaceAwareExpression {
         if (ObjectHelper.isNotEmpty(getHeaderName())) {
             ObjectHelper.cast(XPathBuilder.class, expression).setHeaderName(getHeaderName());
         }
+        if (getStreaming() != null) {
+            ObjectHelper.cast(XPathBuilder.class, expression).setStreaming(getStreaming());
+        }
         // moved the super configuration to the bottom so that the namespace init picks up the newly set XPath Factory
         super.configureExpression(camelContext, expression);
     }
@@ -269,6 +289,9 @@ public class XPathExpression extends NamespaceAwareExpression {
         if (ObjectHelper.isNotEmpty(getHeaderName())) {
             ObjectHelper.cast(XPathBuilder.class, predicate).setHeaderName(getHeaderName());
         }
+        if (getStreaming() != null) {
+            ObjectHelper.cast(XPathBuilder.class, predicate).setStreaming(getStreaming());
+        }
         // moved the super configuration to the bottom so that the namespace init picks up the newly set XPath Factory
         super.configurePredicate(camelContext, predicate);
     }
@@ -30,6 +30,8 @@ import org.apache.camel.Route;
 import org.apache.camel.StatefulService;
 import org.apache.camel.StreamCache;
 import org.apache.camel.api.management.PerformanceCounter;
+import org.apache.camel.impl.CompactMessageHistory;
+import org.apache.camel.impl.CompactMessageHistoryFactory;
 import org.apache.camel.management.DelegatePerformanceCounter;
 import org.apache.camel.management.mbean.ManagedPerformanceCounter;
 import org.apache.camel.model.ProcessorDefinition;
@@ -741,6 +743,38 @@ public class CamelInternalProcessor extends DelegateAsyncProcessor {
         }
     }
 
+    /**
+     * Advice when Message History has been enabled with a {@link CompactMessageHistoryFactory}.
+     */
+    public static class CompactMessageHistoryAdvice implements CamelInternalProcessorAdvice<CompactMessageHistory> {
+
+        private final CompactMessageHistoryFactory factory;
+        private final ProcessorDefinition<?> definition;
+        private final String routeId;
+
+        public CompactMessageHistoryAdvice(CompactMessageHistoryFactory factory, ProcessorDefinition<?> definition) {
+            this.factory = factory;
+            this.definition = definition;
+            this.routeId = ProcessorDefinitionHelper.getRouteId(definition);
+        }
+
+        @Override
+        public CompactMessageHistory before(Exchange exchange) throws Exception {
+            CompactMessageHistory history = factory.getMessageHistory(exchange);
+            if (history != null) {
+                history.nodeProcessingStarted(routeId, definition);
+            }
+            return history;
+        }
+
+        @Override
+        public void after(Exchange exchange, CompactMessageHistory history) throws Exception {
+            if (history != null) {
+                history.nodeProcessingDone(definition);
+            }
+        }
+    }
+
     /**
      * Advice for {@link org.apache.camel.spi.StreamCachingStrategy}
      */
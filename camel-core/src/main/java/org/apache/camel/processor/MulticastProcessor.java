@@ -158,6 +158,7 @@ public class MulticastProcessor extends ServiceSupport implements AsyncProcessor
     private final long timeout;
     private final ConcurrentMap<PreparedErrorHandler, Processor> errorHandlers = new ConcurrentHashMap<PreparedErrorHandler, Processor>();
     private final boolean shareUnitOfWork;
+    private boolean copyOnWrite;
 
     public MulticastProcessor(CamelContext camelContext, Collection<Processor> processors) {
         this(camelContext, processors, null);
@@ -953,7 +954,7 @@ public class MulticastProcessor extends ServiceSupport implements AsyncProcessor
         int index = 0;
         for (Processor processor : processors) {
             // copy exchange, and do not share the unit of work
-            Exchange copy = ExchangeHelper.createCorrelatedCopy(exchange, false);
+            Exchange copy = ExchangeHelper.createCorrelatedCopy(exchange, false, false, isCopyOnWrite());
 
             if (streamCache != null) {
                 if (index > 0) {
@@ -1281,6 +1282,17 @@ public class MulticastProcessor extends ServiceSupport implements AsyncProcessor
         return shareUnitOfWork;
     }
 
+    /**
+     * Whether the copies of the exchange share the properties and headers with the original exchange until they are changed
+     */
+    public boolean isCopyOnWrite() {
+        return copyOnWrite;
+    }
+
+    public void setCopyOnWrite(boolean copyOnWrite) {
+        this.copyOnWrite = copyOnWrite;
+    }
+
     public List<Processor> next() {
         if (!hasNext()) {
             return null;
@@ -68,6 +68,7 @@ public class RecipientList extends ServiceSupport implements AsyncProcessor, IdA
     private int cacheSize;
     private Processor onPrepare;
     private boolean shareUnitOfWork;
+    private boolean copyOnWrite;
     private ExecutorService executorService;
     private boolean shutdownExecutorService;
     private ExecutorService aggregateExecutorService;
@@ -156,6 +157,7 @@ public class RecipientList extends ServiceSupport implements AsyncProcessor, IdA
             }
         };
         rlp.setIgnoreInvalidEndpoints(isIgnoreInvalidEndpoints());
+        rlp.setCopyOnWrite(isCopyOnWrite());
 
         // start the service
         try {
@@ -306,6 +308,14 @@ public class RecipientList extends ServiceSupport implements AsyncProcessor, IdA
         this.shareUnitOfWork = shareUnitOfWork;
     }
 
+    public boolean isCopyOnWrite() {
+        return copyOnWrite;
+    }
+
+    public void setCopyOnWrite(boolean copyOnWrite) {
+        this.copyOnWrite = copyOnWrite;
+    }
+
     public int getCacheSize() {
         return cacheSize;
     }
@@ -36,6 +36,7 @@ import org.apache.camel.Predicate;
 import org.apache.camel.Processor;
 import org.apache.camel.model.OnExceptionDefinition;
 import org.apache.camel.spi.ExchangeFormatter;
+import org.apache.camel.spi.RouteContext;
 import org.apache.camel.spi.ShutdownPrepared;
 import org.apache.camel.spi.SubUnitOfWorkCallback;
 import org.apache.camel.spi.UnitOfWork;
@@ -61,7 +62,12 @@ import org.apache.camel.util.URISupport;
  */
 public abstract class RedeliveryErrorHandler extends ErrorHandlerSupport implements AsyncProcessor, ShutdownPrepared, Navigate<Processor> {
 
+    // the tick of the timing wheel where delayed redeliveries are parked
+    private static final long REDELIVERY_TIMER_TICK = 50;
+
     protected final AtomicInteger redeliverySleepCounter = new AtomicInteger();
+    protected final AtomicInteger redeliveryParkedCounter = new AtomicInteger();
+    protected volatile RedeliveryTimer redeliveryTimer;
     protected ScheduledExecutorService executorService;
     protected final CamelContext camelContext;
     protected final Processor deadLetter;
@@ -123,11 +129,13 @@ public abstract class RedeliveryErrorHandler extends ErrorHandlerSupport impleme
      * {@link java.util.concurrent.ScheduledExecutorService} to avoid having any threads blocking if a task
      * has to be delayed before a redelivery attempt is performed.
      */
-    private class AsyncRedeliveryTask implements Callable<Boolean> {
+    private class AsyncRedeliveryTask implements Callable<Boolean>, RedeliveryTimer.Redelivery {
 
         private final Exchange exchange;
         private final AsyncCallback callback;
         private final RedeliveryData data;
+        // the route the redelivery is pending for, when parked in the redelivery timer
+        private String routeId;
 
         public AsyncRedeliveryTask(Exchange exchange, AsyncCallback callback, RedeliveryData data) {
             this.exchange = exchange;
@@ -135,6 +143,33 @@ public abstract class RedeliveryErrorHandler extends ErrorHandlerSupport impleme
             this.data = data;
         }
 
+        public String getRouteId() {
+            return routeId;
+        }
+
+        public void redeliver() {
+            redeliveryParkedCounter.decrementAndGet();
+            try {
+                executorService.submit(this);
+            } catch (RejectedExecutionException e) {
+                reject(e);
+            }
+        }
+
+        public void reject(RejectedExecutionException cause) {
+            redeliveryParkedCounter.decrementAndGet();
+            log.trace("Rejecting redelivery for exchangeId: {}", exchange.getExchangeId());
+            if (exchange.getException() == null) {
+                exchange.setException(cause);
+            }
+            callback.done(false);
+        }
+
+        @Override
+        public String toString() {
+            return "AsyncRedeliveryTask[" + exchange.getExchangeId() + "]";
+        }
+
         public Boolean call() throws Exception {
             // prepare for redelivery
             prepareExchangeForRedelivery(exchange, data);
@@ -426,31 +461,23 @@ public abstract class RedeliveryErrorHandler extends ErrorHandlerSupport impleme
                         data.redeliverFromSync = true;
                         AsyncRedeliveryTask task = new AsyncRedeliveryTask(exchange, callback, data);
 
-                        // schedule the redelivery task
-                        if (log.isTraceEnabled()) {
-                            log.trace("Scheduling redelivery task to run in {} millis for exchangeId: {}", data.redeliveryDelay, exchange.getExchangeId());
+                        // schedule the redelivery task, unless the maximum number of pending redeliveries has been reached
+                        if (scheduleRedelivery(task, true)) {
+                            return false;
                         }
-                        executorService.schedule(task, data.redeliveryDelay, TimeUnit.MILLISECONDS);
 
-                        return false;
-                    } else {
-                        // async delayed redelivery was disabled or we are transacted so we must be synchronous
-                        // as the transaction manager requires to execute in the same thread context
-                        try {
-                            // we are doing synchronous redelivery and use thread sleep, so we keep track using a counter how many are sleeping
-                            redeliverySleepCounter.incrementAndGet();
-                            data.currentRedeliveryPolicy.sleep(data.redeliveryDelay);
-                            redeliverySleepCounter.decrementAndGet();
-                        } catch (InterruptedException e) {
-                            redeliverySleepCounter.decrementAndGet();
-                            // we was interrupted so break out
-                            exchange.setException(e);
-                            // mark the exchange to stop continue routing when interrupted
-                            // as we do not want to continue routing (for example a task has been cancelled)
-                            exchange.setProperty(Exchange.ROUTE_STOP, Boolean.TRUE);
-                            callback.done(data.sync);
-                            return data.sync;
-                        }
+                        // the maximum number of pending redeliveries has been reached, so we apply back pressure
+                        // by continuing synchronously in the current thread, which is the thread of the consumer
+                        data.sync = true;
+                        data.redeliverFromSync = false;
+                    }
+
+                    // async delayed redelivery was disabled, the maximum number of pending redeliveries has been reached,
+                    // or we are transacted so we must be synchronous as the transaction manager requires to execute
+                    // in the same thread context
+                    if (!sleepForRedelivery(exchange, data)) {
+                        callback.done(data.sync);
+                        return data.sync;
                     }
                 }
 
@@ -598,11 +625,10 @@ public abstract class RedeliveryErrorHandler extends ErrorHandlerSupport impleme
             data.redeliveryDelay = determineRedeliveryDelay(exchange, data.currentRedeliveryPolicy, data.redeliveryDelay, data.redeliveryCounter);
 
             if (data.redeliveryDelay > 0) {
-                // schedule the redelivery task
-                if (log.isTraceEnabled()) {
-                    log.trace("Scheduling redelivery task to run in {} millis for exchangeId: {}", data.redeliveryDelay, exchange.getExchangeId());
-                }
-                executorService.schedule(task, data.redeliveryDelay, TimeUnit.MILLISECONDS);
+                // schedule the redelivery task regardless of the maximum number of pending redeliveries, as we are
+                // not in the thread of the consumer, but in a thread which must not block, such as the error handler
+                // thread pool which also runs the redelivery timer
+                scheduleRedelivery(task, false);
             } else {
                 // execute the task immediately
                 executorService.submit(task);
@@ -610,6 +636,92 @@ public abstract class RedeliveryErrorHandler extends ErrorHandlerSupport impleme
         }
     }
 
+    /**
+     * Schedules the redelivery task to run after the redelivery delay.
+     * <p/>
+     * The task is parked in the redelivery timer, which is shared by the error handlers of the CamelContext.
+     * If the timer is not running the task is scheduled on the thread pool instead. The maximum number of pending
+     * redeliveries applies to the redeliveries parked by this error handler only.
+     *
+     * @param task    the redelivery task
+     * @param bounded whether the maximum number of pending redeliveries of the redelivery policy applies
+     * @return <tt>true</tt> if scheduled, <tt>false</tt> if the maximum number of pending redeliveries has been reached
+     */
+    private boolean scheduleRedelivery(AsyncRedeliveryTask task, boolean bounded) {
+        Exchange exchange = task.exchange;
+        long delay = task.data.redeliveryDelay;
+
+        RedeliveryTimer timer = redeliveryTimer;
+        if (timer != null) {
+            int max = bounded ? redeliveryPolicy.getMaximumPendingRedeliveries() : 0;
+            // count the task as parked up front, so the maximum cannot be exceeded by concurrent redeliveries
+            int current;
+            do {
+                current = redeliveryParkedCounter.get();
+                if (max > 0 && current >= max) {
+                    log.debug("Cannot park redelivery task as maximum pending redeliveries {} has been reached for exchangeId: {}", max, exchange.getExchangeId());
+                    return false;
+                }
+            } while (!redeliveryParkedCounter.compareAndSet(current, current + 1));
+
+            task.routeId = getRouteId(exchange);
+            if (timer.park(task, delay)) {
+                if (log.isTraceEnabled()) {
+                    log.trace("Parked redelivery task to run in {} millis for exchangeId: {}", delay, exchange.getExchangeId());
+                }
+                return true;
+            }
+            // the timer is not running
+            redeliveryParkedCounter.decrementAndGet();
+        }
+
+        if (log.isTraceEnabled()) {
+            log.trace("Scheduling redelivery task to run in {} millis for exchangeId: {}", delay, exchange.getExchangeId());
+        }
+        executorService.schedule(task, delay, TimeUnit.MILLISECONDS);
+        return true;
+    }
+
+    /**
+     * Waits in the current thread until the redelivery delay has passed.
+     *
+     * @return <tt>false</tt> if interrupted, which marks the exchange to stop routing
+     */
+    private boolean sleepForRedelivery(Exchange exchange, RedeliveryData data) {
+        // we are doing synchronous redelivery and use thread sleep, so we keep track using a counter how many are sleeping
+        redeliverySleepCounter.incrementAndGet();
+        RedeliveryTimer timer = redeliveryTimer;
+        String routeId = getRouteId(exchange);
+        if (timer != null) {
+            timer.onPending(routeId);
+        }
+        try {
+            data.currentRedeliveryPolicy.sleep(data.redeliveryDelay);
+            return true;
+        } catch (InterruptedException e) {
+            // we was interrupted so break out
+            exchange.setException(e);
+            // mark the exchange to stop continue routing when interrupted
+            // as we do not want to continue routing (for example a task has been cancelled)
+            exchange.setProperty(Exchange.ROUTE_STOP, Boolean.TRUE);
+            return false;
+        } finally {
+            redeliverySleepCounter.decrementAndGet();
+            if (timer != null) {
+                timer.onPendingDone(routeId);
+            }
+        }
+    }
+
+    private static String getRouteId(Exchange exchange) {
+        UnitOfWork uow = exchange.getUnitOfWork();
+        RouteContext routeContext = uow != null ? uow.getRouteContext() : null;
+        if (routeContext != null && routeContext.getRoute() != null && routeContext.getRoute().getId() != null) {
+            return routeContext.getRoute().getId();
+        }
+        return exchange.getFromRouteId();
+    }
+
     /**
      * Performs a defensive copy of the exchange if needed
      *
@@ -1354,7 +1466,7 @@ public abstract class RedeliveryErrorHandler extends ErrorHandlerSupport impleme
      * Gets the number of exchanges that are pending for redelivery
      */
     public int getPendingRedeliveryCount() {
-        int answer = redeliverySleepCounter.get();
+        int answer = redeliverySleepCounter.get() + redeliveryParkedCounter.get();
         if (executorService != null && executorService instanceof ThreadPoolExecutor) {
             answer += ((ThreadPoolExecutor) executorService).getQueue().size();
         }
@@ -1362,6 +1474,17 @@ public abstract class RedeliveryErrorHandler extends ErrorHandlerSupport impleme
         return answer;
     }
 
+    /**
+     * Gets the number of exchanges from the given route that are waiting for redelivery, either by sleeping or
+     * being parked in the redelivery timer
+     *
+     * @param routeId the route id
+     */
+    public int getPendingRedeliveryCount(String routeId) {
+        RedeliveryTimer timer = redeliveryTimer;
+        return timer != null ? timer.getPendingCount(routeId) : 0;
+    }
+
     @Override
     protected void doStart() throws Exception {
         ServiceHelper.startServices(output, outputAsync, deadLetter);
@@ -1381,6 +1504,7 @@ public abstract class RedeliveryErrorHandler extends ErrorHandlerSupport impleme
             if (log.isDebugEnabled()) {
                 log.debug("Using ExecutorService: {} for redeliveries on error handler: {}", executorService, this);
             }
+            redeliveryTimer = lookupOrCreateRedeliveryTimer();
         }
 
         // reset flag when starting
@@ -1388,6 +1512,23 @@ public abstract class RedeliveryErrorHandler extends ErrorHandlerSupport impleme
         redeliverySleepCounter.set(0);
     }
 
+    /**
+     * Gets the redelivery timer which is shared by the error handlers of the CamelContext
+     */
+    protected RedeliveryTimer lookupOrCreateRedeliveryTimer() throws Exception {
+        synchronized (camelContext) {
+            RedeliveryTimer timer = camelContext.hasService(RedeliveryTimer.class);
+            if (timer == null) {
+                timer = new RedeliveryTimer(camelContext.getErrorHandlerExecutorService(), REDELIVERY_TIMER_TICK);
+                camelContext.addService(timer);
+            } else {
+                // the timer may have been stopped if CamelContext has been restarted
+                ServiceHelper.startService(timer);
+            }
+            return timer;
+        }
+    }
+
     @Override
     protected void doStop() throws Exception {
         // noop, do not stop any services which we only do when shutting down
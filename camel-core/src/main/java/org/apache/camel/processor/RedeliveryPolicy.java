@@ -38,6 +38,7 @@ import org.slf4j.LoggerFactory;
  *   <li>redeliveryDelay = 1000L (the initial delay)</li>
  *   <li>maximumRedeliveryDelay = 60 * 1000L</li>
  *   <li>asyncDelayedRedelivery = false</li>
+ *   <li>maximumPendingRedeliveries = 0</li>
  *   <li>backOffMultiplier = 2</li>
  *   <li>useExponentialBackOff = false</li>
  *   <li>collisionAvoidanceFactor = 0.15d</li>
@@ -102,6 +103,7 @@ public class RedeliveryPolicy implements Cloneable, Serializable {
     protected boolean logRetryAttempted = true;
     protected String delayPattern;
     protected boolean asyncDelayedRedelivery;
+    protected int maximumPendingRedeliveries;
     protected boolean allowRedeliveryWhileStopping = true;
     protected String exchangeFormatterRef;
 
@@ -114,6 +116,7 @@ public class RedeliveryPolicy implements Cloneable, Serializable {
             + ", redeliveryDelay=" + redeliveryDelay
             + ", maximumRedeliveryDelay=" + maximumRedeliveryDelay
             + ", asyncDelayedRedelivery=" + asyncDelayedRedelivery
+            + ", maximumPendingRedeliveries=" + maximumPendingRedeliveries
             + ", allowRedeliveryWhileStopping=" + allowRedeliveryWhileStopping
             + ", retriesExhaustedLogLevel=" + retriesExhaustedLogLevel
             + ", retryAttemptedLogLevel=" + retryAttemptedLogLevel
@@ -440,6 +443,16 @@ public class RedeliveryPolicy implements Cloneable, Serializable {
         return this;
     }
 
+    /**
+     * Sets the maximum number of asynchronous delayed redeliveries which can be pending at the same time.
+     *
+     * @see #setMaximumPendingRedeliveries(int)
+     */
+    public RedeliveryPolicy maximumPendingRedeliveries(int maximumPendingRedeliveries) {
+        setMaximumPendingRedeliveries(maximumPendingRedeliveries);
+        return this;
+    }
+
     /**
      * Controls whether to allow redelivery while stopping/shutting down a route that uses error handling.
      *
@@ -762,6 +775,30 @@ public class RedeliveryPolicy implements Cloneable, Serializable {
         this.asyncDelayedRedelivery = asyncDelayedRedelivery;
     }
 
+    public int getMaximumPendingRedeliveries() {
+        return maximumPendingRedeliveries;
+    }
+
+    /**
+     * Sets the maximum number of asynchronous delayed redeliveries which can be pending at the same time.
+     * <p/>
+     * The asynchronous delayed redeliveries are parked in a timing wheel with a tick of 50 millis, until they are
+     * due to be redelivered. This is unbounded by default (0).
+     * <p/>
+     * When the maximum has been reached, an exchange which is about to be redelivered the first time by the thread
+     * of the consumer is instead redelivered synchronously by that thread, which applies back pressure to the consumer.
+     * The redeliveries of exchanges which are already being redelivered asynchronously are always parked, as their
+     * threads must not block.
+     * <p/>
+     * Only the maximum of the redelivery policy of the error handler is used, and the maximum applies to all its
+     * redeliveries. The maximum is ignored when set on the redelivery policy of an <tt>onException</tt>.
+     *
+     * @param maximumPendingRedeliveries the maximum number of pending redeliveries, or 0 for no limit
+     */
+    public void setMaximumPendingRedeliveries(int maximumPendingRedeliveries) {
+        this.maximumPendingRedeliveries = maximumPendingRedeliveries;
+    }
+
     public boolean isAllowRedeliveryWhileStopping() {
         return allowRedeliveryWhileStopping;
     }
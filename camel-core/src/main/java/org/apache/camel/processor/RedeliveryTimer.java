@@ -0,0 +1,204 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.camel.support.HashedWheelTimeoutMap;
+import org.apache.camel.support.ServiceSupport;
+import org.apache.camel.util.ObjectHelper;
+import org.apache.camel.util.ServiceHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A timer where the error handlers of a {@link org.apache.camel.CamelContext} park the exchanges which are waiting
+ * for an asynchronous delayed redelivery, instead of scheduling a task per exchange.
+ * <p/>
+ * The redeliveries are kept in a {@link HashedWheelTimeoutMap} until they are due. The error handlers keep track of
+ * the number of redeliveries they have parked, so each error handler can apply back pressure when its own maximum
+ * has been reached. The timer also keeps track of the number of pending redeliveries per route, which includes the exchanges waiting
+ * for a synchronous redelivery.
+ */
+public class RedeliveryTimer extends ServiceSupport {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RedeliveryTimer.class);
+
+    private final ScheduledExecutorService executorService;
+    private final long tick;
+    private final AtomicInteger parked = new AtomicInteger();
+    private final ConcurrentMap<String, AtomicInteger> routePending = new ConcurrentHashMap<String, AtomicInteger>();
+    private volatile HashedWheelTimeoutMap<Redelivery, Redelivery> wheel;
+
+    /**
+     * A redelivery which can be parked in the timer.
+     */
+    public interface Redelivery {
+
+        /**
+         * The id of the route the redelivery is pending for, or <tt>null</tt> if not known
+         */
+        String getRouteId();
+
+        /**
+         * Invoked when the redelivery is due, to execute it.
+         */
+        void redeliver();
+
+        /**
+         * Invoked when the timer is stopped while the redelivery is still parked.
+         */
+        void reject(RejectedExecutionException cause);
+    }
+
+    /**
+     * @param executorService the executor service to run the timing wheel
+     * @param tick            the duration of a tick of the timing wheel in millis
+     */
+    public RedeliveryTimer(ScheduledExecutorService executorService, long tick) {
+        ObjectHelper.notNull(executorService, "ScheduledExecutorService");
+        this.executorService = executorService;
+        this.tick = tick;
+    }
+
+    /**
+     * Parks the redelivery until the delay has passed.
+     *
+     * @param redelivery the redelivery
+     * @param delay      the delay in millis
+     * @return <tt>true</tt> if parked, <tt>false</tt> if the timer is not started
+     */
+    public boolean park(Redelivery redelivery, long delay) {
+        if (!isRunAllowed()) {
+            return false;
+        }
+
+        parked.incrementAndGet();
+        onPending(redelivery.getRouteId());
+        getWheel().put(redelivery, redelivery, delay);
+        return true;
+    }
+
+    /**
+     * Keeps track of a redelivery which is pending outside the timer, such as when sleeping.
+     */
+    public void onPending(String routeId) {
+        if (routeId != null) {
+            AtomicInteger counter = routePending.get(routeId);
+            if (counter == null) {
+                AtomicInteger existing = routePending.putIfAbsent(routeId, counter = new AtomicInteger());
+                if (existing != null) {
+                    counter = existing;
+                }
+            }
+            counter.incrementAndGet();
+        }
+    }
+
+    /**
+     * Keeps track of a redelivery which is no longer pending.
+     */
+    public void onPendingDone(String routeId) {
+        if (routeId != null) {
+            AtomicInteger counter = routePending.get(routeId);
+            if (counter != null) {
+                counter.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Gets the number of redeliveries parked in the timer by all the error handlers
+     */
+    public int getParkedCount() {
+        return parked.get();
+    }
+
+    /**
+     * Gets the number of redeliveries pending for the given route
+     */
+    public int getPendingCount(String routeId) {
+        AtomicInteger counter = routePending.get(routeId);
+        return counter != null ? counter.get() : 0;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    private HashedWheelTimeoutMap<Redelivery, Redelivery> getWheel() {
+        if (wheel == null) {
+            synchronized (this) {
+                if (wheel == null) {
+                    HashedWheelTimeoutMap<Redelivery, Redelivery> answer = new HashedWheelTimeoutMap<Redelivery, Redelivery>(executorService, tick) {
+                        @Override
+                        public boolean onEviction(Redelivery key, Redelivery redelivery) {
+                            // only redeliver if it has not been rejected by stopping in the meantime
+                            if (remove(key) != null) {
+                                unpark(redelivery);
+                                redelivery.redeliver();
+                            }
+                            return true;
+                        }
+                    };
+                    try {
+                        ServiceHelper.startService(answer);
+                    } catch (Exception e) {
+                        throw ObjectHelper.wrapRuntimeCamelException(e);
+                    }
+                    wheel = answer;
+                }
+            }
+        }
+        return wheel;
+    }
+
+    private void unpark(Redelivery redelivery) {
+        parked.decrementAndGet();
+        onPendingDone(redelivery.getRouteId());
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        // the timing wheel is started when the first redelivery is parked
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        HashedWheelTimeoutMap<Redelivery, Redelivery> answer;
+        synchronized (this) {
+            answer = wheel;
+            wheel = null;
+        }
+        if (answer != null) {
+            // reject the redeliveries which are still parked so their exchanges are done
+            for (Object key : answer.getKeys()) {
+                Redelivery redelivery = answer.remove((Redelivery) key);
+                if (redelivery != null) {
+                    unpark(redelivery);
+                    LOG.debug("Rejecting parked redelivery: {} as the timer is stopping", redelivery);
+                    redelivery.reject(new RejectedExecutionException("RedeliveryTimer is stopping"));
+                }
+            }
+            ServiceHelper.stopService(answer);
+        }
+    }
+}
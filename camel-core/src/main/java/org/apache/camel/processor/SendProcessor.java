@@ -17,7 +17,7 @@
 package org.apache.camel.processor;
 
 import java.net.URISyntaxException;
-import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.camel.AsyncCallback;
 import org.apache.camel.AsyncProcessor;
@@ -213,10 +213,10 @@ public class SendProcessor extends ServiceSupport implements AsyncProcessor, Tra
     protected void doStart() throws Exception {
         if (producerCache == null) {
             // use a single producer cache as we need to only hold reference for one destination
-            // and use a regular HashMap as we do not want a soft reference store that may get re-claimed when low on memory
+            // and use a regular ConcurrentHashMap as we do not want a soft reference store that may get re-claimed when low on memory
             // as we want to ensure the producer is kept around, to ensure its lifecycle is fully managed,
             // eg stopping the producer when we stop etc.
-            producerCache = new ProducerCache(this, camelContext, new HashMap<String, Producer>(1));
+            producerCache = new ProducerCache(this, camelContext, new ConcurrentHashMap<String, Producer>(1));
             // do not add as service as we do not want to manage the producer cache
         }
         ServiceHelper.startService(producerCache);
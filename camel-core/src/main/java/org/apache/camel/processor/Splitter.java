@@ -35,6 +35,7 @@ import org.apache.camel.Message;
 import org.apache.camel.Processor;
 import org.apache.camel.RuntimeCamelException;
 import org.apache.camel.Traceable;
+import org.apache.camel.impl.DefaultExchange;
 import org.apache.camel.processor.aggregate.AggregationStrategy;
 import org.apache.camel.processor.aggregate.ShareUnitOfWorkAggregationStrategy;
 import org.apache.camel.processor.aggregate.UseOriginalAggregationStrategy;
@@ -149,7 +150,13 @@ public class Splitter extends MulticastProcessor implements AsyncProcessor, Trac
             this.original = exchange;
             this.value = value;
             this.iterator = ObjectHelper.createIterator(value);
-            this.copy = copyExchangeNoAttachments(exchange, true);
+            Exchange master = copyExchangeNoAttachments(exchange, true);
+            if (isCopyOnWrite() && master instanceof DefaultExchange) {
+                // let the master be a copy on write copy itself, so the splitted copies can share its snapshot of the properties
+                master = ((DefaultExchange) master).copyOnWrite();
+                master.setExchangeId(exchange.getExchangeId());
+            }
+            this.copy = master;
             this.routeContext = exchange.getUnitOfWork() != null ? exchange.getUnitOfWork().getRouteContext() : null;
         }
 
@@ -182,7 +189,7 @@ public class Splitter extends MulticastProcessor implements AsyncProcessor, Trac
                     Object part = iterator.next();
                     // create a correlated copy as the new exchange to be routed in the splitter from the copy
                     // and do not share the unit of work
-                    Exchange newExchange = ExchangeHelper.createCorrelatedCopy(copy, false);
+                    Exchange newExchange = ExchangeHelper.createCorrelatedCopy(copy, false, false, isCopyOnWrite());
                     // If the splitter has an aggregation strategy
                     // then the StreamCache created by the child routes must not be 
                     // closed by the unit of work of the child route, but by the unit of 
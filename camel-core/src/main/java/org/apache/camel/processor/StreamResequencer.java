@@ -33,7 +33,9 @@ import org.apache.camel.Navigate;
 import org.apache.camel.Processor;
 import org.apache.camel.Traceable;
 import org.apache.camel.processor.resequencer.ResequencerEngine;
+import org.apache.camel.processor.resequencer.RingResequencerEngine;
 import org.apache.camel.processor.resequencer.SequenceElementComparator;
+import org.apache.camel.processor.resequencer.SequenceNumberComparator;
 import org.apache.camel.processor.resequencer.SequenceSender;
 import org.apache.camel.spi.ExceptionHandler;
 import org.apache.camel.spi.IdAware;
@@ -89,9 +91,29 @@ public class StreamResequencer extends ServiceSupport implements SequenceSender<
      * @param comparator a sequence element comparator for exchanges.
      */
     public StreamResequencer(CamelContext camelContext, Processor processor, SequenceElementComparator<Exchange> comparator, Expression expression) {
+        this(camelContext, processor, comparator, expression, false);
+    }
+
+    /**
+     * Creates a new {@link StreamResequencer} instance.
+     *
+     * @param processor next processor that processes re-ordered exchanges.
+     * @param comparator a sequence element comparator for exchanges.
+     * @param ringBuffer whether to use the {@link RingResequencerEngine}, which requires
+     *                   the comparator to be a {@link SequenceNumberComparator}.
+     */
+    public StreamResequencer(CamelContext camelContext, Processor processor, SequenceElementComparator<Exchange> comparator, Expression expression,
+                             boolean ringBuffer) {
         ObjectHelper.notNull(camelContext, "CamelContext");
         this.camelContext = camelContext;
-        this.engine = new ResequencerEngine<Exchange>(comparator);
+        if (ringBuffer) {
+            if (!(comparator instanceof SequenceNumberComparator)) {
+                throw new IllegalArgumentException("The ring buffer requires a SequenceNumberComparator but was: " + comparator);
+            }
+            this.engine = new RingResequencerEngine<Exchange>((SequenceNumberComparator<Exchange>) comparator);
+        } else {
+            this.engine = new ResequencerEngine<Exchange>(comparator);
+        }
         this.engine.setSequenceSender(this);
         this.processor = processor;
         this.expression = expression;
@@ -143,6 +165,39 @@ public class StreamResequencer extends ServiceSupport implements SequenceSender<
 
     public void setCapacity(int capacity) {
         this.capacity = capacity;
+        if (engine instanceof RingResequencerEngine) {
+            ((RingResequencerEngine<Exchange>) engine).setCapacity(capacity);
+        }
+    }
+
+    /**
+     * Whether exchanges are indexed by sequence number in a ring buffer.
+     */
+    public boolean isRingBuffer() {
+        return engine instanceof RingResequencerEngine;
+    }
+
+    /**
+     * Returns the number of exchanges currently held by this resequencer.
+     */
+    public int getSize() {
+        return engine.size();
+    }
+
+    /**
+     * Returns the number of missing sequence numbers the ring buffer is waiting for,
+     * or <tt>0</tt> if the ring buffer is not in use.
+     */
+    public long getGaps() {
+        return isRingBuffer() ? ((RingResequencerEngine<Exchange>) engine).getGaps() : 0;
+    }
+
+    /**
+     * Returns the number of gaps the ring buffer skipped because of a timeout,
+     * or <tt>0</tt> if the ring buffer is not in use.
+     */
+    public long getTimedOutGaps() {
+        return isRingBuffer() ? ((RingResequencerEngine<Exchange>) engine).getTimedOutGaps() : 0;
     }
 
     public void setTimeout(long timeout) {
@@ -270,9 +325,19 @@ public class StreamResequencer extends ServiceSupport implements SequenceSender<
         public void run() {
             while (isRunAllowed()) {
                 try {
+                    long wait = DELIVERY_ATTEMPT_INTERVAL;
+                    if (engine instanceof RingResequencerEngine) {
+                        // wake up when the head of the sequence times out
+                        long delay = ((RingResequencerEngine<Exchange>) engine).getNextTimeoutDelay();
+                        if (delay >= 0) {
+                            wait = Math.min(wait, delay);
+                        }
+                    }
                     deliveryRequestLock.lock();
                     try {
-                        deliveryRequestCondition.await(DELIVERY_ATTEMPT_INTERVAL, TimeUnit.MILLISECONDS);
+                        if (wait > 0) {
+                            deliveryRequestCondition.await(wait, TimeUnit.MILLISECONDS);
+                        }
                     } finally {
                         deliveryRequestLock.unlock();
                     }
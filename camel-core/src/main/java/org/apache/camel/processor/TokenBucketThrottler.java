@@ -0,0 +1,452 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.CamelContext;
+import org.apache.camel.CamelExchangeException;
+import org.apache.camel.Exchange;
+import org.apache.camel.Expression;
+import org.apache.camel.Processor;
+import org.apache.camel.RuntimeExchangeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link Throttler} which uses lock free token buckets instead of a shared DelayQueue.
+ * <p/>
+ * Each bucket is a sliding window which lets at most maxRequestsPerPeriod exchanges through within any
+ * timePeriodMillis, so a burst of maxRequestsPerPeriod exchanges can pass straight away, and the next exchange
+ * is due one time period after the exchange which passed maxRequestsPerPeriod exchanges before it. The bucket
+ * keeps the due times of the last maxRequestsPerPeriod exchanges in a ring which is updated atomically, so a caller
+ * which has to wait reserves its token up front and knows exactly when it may continue.
+ * <p/>
+ * When a correlation expression is configured each correlation key is throttled by its own bucket, and
+ * buckets which have been idle for a full time period are discarded again.
+ * <p/>
+ * An exchange which exceeds the rate is either rejected straight away, or when asyncDelayed is enabled
+ * parked on its bucket and continued by a single drain task per bucket once its token is due. Otherwise
+ * the calling thread sleeps until its token is due. Unlike the {@link Throttler} a maximum of zero
+ * rejects the exchanges rather than blocking them forever.
+ *
+ * @version
+ */
+public class TokenBucketThrottler extends Throttler {
+
+    private static final Object DEFAULT_KEY = new Object();
+    private static final int DEFAULT_SWEEP_THRESHOLD = 1000;
+
+    private final Logger log = LoggerFactory.getLogger(TokenBucketThrottler.class);
+    private final ConcurrentMap<Object, Bucket> buckets = new ConcurrentHashMap<Object, Bucket>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private final ScheduledExecutorService asyncExecutor;
+
+    private volatile int throttleRate;
+    private volatile int sweepThreshold = DEFAULT_SWEEP_THRESHOLD;
+    private Expression correlationExpression;
+
+    public TokenBucketThrottler(final CamelContext camelContext, final Processor processor, final Expression maxRequestsPerPeriodExpression, final long timePeriodMillis,
+                                final ScheduledExecutorService asyncExecutor, final boolean shutdownAsyncExecutor, final boolean rejectExecution) {
+        super(camelContext, processor, maxRequestsPerPeriodExpression, timePeriodMillis, asyncExecutor, shutdownAsyncExecutor, rejectExecution);
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    @Override
+    public boolean process(final Exchange exchange, final AsyncCallback callback) {
+        try {
+            if (!isRunAllowed()) {
+                throw new RejectedExecutionException("Run is not allowed");
+            }
+
+            int rate = calculateMaxRequestsPerPeriod(exchange);
+            if (rate == 0) {
+                throw new ThrottlerRejectedExecutionException("Exceeded the max throttle rate of 0 within " + getTimePeriodMillis() + "ms");
+            }
+
+            Bucket bucket = getBucket(exchange, rate);
+            long now = System.nanoTime();
+
+            if (isRejectExecution()) {
+                if (!bucket.tryAcquire(now)) {
+                    throw new ThrottlerRejectedExecutionException("Exceeded the max throttle rate of "
+                            + rate + " within " + getTimePeriodMillis() + "ms");
+                }
+                log.trace("No throttling applied to exchangeId: {}", exchange.getExchangeId());
+            } else {
+                long due = bucket.acquire(now);
+                long delay = due - now;
+                if (delay > 0) {
+                    if (isAsyncDelayed() && !exchange.isTransacted() && park(bucket, new Waiter(exchange, callback, due))) {
+                        log.debug("Throttle rate exceeded but AsyncDelayed enabled, so parked for async processing, exchangeId: {}", exchange.getExchangeId());
+                        return false;
+                    }
+                    if (log.isTraceEnabled()) {
+                        log.trace("Throttled for {}ms, exchangeId: {}", TimeUnit.NANOSECONDS.toMillis(delay), exchange.getExchangeId());
+                    }
+                    TimeUnit.NANOSECONDS.sleep(delay);
+                } else {
+                    log.trace("No throttling applied to exchangeId: {}", exchange.getExchangeId());
+                }
+            }
+        } catch (final InterruptedException e) {
+            // determine if we can still run, or the camel context is forcing a shutdown
+            boolean forceShutdown = exchange.getContext().getShutdownStrategy().forceShutdown(this);
+            if (forceShutdown) {
+                String msg = "Run not allowed as ShutdownStrategy is forcing shutting down, will reject executing exchange: " + exchange;
+                log.debug(msg);
+                exchange.setException(new RejectedExecutionException(msg, e));
+            } else {
+                exchange.setException(e);
+            }
+            callback.done(true);
+            return true;
+        } catch (final Throwable t) {
+            exchange.setException(t);
+            callback.done(true);
+            return true;
+        }
+
+        if (processor == null) {
+            callback.done(true);
+            return true;
+        }
+        return processor.process(exchange, callback);
+    }
+
+    /**
+     * Parks the exchange on the bucket until its token is due. Returns <tt>false</tt> if the drain task
+     * could not be scheduled and the caller should run the exchange itself.
+     */
+    protected boolean park(final Bucket bucket, final Waiter waiter) {
+        try {
+            bucket.park(waiter);
+            return true;
+        } catch (final RejectedExecutionException e) {
+            if (isCallerRunsWhenRejected()) {
+                log.debug("AsyncExecutor is full, rejected exchange will run in the current thread, exchangeId: {}", waiter.exchange.getExchangeId());
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Continues routing a parked exchange from the drain task of its bucket.
+     */
+    protected void resume(final Waiter waiter) {
+        final Exchange exchange = waiter.exchange;
+        final AsyncCallback callback = waiter.callback;
+        if (processor == null) {
+            callback.done(false);
+            return;
+        }
+        try {
+            // we have already returned false to the caller, so the callback must be completed asynchronously
+            processor.process(exchange, new AsyncCallback() {
+                public void done(boolean doneSync) {
+                    callback.done(false);
+                }
+            });
+        } catch (Throwable t) {
+            exchange.setException(t);
+            callback.done(false);
+        }
+    }
+
+    /**
+     * Evaluates the maxRequestsPerPeriodExpression, keeping the last known rate if it evaluates to <tt>null</tt>.
+     */
+    protected int calculateMaxRequestsPerPeriod(final Exchange exchange) throws Exception {
+        Expression expression = getMaximumRequestsPerPeriodExpression();
+        Integer newThrottle = expression.evaluate(exchange, Integer.class);
+
+        if (newThrottle == null) {
+            if (throttleRate == 0) {
+                throw new RuntimeExchangeException("The maxRequestsPerPeriodExpression was evaluated as null: " + expression, exchange);
+            }
+            return throttleRate;
+        }
+        if (newThrottle < 0) {
+            throw new IllegalStateException("The maximumRequestsPerPeriod must be a positive number, was: " + newThrottle);
+        }
+        if (newThrottle != throttleRate) {
+            log.debug("Throttle rate changed from {} to {}, triggered by ExchangeId: {}", new Object[]{throttleRate, newThrottle, exchange.getExchangeId()});
+            throttleRate = newThrottle;
+        }
+        return newThrottle;
+    }
+
+    /**
+     * Gets the bucket for the correlation key of the exchange, replacing it with a new bucket if the rate has changed.
+     */
+    protected Bucket getBucket(final Exchange exchange, final int rate) throws Exception {
+        Object key = DEFAULT_KEY;
+        if (correlationExpression != null) {
+            key = correlationExpression.evaluate(exchange, Object.class);
+            if (key == null) {
+                throw new CamelExchangeException("Invalid correlation key", exchange);
+            }
+        }
+
+        long period = TimeUnit.MILLISECONDS.toNanos(getTimePeriodMillis());
+        Bucket bucket = buckets.get(key);
+        while (bucket == null || bucket.capacity != rate || bucket.period != period) {
+            Bucket created = new Bucket(rate, period);
+            if (bucket == null) {
+                Bucket existing = buckets.putIfAbsent(key, created);
+                if (existing == null) {
+                    log.trace("Created bucket for correlation key: {}", key);
+                    sweepIfNeeded();
+                }
+                bucket = existing != null ? existing : created;
+            } else if (buckets.replace(key, bucket, created)) {
+                // any exchanges parked on the old bucket are still continued by its own drain task
+                bucket = created;
+            } else {
+                bucket = buckets.get(key);
+            }
+        }
+        return bucket;
+    }
+
+    /**
+     * Discards the buckets which have been idle for a full time period, once there are more buckets than the threshold.
+     */
+    private void sweepIfNeeded() {
+        if (buckets.size() <= sweepThreshold || !sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = System.nanoTime();
+            int removed = 0;
+            for (Map.Entry<Object, Bucket> entry : buckets.entrySet()) {
+                if (entry.getValue().isIdle(now) && buckets.remove(entry.getKey(), entry.getValue())) {
+                    removed++;
+                }
+            }
+            // do not sweep again before the number of active buckets has doubled
+            sweepThreshold = Math.max(DEFAULT_SWEEP_THRESHOLD, buckets.size() * 2);
+            log.debug("Discarded {} idle buckets, {} buckets remaining", removed, buckets.size());
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        super.doStop();
+        buckets.clear();
+        throttleRate = 0;
+    }
+
+    /**
+     * Sets the expression used to determine the correlation key, where each key is throttled by its own bucket.
+     */
+    public void setCorrelationExpression(Expression correlationExpression) {
+        this.correlationExpression = correlationExpression;
+    }
+
+    public Expression getCorrelationExpression() {
+        return correlationExpression;
+    }
+
+    /**
+     * Gets the current number of buckets, which is one per correlation key.
+     */
+    public int getBucketCount() {
+        return buckets.size();
+    }
+
+    @Override
+    public int getCurrentMaximumRequestsPerPeriod() {
+        return throttleRate;
+    }
+
+    @Override
+    public String getTraceLabel() {
+        return "throttle[" + getMaximumRequestsPerPeriodExpression() + " per: " + getTimePeriodMillis()
+                + (correlationExpression != null ? " by: " + correlationExpression : "") + "]";
+    }
+
+    @Override
+    public String toString() {
+        return "TokenBucketThrottler[requests: " + getMaximumRequestsPerPeriodExpression() + " per: " + getTimePeriodMillis() + " (ms) to: "
+                + getProcessor() + "]";
+    }
+
+    /**
+     * An exchange parked on a bucket until its token is due.
+     */
+    protected static final class Waiter {
+        private final Exchange exchange;
+        private final AsyncCallback callback;
+        private final long due;
+
+        Waiter(Exchange exchange, AsyncCallback callback, long due) {
+            this.exchange = exchange;
+            this.callback = callback;
+            this.due = due;
+        }
+    }
+
+    /**
+     * A token which has been taken from a bucket, and the time at which it is due.
+     */
+    private static final class Token {
+        private final long sequence;
+        private final long due;
+
+        Token(long sequence, long due) {
+            this.sequence = sequence;
+            this.due = due;
+        }
+    }
+
+    /**
+     * A token bucket which is a sliding window over the last <tt>capacity</tt> tokens. The token with sequence
+     * <tt>n</tt> is kept in slot <tt>n % capacity</tt> of a ring, where it replaces the token which is due
+     * one time period earlier, so there are never more than <tt>capacity</tt> tokens due within any time period.
+     * A token is taken by replacing the token in its slot, and then moving the sequence ahead, which any caller
+     * helps with so the bucket is lock free.
+     * <p/>
+     * The bucket is also the drain task which continues the exchanges parked on it.
+     */
+    protected final class Bucket implements Runnable {
+        private final int capacity;
+        private final long period;
+        private final AtomicReferenceArray<Token> tokens;
+        // the sequence of the next token to take
+        private final AtomicLong sequence = new AtomicLong();
+        private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<Waiter>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Bucket(int capacity, long period) {
+            this.capacity = capacity;
+            this.period = period;
+            this.tokens = new AtomicReferenceArray<Token>(capacity);
+        }
+
+        /**
+         * Takes the next token, returning the time in nanos at which it is due.
+         */
+        long acquire(long now) {
+            return take(now, false);
+        }
+
+        /**
+         * Takes the next token only if it is due now.
+         */
+        boolean tryAcquire(long now) {
+            return take(now, true) - now <= 0;
+        }
+
+        private long take(long now, boolean onlyIfDue) {
+            while (true) {
+                long next = sequence.get();
+                int slot = (int) (next % capacity);
+                Token replaced = tokens.get(slot);
+                if (replaced != null && replaced.sequence >= next) {
+                    // the token has been taken but the sequence not moved ahead yet
+                    sequence.compareAndSet(next, next + 1);
+                    continue;
+                }
+                Token last = next > 0 ? tokens.get((int) ((next - 1) % capacity)) : null;
+
+                // due when the replaced token is one time period old, and not before the last token
+                long due = now;
+                if (replaced != null && replaced.due + period - due > 0) {
+                    due = replaced.due + period;
+                }
+                if (last != null && last.due - due > 0) {
+                    due = last.due;
+                }
+                if (onlyIfDue && due - now > 0) {
+                    return due;
+                }
+                if (tokens.compareAndSet(slot, replaced, new Token(next, due))) {
+                    sequence.compareAndSet(next, next + 1);
+                    return due;
+                }
+            }
+        }
+
+        boolean isIdle(long now) {
+            // a bucket whose last token is a full time period old is the same as a new bucket
+            long next = sequence.get();
+            Token last = next > 0 ? tokens.get((int) ((next - 1) % capacity)) : null;
+            return waiters.isEmpty() && (last == null || last.due + period - now <= 0);
+        }
+
+        void park(Waiter waiter) {
+            waiters.add(waiter);
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    asyncExecutor.schedule(this, waiter.due - System.nanoTime(), TimeUnit.NANOSECONDS);
+                } catch (RejectedExecutionException e) {
+                    waiters.remove(waiter);
+                    draining.set(false);
+                    throw e;
+                }
+            }
+        }
+
+        public void run() {
+            while (true) {
+                Waiter waiter = waiters.peek();
+                if (waiter == null) {
+                    draining.set(false);
+                    // a waiter may have been parked after we looked but before the flag was cleared
+                    if (waiters.isEmpty() || !draining.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+
+                long delay = waiter.due - System.nanoTime();
+                if (delay > 0) {
+                    try {
+                        asyncExecutor.schedule(this, delay, TimeUnit.NANOSECONDS);
+                        return;
+                    } catch (RejectedExecutionException e) {
+                        // we are shutting down so continue the remaining exchanges in this thread
+                        log.debug("AsyncExecutor rejected the drain task, will continue parked exchanges in the current thread");
+                        try {
+                            TimeUnit.NANOSECONDS.sleep(delay);
+                        } catch (InterruptedException ie) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                }
+
+                waiters.poll();
+                resume(waiter);
+            }
+        }
+    }
+}
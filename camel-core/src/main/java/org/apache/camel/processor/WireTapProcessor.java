@@ -65,6 +65,7 @@ public class WireTapProcessor extends ServiceSupport implements AsyncProcessor,
     private Expression newExchangeExpression;
     private List<Processor> newExchangeProcessors;
     private boolean copy;
+    private boolean copyOnWrite;
     private Processor onPrepare;
 
     public WireTapProcessor(SendDynamicProcessor dynamicProcessor, Processor processor, ExchangePattern exchangePattern,
@@ -201,7 +202,7 @@ public class WireTapProcessor extends ServiceSupport implements AsyncProcessor,
 
     private Exchange configureCopyExchange(Exchange exchange) {
         // must use a copy as we dont want it to cause side effects of the original exchange
-        Exchange copy = ExchangeHelper.createCorrelatedCopy(exchange, false);
+        Exchange copy = ExchangeHelper.createCorrelatedCopy(exchange, false, false, copyOnWrite);
         // set MEP to InOnly as this wire tap is a fire and forget
         copy.setPattern(ExchangePattern.InOnly);
         return copy;
@@ -242,6 +243,14 @@ public class WireTapProcessor extends ServiceSupport implements AsyncProcessor,
         this.copy = copy;
     }
 
+    public boolean isCopyOnWrite() {
+        return copyOnWrite;
+    }
+
+    public void setCopyOnWrite(boolean copyOnWrite) {
+        this.copyOnWrite = copyOnWrite;
+    }
+
     public Processor getOnPrepare() {
         return onPrepare;
     }
@@ -30,7 +30,9 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.apache.camel.AsyncCallback;
 import org.apache.camel.AsyncProcessor;
@@ -56,6 +58,7 @@ import org.apache.camel.spi.ShutdownAware;
 import org.apache.camel.spi.ShutdownPrepared;
 import org.apache.camel.spi.Synchronization;
 import org.apache.camel.support.DefaultTimeoutMap;
+import org.apache.camel.support.HashedWheelTimeoutMap;
 import org.apache.camel.support.LoggingExceptionHandler;
 import org.apache.camel.support.ServiceSupport;
 import org.apache.camel.util.AsyncProcessorHelper;
@@ -89,7 +92,12 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
 
     private static final Logger LOG = LoggerFactory.getLogger(AggregateProcessor.class);
 
-    private final Lock lock = new ReentrantLock();
+    // the shared aggregation lock is held in read mode while aggregating a single correlation group,
+    // which is then guarded by the lock stripe of its correlation key, and in write mode when completing
+    // across the correlation groups, such as the completion timeout checker and the completion interval task
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Lock[] keyLocks;
+    private int lockStripes;
     private final CamelContext camelContext;
     private final Processor processor;
     private String id;
@@ -122,6 +130,8 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
     private final AtomicLong completedByPredicate = new AtomicLong();
     private final AtomicLong completedByBatchConsumer = new AtomicLong();
     private final AtomicLong completedByForce = new AtomicLong();
+    private final AtomicLong lockContentionCount = new AtomicLong();
+    private final AtomicLong lockWaitTime = new AtomicLong();
 
     // keep booking about redelivery
     private class RedeliveryData {
@@ -168,6 +178,14 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
             return completedByForce.get();
         }
 
+        public long getLockContentionCount() {
+            return lockContentionCount.get();
+        }
+
+        public long getLockWaitTime() {
+            return TimeUnit.NANOSECONDS.toMillis(lockWaitTime.get());
+        }
+
         public void reset() {
             totalIn.set(0);
             totalCompleted.set(0);
@@ -177,6 +195,8 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
             completedByPredicate.set(0);
             completedByBatchConsumer.set(0);
             completedByForce.set(0);
+            lockContentionCount.set(0);
+            lockWaitTime.set(0);
         }
 
         public boolean isStatisticsEnabled() {
@@ -193,6 +213,7 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
     private Integer closeCorrelationKeyOnCompletion;
     private boolean parallelProcessing;
     private boolean optimisticLocking;
+    private boolean completionTimeoutTimingWheel;
 
     // different ways to have completion triggered
     private boolean eagerCheckCompletion;
@@ -336,15 +357,15 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
             // the aggregated output runs in another unit of work
             Exchange copy = ExchangeHelper.createCorrelatedCopy(exchange, false);
 
-            // when memory based then its fast using synchronized, but if the aggregation repository is IO
-            // bound such as JPA etc then concurrent aggregation per correlation key could
-            // improve performance as we can run aggregation repository get/add in parallel
+            // the same correlation key must not be aggregated in parallel, but different correlation keys
+            // can when using lock stripes, which also allows an IO bound aggregation repository such as JPA etc
+            // to run the aggregation repository get/add in parallel
             List<Exchange> aggregated = null;
-            lock.lock();
+            lockGroup(key);
             try {
                 aggregated = doAggregation(key, copy);
             } finally {
-                lock.unlock();
+                unlockGroup(key);
             }
 
             // we are completed so do that work outside the lock
@@ -362,11 +383,66 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
         }
     }
 
+    /**
+     * Acquires the locks to aggregate or complete the correlation group with the given key.
+     * <p/>
+     * Completion from the batch consumer completes other correlation groups as well, and therefore
+     * requires the exclusive lock for every group.
+     */
+    private void lockGroup(String key) {
+        if (isCompletionFromBatchConsumer()) {
+            acquireLock(lock.writeLock());
+        } else {
+            acquireLock(lock.readLock());
+            acquireLock(getKeyLock(key));
+        }
+    }
+
+    private void unlockGroup(String key) {
+        if (isCompletionFromBatchConsumer()) {
+            lock.writeLock().unlock();
+        } else {
+            getKeyLock(key).unlock();
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Acquires the exclusive lock to complete any of the correlation groups.
+     */
+    private void lockAllGroups() {
+        acquireLock(lock.writeLock());
+    }
+
+    private void unlockAllGroups() {
+        lock.writeLock().unlock();
+    }
+
+    private Lock getKeyLock(String key) {
+        // spread the hash code as the correlation keys often only differ in their last characters
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return keyLocks[hash & (keyLocks.length - 1)];
+    }
+
+    private void acquireLock(Lock target) {
+        if (target.tryLock()) {
+            return;
+        }
+        // the lock is contended so keep track of how long we had to wait
+        long start = System.nanoTime();
+        target.lock();
+        if (getStatistics().isStatisticsEnabled()) {
+            lockContentionCount.incrementAndGet();
+            lockWaitTime.addAndGet(System.nanoTime() - start);
+        }
+    }
+
     /**
      * Aggregates the exchange with the given correlation key
      * <p/>
-     * This method <b>must</b> be run synchronized as we cannot aggregate the same correlation key
-     * in parallel.
+     * This method <b>must</b> be run while holding the lock of the correlation group as we cannot aggregate
+     * the same correlation key in parallel.
      * <p/>
      * The returned {@link Exchange} should be send downstream using the {@link #onSubmitCompletion(String, org.apache.camel.Exchange)}
      * method which sends out the aggregated and completed {@link Exchange}.
@@ -917,6 +993,21 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
         this.parallelProcessing = parallelProcessing;
     }
 
+    public int getLockStripes() {
+        return lockStripes;
+    }
+
+    /**
+     * Sets the number of locks the correlation keys are striped over, which allows different correlation keys
+     * to be aggregated in parallel. The number is rounded up to a power of two.
+     * <p/>
+     * By default a single lock is used. The aggregation strategy and aggregation repository must be thread safe
+     * when using more than one lock, as they are then called concurrently for different correlation keys.
+     */
+    public void setLockStripes(int lockStripes) {
+        this.lockStripes = lockStripes;
+    }
+
     public boolean isOptimisticLocking() {
         return optimisticLocking;
     }
@@ -925,6 +1016,22 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
         this.optimisticLocking = optimisticLocking;
     }
 
+    public boolean isCompletionTimeoutTimingWheel() {
+        return completionTimeoutTimingWheel;
+    }
+
+    /**
+     * Sets whether to keep track of the completion timeouts using a timing wheel, which only visits the aggregated
+     * exchanges which are due when checking for timeouts, instead of all the aggregated exchanges.
+     * <p/>
+     * This is recommended when a lot of correlation keys are being aggregated at the same time.
+     *
+     * @see HashedWheelTimeoutMap
+     */
+    public void setCompletionTimeoutTimingWheel(boolean completionTimeoutTimingWheel) {
+        this.completionTimeoutTimingWheel = completionTimeoutTimingWheel;
+    }
+
     public AggregationRepository getAggregationRepository() {
         return aggregationRepository;
     }
@@ -1050,51 +1157,86 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
         public void purge() {
             // must acquire the shared aggregation lock to be able to purge
             if (!optimisticLocking) {
-                lock.lock();
+                lockAllGroups();
             }
             try {
                 super.purge();
             } finally {
                 if (!optimisticLocking) {
-                    lock.unlock();
+                    unlockAllGroups();
                 }
             }
         }
 
         @Override
         public boolean onEviction(String key, String exchangeId) {
-            log.debug("Completion timeout triggered for correlation key: {}", key);
+            return onCompletionTimeout(key, exchangeId);
+        }
+    }
 
-            boolean inProgress = inProgressCompleteExchanges.contains(exchangeId);
-            if (inProgress) {
-                LOG.trace("Aggregated exchange with id: {} is already in progress.", exchangeId);
-                return true;
-            }
+    /**
+     * Background task that looks for aggregated exchanges which is triggered by completion timeouts,
+     * using a timing wheel to keep track of when the aggregated exchanges times out.
+     */
+    private final class AggregationTimingWheelTimeoutMap extends HashedWheelTimeoutMap<String, String> {
 
-            // get the aggregated exchange
-            boolean evictionStolen = false;
-            Exchange answer = aggregationRepository.get(camelContext, key);
-            if (answer == null) {
-                evictionStolen = true;
-            } else {
-                // indicate it was completed by timeout
-                answer.setProperty(Exchange.AGGREGATED_COMPLETED_BY, "timeout");
-                try {
-                    answer = onCompletion(key, answer, answer, true);
-                    if (answer != null) {
-                        onSubmitCompletion(key, answer);
-                    }
-                } catch (OptimisticLockingAggregationRepository.OptimisticLockingException e) {
-                    evictionStolen = true;
+        private AggregationTimingWheelTimeoutMap(ScheduledExecutorService executor, long requestMapPollTimeMillis) {
+            super(executor, requestMapPollTimeMillis);
+        }
+
+        @Override
+        public void purge() {
+            // must acquire the shared aggregation lock to be able to purge
+            if (!optimisticLocking) {
+                lockAllGroups();
+            }
+            try {
+                super.purge();
+            } finally {
+                if (!optimisticLocking) {
+                    unlockAllGroups();
                 }
             }
+        }
 
-            if (optimisticLocking && evictionStolen) {
-                LOG.debug("Another Camel instance has already successfully correlated or processed this timeout eviction "
-                          + "for exchange with id: {} and correlation id: {}", exchangeId, key);
-            }
+        @Override
+        public boolean onEviction(String key, String exchangeId) {
+            return onCompletionTimeout(key, exchangeId);
+        }
+    }
+
+    private boolean onCompletionTimeout(String key, String exchangeId) {
+        LOG.debug("Completion timeout triggered for correlation key: {}", key);
+
+        boolean inProgress = inProgressCompleteExchanges.contains(exchangeId);
+        if (inProgress) {
+            LOG.trace("Aggregated exchange with id: {} is already in progress.", exchangeId);
             return true;
         }
+
+        // get the aggregated exchange
+        boolean evictionStolen = false;
+        Exchange answer = aggregationRepository.get(camelContext, key);
+        if (answer == null) {
+            evictionStolen = true;
+        } else {
+            // indicate it was completed by timeout
+            answer.setProperty(Exchange.AGGREGATED_COMPLETED_BY, "timeout");
+            try {
+                answer = onCompletion(key, answer, answer, true);
+                if (answer != null) {
+                    onSubmitCompletion(key, answer);
+                }
+            } catch (OptimisticLockingAggregationRepository.OptimisticLockingException e) {
+                evictionStolen = true;
+            }
+        }
+
+        if (optimisticLocking && evictionStolen) {
+            LOG.debug("Another Camel instance has already successfully correlated or processed this timeout eviction "
+                      + "for exchange with id: {} and correlation id: {}", exchangeId, key);
+        }
+        return true;
     }
 
     /**
@@ -1117,7 +1259,7 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
             if (keys != null && !keys.isEmpty()) {
                 // must acquire the shared aggregation lock to be able to trigger interval completion
                 if (!optimisticLocking) {
-                    lock.lock();
+                    lockAllGroups();
                 }
                 try {
                     for (String key : keys) {
@@ -1144,7 +1286,7 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
                     }
                 } finally {
                     if (!optimisticLocking) {
-                        lock.unlock();
+                        unlockAllGroups();
                     }
                 }
             }
@@ -1290,6 +1432,18 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
             LOG.info("Optimistic locking is enabled");
         }
 
+        int stripes = lockStripes > 0 ? lockStripes : 1;
+        // round up to a power of two so the lock stripe of a correlation key is a cheap mask of its hash
+        stripes = stripes > 1 ? Integer.highestOneBit(stripes - 1) << 1 : 1;
+        keyLocks = new Lock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            keyLocks[i] = new ReentrantLock();
+        }
+        lockStripes = stripes;
+        if (stripes > 1 && !optimisticLocking) {
+            LOG.info("Using {} lock stripes for the correlation keys", stripes);
+        }
+
         ServiceHelper.startServices(aggregationStrategy, processor, aggregationRepository);
 
         // should we use recover checker
@@ -1346,7 +1500,11 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
                 shutdownTimeoutCheckerExecutorService = true;
             }
             // check for timed out aggregated messages once every second
-            timeoutMap = new AggregationTimeoutMap(getTimeoutCheckerExecutorService(), 1000L);
+            if (completionTimeoutTimingWheel) {
+                timeoutMap = new AggregationTimingWheelTimeoutMap(getTimeoutCheckerExecutorService(), 1000L);
+            } else {
+                timeoutMap = new AggregationTimeoutMap(getTimeoutCheckerExecutorService(), 1000L);
+            }
             // fill in existing timeout values from the aggregation repository, for example if a restart occurred, then we
             // need to re-establish the timeout map so timeout can trigger
             restoreTimeoutMapFromAggregationRepository();
@@ -1455,7 +1613,7 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
         int total = 0;
 
         if (!optimisticLocking) {
-            lock.lock();
+            lockGroup(key);
         }
         try {
             Exchange exchange = aggregationRepository.get(camelContext, key);
@@ -1471,7 +1629,7 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
             }
         } finally {
             if (!optimisticLocking) {
-                lock.unlock(); 
+                unlockGroup(key);
             }
         }
         LOG.trace("Completed force completion of group {}", key);
@@ -1500,7 +1658,7 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
         if (keys != null && !keys.isEmpty()) {
             // must acquire the shared aggregation lock to be able to trigger force completion
             if (!optimisticLocking) {
-                lock.lock(); 
+                lockAllGroups();
             }
             total = keys.size();
             try {
@@ -1518,7 +1676,7 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
                 }
             } finally {
                 if (!optimisticLocking) {
-                    lock.unlock();
+                    unlockAllGroups();
                 }
             }
         }
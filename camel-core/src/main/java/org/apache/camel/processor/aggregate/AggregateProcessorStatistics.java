@@ -66,6 +66,16 @@ public interface AggregateProcessorStatistics {
      */
     long getCompletedByForce();
 
+    /**
+     * Total number of times the aggregation lock was contended and had to be waited for
+     */
+    long getLockContentionCount();
+
+    /**
+     * Total time in millis spent waiting for the aggregation lock when it was contended
+     */
+    long getLockWaitTime();
+
     /**
      * Reset the counters
      */
@@ -0,0 +1,425 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.idempotent;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.camel.api.management.ManagedAttribute;
+import org.apache.camel.api.management.ManagedOperation;
+import org.apache.camel.api.management.ManagedResource;
+import org.apache.camel.spi.IdempotentRepository;
+import org.apache.camel.support.ServiceSupport;
+
+/**
+ * A memory based implementation of {@link org.apache.camel.spi.IdempotentRepository} which does not lock
+ * when adding and checking keys, as opposed to {@link MemoryIdempotentRepository} which synchronizes
+ * every operation on its cache.
+ * <p/>
+ * The repository is bounded by the cache size, where the oldest added keys are evicted first, and the keys can
+ * optionally expire after a time to live. The keys can also be stored as 128 bit fingerprints instead of the keys
+ * themselves, which keeps the memory used per key small and constant, with a negligible chance of two different keys
+ * being seen as duplicates.
+ * <p/>
+ * The repository keeps count of the hits (the key was already added), the misses (the key was added) and the
+ * evictions, which are exposed by the managed idempotent consumer as well. Only adding a key counts as a hit or
+ * a miss, so a key which is checked before it is added is not counted twice.
+ *
+ * @version
+ */
+@ManagedResource(description = "Concurrent memory based idempotent repository")
+public class ConcurrentMemoryIdempotentRepository extends ServiceSupport implements IdempotentRepository<String> {
+
+    private final ConcurrentMap<Object, Entry> cache = new ConcurrentHashMap<Object, Entry>();
+    // the entries in the order they were added, which is the order they are evicted and expire
+    private final ConcurrentLinkedQueue<Entry> entries = new ConcurrentLinkedQueue<Entry>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicBoolean purging = new AtomicBoolean();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+    private int cacheSize = 1000;
+    private long timeToLive;
+    private boolean fingerprint;
+
+    public ConcurrentMemoryIdempotentRepository() {
+    }
+
+    public ConcurrentMemoryIdempotentRepository(int cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+    public ConcurrentMemoryIdempotentRepository(int cacheSize, long timeToLive) {
+        this.cacheSize = cacheSize;
+        this.timeToLive = timeToLive;
+    }
+
+    /**
+     * Creates a new concurrent memory based repository with a default of 1000 entries in the cache.
+     */
+    public static IdempotentRepository<String> concurrentMemoryIdempotentRepository() {
+        return new ConcurrentMemoryIdempotentRepository();
+    }
+
+    /**
+     * Creates a new concurrent memory based repository.
+     *
+     * @param cacheSize  the cache size
+     */
+    public static IdempotentRepository<String> concurrentMemoryIdempotentRepository(int cacheSize) {
+        return new ConcurrentMemoryIdempotentRepository(cacheSize);
+    }
+
+    /**
+     * Creates a new concurrent memory based repository where the keys expire.
+     *
+     * @param cacheSize   the cache size
+     * @param timeToLive  time to live in millis of the keys
+     */
+    public static IdempotentRepository<String> concurrentMemoryIdempotentRepository(int cacheSize, long timeToLive) {
+        return new ConcurrentMemoryIdempotentRepository(cacheSize, timeToLive);
+    }
+
+    @ManagedOperation(description = "Adds the key to the store")
+    public boolean add(String key) {
+        long now = timeToLive > 0 ? System.currentTimeMillis() : 0;
+        if (timeToLive > 0) {
+            expire(now);
+        }
+
+        Object id = toId(key);
+        Entry entry = new Entry(id, timeToLive > 0 ? now + timeToLive : 0);
+        while (true) {
+            Entry existing = cache.putIfAbsent(id, entry);
+            if (existing == null) {
+                size.incrementAndGet();
+                break;
+            } else if (!existing.isExpired(now)) {
+                hitCount.incrementAndGet();
+                return false;
+            } else if (cache.replace(id, existing, entry)) {
+                evictionCount.incrementAndGet();
+                break;
+            }
+            // the key was changed concurrently so try again
+        }
+        missCount.incrementAndGet();
+
+        entries.offer(entry);
+        queued.incrementAndGet();
+        evict();
+        return true;
+    }
+
+    @ManagedOperation(description = "Does the store contain the given key")
+    public boolean contains(String key) {
+        Object id = toId(key);
+        Entry entry = cache.get(id);
+        if (entry != null && timeToLive > 0 && entry.isExpired(System.currentTimeMillis())) {
+            if (cache.remove(id, entry)) {
+                size.decrementAndGet();
+                evictionCount.incrementAndGet();
+            }
+            entry = null;
+        }
+        return entry != null;
+    }
+
+    @ManagedOperation(description = "Remove the key from the store")
+    public boolean remove(String key) {
+        Entry entry = cache.remove(toId(key));
+        if (entry != null) {
+            size.decrementAndGet();
+            // the entry is left in the eviction queue until its purged
+            return timeToLive <= 0 || !entry.isExpired(System.currentTimeMillis());
+        }
+        return false;
+    }
+
+    public boolean confirm(String key) {
+        // noop
+        return true;
+    }
+
+    @ManagedOperation(description = "Clear the store")
+    public void clear() {
+        cache.clear();
+        entries.clear();
+        size.set(0);
+        queued.set(0);
+    }
+
+    @ManagedAttribute(description = "The current cache size")
+    public int getSize() {
+        return size.get();
+    }
+
+    @ManagedAttribute(description = "The maximum cache size")
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    public void setCacheSize(int cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+    @ManagedAttribute(description = "Time to live in millis of the keys")
+    public long getTimeToLive() {
+        return timeToLive;
+    }
+
+    /**
+     * Sets the time to live in millis of the keys after they are added, by default they do not expire.
+     */
+    public void setTimeToLive(long timeToLive) {
+        this.timeToLive = timeToLive;
+    }
+
+    @ManagedAttribute(description = "Whether the keys are stored as 128 bit fingerprints")
+    public boolean isFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Sets whether to store 128 bit fingerprints of the keys instead of the keys themselves, which uses less
+     * memory for long keys. This option must be set before any key is added.
+     */
+    public void setFingerprint(boolean fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    @ManagedAttribute(description = "Number of times a key was already in the store when adding it")
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    @ManagedAttribute(description = "Number of times a key was not in the store when adding it")
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    @ManagedAttribute(description = "Number of keys evicted from the store, due the cache size or as they expired")
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    @ManagedOperation(description = "Reset the hit, miss and eviction counters")
+    public void resetStatistics() {
+        hitCount.set(0);
+        missCount.set(0);
+        evictionCount.set(0);
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        // noop
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        clear();
+    }
+
+    private Object toId(String key) {
+        return fingerprint ? Fingerprint.of(key) : key;
+    }
+
+    /**
+     * Removes the expired entries, which are at the head of the queue as they expire in the order they are added.
+     */
+    private void expire(long now) {
+        Entry head = entries.peek();
+        while (head != null && head.isExpired(now)) {
+            // only the thread which succeeds removing the entry from the queue may count it
+            if (entries.remove(head)) {
+                queued.decrementAndGet();
+                if (cache.remove(head.id, head)) {
+                    size.decrementAndGet();
+                    evictionCount.incrementAndGet();
+                }
+            }
+            head = entries.peek();
+        }
+    }
+
+    /**
+     * Evicts the oldest entries while the cache is over its size, and purges the entries of removed keys
+     * if they fill most of the queue.
+     */
+    private void evict() {
+        while (size.get() > cacheSize) {
+            Entry head = entries.poll();
+            if (head == null) {
+                break;
+            }
+            queued.decrementAndGet();
+            if (cache.remove(head.id, head)) {
+                size.decrementAndGet();
+                evictionCount.incrementAndGet();
+            }
+        }
+
+        if (queued.get() > 2 * size.get() + 16 && purging.compareAndSet(false, true)) {
+            try {
+                Iterator<Entry> it = entries.iterator();
+                while (it.hasNext()) {
+                    Entry entry = it.next();
+                    if (cache.get(entry.id) != entry) {
+                        it.remove();
+                        queued.decrementAndGet();
+                    }
+                }
+            } finally {
+                purging.set(false);
+            }
+        }
+    }
+
+    /**
+     * An added key, which is removed from the cache only if it is still the current entry of the key.
+     */
+    private static final class Entry {
+        private final Object id;
+        private final long expireTime;
+
+        private Entry(Object id, long expireTime) {
+            this.id = id;
+            this.expireTime = expireTime;
+        }
+
+        private boolean isExpired(long now) {
+            return expireTime > 0 && expireTime <= now;
+        }
+    }
+
+    /**
+     * A 128 bit fingerprint of a key using the MurmurHash3 x64 128 bit hash of its characters.
+     */
+    static final class Fingerprint {
+        private static final long C1 = 0x87c37b91114253d5L;
+        private static final long C2 = 0x4cf5114527f4eb71L;
+
+        private final long high;
+        private final long low;
+
+        Fingerprint(long high, long low) {
+            this.high = high;
+            this.low = low;
+        }
+
+        static Fingerprint of(String key) {
+            int length = key.length();
+            long h1 = 0;
+            long h2 = 0;
+
+            // each block is 8 characters of 16 bits
+            int i = 0;
+            for (; i + 8 <= length; i += 8) {
+                long k1 = chars(key, i, 4);
+                long k2 = chars(key, i + 4, 4);
+
+                h1 ^= mixK1(k1);
+                h1 = Long.rotateLeft(h1, 27);
+                h1 += h2;
+                h1 = h1 * 5 + 0x52dce729;
+
+                h2 ^= mixK2(k2);
+                h2 = Long.rotateLeft(h2, 31);
+                h2 += h1;
+                h2 = h2 * 5 + 0x38495ab5;
+            }
+
+            int remaining = length - i;
+            if (remaining > 0) {
+                long k1 = chars(key, i, Math.min(remaining, 4));
+                long k2 = remaining > 4 ? chars(key, i + 4, remaining - 4) : 0;
+                h1 ^= mixK1(k1);
+                h2 ^= mixK2(k2);
+            }
+
+            // the length in bytes
+            h1 ^= length * 2;
+            h2 ^= length * 2;
+            h1 += h2;
+            h2 += h1;
+            h1 = fmix(h1);
+            h2 = fmix(h2);
+            h1 += h2;
+            h2 += h1;
+            return new Fingerprint(h1, h2);
+        }
+
+        private static long chars(String key, int offset, int count) {
+            long answer = 0;
+            for (int j = 0; j < count; j++) {
+                answer |= ((long) key.charAt(offset + j)) << (16 * j);
+            }
+            return answer;
+        }
+
+        private static long mixK1(long k1) {
+            k1 *= C1;
+            k1 = Long.rotateLeft(k1, 31);
+            k1 *= C2;
+            return k1;
+        }
+
+        private static long mixK2(long k2) {
+            k2 *= C2;
+            k2 = Long.rotateLeft(k2, 33);
+            k2 *= C1;
+            return k2;
+        }
+
+        private static long fmix(long k) {
+            k ^= k >>> 33;
+            k *= 0xff51afd7ed558ccdL;
+            k ^= k >>> 33;
+            k *= 0xc4ceb9fe1a85ec53L;
+            k ^= k >>> 33;
+            return k;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Fingerprint)) {
+                return false;
+            }
+            Fingerprint that = (Fingerprint) o;
+            return high == that.high && low == that.low;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) low;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%016x%016x", high, low);
+        }
+    }
+}
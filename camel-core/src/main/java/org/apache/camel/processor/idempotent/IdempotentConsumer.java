@@ -204,6 +204,10 @@ public class IdempotentConsumer extends ServiceSupport implements CamelContextAw
     // -------------------------------------------------------------------------
 
     protected void doStart() throws Exception {
+        // inject CamelContext on the repository
+        if (idempotentRepository instanceof CamelContextAware) {
+            ((CamelContextAware) idempotentRepository).setCamelContext(camelContext);
+        }
         ServiceHelper.startServices(processor, idempotentRepository);
         if (!camelContext.hasService(idempotentRepository)) {
             camelContext.addService(idempotentRepository);
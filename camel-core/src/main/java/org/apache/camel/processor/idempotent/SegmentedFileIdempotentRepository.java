@@ -0,0 +1,682 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.idempotent;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.CamelContextAware;
+import org.apache.camel.api.management.ManagedAttribute;
+import org.apache.camel.api.management.ManagedOperation;
+import org.apache.camel.api.management.ManagedResource;
+import org.apache.camel.spi.IdempotentRepository;
+import org.apache.camel.support.ServiceSupport;
+import org.apache.camel.util.FileUtil;
+import org.apache.camel.util.IOHelper;
+import org.apache.camel.util.ObjectHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A file based implementation of {@link org.apache.camel.spi.IdempotentRepository} which stores the keys
+ * in an append only log, as opposed to {@link FileIdempotentRepository} which rewrites its file store.
+ * <p/>
+ * The log is a number of memory mapped segment files in the store directory. Adding a key appends a record
+ * to the current segment, and removing a key appends a tombstone record. A background task compacts the segments
+ * which mostly hold removed keys by copying their live keys to the current segment and then deleting them.
+ * The segments are synced to disk after a batch of records and on an interval, see {@link #setSyncBatchSize(int)}
+ * and {@link #setSyncInterval(long)}.
+ * <p/>
+ * All the keys are kept in memory, by default as 128 bit fingerprints, so checking for a key never touches the disk.
+ * On startup the keys are read back from the binary records of the segments.
+ *
+ * @version
+ */
+@ManagedResource(description = "Segmented file based idempotent repository")
+public class SegmentedFileIdempotentRepository extends ServiceSupport implements IdempotentRepository<String>, CamelContextAware {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SegmentedFileIdempotentRepository.class);
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final String SEGMENT_SUFFIX = ".segment";
+    // a record is the type, the length of the key and the key, and the type is written last
+    // so a record which was not fully written when the JVM crashed is not read back
+    private static final byte ADD = 1;
+    private static final byte REMOVE = 2;
+    private static final int RECORD_HEADER = 5;
+
+    // the keys and the location of their record as the segment id and the offset in the segment
+    private final ConcurrentMap<Object, Long> index = new ConcurrentHashMap<Object, Long>();
+    private final ConcurrentSkipListMap<Integer, Segment> segments = new ConcurrentSkipListMap<Integer, Segment>();
+    private final Lock writeLock = new ReentrantLock();
+    private final AtomicLong compactionCount = new AtomicLong();
+    private CamelContext camelContext;
+    private volatile Segment current;
+    private int unsynced;
+    private File directory;
+    private int segmentSize = 16 * 1024 * 1024;
+    private boolean fingerprint = true;
+    private int syncBatchSize;
+    private long syncInterval = 1000;
+    private long compactionInterval = 60000;
+    private double compactionThreshold = 0.5;
+    private ScheduledExecutorService scheduledExecutorService;
+    private boolean shutdownScheduledExecutorService;
+    private ScheduledFuture<?> syncTask;
+    private ScheduledFuture<?> compactionTask;
+
+    public SegmentedFileIdempotentRepository() {
+    }
+
+    public SegmentedFileIdempotentRepository(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Creates a new segmented file based repository.
+     *
+     * @param directory  the directory of the segment files
+     */
+    public static IdempotentRepository<String> segmentedFileIdempotentRepository(File directory) {
+        return new SegmentedFileIdempotentRepository(directory);
+    }
+
+    @ManagedOperation(description = "Adds the key to the store")
+    public boolean add(String key) {
+        Object id = toId(key);
+        if (index.containsKey(id)) {
+            return false;
+        }
+
+        writeLock.lock();
+        try {
+            if (index.containsKey(id)) {
+                return false;
+            }
+            long location = append(ADD, key);
+            index.put(id, location);
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @ManagedOperation(description = "Does the store contain the given key")
+    public boolean contains(String key) {
+        return index.containsKey(toId(key));
+    }
+
+    @ManagedOperation(description = "Remove the key from the store")
+    public boolean remove(String key) {
+        Object id = toId(key);
+        if (!index.containsKey(id)) {
+            return false;
+        }
+
+        writeLock.lock();
+        try {
+            Long location = index.remove(id);
+            if (location == null) {
+                return false;
+            }
+            append(REMOVE, key);
+            release(location);
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public boolean confirm(String key) {
+        // noop
+        return true;
+    }
+
+    @ManagedOperation(description = "Clear the store")
+    public synchronized void clear() {
+        // synchronized with the compaction, so the segments are not unmapped while they are being compacted
+        writeLock.lock();
+        try {
+            index.clear();
+            for (Segment segment : segments.values()) {
+                segment.delete();
+            }
+            segments.clear();
+            current = null;
+            if (isStarted()) {
+                current = createSegment(1);
+            }
+        } catch (IOException e) {
+            throw ObjectHelper.wrapRuntimeCamelException(e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Compacts the segments, except the current segment, which have fewer live records than the compaction threshold.
+     */
+    @ManagedOperation(description = "Compacts the segments which mostly hold removed keys")
+    public synchronized void compact() {
+        for (Segment segment : segments.values()) {
+            if (segment == current) {
+                break;
+            }
+            if (segment.live.get() < segment.records.get() * compactionThreshold) {
+                try {
+                    compact(segment);
+                } catch (IOException e) {
+                    LOG.warn("Error compacting segment " + segment.file + ". This exception is ignored.", e);
+                }
+            }
+        }
+    }
+
+    @ManagedOperation(description = "Syncs the current segment to disk")
+    public void sync() {
+        writeLock.lock();
+        try {
+            if (current != null && unsynced > 0) {
+                current.buffer.force();
+                unsynced = 0;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public CamelContext getCamelContext() {
+        return camelContext;
+    }
+
+    public void setCamelContext(CamelContext camelContext) {
+        this.camelContext = camelContext;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(File directory) {
+        this.directory = directory;
+    }
+
+    @ManagedAttribute(description = "The directory of the segment files")
+    public String getDirectoryPath() {
+        return directory.getPath();
+    }
+
+    @ManagedAttribute(description = "The current number of keys in the store")
+    public int getSize() {
+        return index.size();
+    }
+
+    @ManagedAttribute(description = "The current number of segment files")
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    @ManagedAttribute(description = "Number of segments which have been compacted")
+    public long getCompactionCount() {
+        return compactionCount.get();
+    }
+
+    @ManagedAttribute(description = "The size in bytes of a segment file")
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * Sets the size in bytes of a segment file, which is the largest size of a key as well.
+     * <p/>
+     * The default is 16mb.
+     */
+    public void setSegmentSize(int segmentSize) {
+        this.segmentSize = segmentSize;
+    }
+
+    @ManagedAttribute(description = "Whether the keys are kept in memory as 128 bit fingerprints")
+    public boolean isFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Sets whether to keep 128 bit fingerprints of the keys in memory instead of the keys themselves.
+     * <p/>
+     * The default is <tt>true</tt>.
+     */
+    public void setFingerprint(boolean fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    @ManagedAttribute(description = "Number of records after which the segment is synced to disk")
+    public int getSyncBatchSize() {
+        return syncBatchSize;
+    }
+
+    /**
+     * Sets the number of records after which the current segment is synced to disk, for example 1 to sync
+     * every record.
+     * <p/>
+     * The default is 0 to only sync on the sync interval.
+     */
+    public void setSyncBatchSize(int syncBatchSize) {
+        this.syncBatchSize = syncBatchSize;
+    }
+
+    @ManagedAttribute(description = "Interval in millis to sync the segment to disk")
+    public long getSyncInterval() {
+        return syncInterval;
+    }
+
+    /**
+     * Sets the interval in millis to sync the current segment to disk, if any records were appended since the last sync.
+     * Use 0 to disable.
+     * <p/>
+     * The default is 1000 millis.
+     */
+    public void setSyncInterval(long syncInterval) {
+        this.syncInterval = syncInterval;
+    }
+
+    @ManagedAttribute(description = "Interval in millis to compact the segments")
+    public long getCompactionInterval() {
+        return compactionInterval;
+    }
+
+    /**
+     * Sets the interval in millis to check for segments to compact. Use 0 to disable.
+     * <p/>
+     * The default is 60000 millis.
+     */
+    public void setCompactionInterval(long compactionInterval) {
+        this.compactionInterval = compactionInterval;
+    }
+
+    @ManagedAttribute(description = "Ratio of live records below which a segment is compacted")
+    public double getCompactionThreshold() {
+        return compactionThreshold;
+    }
+
+    /**
+     * Sets the ratio of the live records of a segment below which the segment is compacted.
+     * <p/>
+     * The default is 0.5.
+     */
+    public void setCompactionThreshold(double compactionThreshold) {
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    public ScheduledExecutorService getScheduledExecutorService() {
+        return scheduledExecutorService;
+    }
+
+    /**
+     * Sets the thread pool to run the background sync and compaction, by default a single thread is created
+     * using the {@link org.apache.camel.spi.ExecutorServiceManager} of the {@link CamelContext}.
+     */
+    public void setScheduledExecutorService(ScheduledExecutorService scheduledExecutorService) {
+        this.scheduledExecutorService = scheduledExecutorService;
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        ObjectHelper.notNull(directory, "directory", this);
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Cannot create directory: " + directory);
+        }
+
+        loadSegments();
+        if (current == null) {
+            current = createSegment(1);
+        }
+        LOG.debug("Loaded {} keys from {} segments in idempotent store: {}", new Object[]{index.size(), segments.size(), directory});
+
+        if (syncInterval > 0 || compactionInterval > 0) {
+            if (scheduledExecutorService == null) {
+                ObjectHelper.notNull(camelContext, "camelContext", this);
+                scheduledExecutorService = camelContext.getExecutorServiceManager().newSingleThreadScheduledExecutor(this, "SegmentedFileIdempotentRepository");
+                shutdownScheduledExecutorService = true;
+            }
+            if (syncInterval > 0) {
+                syncTask = scheduledExecutorService.scheduleWithFixedDelay(new Runnable() {
+                    public void run() {
+                        sync();
+                    }
+                }, syncInterval, syncInterval, TimeUnit.MILLISECONDS);
+            }
+            if (compactionInterval > 0) {
+                compactionTask = scheduledExecutorService.scheduleWithFixedDelay(new Runnable() {
+                    public void run() {
+                        compact();
+                    }
+                }, compactionInterval, compactionInterval, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        if (syncTask != null) {
+            syncTask.cancel(false);
+            syncTask = null;
+        }
+        if (compactionTask != null) {
+            compactionTask.cancel(false);
+            compactionTask = null;
+        }
+        if (shutdownScheduledExecutorService) {
+            camelContext.getExecutorServiceManager().shutdownNow(scheduledExecutorService);
+            scheduledExecutorService = null;
+            shutdownScheduledExecutorService = false;
+        }
+
+        writeLock.lock();
+        try {
+            if (current != null) {
+                current.buffer.force();
+            }
+            unsynced = 0;
+            current = null;
+            segments.clear();
+            index.clear();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private Object toId(String key) {
+        return fingerprint ? ConcurrentMemoryIdempotentRepository.Fingerprint.of(key) : key;
+    }
+
+    /**
+     * Appends a record to the current segment, and rolls over to a new segment if the current segment is full.
+     * <p/>
+     * Must be called while holding the write lock.
+     *
+     * @return the location of the record
+     */
+    private long append(byte type, String key) {
+        byte[] data = key.getBytes(UTF8);
+        int length = RECORD_HEADER + data.length;
+        if (length > segmentSize) {
+            throw new IllegalArgumentException("The key is larger than the segment size " + segmentSize + ": " + key);
+        }
+        if (current == null) {
+            throw new IllegalStateException("The store is not started: " + directory);
+        }
+
+        try {
+            if (current.buffer.remaining() < length) {
+                // seal the current segment and continue on a new segment
+                current.buffer.force();
+                unsynced = 0;
+                current = createSegment(current.id + 1);
+            }
+        } catch (IOException e) {
+            throw ObjectHelper.wrapRuntimeCamelException(e);
+        }
+
+        MappedByteBuffer buffer = current.buffer;
+        int offset = buffer.position();
+        buffer.position(offset + 1);
+        buffer.putInt(data.length);
+        buffer.put(data);
+        buffer.put(offset, type);
+        current.records.incrementAndGet();
+        if (type == ADD) {
+            current.live.incrementAndGet();
+        }
+
+        unsynced++;
+        if (syncBatchSize > 0 && unsynced >= syncBatchSize) {
+            buffer.force();
+            unsynced = 0;
+        }
+        return ((long) current.id << 32) | offset;
+    }
+
+    /**
+     * The record at the given location is no longer live.
+     */
+    private void release(long location) {
+        Segment segment = segments.get((int) (location >>> 32));
+        if (segment != null) {
+            segment.live.decrementAndGet();
+        }
+    }
+
+    private void compact(Segment segment) throws IOException {
+        LOG.debug("Compacting segment {} with {} live records of {}", new Object[]{segment.file, segment.live, segment.records});
+
+        // removed keys can only be added back by the segments before this segment, and then the tombstones must be kept
+        boolean oldest = segments.firstKey() == segment.id;
+        ByteBuffer buffer = segment.buffer.duplicate();
+        buffer.position(0);
+        int offset = buffer.position();
+        Record record;
+        while ((record = readRecord(buffer)) != null) {
+            long location = ((long) segment.id << 32) | offset;
+            Object id = toId(record.key);
+            writeLock.lock();
+            try {
+                if (!isStarted() || segments.get(segment.id) != segment) {
+                    // the store was stopped or cleared meanwhile
+                    return;
+                }
+                if (record.type == ADD) {
+                    Long existing = index.get(id);
+                    if (existing != null && existing == location) {
+                        index.put(id, append(ADD, record.key));
+                    }
+                } else if (!oldest && !index.containsKey(id)) {
+                    append(REMOVE, record.key);
+                }
+            } finally {
+                writeLock.unlock();
+            }
+            offset = buffer.position();
+        }
+
+        writeLock.lock();
+        try {
+            // make sure the copied records are on disk before the segment is deleted
+            current.buffer.force();
+            unsynced = 0;
+            segments.remove(segment.id);
+            segment.delete();
+        } finally {
+            writeLock.unlock();
+        }
+        compactionCount.incrementAndGet();
+    }
+
+    private void loadSegments() throws IOException {
+        File[] files = directory.listFiles(new FilenameFilter() {
+            public boolean accept(File dir, String name) {
+                return name.endsWith(SEGMENT_SUFFIX);
+            }
+        });
+        if (files == null) {
+            return;
+        }
+
+        for (File file : files) {
+            String name = file.getName();
+            int id;
+            try {
+                id = Integer.parseInt(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+            } catch (NumberFormatException e) {
+                LOG.warn("Ignoring unknown segment file: {}", file);
+                continue;
+            }
+            segments.put(id, openSegment(id, file));
+        }
+
+        // replay the records of the segments in order to rebuild the index
+        for (Segment segment : segments.values()) {
+            MappedByteBuffer buffer = segment.buffer;
+            int offset = 0;
+            Record record;
+            while ((record = readRecord(buffer)) != null) {
+                Object id = toId(record.key);
+                segment.records.incrementAndGet();
+                if (record.type == ADD) {
+                    Long previous = index.put(id, ((long) segment.id << 32) | offset);
+                    segment.live.incrementAndGet();
+                    if (previous != null) {
+                        release(previous);
+                    }
+                } else {
+                    Long previous = index.remove(id);
+                    if (previous != null) {
+                        release(previous);
+                    }
+                }
+                offset = buffer.position();
+            }
+            buffer.position(offset);
+            current = segment;
+        }
+
+        // the records are appended to the last segment, which may end with a partly written record
+        if (current != null) {
+            current = truncateSegment(current);
+        }
+    }
+
+    /**
+     * Truncates the segment after its last record, so the leftovers of a record which was partly written when
+     * the JVM crashed cannot be read back after new records have been appended over it.
+     *
+     * @return the segment which is mapped again
+     */
+    private Segment truncateSegment(Segment segment) throws IOException {
+        int offset = segment.buffer.position();
+        int length = segment.buffer.capacity();
+        if (offset == length) {
+            return segment;
+        }
+
+        // the file must be unmapped before it can be truncated on some platforms
+        IOHelper.unmap(segment.buffer);
+        RandomAccessFile raf = new RandomAccessFile(segment.file, "rw");
+        try {
+            raf.setLength(offset);
+            raf.setLength(length);
+        } finally {
+            raf.close();
+        }
+
+        Segment answer = openSegment(segment.id, segment.file);
+        answer.buffer.position(offset);
+        answer.records.set(segment.records.get());
+        answer.live.set(segment.live.get());
+        segments.put(answer.id, answer);
+        return answer;
+    }
+
+    /**
+     * Reads the record at the position of the buffer.
+     *
+     * @return the record, or <tt>null</tt> at the end of the records
+     */
+    private static Record readRecord(ByteBuffer buffer) {
+        int offset = buffer.position();
+        if (buffer.remaining() < RECORD_HEADER) {
+            return null;
+        }
+        byte type = buffer.get(offset);
+        int length = buffer.getInt(offset + 1);
+        if ((type != ADD && type != REMOVE) || length < 0 || length > buffer.remaining() - RECORD_HEADER) {
+            return null;
+        }
+        byte[] data = new byte[length];
+        buffer.position(offset + RECORD_HEADER);
+        buffer.get(data);
+        return new Record(type, new String(data, UTF8));
+    }
+
+    private Segment createSegment(int id) throws IOException {
+        File file = new File(directory, String.format("%010d%s", id, SEGMENT_SUFFIX));
+        LOG.debug("Creating segment: {}", file);
+        Segment segment = openSegment(id, file);
+        segments.put(id, segment);
+        return segment;
+    }
+
+    private Segment openSegment(int id, File file) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            if (raf.length() == 0) {
+                raf.setLength(segmentSize);
+            }
+            MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, raf.length());
+            return new Segment(id, file, buffer);
+        } finally {
+            raf.close();
+        }
+    }
+
+    private static final class Segment {
+        private final int id;
+        private final File file;
+        private final MappedByteBuffer buffer;
+        private final AtomicInteger records = new AtomicInteger();
+        private final AtomicInteger live = new AtomicInteger();
+
+        private Segment(int id, File file, MappedByteBuffer buffer) {
+            this.id = id;
+            this.file = file;
+            this.buffer = buffer;
+        }
+
+        private void delete() {
+            // the file must be unmapped before it can be deleted on some platforms
+            IOHelper.unmap(buffer);
+            if (!FileUtil.deleteFile(file)) {
+                LOG.warn("Cannot delete segment file: {}", file);
+            }
+        }
+    }
+
+    private static final class Record {
+        private final byte type;
+        private final String key;
+
+        private Record(byte type, String key) {
+            this.type = type;
+            this.key = key;
+        }
+    }
+}
@@ -27,6 +27,7 @@ import org.apache.camel.CamelContextAware;
 import org.apache.camel.Channel;
 import org.apache.camel.Exchange;
 import org.apache.camel.Processor;
+import org.apache.camel.impl.CompactMessageHistoryFactory;
 import org.apache.camel.model.ModelChannel;
 import org.apache.camel.model.OnCompletionDefinition;
 import org.apache.camel.model.OnExceptionDefinition;
@@ -244,7 +245,11 @@ public class DefaultChannel extends CamelInternalProcessor implements ModelChann
         if (routeContext.isMessageHistory()) {
             // add message history advice
             MessageHistoryFactory factory = camelContext.getMessageHistoryFactory();
-            addAdvice(new MessageHistoryAdvice(factory, targetOutputDef));
+            if (factory instanceof CompactMessageHistoryFactory) {
+                addAdvice(new CompactMessageHistoryAdvice((CompactMessageHistoryFactory) factory, targetOutputDef));
+            } else {
+                addAdvice(new MessageHistoryAdvice(factory, targetOutputDef));
+            }
         }
 
         // the regular tracer is not a task on internalProcessor as this is not really needed
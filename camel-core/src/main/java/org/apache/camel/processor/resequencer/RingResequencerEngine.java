@@ -0,0 +1,480 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.resequencer;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A {@link ResequencerEngine} which indexes elements by their sequence number
+ * instead of sorting them. Elements are kept in a ring of slots where the slot
+ * of an element is given by its sequence number modulo the ring size. A bitmap
+ * keeps track of the occupied slots so gaps in the sequence can be found by
+ * scanning words rather than elements.
+ * <p>
+ * The ring covers the window of sequence numbers starting at the next expected
+ * sequence number (the successor of the last delivered element). Elements which
+ * fall outside of this window, because they are too far ahead or older than the
+ * last delivered element, are kept in an overflow map and moved into the ring as
+ * the window advances.
+ * <p>
+ * The timeout semantics are the same as for {@link ResequencerEngine}, but no
+ * timer task is scheduled per element. Instead the arrival time of each element
+ * is recorded and the element following a gap at the head of the sequence is
+ * checked when delivering. The time until this element times out is available
+ * from {@link #getNextTimeoutDelay()} so a single delivery thread can wait for
+ * it. Contiguous runs of elements are removed from the ring in one go and sent
+ * via the {@link SequenceSender} without holding the lock used by
+ * {@link #insert(Object)}.
+ *
+ * @version 
+ */
+public class RingResequencerEngine<E> extends ResequencerEngine<E> {
+
+    private static final int MIN_RING_SIZE = 64;
+
+    private final SequenceNumberComparator<E> comparator;
+    private final Lock lock = new ReentrantLock();
+    private final Lock deliveryLock = new ReentrantLock();
+    private final TreeMap<Long, Slot<E>> overflow = new TreeMap<Long, Slot<E>>();
+    private final AtomicLong timedOutGaps = new AtomicLong();
+    private int capacity = 1000;
+
+    private Object[] elements;
+    private long[] arrivals;
+    private long[] occupied;
+    private int mask;
+    private int count;
+
+    private boolean started;
+    private long nextSequence;
+    private long highestSequence;
+    private E lastDelivered;
+    private long lastDeliveredSequence;
+
+    /**
+     * Creates a new resequencer instance with a default timeout of 2000
+     * milliseconds.
+     *
+     * @param comparator a sequence number comparator.
+     */
+    public RingResequencerEngine(SequenceNumberComparator<E> comparator) {
+        super(comparator);
+        this.comparator = comparator;
+        allocate();
+    }
+
+    /**
+     * Returns the number of sequence numbers the ring can hold.
+     *
+     * @return the ring size.
+     */
+    public int getCapacity() {
+        return elements.length;
+    }
+
+    /**
+     * Sets the number of sequence numbers the ring should hold. The ring size is
+     * rounded up to a power of two (and at least 64). This can only be changed
+     * while the resequencer is empty.
+     *
+     * @param capacity the capacity
+     */
+    public void setCapacity(int capacity) {
+        lock.lock();
+        try {
+            if (count > 0 || !overflow.isEmpty()) {
+                throw new IllegalStateException("Cannot change capacity of a non-empty resequencer");
+            }
+            this.capacity = capacity;
+            allocate();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of sequence numbers which are currently missing
+     * between the next expected element and the highest element held in
+     * the ring.
+     *
+     * @return the number of missing elements.
+     */
+    public long getGaps() {
+        lock.lock();
+        try {
+            if (count == 0) {
+                return 0;
+            }
+            return highestSequence - nextSequence + 1 - count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of times a gap was skipped because the element after
+     * the gap timed out.
+     *
+     * @return the number of timed out gaps.
+     */
+    public long getTimedOutGaps() {
+        return timedOutGaps.get();
+    }
+
+    /**
+     * Returns the number of milliseconds until the element at the head of the
+     * sequence is ready for delivery.
+     *
+     * @return <tt>0</tt> if an element is ready, the remaining time otherwise or
+     *         <tt>-1</tt> if no element is waiting.
+     */
+    public long getNextTimeoutDelay() {
+        long now = currentTime();
+        lock.lock();
+        try {
+            long arrival;
+            if (!overflow.isEmpty() && overflow.firstKey() < nextSequence) {
+                arrival = overflow.firstEntry().getValue().arrival;
+            } else {
+                long head = nextOccupied();
+                if (head < 0 && overflow.isEmpty()) {
+                    return -1;
+                } else if (head < 0) {
+                    arrival = overflow.firstEntry().getValue().arrival;
+                } else if (lastDelivered != null && head == nextSequence) {
+                    return 0;
+                } else {
+                    arrival = arrivals[index(head)];
+                }
+            }
+            return Math.max(0, arrival + getTimeout() - now);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void start() {
+        // no timer needed
+    }
+
+    @Override
+    public void stop() {
+        // no timer needed
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return count + overflow.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    E getLastDelivered() {
+        lock.lock();
+        try {
+            return lastDelivered;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    void setLastDelivered(E o) {
+        lock.lock();
+        try {
+            lastDelivered = o;
+            lastDeliveredSequence = comparator.getSequenceNumber(o);
+            nextSequence = lastDeliveredSequence + 1;
+            started = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Inserts the given element into this resequencer. Elements with a sequence
+     * number which has already been inserted are ignored.
+     *
+     * @param o an element.
+     * @throws IllegalArgumentException if the element cannot be used with this resequencer engine
+     */
+    @Override
+    public void insert(E o) {
+        if (!comparator.isValid(o)) {
+            throw new IllegalArgumentException("Element cannot be used in comparator: " + comparator);
+        }
+        long sequence = comparator.getSequenceNumber(o);
+        long now = currentTime();
+
+        lock.lock();
+        try {
+            if (getRejectOld() != null && getRejectOld() && lastDelivered != null && sequence < lastDeliveredSequence) {
+                throw new MessageRejectedException("rejecting message [" + o
+                        + "], it should have been sent before the last delivered message [" + lastDelivered + "]");
+            }
+
+            if (!started) {
+                started = true;
+                nextSequence = sequence;
+                highestSequence = sequence;
+            } else if (lastDelivered == null && sequence < nextSequence && (count == 0 || highestSequence - sequence < elements.length)) {
+                // nothing delivered yet so the window may still move backwards
+                nextSequence = sequence;
+                migrate();
+            }
+
+            if (inWindow(sequence)) {
+                int index = index(sequence);
+                if (elements[index] == null) {
+                    elements[index] = o;
+                    arrivals[index] = now;
+                    occupied[index >>> 6] |= 1L << index;
+                    if (count == 0 || sequence > highestSequence) {
+                        highestSequence = sequence;
+                    }
+                    count++;
+                }
+            } else if (!overflow.containsKey(sequence)) {
+                overflow.put(sequence, new Slot<E>(o, now));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Delivers all elements which are currently ready to deliver.
+     *
+     * @throws Exception thrown by {@link SequenceSender#sendElement(Object)}.
+     */
+    @Override
+    public void deliver() throws Exception {
+        deliveryLock.lock();
+        try {
+            while (deliver(Integer.MAX_VALUE) > 0) {
+                // do nothing here
+            }
+        } finally {
+            deliveryLock.unlock();
+        }
+    }
+
+    /**
+     * Attempts to deliver a single element from the head of the resequencer.
+     *
+     * @return <code>true</code> if the element has been delivered
+     *         <code>false</code> otherwise.
+     * @throws Exception thrown by {@link SequenceSender#sendElement(Object)}.
+     */
+    @Override
+    public boolean deliverNext() throws Exception {
+        deliveryLock.lock();
+        try {
+            return deliver(1) > 0;
+        } finally {
+            deliveryLock.unlock();
+        }
+    }
+
+    /**
+     * Removes up to <tt>max</tt> deliverable elements and sends them. If sending
+     * an element fails the remaining elements are still sent and the first
+     * exception is thrown afterwards.
+     */
+    private int deliver(int max) throws Exception {
+        List<E> batch = new ArrayList<E>();
+        lock.lock();
+        try {
+            collect(batch, max, currentTime());
+        } finally {
+            lock.unlock();
+        }
+
+        Exception cause = null;
+        for (E element : batch) {
+            try {
+                getSequenceSender().sendElement(element);
+            } catch (Exception e) {
+                if (cause == null) {
+                    cause = e;
+                }
+            }
+        }
+        if (cause != null) {
+            throw cause;
+        }
+        return batch.size();
+    }
+
+    private void collect(List<E> batch, int max, long now) {
+        while (batch.size() < max) {
+            // elements older than the window are delivered when they time out
+            if (!overflow.isEmpty() && overflow.firstKey() < nextSequence) {
+                Map.Entry<Long, Slot<E>> entry = overflow.firstEntry();
+                if (!timedOut(entry.getValue().arrival, now)) {
+                    return;
+                }
+                overflow.remove(entry.getKey());
+                delivered(entry.getValue().element, entry.getKey());
+                batch.add(entry.getValue().element);
+                continue;
+            }
+
+            long head = nextOccupied();
+            if (head < 0) {
+                if (overflow.isEmpty() || !timedOut(overflow.firstEntry().getValue().arrival, now)) {
+                    return;
+                }
+                // the whole ring is a gap so jump to the first element ahead of it
+                timedOutGaps.incrementAndGet();
+                nextSequence = overflow.firstKey();
+                migrate();
+                continue;
+            }
+
+            boolean successor = lastDelivered != null && head == nextSequence;
+            if (!successor && !timedOut(arrivals[index(head)], now)) {
+                return;
+            }
+            if (head != nextSequence) {
+                timedOutGaps.incrementAndGet();
+            }
+
+            // take the contiguous run starting at the head
+            nextSequence = head;
+            int index = index(nextSequence);
+            while (batch.size() < max && elements[index] != null) {
+                @SuppressWarnings("unchecked")
+                E element = (E) elements[index];
+                elements[index] = null;
+                occupied[index >>> 6] &= ~(1L << index);
+                count--;
+                batch.add(element);
+                delivered(element, nextSequence);
+                index = index(nextSequence);
+            }
+            migrate();
+        }
+    }
+
+    private void delivered(E element, long sequence) {
+        lastDelivered = element;
+        lastDeliveredSequence = sequence;
+        if (sequence >= nextSequence) {
+            nextSequence = sequence + 1;
+        }
+    }
+
+    /**
+     * Moves elements from the overflow map into the ring once they are within the window.
+     */
+    private void migrate() {
+        if (overflow.isEmpty()) {
+            return;
+        }
+        long end = nextSequence + elements.length;
+        Iterator<Map.Entry<Long, Slot<E>>> it = overflow.subMap(nextSequence, end).entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Long, Slot<E>> entry = it.next();
+            int index = index(entry.getKey());
+            if (elements[index] == null) {
+                elements[index] = entry.getValue().element;
+                arrivals[index] = entry.getValue().arrival;
+                occupied[index >>> 6] |= 1L << index;
+                if (count == 0 || entry.getKey() > highestSequence) {
+                    highestSequence = entry.getKey();
+                }
+                count++;
+            }
+            it.remove();
+        }
+    }
+
+    /**
+     * Returns the sequence number of the first element in the ring at or after
+     * the next expected sequence number, or <tt>-1</tt> if the ring is empty.
+     */
+    private long nextOccupied() {
+        if (count == 0) {
+            return -1;
+        }
+        int size = elements.length;
+        int start = index(nextSequence);
+        int offset = 0;
+        while (offset < size) {
+            int index = (start + offset) & mask;
+            long word = occupied[index >>> 6] >>> (index & 63);
+            if (word != 0) {
+                return nextSequence + offset + Long.numberOfTrailingZeros(word);
+            }
+            offset += 64 - (index & 63);
+        }
+        return -1;
+    }
+
+    private boolean inWindow(long sequence) {
+        return sequence >= nextSequence && sequence - nextSequence < elements.length;
+    }
+
+    private boolean timedOut(long arrival, long now) {
+        return now - arrival >= getTimeout();
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence & mask);
+    }
+
+    private void allocate() {
+        int size = MIN_RING_SIZE;
+        while (size < capacity && size < (1 << 30)) {
+            size <<= 1;
+        }
+        elements = new Object[size];
+        arrivals = new long[size];
+        occupied = new long[size >>> 6];
+        mask = size - 1;
+    }
+
+    /**
+     * Returns the current time in millis, can be overridden for testing.
+     */
+    protected long currentTime() {
+        return System.currentTimeMillis();
+    }
+
+    private static final class Slot<E> {
+        private final E element;
+        private final long arrival;
+
+        Slot(E element, long arrival) {
+            this.element = element;
+            this.arrival = arrival;
+        }
+    }
+}
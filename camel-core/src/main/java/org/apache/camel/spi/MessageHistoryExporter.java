@@ -0,0 +1,39 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.spi;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.CompactMessageHistory;
+
+/**
+ * Exports the compact message history of sampled exchanges, for example as spans to a tracing system.
+ *
+ * @see org.apache.camel.impl.CompactMessageHistoryFactory
+ */
+public interface MessageHistoryExporter {
+
+    /**
+     * Exports the message history of an exchange which is done.
+     * <p/>
+     * Each node in the history is a span which starts at {@link CompactMessageHistory#getStartNanos(int)}
+     * nanos after {@link CompactMessageHistory#getTimestamp()}, and takes {@link CompactMessageHistory#getElapsedNanos(int)}.
+     *
+     * @param exchange the exchange
+     * @param history  the message history of the exchange
+     */
+    void export(Exchange exchange, CompactMessageHistory history);
+}
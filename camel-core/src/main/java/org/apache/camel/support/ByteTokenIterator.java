@@ -0,0 +1,301 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.support;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.apache.camel.RuntimeCamelException;
+import org.apache.camel.converter.stream.ByteBufferInputStreamCache;
+import org.apache.camel.util.IOHelper;
+
+/**
+ * {@link Iterator} which splits bytes by a delimiter without decoding them, to split big files fast.
+ * <p/>
+ * Files are memory mapped in regions, and other channels are read into chunks. The parts are returned as
+ * {@link ByteBufferInputStreamCache} which are only decoded when the part is converted to a String. The parts
+ * of chunks are slices of the chunks, so the bytes are not copied. The parts of files are copied from the regions,
+ * as each region is unmapped as soon as it has been split, so the file can be moved or deleted after the split.
+ * <p/>
+ * The delimiter is matched byte by byte, so the charset of the content must encode the delimiter in a way that
+ * cannot occur within other characters, such as UTF-8 or single byte charsets.
+ * <p/>
+ * The parts are the same as when using {@link java.util.Scanner} with the delimiter, which means that a single
+ * delimiter at the start is skipped rather than returning an empty first part. When grouping, the parts are
+ * returned together with the delimiters between them, which is what {@link org.apache.camel.util.GroupTokenIterator}
+ * would return as well.
+ */
+public final class ByteTokenIterator implements Iterator<Object>, Closeable {
+
+    public static final int DEFAULT_REGION_SIZE = 64 * 1024 * 1024;
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    private final ReadableByteChannel channel;
+    private final FileChannel fileChannel;
+    private final byte[] delimiter;
+    private final int group;
+    private final int size;
+    private boolean skipFirst;
+
+    private ByteBuffer window;
+    private long windowOffset;
+    private int pos;
+    private boolean eof;
+    private Object next;
+    private boolean closed;
+
+    /**
+     * Creates an iterator which maps the file in regions of the given size.
+     */
+    public ByteTokenIterator(FileChannel channel, byte[] delimiter, int group, boolean skipFirst, int regionSize) {
+        this(channel, channel, delimiter, group, skipFirst, regionSize);
+    }
+
+    /**
+     * Creates an iterator which reads the channel in chunks of the given size.
+     */
+    public ByteTokenIterator(ReadableByteChannel channel, byte[] delimiter, int group, boolean skipFirst, int chunkSize) {
+        this(channel, null, delimiter, group, skipFirst, chunkSize);
+    }
+
+    private ByteTokenIterator(ReadableByteChannel channel, FileChannel fileChannel, byte[] delimiter, int group, boolean skipFirst, int size) {
+        if (delimiter == null || delimiter.length == 0) {
+            throw new IllegalArgumentException("Delimiter must not be empty");
+        }
+        if (group <= 0) {
+            throw new IllegalArgumentException("Group must be a positive number, was: " + group);
+        }
+        this.channel = channel;
+        this.fileChannel = fileChannel;
+        this.delimiter = delimiter;
+        this.group = group;
+        this.skipFirst = skipFirst;
+        this.size = Math.max(size, delimiter.length);
+        this.window = ByteBuffer.allocate(0);
+    }
+
+    /**
+     * Whether the delimiter can be matched byte by byte for content in the given charset.
+     */
+    public static boolean isSupportedCharset(String charset) {
+        String name = Charset.forName(charset).name();
+        return "UTF-8".equals(name) || "US-ASCII".equals(name) || name.startsWith("ISO-8859-") || name.startsWith("windows-125");
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+        if (closed) {
+            return false;
+        }
+        try {
+            if (skipFirst) {
+                skipFirst = false;
+                readNext(1);
+            }
+            next = readNext(group);
+        } catch (IOException e) {
+            throw new RuntimeCamelException(e);
+        }
+        if (next == null) {
+            // auto close
+            IOHelper.close(this);
+        }
+        return next != null;
+    }
+
+    @Override
+    public Object next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Object answer = next;
+        next = null;
+        return answer;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("Remove is not supported by this iterator");
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        try {
+            channel.close();
+        } finally {
+            if (fileChannel != null) {
+                IOHelper.unmap(window);
+                window = ByteBuffer.allocate(0);
+            }
+        }
+    }
+
+    /**
+     * Reads the next number of parts as a single slice, or returns <tt>null</tt> if there are no more parts.
+     */
+    private Object readNext(int parts) throws IOException {
+        int start = -1;
+        int end = -1;
+        for (int i = 0; i < parts; i++) {
+            int from = end < 0 ? pos : end;
+            int keep = start < 0 ? from : start;
+
+            // skip the delimiter before the part
+            while (window.limit() - from < delimiter.length && !eof) {
+                int shift = fill(keep);
+                from -= shift;
+                start -= start < 0 ? 0 : shift;
+                keep -= shift;
+            }
+            if (matches(from)) {
+                from += delimiter.length;
+            }
+            while (from >= window.limit() && !eof) {
+                int shift = fill(keep);
+                from -= shift;
+                start -= start < 0 ? 0 : shift;
+                keep -= shift;
+            }
+            if (from >= window.limit()) {
+                // no more parts
+                break;
+            }
+
+            // find the delimiter after the part
+            int index = indexOf(from, from);
+            while (index < 0 && !eof) {
+                int searched = Math.max(from, window.limit() - delimiter.length + 1);
+                int shift = fill(keep);
+                from -= shift;
+                searched -= shift;
+                start -= start < 0 ? 0 : shift;
+                keep -= shift;
+                index = indexOf(from, searched);
+            }
+            if (start < 0) {
+                start = from;
+            }
+            end = index < 0 ? window.limit() : index;
+        }
+
+        if (start < 0) {
+            pos = window.limit();
+            return null;
+        }
+        pos = end;
+
+        ByteBuffer slice = window.duplicate();
+        slice.position(start);
+        slice.limit(end);
+        if (fileChannel != null) {
+            // copy the part so the region can be unmapped
+            ByteBuffer copy = ByteBuffer.allocate(slice.remaining());
+            copy.put(slice);
+            copy.flip();
+            slice = copy;
+        }
+        return new ByteBufferInputStreamCache(slice);
+    }
+
+    /**
+     * Replaces the window with a new window which starts at the given index of the current window and has more data.
+     * The current window of a channel is not modified as slices of it may still be in use, and the current region
+     * of a file is unmapped.
+     *
+     * @return the index of the current window where the new window starts
+     */
+    private int fill(int keep) throws IOException {
+        int remaining = window.limit() - keep;
+        int capacity = Math.max(size, remaining * 2);
+
+        if (fileChannel != null) {
+            long offset = windowOffset + keep;
+            long length = Math.min(fileChannel.size() - offset, capacity);
+            ByteBuffer region = fileChannel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+            IOHelper.unmap(window);
+            window = region;
+            windowOffset = offset;
+            eof = offset + length >= fileChannel.size();
+        } else {
+            ByteBuffer buffer = ByteBuffer.allocate(capacity);
+            ByteBuffer carry = window.duplicate();
+            carry.position(keep);
+            buffer.put(carry);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    eof = true;
+                    break;
+                }
+            }
+            buffer.flip();
+            window = buffer;
+            windowOffset += keep;
+        }
+        pos -= keep;
+        return keep;
+    }
+
+    /**
+     * Finds the delimiter at or after the given index, but only matches which end after <tt>searchFrom</tt>
+     * need to be checked as earlier positions were already searched.
+     */
+    private int indexOf(int from, int searchFrom) {
+        ByteBuffer buffer = window;
+        byte first = delimiter[0];
+        int last = buffer.limit() - delimiter.length;
+        int i = Math.max(from, searchFrom);
+        if (buffer.hasArray()) {
+            byte[] array = buffer.array();
+            int offset = buffer.arrayOffset();
+            for (; i <= last; i++) {
+                if (array[offset + i] == first && matches(i)) {
+                    return i;
+                }
+            }
+        } else {
+            for (; i <= last; i++) {
+                if (buffer.get(i) == first && matches(i)) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private boolean matches(int index) {
+        if (window.limit() - index < delimiter.length) {
+            return false;
+        }
+        for (int i = 0; i < delimiter.length; i++) {
+            if (window.get(index + i) != delimiter[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,444 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.camel.TimeoutMap;
+import org.apache.camel.util.ObjectHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link TimeoutMap} which keeps track of when the entries expire using a hierarchical hashed timing wheel.
+ * <p/>
+ * The {@link DefaultTimeoutMap} scans all its entries when it purges, which becomes expensive when a lot of entries
+ * are in the map. This implementation instead puts the entries in the slots of a timing wheel by the tick they expire,
+ * so a purge only has to visit the entries which are due. The timing wheel is hierarchical with 4 levels of 64 slots,
+ * where an entry which expires far into the future is kept at a higher level, and cascaded down to a lower level as
+ * the time draws near. Adding, looking up and removing entries is O(1) and does not lock, as new and removed entries
+ * are queued and only applied to the timing wheel by the purge task.
+ * <p/>
+ * The purge task runs every purge poll time, which is also the duration of a tick. All the entries which expired
+ * since the last purge are evicted as one batch, in the order they expired.
+ * <p/>
+ * You must provide a {@link java.util.concurrent.ScheduledExecutorService} in the constructor which is used
+ * to schedule the purge task. You must also invoke {@link #start()} to startup the timeout map, before its ready
+ * to be used. And you must invoke {@link #stop()} to stop the map when no longer in use.
+ *
+ * @see DefaultTimeoutMap
+ */
+public class HashedWheelTimeoutMap<K, V> extends ServiceSupport implements TimeoutMap<K, V>, Runnable {
+
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+
+    protected final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final ConcurrentMap<K, WheelEntry<K, V>> map = new ConcurrentHashMap<K, WheelEntry<K, V>>();
+    private final Queue<WheelEntry<K, V>> added = new ConcurrentLinkedQueue<WheelEntry<K, V>>();
+    private final Queue<WheelEntry<K, V>> removed = new ConcurrentLinkedQueue<WheelEntry<K, V>>();
+    private final WheelEntry<K, V>[][] wheels;
+    private final ScheduledExecutorService executor;
+    private volatile ScheduledFuture<?> future;
+    private final long purgePollTime;
+    private final Lock purgeLock = new ReentrantLock();
+    // the state of the timing wheel is guarded by the purge lock
+    private boolean ticking;
+    private long startTime;
+    private long currentTick;
+
+    public HashedWheelTimeoutMap(ScheduledExecutorService executor) {
+        this(executor, 1000);
+    }
+
+    @SuppressWarnings("unchecked")
+    public HashedWheelTimeoutMap(ScheduledExecutorService executor, long requestMapPollTimeMillis) {
+        ObjectHelper.notNull(executor, "ScheduledExecutorService");
+        if (requestMapPollTimeMillis <= 0) {
+            throw new IllegalArgumentException("The purge poll time must be positive, was: " + requestMapPollTimeMillis);
+        }
+        this.executor = executor;
+        this.purgePollTime = requestMapPollTimeMillis;
+        this.wheels = new WheelEntry[LEVELS][WHEEL_SIZE];
+    }
+
+    public V get(K key) {
+        WheelEntry<K, V> entry = map.get(key);
+        if (entry == null) {
+            return null;
+        }
+        // the entry is moved to its new slot when the purge task reaches its current slot
+        updateExpireTime(entry);
+        return entry.getValue();
+    }
+
+    public V put(K key, V value, long timeoutMillis) {
+        WheelEntry<K, V> entry = new WheelEntry<K, V>(key, value, timeoutMillis);
+        updateExpireTime(entry);
+        WheelEntry<K, V> result = map.put(key, entry);
+        if (result != null) {
+            cancel(result);
+        }
+        added.add(entry);
+        return result != null ? result.getValue() : null;
+    }
+
+    public V putIfAbsent(K key, V value, long timeoutMillis) {
+        WheelEntry<K, V> entry = new WheelEntry<K, V>(key, value, timeoutMillis);
+        updateExpireTime(entry);
+        //Just make sure we don't override the old entry
+        WheelEntry<K, V> result = map.putIfAbsent(key, entry);
+        if (result == null) {
+            added.add(entry);
+        }
+        return result != null ? result.getValue() : null;
+    }
+
+    public V remove(K key) {
+        WheelEntry<K, V> entry = map.remove(key);
+        if (entry != null) {
+            cancel(entry);
+        }
+        return entry != null ? entry.getValue() : null;
+    }
+
+    public Object[] getKeys() {
+        Set<K> keySet = map.keySet();
+        Object[] keys = new Object[keySet.size()];
+        keySet.toArray(keys);
+        return keys;
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    /**
+     * The timer task which purges old requests and schedules another poll
+     */
+    public void run() {
+        // only run if allowed
+        if (!isRunAllowed()) {
+            log.trace("Purge task not allowed to run");
+            return;
+        }
+
+        log.trace("Running purge task to see if any entries has been timed out");
+        try {
+            purge();
+        } catch (Throwable t) {
+            // must catch and log exception otherwise the executor will now schedule next run
+            log.warn("Exception occurred during purge task. This exception will be ignored.", t);
+        }
+    }
+
+    public void purge() {
+        purgeLock.lock();
+        try {
+            long now = currentTime();
+            if (!ticking) {
+                ticking = true;
+                startTime = now;
+                currentTick = 0;
+            }
+
+            List<WheelEntry<K, V>> expired = new ArrayList<WheelEntry<K, V>>();
+
+            // apply the removed and added entries to the timing wheel
+            WheelEntry<K, V> entry;
+            while ((entry = removed.poll()) != null) {
+                unlink(entry);
+            }
+            while ((entry = added.poll()) != null) {
+                if (!entry.cancelled) {
+                    schedule(entry, expired);
+                }
+            }
+
+            // advance the timing wheel to the current tick, and collect the entries which are due
+            long nowTick = (now - startTime) / purgePollTime;
+            while (currentTick < nowTick) {
+                currentTick++;
+                cascade(expired);
+                WheelEntry<K, V> due = detach(0, (int) (currentTick & WHEEL_MASK));
+                while (due != null) {
+                    WheelEntry<K, V> next = due.next;
+                    due.next = null;
+                    schedule(due, expired);
+                    due = next;
+                }
+            }
+
+            log.trace("There are {} in the timeout map and {} are expired", map.size(), expired.size());
+            if (!expired.isEmpty()) {
+                evict(expired);
+            }
+        } finally {
+            purgeLock.unlock();
+        }
+    }
+
+    // Properties
+    // -------------------------------------------------------------------------
+
+    public long getPurgePollTime() {
+        return purgePollTime;
+    }
+
+    public ScheduledExecutorService getExecutor() {
+        return executor;
+    }
+
+    // Implementation methods
+    // -------------------------------------------------------------------------
+
+    /**
+     * lets schedule each time to allow folks to change the time at runtime
+     */
+    protected void schedulePoll() {
+        future = executor.scheduleWithFixedDelay(this, 0, purgePollTime, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * A hook to allow derivations to avoid evicting the current entry
+     */
+    protected boolean isValidForEviction(TimeoutMapEntry<K, V> entry) {
+        return true;
+    }
+
+    public boolean onEviction(K key, V value) {
+        return true;
+    }
+
+    protected void updateExpireTime(TimeoutMapEntry<K, V> entry) {
+        long now = currentTime();
+        entry.setExpireTime(entry.getTimeout() + now);
+    }
+
+    protected long currentTime() {
+        return System.currentTimeMillis();
+    }
+
+    private void cancel(WheelEntry<K, V> entry) {
+        entry.cancelled = true;
+        removed.add(entry);
+    }
+
+    /**
+     * Puts the entry in the slot of the tick it expires, or adds it to the expired entries if it is due
+     */
+    private void schedule(WheelEntry<K, V> entry, List<WheelEntry<K, V>> expired) {
+        if (entry.cancelled || map.get(entry.getKey()) != entry) {
+            // the entry has been removed or replaced in the meantime
+            return;
+        }
+
+        // the entry expires at the first tick after its expire time
+        long deadline = (entry.getExpireTime() - startTime) / purgePollTime + 1;
+        if (deadline <= currentTick) {
+            expired.add(entry);
+            return;
+        }
+
+        // find the lowest level where the deadline is within the current rotation of the wheel
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = WHEEL_BITS * (level + 1);
+            if ((deadline >>> shift) == (currentTick >>> shift)) {
+                link(entry, level, (int) ((deadline >>> (WHEEL_BITS * level)) & WHEEL_MASK));
+                return;
+            }
+        }
+
+        // beyond the range of the timing wheel, so keep it in the last slot of the highest level
+        // from where it will be cascaded again when the time draws near
+        int top = LEVELS - 1;
+        link(entry, top, (int) (((currentTick >>> (WHEEL_BITS * top)) + WHEEL_MASK) & WHEEL_MASK));
+    }
+
+    /**
+     * When a lower level has completed a rotation, the entries in the next slot of the level above are moved down
+     */
+    private void cascade(List<WheelEntry<K, V>> expired) {
+        int highest = 0;
+        while (highest < LEVELS - 1 && (currentTick & ((1L << (WHEEL_BITS * (highest + 1))) - 1)) == 0) {
+            highest++;
+        }
+        // must cascade from the highest level first, as those entries may cascade into lower slots being cascaded next
+        for (int level = highest; level > 0; level--) {
+            WheelEntry<K, V> entry = detach(level, (int) ((currentTick >>> (WHEEL_BITS * level)) & WHEEL_MASK));
+            while (entry != null) {
+                WheelEntry<K, V> next = entry.next;
+                entry.next = null;
+                schedule(entry, expired);
+                entry = next;
+            }
+        }
+    }
+
+    private void evict(List<WheelEntry<K, V>> expired) {
+        // sort according to the expired time so we got the first expired first
+        Collections.sort(expired, new Comparator<WheelEntry<K, V>>() {
+            public int compare(WheelEntry<K, V> a, WheelEntry<K, V> b) {
+                long diff = a.getExpireTime() - b.getExpireTime();
+                if (diff == 0) {
+                    return 0;
+                }
+                return diff > 0 ? 1 : -1;
+            }
+        });
+
+        for (WheelEntry<K, V> entry : expired) {
+            boolean evict = false;
+            if (isValidForEviction(entry)) {
+                log.debug("Evicting inactive entry ID: {}", entry);
+                try {
+                    evict = onEviction(entry.getKey(), entry.getValue());
+                } catch (Throwable t) {
+                    log.warn("Exception happened during eviction of entry ID {}, won't evict and will continue trying: {}",
+                            entry, t);
+                }
+            }
+            if (evict) {
+                // okay this entry should be evicted
+                if (map.remove(entry.getKey(), entry)) {
+                    entry.cancelled = true;
+                }
+            } else if (!entry.cancelled) {
+                // try again at the next tick
+                link(entry, 0, (int) ((currentTick + 1) & WHEEL_MASK));
+            }
+        }
+    }
+
+    private void link(WheelEntry<K, V> entry, int level, int slot) {
+        WheelEntry<K, V> head = wheels[level][slot];
+        entry.level = level;
+        entry.slot = slot;
+        entry.prev = null;
+        entry.next = head;
+        if (head != null) {
+            head.prev = entry;
+        }
+        wheels[level][slot] = entry;
+    }
+
+    private void unlink(WheelEntry<K, V> entry) {
+        if (entry.level < 0) {
+            // not in the timing wheel
+            return;
+        }
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            wheels[entry.level][entry.slot] = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+        entry.prev = null;
+        entry.next = null;
+        entry.level = -1;
+    }
+
+    /**
+     * Removes all the entries from the slot, which are returned linked by their next entry
+     */
+    private WheelEntry<K, V> detach(int level, int slot) {
+        WheelEntry<K, V> head = wheels[level][slot];
+        wheels[level][slot] = null;
+        for (WheelEntry<K, V> entry = head; entry != null; entry = entry.next) {
+            entry.prev = null;
+            entry.level = -1;
+        }
+        return head;
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        if (executor.isShutdown()) {
+            throw new IllegalStateException("The ScheduledExecutorService is shutdown");
+        }
+        schedulePoll();
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        if (future != null) {
+            future.cancel(false);
+            future = null;
+        }
+        // clear map if we stop
+        purgeLock.lock();
+        try {
+            map.clear();
+            added.clear();
+            removed.clear();
+            for (WheelEntry<K, V>[] wheel : wheels) {
+                for (int i = 0; i < wheel.length; i++) {
+                    wheel[i] = null;
+                }
+            }
+            ticking = false;
+        } finally {
+            purgeLock.unlock();
+        }
+    }
+
+    /**
+     * An entry in the timing wheel, which is linked with the other entries in the same slot.
+     */
+    private static final class WheelEntry<K, V> extends TimeoutMapEntry<K, V> {
+        // the expire time is refreshed by the threads looking up the entry
+        private volatile long expireTime;
+        private volatile boolean cancelled;
+        private WheelEntry<K, V> prev;
+        private WheelEntry<K, V> next;
+        private int level = -1;
+        private int slot;
+
+        private WheelEntry(K key, V value, long timeout) {
+            super(key, value, timeout);
+        }
+
+        @Override
+        public long getExpireTime() {
+            return expireTime;
+        }
+
+        @Override
+        public void setExpireTime(long expireTime) {
+            this.expireTime = expireTime;
+        }
+    }
+
+}
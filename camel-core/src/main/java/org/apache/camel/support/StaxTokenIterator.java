@@ -0,0 +1,383 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.support;
+
+import java.io.Closeable;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.camel.converter.jaxp.StaxConverter;
+import org.apache.camel.util.IOHelper;
+import org.apache.camel.util.ObjectHelper;
+
+/**
+ * Iterator used by {@link TokenXMLExpressionIterator} which finds the tokens using a streaming StAX parser
+ * instead of scanning the input with regular expressions.
+ * <p/>
+ * The parser is only used to walk the elements, the tokens themselves are cut from the recorded source text
+ * so they are returned exactly as written. The text is located by following the markup in step with the
+ * parser events, as the character offsets reported by StAX implementations are not precise enough.
+ * Text which has been passed is discarded, so the memory used is bounded by the size of the largest
+ * token and not by the size of the input. The input must be well-formed XML.
+ */
+final class StaxTokenIterator implements Iterator<Object>, Closeable {
+    private static final String OPTION_WRAP_TOKEN = "<*>";
+
+    private final String tagName;
+    private final String inheritName;
+    private final boolean wrap;
+    private final RecordingReader in;
+    private final XMLStreamReader reader;
+    private String namespaces;
+    private boolean inherited;
+    private String wrapHead;
+    private String wrapTail;
+    // the offset in the input up to which the markup has been matched with the parser events
+    private long cursor;
+    // whether the last start element was an empty element, so its end element has no markup of its own
+    private boolean emptyElement;
+    private String image;
+
+    StaxTokenIterator(String tagToken, String inheritNamespaceToken, Reader reader) throws XMLStreamException, IOException {
+        this.tagName = tagToken.substring(1, tagToken.length() - 1);
+        this.wrap = OPTION_WRAP_TOKEN.equals(inheritNamespaceToken);
+        this.inheritName = inheritNamespaceToken != null && !wrap
+            ? inheritNamespaceToken.substring(1, inheritNamespaceToken.length() - 1) : null;
+        this.in = new RecordingReader(reader);
+        // an empty input has no tokens, but the parser would regard it as an error
+        this.reader = in.isBlank() ? null : new StaxConverter().createXMLStreamReader(in);
+        this.image = nextToken();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return image != null;
+    }
+
+    @Override
+    public Object next() {
+        if (image == null) {
+            throw new NoSuchElementException();
+        }
+        String answer = image;
+        try {
+            image = nextToken();
+        } catch (Exception e) {
+            throw ObjectHelper.wrapRuntimeCamelException(e);
+        }
+        return answer;
+    }
+
+    @Override
+    public void remove() {
+        // noop
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (reader != null) {
+            try {
+                reader.close();
+            } catch (XMLStreamException e) {
+                // ignore
+            }
+        }
+        IOHelper.close(in);
+    }
+
+    private String nextToken() throws XMLStreamException {
+        if (reader == null) {
+            return null;
+        }
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                long start = nextStartTag();
+                if (inheritName != null && !inherited && isElement(inheritName)) {
+                    inherited = true;
+                    namespaces = TokenXMLExpressionIterator.getNamespacesFromNamespaceToken(in.substring(start, cursor));
+                }
+                if (isElement(tagName)) {
+                    return getToken(start);
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                nextEndTag();
+            }
+            // the text before the head of the first token must be kept when wrapping
+            if (!wrap || wrapHead != null) {
+                in.discard(cursor);
+            }
+        }
+        return null;
+    }
+
+    private String getToken(long start) throws XMLStreamException {
+        // skip to the matching end element
+        int depth = 0;
+        while (true) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                nextStartTag();
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                nextEndTag();
+                if (depth == 0) {
+                    break;
+                }
+                depth--;
+            }
+        }
+
+        if (wrap && wrapHead == null) {
+            // nothing has been discarded yet, so the text before the first token is the head
+            wrapHead = in.substring(0, start);
+            wrapTail = TokenXMLExpressionIterator.buildXMLTail(wrapHead);
+        }
+        String token = in.substring(start, cursor);
+        in.discard(cursor);
+
+        if (namespaces != null) {
+            return TokenXMLExpressionIterator.inheritNamespaces(token, namespaces);
+        } else if (wrap) {
+            return wrapHead + token + wrapTail;
+        }
+        return token;
+    }
+
+    private boolean isElement(String name) {
+        if (name.indexOf(':') < 0) {
+            // match the element with any namespace prefix
+            return name.equals(reader.getLocalName());
+        }
+        String prefix = reader.getPrefix();
+        String qname = ObjectHelper.isEmpty(prefix) ? reader.getLocalName() : prefix + ":" + reader.getLocalName();
+        return name.equals(qname);
+    }
+
+    /**
+     * Moves the cursor past the start tag of the current start element.
+     *
+     * @return the offset where the start tag begins
+     */
+    private long nextStartTag() {
+        long start = nextTag();
+        // find the closing '>' which is not within a quoted attribute value
+        char quote = 0;
+        long i = start + 1;
+        for (;; i++) {
+            char ch = in.charAt(i);
+            if (quote != 0) {
+                if (ch == quote) {
+                    quote = 0;
+                }
+            } else if (ch == '\'' || ch == '"') {
+                quote = ch;
+            } else if (ch == '>') {
+                break;
+            }
+        }
+        emptyElement = in.charAt(i - 1) == '/';
+        cursor = i + 1;
+        return start;
+    }
+
+    /**
+     * Moves the cursor past the end tag of the current end element.
+     */
+    private void nextEndTag() {
+        if (emptyElement) {
+            // the start tag was the end tag as well
+            emptyElement = false;
+        } else {
+            cursor = in.indexOf(">", nextTag()) + 1;
+        }
+    }
+
+    /**
+     * Finds the next start or end tag from the cursor, skipping any comments, processing instructions,
+     * CDATA sections and document type declaration. The parser has read the text up to the end of the tag
+     * of its current event, so the text is available.
+     *
+     * @return the offset where the tag begins
+     */
+    private long nextTag() {
+        long i = cursor;
+        while (true) {
+            i = in.indexOf("<", i);
+            if (in.startsWith("<!--", i)) {
+                i = in.indexOf("-->", i + 4) + 3;
+            } else if (in.startsWith("<![CDATA[", i)) {
+                i = in.indexOf("]]>", i + 9) + 3;
+            } else if (in.startsWith("<?", i)) {
+                i = in.indexOf("?>", i + 2) + 2;
+            } else if (in.startsWith("<!", i)) {
+                // the document type declaration, which may have an internal subset
+                long end = in.indexOf(">", i);
+                long subset = in.indexOf("[", i);
+                if (subset >= 0 && subset < end) {
+                    end = in.indexOf(">", in.indexOf("]", subset));
+                }
+                i = end + 1;
+            } else {
+                return i;
+            }
+        }
+    }
+
+    /**
+     * Reader which records the text read by the parser so the tokens can be cut from it. The text is addressed
+     * by its offset within the whole input, and the text before a given offset can be discarded.
+     */
+    private static final class RecordingReader extends FilterReader {
+        private char[] buf = new char[8192];
+        // the offset of the first char in the buffer, which is a long as the input may exceed 2GB
+        private long base;
+        // the number of chars in the buffer
+        private int count;
+        // the number of chars in the buffer which have been read, the rest has been looked ahead
+        private int pos;
+
+        RecordingReader(Reader in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            char[] cbuf = new char[1];
+            return read(cbuf, 0, 1) < 0 ? -1 : cbuf[0];
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            if (pos < count) {
+                int n = Math.min(len, count - pos);
+                System.arraycopy(buf, pos, cbuf, off, n);
+                pos += n;
+                return n;
+            }
+            int n = in.read(cbuf, off, len);
+            if (n > 0) {
+                ensureCapacity(count + n);
+                System.arraycopy(cbuf, off, buf, count, n);
+                count += n;
+                pos = count;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            // must pass the skipped text through the buffer
+            char[] cbuf = new char[(int) Math.min(n, 8192)];
+            long skipped = 0;
+            while (skipped < n) {
+                int r = read(cbuf, 0, (int) Math.min(n - skipped, cbuf.length));
+                if (r < 0) {
+                    break;
+                }
+                skipped += r;
+            }
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        /**
+         * Looks ahead whether the remaining input contains only whitespace.
+         */
+        boolean isBlank() throws IOException {
+            int i = pos;
+            while (true) {
+                for (; i < count; i++) {
+                    if (!Character.isWhitespace(buf[i])) {
+                        return false;
+                    }
+                }
+                ensureCapacity(count + 1);
+                int n = in.read(buf, count, buf.length - count);
+                if (n < 0) {
+                    return true;
+                }
+                count += n;
+            }
+        }
+
+        char charAt(long offset) {
+            return buf[(int) (offset - base)];
+        }
+
+        String substring(long start, long end) {
+            return new String(buf, (int) (start - base), (int) (end - start));
+        }
+
+        long indexOf(String str, long offset) {
+            int i = (int) (offset - base);
+            int last = count - str.length();
+            char first = str.charAt(0);
+            for (; i <= last; i++) {
+                if (buf[i] == first && startsWith(str, base + i)) {
+                    return base + i;
+                }
+            }
+            throw new IllegalStateException("Expected " + str + " at offset " + offset);
+        }
+
+        boolean startsWith(String str, long offset) {
+            int i = (int) (offset - base);
+            if (i + str.length() > count) {
+                return false;
+            }
+            for (int j = 0; j < str.length(); j++) {
+                if (buf[i + j] != str.charAt(j)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Discards the text before the given offset. The buffer is only compacted once at least half of it
+         * can be discarded, so the text is not copied over and over again.
+         */
+        void discard(long offset) {
+            int n = (int) Math.min(offset - base, pos);
+            if (n > 0 && n >= buf.length / 2) {
+                System.arraycopy(buf, n, buf, 0, count - n);
+                count -= n;
+                pos -= n;
+                base += n;
+            }
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > buf.length) {
+                char[] b = new char[Math.max(capacity, buf.length * 2)];
+                System.arraycopy(buf, 0, b, 0, count);
+                buf = b;
+            }
+        }
+    }
+}
@@ -19,6 +19,7 @@ package org.apache.camel.support;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -56,12 +57,24 @@ public class TokenXMLExpressionIterator extends ExpressionAdapter {
 
     protected final String tagToken;
     protected final String inheritNamespaceToken;
+    protected final boolean lenient;
 
     public TokenXMLExpressionIterator(String tagToken, String inheritNamespaceToken) {
+        this(tagToken, inheritNamespaceToken, false);
+    }
+
+    /**
+     * @param tagToken              the tag of the elements to find
+     * @param inheritNamespaceToken the optional tag of the parent element to inherit namespaces from
+     * @param lenient               whether to scan the input using regular expressions instead of parsing it,
+     *                              so the input does not have to be well-formed XML
+     */
+    public TokenXMLExpressionIterator(String tagToken, String inheritNamespaceToken, boolean lenient) {
         ObjectHelper.notEmpty(tagToken, "tagToken");
         this.tagToken = tagToken;
         // namespace token is optional
         this.inheritNamespaceToken = inheritNamespaceToken;
+        this.lenient = lenient;
 
         // must be XML tokens
         if (!tagToken.startsWith("<") || !tagToken.endsWith(">")) {
@@ -72,7 +85,29 @@ public class TokenXMLExpressionIterator extends ExpressionAdapter {
         }
     }
 
+    /**
+     * Creates the iterator which walks the input stream.
+     * <p/>
+     * The elements are found using a streaming StAX parser, which requires the input to be well-formed XML,
+     * and fails on input which is not. Earlier releases scanned the input using regular expressions, which
+     * tolerates such input, and which is still used when this expression is lenient.
+     */
     protected Iterator<?> createIterator(InputStream in, String charset) {
+        if (lenient) {
+            return createScannerIterator(in, charset);
+        }
+        try {
+            return new StaxTokenIterator(tagToken, inheritNamespaceToken, new InputStreamReader(in, charset));
+        } catch (Exception e) {
+            throw ObjectHelper.wrapRuntimeCamelException(e);
+        }
+    }
+
+    /**
+     * Creates the iterator which walks the input stream by scanning it using regular expressions,
+     * which is used when this expression is lenient, as the input does not have to be well-formed XML.
+     */
+    protected Iterator<?> createScannerIterator(InputStream in, String charset) {
         XMLTokenIterator iterator = new XMLTokenIterator(tagToken, inheritNamespaceToken, in, charset);
         iterator.init();
         return iterator;
@@ -188,19 +223,7 @@ public class TokenXMLExpressionIterator extends ExpressionAdapter {
 
             // build answer accordingly to whether namespaces should be inherited or not
             if (inheritNamespaceToken != null && rootTokenNamespaces != null) {
-                // REVISIT should skip the prefixes that are declared within the child itself.
-                String head = ObjectHelper.before(next, ">");
-                boolean empty = false;
-                if (head.endsWith("/")) {
-                    head = head.substring(0, head.length() - 1);
-                    empty = true;
-                }
-                StringBuilder sb = new StringBuilder();
-                // append root namespaces to local start token
-                // grab the text
-                String tail = ObjectHelper.after(next, ">");
-                // build result with inherited namespaces
-                next = sb.append(head).append(rootTokenNamespaces).append(empty ? "/>" : ">").append(tail).toString();
+                next = inheritNamespaces(next, rootTokenNamespaces);
             } else if (wrapToken) {
                 // wrap the token
                 StringBuilder sb = new StringBuilder();
@@ -210,47 +233,6 @@ public class TokenXMLExpressionIterator extends ExpressionAdapter {
             return next;
         }
 
-        private String getNamespacesFromNamespaceToken(String text) {
-            if (text == null) {
-                return null;
-            }
-
-            // find namespaces (there can be attributes mixed, so we should only grab the namespaces)
-            Map<String, String> namespaces = new LinkedHashMap<String, String>();
-            Matcher matcher = NAMESPACE_PATTERN.matcher(text);
-            while (matcher.find()) {
-                String prefix = matcher.group(1);
-                String url = matcher.group(2);
-                if (ObjectHelper.isEmpty(prefix)) {
-                    prefix = "_DEFAULT_";
-                } else {
-                    // skip leading :
-                    prefix = prefix.substring(1);
-                }
-                namespaces.put(prefix, url);
-            }
-
-            // did we find any namespaces
-            if (namespaces.isEmpty()) {
-                return null;
-            }
-
-            // build namespace String
-            StringBuilder sb = new StringBuilder();
-            for (Map.Entry<String, String> entry : namespaces.entrySet()) {
-                String key = entry.getKey();
-                // note the value is already quoted
-                String value = entry.getValue();
-                if ("_DEFAULT_".equals(key)) {
-                    sb.append(" xmlns=").append(value);
-                } else {
-                    sb.append(" xmlns:").append(key).append("=").append(value);
-                }
-            }
-
-            return sb.toString();
-        }
-        
         @Override
         public boolean hasNext() {
             return image != null;
@@ -289,7 +271,64 @@ public class TokenXMLExpressionIterator extends ExpressionAdapter {
 
     }
 
-    private static String buildXMLTail(String xmlhead) {
+    static String getNamespacesFromNamespaceToken(String text) {
+        if (text == null) {
+            return null;
+        }
+
+        // find namespaces (there can be attributes mixed, so we should only grab the namespaces)
+        Map<String, String> namespaces = new LinkedHashMap<String, String>();
+        Matcher matcher = NAMESPACE_PATTERN.matcher(text);
+        while (matcher.find()) {
+            String prefix = matcher.group(1);
+            String url = matcher.group(2);
+            if (ObjectHelper.isEmpty(prefix)) {
+                prefix = "_DEFAULT_";
+            } else {
+                // skip leading :
+                prefix = prefix.substring(1);
+            }
+            namespaces.put(prefix, url);
+        }
+
+        // did we find any namespaces
+        if (namespaces.isEmpty()) {
+            return null;
+        }
+
+        // build namespace String
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, String> entry : namespaces.entrySet()) {
+            String key = entry.getKey();
+            // note the value is already quoted
+            String value = entry.getValue();
+            if ("_DEFAULT_".equals(key)) {
+                sb.append(" xmlns=").append(value);
+            } else {
+                sb.append(" xmlns:").append(key).append("=").append(value);
+            }
+        }
+
+        return sb.toString();
+    }
+
+    static String inheritNamespaces(String token, String namespaces) {
+        // REVISIT should skip the prefixes that are declared within the child itself.
+        String head = ObjectHelper.before(token, ">");
+        boolean empty = false;
+        if (head.endsWith("/")) {
+            head = head.substring(0, head.length() - 1);
+            empty = true;
+        }
+        StringBuilder sb = new StringBuilder();
+        // append root namespaces to local start token
+        // grab the text
+        String tail = ObjectHelper.after(token, ">");
+        // build result with inherited namespaces
+        return sb.append(head).append(namespaces).append(empty ? "/>" : ">").append(tail).toString();
+    }
+
+    static String buildXMLTail(String xmlhead) {
         // assume the input text is a portion of a well-formed xml
         List<String> tags = new ArrayList<String>();
         int p = 0;
@@ -0,0 +1,557 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.util;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.apache.camel.Exchange;
+
+/**
+ * A map that uses case insensitive keys, but preserves the original key cases, with the same semantics as
+ * {@link CaseInsensitiveMap} but using a hash table for O(1) lookup.
+ * <p/>
+ * The entries are stored in flat arrays together with their case-folded hash which is computed once
+ * when the key is added, so adding and looking up headers do not allocate any objects. Keys which are
+ * equal to one of the well known header keys from {@link Exchange} are interned to the constant, so the
+ * key lookups by the routing engine using the constants are mostly resolved by identity.
+ * <p/>
+ * Copying this map by the constructor or by {@link #putAll(Map)} into an empty map is copy-on-write: the copy shares
+ * the entries of the source map until either map is modified, which then copies the entries first.
+ * This makes copying exchanges cheap as most copies are never modified.
+ * <p/>
+ * Iterating the map returns the entries in case insensitive order, the same as {@link CaseInsensitiveMap} does.
+ * <p/>
+ * This map is <b>not</b> designed to be thread safe as concurrent access to it is not supposed to be performed
+ * by the Camel routing engine. However copies sharing their entries can safely be used by different threads.
+ */
+public class CaseInsensitiveHashMap extends AbstractMap<String, Object> implements Serializable {
+
+    private static final long serialVersionUID = 4510470209497446516L;
+    private static final int DEFAULT_CAPACITY = 8;
+    private static final Map<String, String> KNOWN_KEYS = knownKeys();
+
+    // the entries in the order they were added, and an open addressing index with entry position + 1
+    private transient String[] keys;
+    private transient Object[] values;
+    private transient int[] hashes;
+    private transient int[] index;
+    private transient int size;
+    // whether the arrays are shared with a copy and must be copied before being modified
+    private transient boolean shared;
+    private transient int modCount;
+    // the entries sorted in case insensitive order, which are never modified once created
+    private transient String[] sortedKeys;
+    private transient Object[] sortedValues;
+    private transient Set<Map.Entry<String, Object>> entrySet;
+    private transient Set<String> keySet;
+
+    public CaseInsensitiveHashMap() {
+    }
+
+    public CaseInsensitiveHashMap(Map<? extends String, ?> map) {
+        putAll(map);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (size == 0 || !(key instanceof String)) {
+            return null;
+        }
+        int pos = indexOf((String) key, hash((String) key));
+        return pos < 0 ? null : values[pos];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (size == 0 || !(key instanceof String)) {
+            return false;
+        }
+        return indexOf((String) key, hash((String) key)) >= 0;
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        if (key == null) {
+            throw new NullPointerException("key");
+        }
+        int hash = hash(key);
+        int pos = size == 0 ? -1 : indexOf(key, hash);
+        if (pos >= 0) {
+            // keep the existing key case as the tree map does
+            ensureWritable();
+            Object answer = values[pos];
+            values[pos] = value;
+            sortedKeys = null;
+            sortedValues = null;
+            return answer;
+        }
+
+        ensureWritable();
+        if (size == keys.length) {
+            resize(keys.length * 2);
+        }
+        pos = size++;
+        keys[pos] = intern(key);
+        values[pos] = value;
+        hashes[pos] = hash;
+        index[freeSlot(hash)] = pos + 1;
+        modified();
+        return null;
+    }
+
+    @Override
+    public void putAll(Map<? extends String, ?> map) {
+        if (map == this || map.isEmpty()) {
+            return;
+        }
+        if (size == 0 && map instanceof CaseInsensitiveHashMap) {
+            // share the entries until either map is modified
+            CaseInsensitiveHashMap other = (CaseInsensitiveHashMap) map;
+            other.shared = true;
+            shared = true;
+            keys = other.keys;
+            values = other.values;
+            hashes = other.hashes;
+            index = other.index;
+            size = other.size;
+            sortedKeys = other.sortedKeys;
+            sortedValues = other.sortedValues;
+            modCount++;
+            return;
+        }
+        for (Map.Entry<? extends String, ?> entry : map.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public Object remove(Object key) {
+        if (size == 0 || !(key instanceof String)) {
+            return null;
+        }
+        int hash = hash((String) key);
+        int slot = slotOf((String) key, hash);
+        if (slot < 0) {
+            return null;
+        }
+
+        ensureWritable();
+        int pos = index[slot] - 1;
+        Object answer = values[pos];
+        deleteSlot(slot);
+
+        // move the last entry into the hole so the entries are kept dense
+        int last = size - 1;
+        if (pos != last) {
+            int lastSlot = hashes[last] & (index.length - 1);
+            while (index[lastSlot] != last + 1) {
+                lastSlot = (lastSlot + 1) & (index.length - 1);
+            }
+            index[lastSlot] = pos + 1;
+            keys[pos] = keys[last];
+            values[pos] = values[last];
+            hashes[pos] = hashes[last];
+        }
+        keys[last] = null;
+        values[last] = null;
+        size--;
+        modified();
+        return answer;
+    }
+
+    @Override
+    public void clear() {
+        if (size == 0) {
+            return;
+        }
+        if (shared) {
+            // the arrays belong to a copy as well so just let go of them
+            keys = null;
+            values = null;
+            hashes = null;
+            index = null;
+            shared = false;
+        } else {
+            Arrays.fill(keys, 0, size, null);
+            Arrays.fill(values, 0, size, null);
+            Arrays.fill(index, 0);
+        }
+        size = 0;
+        modified();
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    @Override
+    public Set<String> keySet() {
+        if (keySet == null) {
+            keySet = new KeySet();
+        }
+        return keySet;
+    }
+
+    /**
+     * Computes the hash of the key folded to the same case as {@link String#CASE_INSENSITIVE_ORDER} compares
+     */
+    static int hash(String key) {
+        int h = 0;
+        for (int i = 0; i < key.length(); i++) {
+            h = 31 * h + fold(key.charAt(i));
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static char fold(char c) {
+        if (c < 128) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + 32) : c;
+        }
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private static boolean equalsFolded(String a, String b) {
+        if (a == b) {
+            return true;
+        }
+        int len = a.length();
+        if (len != b.length()) {
+            return false;
+        }
+        for (int i = 0; i < len; i++) {
+            char c1 = a.charAt(i);
+            char c2 = b.charAt(i);
+            if (c1 != c2 && fold(c1) != fold(c2)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String intern(String key) {
+        String known = KNOWN_KEYS.get(key);
+        return known != null ? known : key;
+    }
+
+    private static Map<String, String> knownKeys() {
+        Map<String, String> answer = new HashMap<String, String>();
+        for (Field field : Exchange.class.getFields()) {
+            if (field.getType() == String.class && Modifier.isStatic(field.getModifiers())) {
+                try {
+                    String key = (String) field.get(null);
+                    answer.put(key, key);
+                } catch (IllegalAccessException e) {
+                    // ignore as the constants are public
+                }
+            }
+        }
+        return answer;
+    }
+
+    private int indexOf(String key, int hash) {
+        int slot = slotOf(key, hash);
+        return slot < 0 ? -1 : index[slot] - 1;
+    }
+
+    private int slotOf(String key, int hash) {
+        int mask = index.length - 1;
+        int slot = hash & mask;
+        int pos;
+        while ((pos = index[slot]) != 0) {
+            pos--;
+            if (hashes[pos] == hash && equalsFolded(keys[pos], key)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int freeSlot(int hash) {
+        int mask = index.length - 1;
+        int slot = hash & mask;
+        while (index[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void deleteSlot(int slot) {
+        // backward shift deletion so the probe sequences of the remaining entries stay intact
+        int mask = index.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (index[next] != 0) {
+            int ideal = hashes[index[next] - 1] & mask;
+            if (((next - ideal) & mask) >= ((next - hole) & mask)) {
+                index[hole] = index[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        index[hole] = 0;
+    }
+
+    private void ensureWritable() {
+        if (keys == null) {
+            keys = new String[DEFAULT_CAPACITY];
+            values = new Object[DEFAULT_CAPACITY];
+            hashes = new int[DEFAULT_CAPACITY];
+            index = new int[DEFAULT_CAPACITY * 2];
+        } else if (shared) {
+            keys = keys.clone();
+            values = values.clone();
+            hashes = hashes.clone();
+            index = index.clone();
+            shared = false;
+        }
+    }
+
+    private void resize(int capacity) {
+        keys = Arrays.copyOf(keys, capacity);
+        values = Arrays.copyOf(values, capacity);
+        hashes = Arrays.copyOf(hashes, capacity);
+        index = new int[capacity * 2];
+        for (int i = 0; i < size; i++) {
+            index[freeSlot(hashes[i])] = i + 1;
+        }
+    }
+
+    private void modified() {
+        modCount++;
+        sortedKeys = null;
+        sortedValues = null;
+    }
+
+    private void sort() {
+        String[] sk = new String[size];
+        Object[] sv = new Object[size];
+        // binary insertion sort as there are usually only a few headers
+        for (int i = 0; i < size; i++) {
+            String key = keys[i];
+            int low = 0;
+            int high = i;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (String.CASE_INSENSITIVE_ORDER.compare(sk[mid], key) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            System.arraycopy(sk, low, sk, low + 1, i - low);
+            System.arraycopy(sv, low, sv, low + 1, i - low);
+            sk[low] = key;
+            sv[low] = values[i];
+        }
+        sortedKeys = sk;
+        sortedValues = sv;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(size);
+        for (Map.Entry<String, Object> entry : entrySet()) {
+            out.writeObject(entry.getKey());
+            out.writeObject(entry.getValue());
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            put((String) in.readObject(), in.readObject());
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<String, Object>> {
+        private final String[] keys;
+        private final Object[] values;
+        private int expectedModCount = modCount;
+        private int next;
+        private String last;
+
+        EntryIterator() {
+            if (sortedKeys == null) {
+                sort();
+            }
+            keys = sortedKeys;
+            values = sortedValues;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < keys.length;
+        }
+
+        @Override
+        public Map.Entry<String, Object> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next >= keys.length) {
+                throw new NoSuchElementException();
+            }
+            last = keys[next];
+            Map.Entry<String, Object> answer = new Entry(last, values[next]);
+            next++;
+            return answer;
+        }
+
+        @Override
+        public void remove() {
+            if (last == null) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            CaseInsensitiveHashMap.this.remove(last);
+            expectedModCount = modCount;
+            last = null;
+        }
+    }
+
+    private final class Entry extends SimpleEntry<String, Object> {
+        private static final long serialVersionUID = 1L;
+
+        Entry(String key, Object value) {
+            super(key, value);
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            put(getKey(), value);
+            return super.setValue(value);
+        }
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<String, Object>> {
+
+        @Override
+        public Iterator<Map.Entry<String, Object>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+            Object key = entry.getKey();
+            if (!containsKey(key)) {
+                return false;
+            }
+            Object value = get(key);
+            return value == null ? entry.getValue() == null : value.equals(entry.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (contains(o)) {
+                CaseInsensitiveHashMap.this.remove(((Map.Entry<?, ?>) o).getKey());
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void clear() {
+            CaseInsensitiveHashMap.this.clear();
+        }
+    }
+
+    private final class KeySet extends AbstractSet<String> {
+
+        @Override
+        public Iterator<String> iterator() {
+            final Iterator<Map.Entry<String, Object>> it = new EntryIterator();
+            return new Iterator<String>() {
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+
+                public String next() {
+                    return it.next().getKey();
+                }
+
+                public void remove() {
+                    it.remove();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsKey(o);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (containsKey(o)) {
+                CaseInsensitiveHashMap.this.remove(o);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void clear() {
+            CaseInsensitiveHashMap.this.clear();
+        }
+    }
+}
@@ -30,6 +30,9 @@ import java.io.OutputStream;
 import java.io.Reader;
 import java.io.UnsupportedEncodingException;
 import java.io.Writer;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.UnsupportedCharsetException;
@@ -401,6 +404,41 @@ public final class IOHelper {
         }
     }
 
+    /**
+     * Releases a direct or memory mapped buffer straight away, instead of when it is garbage collected,
+     * which for a memory mapped buffer also releases the file, so it can be deleted on all platforms.
+     * <p/>
+     * The buffer, and any slices or duplicates of it, must not be used afterwards. Nothing happens if the buffer
+     * is not direct, or if it cannot be released on this JVM, in which case it is released when garbage collected.
+     *
+     * @param buffer the buffer, which must not be a slice or duplicate of another buffer
+     */
+    public static void unmap(ByteBuffer buffer) {
+        if (buffer == null || !buffer.isDirect()) {
+            return;
+        }
+        try {
+            try {
+                // java 9 onwards
+                Class<?> type = Class.forName("sun.misc.Unsafe");
+                Method clean = type.getMethod("invokeCleaner", ByteBuffer.class);
+                Field field = type.getDeclaredField("theUnsafe");
+                field.setAccessible(true);
+                clean.invoke(field.get(null), buffer);
+            } catch (NoSuchMethodException e) {
+                // java 7 and 8
+                Method cleaner = buffer.getClass().getMethod("cleaner");
+                cleaner.setAccessible(true);
+                Object answer = cleaner.invoke(buffer);
+                if (answer != null) {
+                    answer.getClass().getMethod("clean").invoke(answer);
+                }
+            }
+        } catch (Throwable e) {
+            LOG.debug("Cannot unmap buffer, it will be released when garbage collected. This exception is ignored.", e);
+        }
+    }
+
     public static void validateCharset(String charset) throws UnsupportedCharsetException {
         if (charset != null) {
             if (Charset.isSupported(charset)) {
@@ -22,6 +22,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -36,6 +37,7 @@ import org.apache.camel.MessageHistory;
 import org.apache.camel.StreamCache;
 import org.apache.camel.StringSource;
 import org.apache.camel.WrappedFile;
+import org.apache.camel.impl.CompactMessageHistory;
 import org.apache.camel.spi.ExchangeFormatter;
 import org.apache.camel.spi.HeaderFilterStrategy;
 
@@ -501,6 +503,19 @@ public final class MessageHelper {
         }
     }
 
+    /**
+     * Creates a defensive copy of the {@link MessageHistory} of an {@link Exchange}, to be used by a copy of the exchange.
+     *
+     * @param history the message history
+     * @return the copy
+     */
+    public static List<MessageHistory> copyMessageHistory(List<MessageHistory> history) {
+        if (history instanceof CompactMessageHistory) {
+            return ((CompactMessageHistory) history).copy();
+        }
+        return new ArrayList<MessageHistory>(history);
+    }
+
     /**
      * Dumps the {@link MessageHistory} from the {@link Exchange} in a human readable format.
      *
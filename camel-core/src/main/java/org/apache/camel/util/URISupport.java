@@ -22,6 +22,7 @@ import java.net.URISyntaxException;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -530,6 +531,11 @@ public final class URISupport {
      * @see #RAW_TOKEN_END
      */
     public static String normalizeUri(String uri) throws URISyntaxException, UnsupportedEncodingException {
+        // most uris need no encoding, and can be normalized without parsing them as an URI
+        String simple = normalizeSimpleUri(uri);
+        if (simple != null) {
+            return simple;
+        }
 
         URI u = new URI(UnsafeUriCharactersEncoder.encode(uri, true));
         String path = u.getSchemeSpecificPart();
@@ -596,6 +602,138 @@ public final class URISupport {
         }
     }
 
+    /**
+     * Normalizes the uri the same way as {@link #normalizeUri(String)}, but without parsing the uri, if the uri only
+     * consists of letters, digits and the characters <tt>.-_</tt>, with <tt>:/</tt> in the path and <tt>?&=</tt>
+     * separating unique parameters.
+     * <p/>
+     * Such uris need no encoding or decoding, and an uri which is already normalized is returned as is.
+     *
+     * @param uri the uri
+     * @return the normalized uri, or <tt>null</tt> if the uri is not simple and must be normalized by parsing it
+     */
+    static String normalizeSimpleUri(String uri) {
+        int length = uri.length();
+        int colon = uri.indexOf(':');
+        if (colon <= 0 || !isAsciiLetter(uri.charAt(0))) {
+            return null;
+        }
+        for (int i = 1; i < colon; i++) {
+            char ch = uri.charAt(i);
+            if (!isAsciiLetter(ch) && !isAsciiDigit(ch) && ch != '.' && ch != '-') {
+                return null;
+            }
+        }
+
+        boolean slashes = uri.startsWith("//", colon + 1);
+        int pathStart = slashes ? colon + 3 : colon + 1;
+        int pathEnd = pathStart;
+        while (pathEnd < length && uri.charAt(pathEnd) != '?') {
+            char ch = uri.charAt(pathEnd);
+            if (!isSimpleUriCharacter(ch) && ch != ':' && ch != '/') {
+                return null;
+            }
+            pathEnd++;
+        }
+        if (pathEnd == pathStart) {
+            return null;
+        }
+
+        if (pathEnd == length) {
+            return slashes ? uri : uri.substring(0, colon + 1) + "//" + uri.substring(pathStart);
+        }
+
+        // the start and end of the parameters, and the index of their = sign
+        int[] parameters = new int[12];
+        int count = 0;
+        int start = pathEnd + 1;
+        while (start <= length) {
+            int end = start;
+            int equals = -1;
+            while (end < length && uri.charAt(end) != '&') {
+                char ch = uri.charAt(end);
+                if (ch == '=' && equals < 0) {
+                    equals = end;
+                } else if (!isSimpleUriCharacter(ch)) {
+                    return null;
+                }
+                end++;
+            }
+            if (equals <= start || equals == end - 1) {
+                // no key or no value
+                return null;
+            }
+            if (count * 3 == parameters.length) {
+                parameters = Arrays.copyOf(parameters, parameters.length * 2);
+            }
+            parameters[count * 3] = start;
+            parameters[count * 3 + 1] = equals;
+            parameters[count * 3 + 2] = end;
+            count++;
+            start = end + 1;
+        }
+
+        // sort the parameters by their keys, and check the keys are unique
+        boolean sorted = true;
+        for (int i = 1; i < count; i++) {
+            int j = i;
+            int compare;
+            while (j > 0 && (compare = compareKeys(uri, parameters, j - 1, j)) >= 0) {
+                if (compare == 0) {
+                    return null;
+                }
+                swapParameters(parameters, j - 1, j);
+                sorted = false;
+                j--;
+            }
+        }
+        if (sorted && slashes) {
+            return uri;
+        }
+
+        StringBuilder sb = new StringBuilder(length + 2);
+        sb.append(uri, 0, colon + 1).append("//").append(uri, pathStart, pathEnd);
+        for (int i = 0; i < count; i++) {
+            sb.append(i == 0 ? '?' : '&').append(uri, parameters[i * 3], parameters[i * 3 + 2]);
+        }
+        return sb.toString();
+    }
+
+    private static int compareKeys(String uri, int[] parameters, int a, int b) {
+        int aStart = parameters[a * 3];
+        int aLength = parameters[a * 3 + 1] - aStart;
+        int bStart = parameters[b * 3];
+        int bLength = parameters[b * 3 + 1] - bStart;
+        int min = Math.min(aLength, bLength);
+        for (int i = 0; i < min; i++) {
+            int diff = uri.charAt(aStart + i) - uri.charAt(bStart + i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return aLength - bLength;
+    }
+
+    private static void swapParameters(int[] parameters, int a, int b) {
+        for (int i = 0; i < 3; i++) {
+            int tmp = parameters[a * 3 + i];
+            parameters[a * 3 + i] = parameters[b * 3 + i];
+            parameters[b * 3 + i] = tmp;
+        }
+    }
+
+    private static boolean isSimpleUriCharacter(char ch) {
+        return isAsciiLetter(ch) || isAsciiDigit(ch) || ch == '.' || ch == '-' || ch == '_';
+    }
+
+    private static boolean isAsciiLetter(char ch) {
+        return (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z');
+    }
+
+    private static boolean isAsciiDigit(char ch) {
+        return ch >= '0' && ch <= '9';
+    }
+
     private static String buildUri(String scheme, String path, String query) {
         // must include :// to do a correct URI all components can work with
         return scheme + "://" + path + (query != null ? "?" + query : "");
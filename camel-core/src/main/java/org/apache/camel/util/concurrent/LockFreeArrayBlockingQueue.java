@@ -0,0 +1,361 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.util.concurrent;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.camel.util.ObjectHelper;
+
+/**
+ * A bounded {@link BlockingQueue} which multiple producers and consumers can use without locking.
+ * <p/>
+ * The elements are kept in a ring of slots, each with a sequence number telling whether the slot is ready
+ * to be written or read in the current lap around the ring, so producers and consumers only contend on a
+ * compare-and-set of the tail and head counters. A slot is free for position <tt>pos</tt> when its sequence
+ * is <tt>2 * pos</tt> and holds the element of that position when it is <tt>2 * pos + 1</tt>, which keeps
+ * the states apart even when the capacity is one.
+ * <p/>
+ * Threads which have to wait for an element or for room first spin, then yield and finally park until they
+ * are woken up by the other side. How long to spin adapts to whether spinning paid off recently, so idle
+ * queues do not burn CPU while busy queues avoid the cost of parking and waking up threads.
+ * <p/>
+ * {@link #remove(Object)} marks the element as removed, so it takes up its slot until it is polled.
+ * The iterator is weakly consistent and does not support removal.
+ *
+ * @param <E> the element type
+ */
+public class LockFreeArrayBlockingQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+    private static final Object REMOVED = new Object();
+    private static final int MIN_SPINS = 16;
+    private static final int MAX_SPINS = 4096;
+    private static final int YIELDS = 16;
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<Object> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final Queue<Thread> notEmptyWaiters = new ConcurrentLinkedQueue<Thread>();
+    private final Queue<Thread> notFullWaiters = new ConcurrentLinkedQueue<Thread>();
+    private volatile int spins = MIN_SPINS * 4;
+
+    public LockFreeArrayBlockingQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive, was: " + capacity);
+        }
+        this.capacity = capacity;
+        this.mask = Integer.bitCount(capacity) == 1 ? capacity - 1 : -1;
+        this.elements = new AtomicReferenceArray<Object>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, 2L * i);
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public boolean offer(E e) {
+        ObjectHelper.notNull(e, "element");
+        long pos = tail.get();
+        while (true) {
+            int index = index(pos);
+            long diff = sequences.get(index) - 2 * pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    elements.set(index, e);
+                    // publish the element to the consumers
+                    sequences.set(index, 2 * pos + 1);
+                    signal(notEmptyWaiters);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                // the slot has not been polled since the previous lap, so we are full
+                return false;
+            } else {
+                // another producer took the slot
+                pos = tail.get();
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        while (true) {
+            Object e = pollSlot();
+            if (e != REMOVED) {
+                return (E) e;
+            }
+        }
+    }
+
+    private Object pollSlot() {
+        long pos = head.get();
+        while (true) {
+            int index = index(pos);
+            long diff = sequences.get(index) - (2 * pos + 1);
+            if (diff == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    // get and clear at once, as remove may mark the element concurrently
+                    Object e = elements.getAndSet(index, null);
+                    // release the slot to the producers of the next lap
+                    sequences.set(index, 2 * (pos + capacity));
+                    signal(notFullWaiters);
+                    return e;
+                }
+                pos = head.get();
+            } else if (diff < 0) {
+                // the slot has not been published yet, so we are empty
+                return null;
+            } else {
+                // another consumer took the slot
+                pos = head.get();
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        while (true) {
+            long pos = head.get();
+            int index = index(pos);
+            Object e = elements.get(index);
+            if (e != REMOVED) {
+                if (pos == head.get()) {
+                    return (E) e;
+                }
+            } else if (sequences.get(index) == 2 * pos + 1 && head.compareAndSet(pos, pos + 1)) {
+                // skip the removed element
+                elements.set(index, null);
+                sequences.set(index, 2 * (pos + capacity));
+                signal(notFullWaiters);
+            }
+        }
+    }
+
+    @Override
+    public void put(E e) throws InterruptedException {
+        offer(e, false, 0);
+    }
+
+    @Override
+    public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+        return offer(e, true, unit.toNanos(timeout));
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        return poll(false, 0);
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        return poll(true, unit.toNanos(timeout));
+    }
+
+    private boolean offer(E e, boolean timed, long nanos) throws InterruptedException {
+        if (offer(e)) {
+            return true;
+        }
+        long deadline = timed ? System.nanoTime() + nanos : 0L;
+        int limit = spins;
+        int waited = 0;
+        while (true) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (!await(notFullWaiters, waited++, limit, timed, deadline, false)) {
+                return false;
+            }
+            if (offer(e)) {
+                adapt(waited <= limit);
+                return true;
+            }
+        }
+    }
+
+    private E poll(boolean timed, long nanos) throws InterruptedException {
+        E e = poll();
+        if (e != null) {
+            return e;
+        }
+        long deadline = timed ? System.nanoTime() + nanos : 0L;
+        int limit = spins;
+        int waited = 0;
+        while (true) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (!await(notEmptyWaiters, waited++, limit, timed, deadline, true)) {
+                return null;
+            }
+            e = poll();
+            if (e != null) {
+                adapt(waited <= limit);
+                return e;
+            }
+        }
+    }
+
+    /**
+     * Waits a bit before trying again, by spinning, yielding or parking depending on how long we have waited.
+     *
+     * @return <tt>false</tt> if the timeout has elapsed
+     */
+    private boolean await(Queue<Thread> waiters, int waited, int limit, boolean timed, long deadline, boolean forElement) {
+        long remaining = timed ? deadline - System.nanoTime() : Long.MAX_VALUE;
+        if (remaining <= 0) {
+            return false;
+        }
+        if (waited < limit) {
+            return true;
+        } else if (waited < limit + YIELDS) {
+            Thread.yield();
+            return true;
+        }
+        Thread current = Thread.currentThread();
+        waiters.add(current);
+        try {
+            // check again after registering as waiter, as the other side may have signalled before we registered
+            boolean wait = forElement ? isEmpty() : size() >= capacity;
+            if (wait) {
+                if (timed) {
+                    LockSupport.parkNanos(this, remaining);
+                } else {
+                    LockSupport.park(this);
+                }
+            }
+        } finally {
+            waiters.remove(current);
+        }
+        return true;
+    }
+
+    private void adapt(boolean spinning) {
+        // racy updates are fine as this is just a hint
+        int current = spins;
+        if (spinning) {
+            spins = Math.min(current * 2, MAX_SPINS);
+        } else {
+            spins = Math.max(current / 2, MIN_SPINS);
+        }
+    }
+
+    private static void signal(Queue<Thread> waiters) {
+        Thread waiter = waiters.poll();
+        if (waiter != null) {
+            LockSupport.unpark(waiter);
+        }
+    }
+
+    private int index(long pos) {
+        return mask >= 0 ? (int) (pos & mask) : (int) (pos % capacity);
+    }
+
+    @Override
+    public int size() {
+        while (true) {
+            long h = head.get();
+            long t = tail.get();
+            if (h == head.get()) {
+                return (int) Math.max(0, Math.min(t - h, capacity));
+            }
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return capacity - size();
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o == null) {
+            return false;
+        }
+        long t = tail.get();
+        for (long pos = head.get(); pos < t; pos++) {
+            int index = index(pos);
+            Object e = elements.get(index);
+            if (e != null && e != REMOVED && o.equals(e) && elements.compareAndSet(index, e, REMOVED)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        ObjectHelper.notNull(c, "collection");
+        if (c == this) {
+            throw new IllegalArgumentException("Cannot drain to itself");
+        }
+        int n = 0;
+        while (n < maxElements) {
+            E e = poll();
+            if (e == null) {
+                break;
+            }
+            c.add(e);
+            n++;
+        }
+        return n;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Iterator<E> iterator() {
+        List<E> answer = new ArrayList<E>();
+        long t = tail.get();
+        for (long pos = Math.max(head.get(), t - capacity); pos < t; pos++) {
+            Object e = elements.get(index(pos));
+            if (e != null && e != REMOVED) {
+                answer.add((E) e);
+            }
+        }
+        return Collections.unmodifiableList(answer).iterator();
+    }
+}
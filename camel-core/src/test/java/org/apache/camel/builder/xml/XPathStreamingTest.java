@@ -0,0 +1,159 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.builder.xml;
+
+import java.io.ByteArrayInputStream;
+import javax.xml.xpath.XPathFactory;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.model.language.XPathExpression;
+
+import static org.apache.camel.builder.xml.XPathBuilder.xpath;
+
+/**
+ * Tests evaluating simple location paths by streaming gives the same results as the XPath engine.
+ */
+public class XPathStreamingTest extends ContextTestSupport {
+
+    private static final String ORDER = "<?xml version='1.0'?>"
+            + "<!-- orders --><orders xmlns:c='http://camel.apache.org/customer'>"
+            + "<order id='1'><customer c:type='silver'>Donald <b>Duck</b></customer><amount>10</amount></order>"
+            + "<order id='2'><customer c:type='gold'>Scrooge<!-- rich -->McDuck</customer><amount>99</amount></order>"
+            + "<order id='3'><customer><![CDATA[Goofy]]> &amp; Pluto</customer><amount/></order>"
+            + "</orders>";
+
+    private static final String[] EXPRESSIONS = {
+        "/orders",
+        "/order",
+        "/*",
+        "/orders/order",
+        "/orders/order/@id",
+        "/orders/order/@id = '2'",
+        "/orders/order/@id != '1'",
+        "/orders/order/@id = '4'",
+        "/orders/order[2]/customer",
+        "/orders/order[3]/customer",
+        "/orders/order[4]/customer",
+        "/orders/order[@id='2']/amount = '99'",
+        "/orders/order[@id = \"3\"]/amount",
+        "/orders/order[@id]/amount = ''",
+        "/orders/*/customer = 'Donald Duck'",
+        "/orders/order/customer = 'ScroogeMcDuck'",
+        "/orders/order/customer = 'Goofy & Pluto'",
+        "/orders/order/customer/text()",
+        "/orders/order/customer/text() = 'Duck'",
+        "/orders/order/customer/text() = 'McDuck'",
+        "/orders/order/customer/text() = 'Scrooge'",
+        "/orders/order/customer/text() = 'Donald '",
+        "/orders/order/customer/@c:type = 'gold'",
+        "/orders/order/customer[@c:type='gold'] = 'ScroogeMcDuck'",
+        "/orders/order/customer/@type",
+        "/orders/order/amount/text() = ''",
+        "/orders/order/amount = ''",
+    };
+
+    public void testCompile() throws Exception {
+        DefaultNamespaceContext context = new DefaultNamespaceContext();
+        context.add("c", "http://camel.apache.org/customer");
+
+        assertNotNull(StreamingXPathExpression.compile("/orders/order[1]/customer/@c:type = 'gold'", context));
+        assertNotNull(StreamingXPathExpression.compile(" /orders / order [ @id = '1' ] / text() != \"x\" ", context));
+        assertNotNull(StreamingXPathExpression.compile("/*/*[2]", context));
+
+        assertNull(StreamingXPathExpression.compile("orders/order", context));
+        assertNull(StreamingXPathExpression.compile("//order", context));
+        assertNull(StreamingXPathExpression.compile("/orders/order[0]", context));
+        assertNull(StreamingXPathExpression.compile("/orders/order[customer = 'gold']", context));
+        assertNull(StreamingXPathExpression.compile("/orders/order/amount = 99", context));
+        assertNull(StreamingXPathExpression.compile("/orders/order/@id/foo", context));
+        assertNull(StreamingXPathExpression.compile("/orders/x:order", context));
+        assertNull(StreamingXPathExpression.compile("/orders/order/node()", context));
+        assertNull(StreamingXPathExpression.compile("count(/orders/order)", context));
+        assertNull(StreamingXPathExpression.compile("/orders/order = $name", context));
+    }
+
+    public void testSameResultAsXPathEngine() throws Exception {
+        for (String expression : EXPRESSIONS) {
+            XPathBuilder streaming = xpath(expression).namespace("c", "http://camel.apache.org/customer").streaming();
+            XPathBuilder engine = xpath(expression).namespace("c", "http://camel.apache.org/customer");
+
+            assertEquals(expression, engine.matches(context, ORDER), streaming.matches(context, ORDER));
+            assertEquals(expression, engine.evaluate(context, ORDER), streaming.evaluate(context, ORDER));
+        }
+    }
+
+    public void testStreamingInputStream() throws Exception {
+        XPathBuilder builder = xpath("/orders/order[2]/customer/@c:type = 'gold'").namespace("c", "http://camel.apache.org/customer").streaming();
+        assertTrue(builder.matches(context, new ByteArrayInputStream(ORDER.getBytes())));
+        assertTrue(builder.matches(context, ORDER.getBytes()));
+    }
+
+    public void testStreamingEarlyExit() throws Exception {
+        String body = "<orders><order id='1'/><order id='2'>";
+
+        XPathBuilder builder = xpath("/orders/order/@id = '1'").streaming();
+        try {
+            builder.matches(context, body);
+            fail("Should have thrown exception");
+        } catch (Exception e) {
+            // expected as the body is not well formed
+        }
+
+        builder.setStreamingEarlyExit(true);
+        assertTrue(builder.matches(context, body));
+    }
+
+    public void testNotStreamingWithCustomFactory() throws Exception {
+        String body = "<orders><order id='1'/><order id='2'>";
+
+        // the body is not well formed, so only the streaming evaluation with early exit can match it
+        XPathBuilder builder = xpath("/orders/order/@id = '1'").streaming();
+        builder.setStreamingEarlyExit(true);
+        assertTrue(builder.matches(context, body));
+
+        builder = xpath("/orders/order/@id = '1'").streaming().factory(XPathFactory.newInstance());
+        builder.setStreamingEarlyExit(true);
+        try {
+            builder.matches(context, body);
+            fail("Should have thrown exception");
+        } catch (Exception e) {
+            // expected as the XPath engine is used
+        }
+
+        // streaming is disabled by default
+        builder = xpath("/orders/order/@id = '1'");
+        builder.setStreamingEarlyExit(true);
+        try {
+            builder.matches(context, body);
+            fail("Should have thrown exception");
+        } catch (Exception e) {
+            // expected as the XPath engine is used
+        }
+    }
+
+    public void testStreamingFromModel() throws Exception {
+        XPathExpression expression = new XPathExpression("/orders/order/@id = '1'");
+        expression.setStreaming(true);
+        XPathBuilder builder = assertIsInstanceOf(XPathBuilder.class, expression.createPredicate(context));
+        assertTrue(builder.isStreaming());
+    }
+
+    @Override
+    public boolean isUseRouteBuilder() {
+        return false;
+    }
+}
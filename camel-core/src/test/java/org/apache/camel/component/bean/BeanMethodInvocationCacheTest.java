@@ -0,0 +1,122 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.bean;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.CamelExecutionException;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Header;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.impl.JndiRegistry;
+
+/**
+ * Tests invoking bean methods where the chosen methods and method handles are reused between invocations.
+ */
+public class BeanMethodInvocationCacheTest extends ContextTestSupport {
+
+    @Override
+    protected JndiRegistry createRegistry() throws Exception {
+        JndiRegistry jndi = super.createRegistry();
+        jndi.bind("myBean", new MyBean());
+        return jndi;
+    }
+
+    public void testChosenByBodyType() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertEquals("String: Camel", template.requestBody("direct:echo", "Camel"));
+            assertEquals("Integer: 123", template.requestBody("direct:echo", 123));
+            assertEquals("String: Camel", template.requestBody("direct:echo", new StringBuilder("Camel")));
+        }
+    }
+
+    public void testChosenByConvertedBodyValue() throws Exception {
+        // the body is a String for all the messages, but which method it can be converted for depends on its value
+        for (int i = 0; i < 3; i++) {
+            assertEquals("Integer: 123", template.requestBody("direct:parse", "123"));
+            assertEquals("TimeUnit: SECONDS", template.requestBody("direct:parse", "SECONDS"));
+        }
+    }
+
+    public void testPrimitiveParameters() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(Long.valueOf(5), template.requestBodyAndHeader("direct:add", 2, "other", 3L));
+            // the header must be widened from int to long
+            assertEquals(Long.valueOf(5), template.requestBodyAndHeader("direct:add", 2, "other", 3));
+        }
+    }
+
+    public void testStaticMethod() throws Exception {
+        assertEquals("Hello Camel", template.requestBody("direct:static", "Camel"));
+        assertEquals("Hello Camel", template.requestBody("direct:static", "Camel"));
+    }
+
+    public void testExceptionFromMethod() throws Exception {
+        try {
+            template.requestBody("direct:kaboom", "Camel");
+            fail("Should have thrown exception");
+        } catch (CamelExecutionException e) {
+            assertIsInstanceOf(IllegalArgumentException.class, e.getCause());
+            assertEquals("Forced Camel", e.getCause().getMessage());
+        }
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:echo").to("bean:myBean?method=echo");
+                from("direct:parse").to("bean:myBean?method=parse");
+                from("direct:add").to("bean:myBean?method=add");
+                from("direct:static").to("bean:myBean?method=hello");
+                from("direct:kaboom").to("bean:myBean?method=kaboom");
+            }
+        };
+    }
+
+    public static final class MyBean {
+
+        public String echo(String body) {
+            return "String: " + body;
+        }
+
+        public String echo(Integer body) {
+            return "Integer: " + body;
+        }
+
+        public String parse(Integer body) {
+            return "Integer: " + body;
+        }
+
+        public String parse(TimeUnit body) {
+            return "TimeUnit: " + body;
+        }
+
+        public long add(int body, @Header("other") long other) {
+            return body + other;
+        }
+
+        public static String hello(String body) {
+            return "Hello " + body;
+        }
+
+        public String kaboom(String body) {
+            throw new IllegalArgumentException("Forced " + body);
+        }
+    }
+}
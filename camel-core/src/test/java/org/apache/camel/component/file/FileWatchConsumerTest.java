@@ -0,0 +1,95 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.file;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+
+/**
+ * @version 
+ */
+public class FileWatchConsumerTest extends ContextTestSupport {
+
+    @Override
+    protected void setUp() throws Exception {
+        deleteDirectory("target/watch");
+        super.setUp();
+    }
+
+    public void testWatchNoop() throws Exception {
+        // files which exists before the consumer is started
+        template.sendBodyAndHeader("file:target/watch/noop", "a", Exchange.FILE_NAME, "a.txt");
+        template.sendBodyAndHeader("file:target/watch/noop/foo", "a2", Exchange.FILE_NAME, "a.txt");
+
+        MockEndpoint mock = getMockEndpoint("mock:noop");
+        mock.expectedBodiesReceivedInAnyOrder("a", "a2");
+
+        context.startRoute("noop");
+
+        assertMockEndpointsSatisfied();
+
+        FileWatchConsumer consumer = (FileWatchConsumer) context.getRoute("noop").getConsumer();
+        assertEquals(2, consumer.getViewSize());
+
+        // reset mock and send in new files which should be picked up by the watch service
+        mock.reset();
+        mock.expectedBodiesReceivedInAnyOrder("b", "c");
+        mock.setResultWaitTime(20000);
+
+        template.sendBodyAndHeader("file:target/watch/noop", "b", Exchange.FILE_NAME, "b.txt");
+        template.sendBodyAndHeader("file:target/watch/noop/bar", "c", Exchange.FILE_NAME, "c.txt");
+
+        assertMockEndpointsSatisfied();
+
+        assertEquals(4, consumer.getViewSize());
+    }
+
+    public void testWatchMove() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:move");
+        mock.expectedBodiesReceivedInAnyOrder("Hello World", "Bye World");
+        mock.expectedFileExists("target/watch/move/.camel/hello.txt");
+        mock.expectedFileExists("target/watch/move/.camel/bye.txt");
+        mock.setResultWaitTime(20000);
+
+        context.startRoute("move");
+
+        template.sendBodyAndHeader("file:target/watch/move", "Hello World", Exchange.FILE_NAME, "hello.txt");
+        template.sendBodyAndHeader("file:target/watch/move", "Bye World", Exchange.FILE_NAME, "bye.txt");
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("file:target/watch/noop?watchDirectory=true&recursive=true&noop=true&initialDelay=0&delay=10")
+                    .routeId("noop").noAutoStartup()
+                    .convertBodyTo(String.class)
+                    .to("mock:noop");
+
+                from("file:target/watch/move?watchDirectory=true&initialDelay=0&delay=10")
+                    .routeId("move").noAutoStartup()
+                    .convertBodyTo(String.class)
+                    .to("mock:move");
+            }
+        };
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.file.strategy;
+
+import junit.framework.TestCase;
+
+import org.apache.camel.component.file.strategy.FileChangedReadinessTracker.Readiness;
+
+/**
+ * @version
+ */
+public class FileChangedReadinessTrackerTest extends TestCase {
+
+    public void testReadyWhenUnchanged() {
+        FileChangedReadinessTracker tracker = new FileChangedReadinessTracker();
+        tracker.setCheckInterval(1000);
+
+        assertEquals(Readiness.Changing, tracker.observe("a.txt", 10, 100, 0));
+        assertEquals(Readiness.Changing, tracker.observe("a.txt", 20, 200, 500));
+        // unchanged but not long enough
+        assertEquals(Readiness.Changing, tracker.observe("a.txt", 20, 200, 1000));
+        assertEquals(Readiness.Ready, tracker.observe("a.txt", 20, 200, 1500));
+
+        // once ready the file is forgotten
+        assertEquals(0, tracker.size());
+        assertEquals(Readiness.Changing, tracker.observe("a.txt", 20, 200, 1600));
+    }
+
+    public void testMinLength() {
+        FileChangedReadinessTracker tracker = new FileChangedReadinessTracker();
+        tracker.setCheckInterval(1000);
+
+        assertEquals(Readiness.Changing, tracker.observe("a.txt", 0, 100, 0));
+        assertEquals(Readiness.Changing, tracker.observe("a.txt", 0, 100, 2000));
+
+        tracker.setMinLength(0);
+        assertEquals(Readiness.Ready, tracker.observe("a.txt", 0, 100, 3000));
+    }
+
+    public void testMinAge() {
+        FileChangedReadinessTracker tracker = new FileChangedReadinessTracker();
+        tracker.setMinAge(5000);
+
+        // old enough files are ready at once
+        assertEquals(Readiness.Ready, tracker.observe("a.txt", 10, 1000, 10000));
+        assertEquals(Readiness.Changing, tracker.observe("b.txt", 10, 8000, 10000));
+        assertEquals(Readiness.Ready, tracker.observe("b.txt", 10, 8000, 13001));
+    }
+
+    public void testTimeout() {
+        FileChangedReadinessTracker tracker = new FileChangedReadinessTracker();
+        tracker.setCheckInterval(1000);
+        tracker.setTimeout(3000);
+
+        assertEquals(Readiness.Changing, tracker.observe("a.txt", 10, 100, 0));
+        assertEquals(Readiness.Changing, tracker.observe("a.txt", 20, 200, 1500));
+        assertEquals(Readiness.Changing, tracker.observe("a.txt", 30, 300, 3000));
+        assertEquals(Readiness.TimedOut, tracker.observe("a.txt", 40, 400, 3500));
+        assertEquals(0, tracker.size());
+
+        // and then start over
+        assertEquals(Readiness.Changing, tracker.observe("a.txt", 40, 400, 4000));
+        assertEquals(Readiness.Ready, tracker.observe("a.txt", 40, 400, 5000));
+    }
+}
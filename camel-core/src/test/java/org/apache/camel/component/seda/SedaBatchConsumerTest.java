@@ -0,0 +1,94 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.seda;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+
+/**
+ * @version 
+ */
+public class SedaBatchConsumerTest extends ContextTestSupport {
+
+    public void testBatchConsumer() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedBodiesReceived("A", "B", "C", "D", "E");
+        mock.allMessages().exchangeProperty(Exchange.BATCH_SIZE).isNotNull();
+        mock.allMessages().exchangeProperty(Exchange.BATCH_INDEX).isNotNull();
+
+        // the route is not started, so the exchanges are waiting when the consumer drains the queue
+        template.sendBody("seda:batch", "A");
+        template.sendBody("seda:batch", "B");
+        template.sendBody("seda:batch", "C");
+        template.sendBody("seda:batch", "D");
+        template.sendBody("seda:batch", "E");
+        context.startRoute("batch");
+        assertIsInstanceOf(SedaBatchConsumer.class, context.getRoute("batch").getConsumer());
+
+        assertMockEndpointsSatisfied();
+
+        // the first batch is limited by the batch size
+        assertEquals(0, mock.getReceivedExchanges().get(0).getProperty(Exchange.BATCH_INDEX));
+        assertEquals(3, mock.getReceivedExchanges().get(0).getProperty(Exchange.BATCH_SIZE));
+        assertEquals(Boolean.TRUE, mock.getReceivedExchanges().get(2).getProperty(Exchange.BATCH_COMPLETE));
+        assertEquals(2, mock.getReceivedExchanges().get(3).getProperty(Exchange.BATCH_SIZE));
+    }
+
+    public void testBatchConsumerDefaultBatchSize() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:single");
+        mock.expectedBodiesReceived("A", "B");
+        mock.allMessages().exchangeProperty(Exchange.BATCH_INDEX).isEqualTo(0);
+        mock.allMessages().exchangeProperty(Exchange.BATCH_SIZE).isEqualTo(1);
+        mock.allMessages().exchangeProperty(Exchange.BATCH_COMPLETE).isEqualTo(true);
+
+        template.sendBody("seda:single", "A");
+        template.sendBody("seda:single", "B");
+
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testBatchSize() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:foo");
+        mock.expectedMessageCount(100);
+        mock.allMessages().exchangeProperty(Exchange.BATCH_SIZE).isNull();
+
+        for (int i = 0; i < 100; i++) {
+            template.sendBody("seda:foo?batchSize=10", i);
+        }
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("seda:batch?batchSize=3&batchConsumer=true").routeId("batch").noAutoStartup()
+                    .to("mock:result");
+
+                from("seda:single?batchConsumer=true")
+                    .to("mock:single");
+
+                from("seda:foo?batchSize=10&concurrentConsumers=2")
+                    .to("mock:foo");
+            }
+        };
+    }
+}
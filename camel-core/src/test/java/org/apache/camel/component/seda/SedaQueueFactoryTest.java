@@ -25,6 +25,7 @@ import org.apache.camel.ContextTestSupport;
 import org.apache.camel.Exchange;
 import org.apache.camel.impl.DefaultCamelContext;
 import org.apache.camel.impl.SimpleRegistry;
+import org.apache.camel.util.concurrent.LockFreeArrayBlockingQueue;
 
 /**
  *
@@ -36,6 +37,7 @@ public class SedaQueueFactoryTest extends ContextTestSupport {
     protected CamelContext createCamelContext() throws Exception {
         SimpleRegistry simpleRegistry = new SimpleRegistry();
         simpleRegistry.put("arrayQueueFactory", arrayQueueFactory);
+        simpleRegistry.put("lockFreeQueueFactory", new LockFreeBlockingQueueFactory<Exchange>());
         return new DefaultCamelContext(simpleRegistry);
     }
 
@@ -57,6 +59,31 @@ public class SedaQueueFactoryTest extends ContextTestSupport {
     }
 
     
+    @SuppressWarnings("unchecked")
+    public void testLockFreeBlockingQueueFactoryAndSize() throws Exception {
+        SedaEndpoint endpoint = resolveMandatoryEndpoint("seda:lockFreeQueue?queueFactory=#lockFreeQueueFactory&size=100", SedaEndpoint.class);
+
+        BlockingQueue<Exchange> queue = endpoint.getQueue();
+        LockFreeArrayBlockingQueue<Exchange> blockingQueue = assertIsInstanceOf(LockFreeArrayBlockingQueue.class, queue);
+        assertEquals("remainingCapacity", 100, blockingQueue.remainingCapacity());
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testLockFreeBlockingQueueFactoryDefaultSize() throws Exception {
+        SedaEndpoint endpoint = resolveMandatoryEndpoint("seda:lockFreeQueueDefault?queueFactory=#lockFreeQueueFactory", SedaEndpoint.class);
+
+        BlockingQueue<Exchange> queue = endpoint.getQueue();
+        LockFreeArrayBlockingQueue<Exchange> blockingQueue = assertIsInstanceOf(LockFreeArrayBlockingQueue.class, queue);
+        assertEquals("remainingCapacity", 1000, blockingQueue.remainingCapacity());
+
+        try {
+            new LockFreeBlockingQueueFactory<Exchange>().create(Integer.MAX_VALUE);
+            fail("Should have thrown an exception");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
     public void testDefaultBlockingQueueFactory() throws Exception {
         SedaEndpoint endpoint = resolveMandatoryEndpoint("seda:linkedQueue", SedaEndpoint.class);
         BlockingQueue<Exchange> queue = endpoint.getQueue();
@@ -0,0 +1,260 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.converter.stream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.StreamCache;
+import org.apache.camel.impl.DefaultExchange;
+import org.apache.camel.impl.DefaultStreamCachingStrategy;
+import org.apache.camel.impl.DefaultUnitOfWork;
+import org.apache.camel.spi.UnitOfWork;
+
+public class OffHeapCachedOutputStreamTest extends ContextTestSupport {
+    private static final String TEST_STRING = "This is a test string and it has enough"
+        + " aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa ";
+
+    private Exchange exchange;
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        CamelContext context = super.createCamelContext();
+        context.setStreamCaching(true);
+        context.getStreamCachingStrategy().setSpoolDirectory("target/cachedir");
+        context.getStreamCachingStrategy().setSpoolThreshold(-1);
+        context.getStreamCachingStrategy().setBufferSize(16);
+        return context;
+    }
+
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        deleteDirectory("target/cachedir");
+        createDirectory("target/cachedir");
+
+        exchange = new DefaultExchange(context);
+        UnitOfWork uow = new DefaultUnitOfWork(exchange);
+        exchange.setUnitOfWork(uow);
+    }
+
+    @Override
+    public boolean isUseRouteBuilder() {
+        return false;
+    }
+
+    public void testCacheStreamInDirectBuffers() throws Exception {
+        getStrategy().setOffHeapMemory(1024);
+        context.start();
+
+        DirectBufferPool pool = getStrategy().getOffHeapBufferPool();
+        assertNotNull(pool);
+
+        CachedOutputStream cos = new CachedOutputStream(exchange);
+        cos.write(TEST_STRING.getBytes("UTF-8"));
+
+        StreamCache cache = cos.newStreamCache();
+        assertTrue("Should get the OffHeapInputStreamCache", cache instanceof OffHeapInputStreamCache);
+        assertTrue(cache.inMemory());
+        assertEquals(TEST_STRING.length(), cache.length());
+        assertEquals(8 * 16, pool.getUsed());
+        assertEquals(0, new File("target/cachedir").list().length);
+
+        assertEquals(TEST_STRING, context.getTypeConverter().convertTo(String.class, cache));
+        assertEquals(TEST_STRING, toString(((OffHeapInputStreamCache) cache).getByteBuffers()));
+
+        exchange.getUnitOfWork().done(exchange);
+        assertEquals("The buffers should be in use by the views", 8 * 16, pool.getUsed());
+        cache.reset();
+        assertEquals(TEST_STRING, context.getTypeConverter().convertTo(String.class, cache));
+
+        // ends the use of the views
+        ((InputStream) cache).close();
+        assertEquals("The buffers should be returned to the pool", 0, pool.getUsed());
+
+        try {
+            cache.reset();
+            ((InputStream) cache).read();
+            fail("Should have thrown an exception");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    public void testCacheStreamToMemoryMappedFile() throws Exception {
+        // room for two buffers only
+        getStrategy().setOffHeapMemory(32);
+        context.start();
+
+        DirectBufferPool pool = getStrategy().getOffHeapBufferPool();
+
+        CachedOutputStream cos = new CachedOutputStream(exchange);
+        cos.write(TEST_STRING.getBytes("UTF-8"));
+
+        File file = new File("target/cachedir");
+        String[] files = file.list();
+        assertEquals("we should have a temp file", 1, files.length);
+        assertTrue("The file name should start with cos", files[0].startsWith("cos"));
+
+        StreamCache cache = cos.newStreamCache();
+        assertTrue("Should get the OffHeapInputStreamCache", cache instanceof OffHeapInputStreamCache);
+        assertFalse(cache.inMemory());
+        assertEquals(TEST_STRING.length(), cache.length());
+        assertEquals(32, pool.getUsed());
+
+        InputStream is = (InputStream) cache;
+        assertEquals(10, is.skip(10));
+        is.mark(0);
+        byte[] bytes = new byte[40];
+        assertEquals(40, is.read(bytes));
+        assertEquals(TEST_STRING.substring(10, 50), new String(bytes, "UTF-8"));
+        is.reset();
+        assertEquals(TEST_STRING.charAt(10), is.read());
+
+        // reset goes back to the mark, and the rest is written from there
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        cache.reset();
+        cache.writeTo(bos);
+        assertEquals(TEST_STRING.substring(10), bos.toString("UTF-8"));
+
+        exchange.getUnitOfWork().done(exchange);
+        assertEquals("The buffers should be returned to the pool", 0, pool.getUsed());
+        assertEquals("we should have no temp file", 0, file.list().length);
+    }
+
+    public void testCopyIsReleasedWithLastExchange() throws Exception {
+        getStrategy().setOffHeapMemory(1024);
+        context.start();
+
+        DirectBufferPool pool = getStrategy().getOffHeapBufferPool();
+
+        CachedOutputStream cos = new CachedOutputStream(exchange);
+        cos.write(TEST_STRING.getBytes("UTF-8"));
+        StreamCache cache = cos.newStreamCache();
+
+        Exchange copy = new DefaultExchange(context);
+        copy.setUnitOfWork(new DefaultUnitOfWork(copy));
+        StreamCache copied = cache.copy(copy);
+
+        exchange.getUnitOfWork().done(exchange);
+        assertTrue("The buffers should still be in use", pool.getUsed() > 0);
+        assertEquals(TEST_STRING, context.getTypeConverter().convertTo(String.class, copied));
+
+        copy.getUnitOfWork().done(copy);
+        assertEquals("The buffers should be returned to the pool", 0, pool.getUsed());
+    }
+
+    public void testReleasedWhenClosedIfNotClosedOnCompletion() throws Exception {
+        getStrategy().setOffHeapMemory(32);
+        context.start();
+
+        DirectBufferPool pool = getStrategy().getOffHeapBufferPool();
+
+        CachedOutputStream cos = new CachedOutputStream(exchange, false);
+        cos.write(TEST_STRING.getBytes("UTF-8"));
+        InputStream is = cos.getWrappedInputStream();
+        File file = new File("target/cachedir");
+        assertEquals("we should have a temp file", 1, file.list().length);
+
+        exchange.getUnitOfWork().done(exchange);
+        assertEquals("The buffers should still be in use", 32, pool.getUsed());
+        assertEquals(TEST_STRING, context.getTypeConverter().convertTo(String.class, is));
+
+        is.close();
+        assertEquals("The buffers should be returned to the pool", 0, pool.getUsed());
+        assertEquals("we should have no temp file", 0, file.list().length);
+    }
+
+    public void testReclaimedWhenNotReleased() throws Exception {
+        getStrategy().setOffHeapMemory(1024);
+        context.start();
+
+        DirectBufferPool pool = getStrategy().getOffHeapBufferPool();
+
+        CachedOutputStream cos = new CachedOutputStream(exchange, false);
+        cos.write(TEST_STRING.getBytes("UTF-8"));
+        assertTrue(pool.getUsed() > 0);
+
+        // the stream is never closed, so its buffers are reclaimed when it has been garbage collected
+        cos = null;
+        for (int i = 0; i < 50 && pool.getUsed() > 0; i++) {
+            System.gc();
+            Thread.sleep(10);
+            new CachedOutputStream(exchange, false);
+        }
+        assertEquals("The buffers should be returned to the pool", 0, pool.getUsed());
+    }
+
+    public void testDiscardedWhenNotReleasedWithViewsInUse() throws Exception {
+        getStrategy().setOffHeapMemory(1024);
+        context.start();
+
+        DirectBufferPool pool = getStrategy().getOffHeapBufferPool();
+
+        CachedOutputStream cos = new CachedOutputStream(exchange, false);
+        cos.write(TEST_STRING.getBytes("UTF-8"));
+        StreamCache cache = cos.newStreamCache();
+        ByteBuffer[] views = ((OffHeapInputStreamCache) cache).getByteBuffers();
+        long allocated = pool.getAllocated();
+        assertTrue(pool.getUsed() > 0);
+
+        // the views are still in use, so the buffers cannot be reused, but they must not count towards the capacity
+        cos = null;
+        cache = null;
+        for (int i = 0; i < 50 && pool.getUsed() > 0; i++) {
+            System.gc();
+            Thread.sleep(10);
+            new CachedOutputStream(exchange, false);
+        }
+        assertEquals("The buffers should be discarded from the pool", 0, pool.getUsed());
+        assertEquals(allocated - 8 * 16, pool.getAllocated());
+        assertEquals(TEST_STRING, toString(views));
+    }
+
+    public void testOffHeapNotUsedWithCipher() throws Exception {
+        getStrategy().setOffHeapMemory(1024);
+        context.getStreamCachingStrategy().setSpoolChiper("RC4");
+        context.start();
+
+        CachedOutputStream cos = new CachedOutputStream(exchange);
+        cos.write(TEST_STRING.getBytes("UTF-8"));
+        StreamCache cache = cos.newStreamCache();
+        assertFalse(cache instanceof OffHeapInputStreamCache);
+
+        exchange.getUnitOfWork().done(exchange);
+    }
+
+    private DefaultStreamCachingStrategy getStrategy() {
+        return (DefaultStreamCachingStrategy) context.getStreamCachingStrategy();
+    }
+
+    private static String toString(ByteBuffer[] buffers) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        for (ByteBuffer buffer : buffers) {
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            bos.write(bytes);
+        }
+        return bos.toString("UTF-8");
+    }
+}
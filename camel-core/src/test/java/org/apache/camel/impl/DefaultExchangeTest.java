@@ -18,6 +18,7 @@ package org.apache.camel.impl;
 
 import java.io.IOException;
 import java.net.ConnectException;
+import java.util.Map;
 
 import org.apache.camel.Exchange;
 import org.apache.camel.ExchangeTestSupport;
@@ -216,6 +217,85 @@ public class DefaultExchangeTest extends ExchangeTestSupport {
                      sourceIn.getClass(), destIn.getClass());
     }
 
+    public void testCopyOnWrite() {
+        DefaultExchange source = new DefaultExchange(context);
+        source.setProperty("foo", "123");
+        source.setProperty("bar", "456");
+        source.getIn().setHeader("beer", "Carlsberg");
+        source.getIn().setBody("Hello World");
+
+        Exchange copy = source.copyOnWrite();
+        assertEquals("Hello World", copy.getIn().getBody());
+        assertEquals("Carlsberg", copy.getIn().getHeader("beer"));
+        assertEquals("123", copy.getProperty("foo"));
+        assertEquals("456", copy.getProperty("bar"));
+        assertTrue(copy.hasProperties());
+
+        // changes on either side must not be seen by the other
+        copy.setProperty("foo", "abc");
+        copy.removeProperty("bar");
+        copy.setProperty("baz", "789");
+        copy.getIn().setHeader("beer", "Tuborg");
+        source.setProperty("cheese", "gauda");
+
+        assertEquals("123", source.getProperty("foo"));
+        assertEquals("456", source.getProperty("bar"));
+        assertNull(source.getProperty("baz"));
+        assertEquals("Carlsberg", source.getIn().getHeader("beer"));
+
+        assertEquals("abc", copy.getProperty("foo"));
+        assertNull(copy.getProperty("bar"));
+        assertEquals("789", copy.getProperty("baz"));
+        assertNull(copy.getProperty("cheese"));
+        assertEquals("Tuborg", copy.getIn().getHeader("beer"));
+
+        // a copy of the copy sees the changes of the copy
+        Exchange copy2 = ((DefaultExchange) copy).copyOnWrite();
+        assertEquals("abc", copy2.getProperty("foo"));
+        assertNull(copy2.getProperty("bar"));
+
+        Map<String, Object> properties = copy.getProperties();
+        assertEquals(2, properties.size());
+        assertEquals("abc", properties.get("foo"));
+        assertEquals("789", properties.get("baz"));
+
+        properties.put("bar", "xyz");
+        assertEquals("xyz", copy.getProperty("bar"));
+        assertNull(copy2.getProperty("bar"));
+        assertEquals("456", source.getProperty("bar"));
+
+        copy2.removeProperty("foo");
+        copy2.removeProperty("baz");
+        assertFalse(copy2.hasProperties());
+        assertEquals("abc", copy.getProperty("foo"));
+    }
+
+    public void testCopyOnWriteKeepsPropertiesOfSource() {
+        DefaultExchange source = new DefaultExchange(context);
+        source.setProperty("foo", "123");
+        Map<String, Object> properties = source.getProperties();
+
+        Exchange copy = source.copyOnWrite();
+        Exchange copy2 = source.copy();
+
+        // the map from before the copies must still be the properties of the source
+        properties.put("bar", "456");
+        assertEquals("456", source.getProperty("bar"));
+        assertSame(properties, source.getProperties());
+        assertNull(copy.getProperty("bar"));
+        assertNull(copy2.getProperty("bar"));
+        assertEquals("123", copy.getProperty("foo"));
+
+        // and the same for a copy of a copy
+        Map<String, Object> copyProperties = copy.getProperties();
+        Exchange copy3 = ((DefaultExchange) copy).copyOnWrite();
+        copyProperties.put("baz", "789");
+        assertEquals("789", copy.getProperty("baz"));
+        assertSame(copyProperties, copy.getProperties());
+        assertNull(copy3.getProperty("baz"));
+        assertEquals("123", copy3.getProperty("foo"));
+    }
+
     public static class MyMessage extends DefaultMessage {
         @Override
         public MyMessage newInstance() {
@@ -16,7 +16,16 @@
  */
 package org.apache.camel.impl;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.camel.Consumer;
@@ -34,6 +43,7 @@ public class DefaultProducerCacheTest extends ContextTestSupport {
 
     private final AtomicInteger stopCounter = new AtomicInteger();
     private final AtomicInteger shutdownCounter = new AtomicInteger();
+    private final AtomicInteger createCounter = new AtomicInteger();
 
     public void testCacheProducerAcquireAndRelease() throws Exception {
         ProducerCache cache = new ProducerCache(this, context);
@@ -152,7 +162,98 @@ public class DefaultProducerCacheTest extends ContextTestSupport {
         cache.stop();
     }
 
-    private final class MyEndpoint extends DefaultEndpoint {
+    public void testConcurrentAcquireCreatesSingletonProducerOnce() throws Exception {
+        assertConcurrentAcquireCreatesProducerOnce(new ProducerCache(this, context, 5));
+    }
+
+    public void testConcurrentAcquireWithHashMapCache() throws Exception {
+        // the map is not thread safe, so the cache must guard it
+        assertConcurrentAcquireCreatesProducerOnce(new ProducerCache(this, context, new HashMap<String, Producer>(1)));
+    }
+
+    private void assertConcurrentAcquireCreatesProducerOnce(final ProducerCache cache) throws Exception {
+        cache.start();
+
+        final Endpoint e = new MyEndpoint(true, 1);
+        final CountDownLatch latch = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+        List<Future<Producer>> futures = new ArrayList<Future<Producer>>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(executor.submit(new Callable<Producer>() {
+                public Producer call() throws Exception {
+                    latch.await();
+                    Producer p = cache.acquireProducer(e);
+                    cache.releaseProducer(e, p);
+                    return p;
+                }
+            }));
+        }
+        latch.countDown();
+
+        Producer first = futures.get(0).get();
+        for (Future<Producer> future : futures) {
+            assertSame(first, future.get());
+        }
+        assertEquals(1, createCounter.get());
+        assertEquals(1, cache.size());
+        assertEquals(10, cache.getHits() + cache.getMisses());
+
+        executor.shutdownNow();
+        cache.stop();
+    }
+
+    public void testHitsAndMisses() throws Exception {
+        ProducerCache cache = new ProducerCache(this, context, 5);
+        cache.start();
+
+        for (int i = 0; i < 3; i++) {
+            Endpoint e = new MyEndpoint(true, 1);
+            Producer p = cache.acquireProducer(e);
+            cache.releaseProducer(e, p);
+        }
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        cache.resetCacheStatistics();
+        assertEquals(0, cache.getHits());
+        assertEquals(0, cache.getMisses());
+
+        cache.stop();
+    }
+
+    public void testAcquireSameEndpointWhileCreatingProducer() throws Exception {
+        final ProducerCache cache = new ProducerCache(this, context, 5);
+        cache.start();
+
+        // the endpoint needs a producer for itself while its producer is being created
+        final Endpoint e = new MyEndpoint(true, 1) {
+            private boolean nested;
+
+            @Override
+            public Producer createProducer() throws Exception {
+                if (!nested) {
+                    nested = true;
+                    Producer producer = cache.acquireProducer(this);
+                    cache.releaseProducer(this, producer);
+                }
+                return super.createProducer();
+            }
+        };
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<Producer> future = executor.submit(new Callable<Producer>() {
+            public Producer call() throws Exception {
+                return cache.acquireProducer(e);
+            }
+        });
+        assertNotNull("Should not wait for itself", future.get(10, TimeUnit.SECONDS));
+        assertEquals(2, createCounter.get());
+
+        executor.shutdownNow();
+        cache.stop();
+    }
+
+    private class MyEndpoint extends DefaultEndpoint {
 
         private final boolean isSingleton;
         private final int number;
@@ -164,6 +265,9 @@ public class DefaultProducerCacheTest extends ContextTestSupport {
 
         @Override
         public Producer createProducer() throws Exception {
+            createCounter.incrementAndGet();
+            // take a while so concurrent threads have to wait for the producer
+            Thread.sleep(20);
             return new MyProducer(this);
         }
 
@@ -0,0 +1,117 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.spi.Synchronization;
+import org.apache.camel.support.SynchronizationAdapter;
+
+public class ThreadConfinedUnitOfWorkTest extends ContextTestSupport {
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        CamelContext context = super.createCamelContext();
+        DefaultUnitOfWorkFactory factory = new DefaultUnitOfWorkFactory();
+        factory.setThreadConfined(true);
+        context.setUnitOfWorkFactory(factory);
+        return context;
+    }
+
+    public void testRouteContextStack() throws Exception {
+        getMockEndpoint("mock:result").expectedBodiesReceived("Hello World");
+        getMockEndpoint("mock:result").expectedHeaderReceived("before", "start");
+        getMockEndpoint("mock:result").expectedHeaderReceived("nested", "bar");
+        getMockEndpoint("mock:result").expectedHeaderReceived("after", "start");
+        getMockEndpoint("mock:done").expectedBodiesReceived("Hello World");
+
+        template.sendBody("direct:start", "Hello World");
+
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testSynchronizations() throws Exception {
+        Exchange exchange = new DefaultExchange(context);
+        ThreadConfinedUnitOfWork uow = new ThreadConfinedUnitOfWork(exchange);
+        Synchronization first = new SynchronizationAdapter();
+        Synchronization second = new SynchronizationAdapter();
+
+        uow.addSynchronization(first);
+        uow.addSynchronization(second);
+        assertTrue(uow.containsSynchronization(first));
+        assertTrue(uow.containsSynchronization(second));
+
+        uow.removeSynchronization(first);
+        assertFalse(uow.containsSynchronization(first));
+
+        Exchange target = new DefaultExchange(context);
+        uow.handoverSynchronization(target);
+        assertFalse(uow.containsSynchronization(second));
+        assertEquals(1, target.handoverCompletions().size());
+    }
+
+    public void testAsyncRouting() throws Exception {
+        getMockEndpoint("mock:result").expectedMessageCount(10);
+        getMockEndpoint("mock:done").expectedMessageCount(10);
+
+        for (int i = 0; i < 10; i++) {
+            template.sendBody("seda:async", "Hello " + i);
+        }
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start").routeId("start")
+                    .onCompletion().to("mock:done").end()
+                    .process(new RouteIdProcessor("before"))
+                    .to("direct:bar")
+                    .process(new RouteIdProcessor("after"))
+                    .to("mock:result");
+
+                from("direct:bar").routeId("bar")
+                    .process(new RouteIdProcessor("nested"));
+
+                from("seda:async").routeId("async")
+                    .onCompletion().to("mock:done").end()
+                    .threads(2)
+                    .delay(10).asyncDelayed()
+                    .to("mock:result");
+            }
+        };
+    }
+
+    private static final class RouteIdProcessor implements Processor {
+        private final String header;
+
+        private RouteIdProcessor(String header) {
+            this.header = header;
+        }
+
+        public void process(Exchange exchange) throws Exception {
+            assertIsInstanceOf(ThreadConfinedUnitOfWork.class, exchange.getUnitOfWork());
+            exchange.getIn().setHeader(header, exchange.getUnitOfWork().getRouteContext().getRoute().getId());
+        }
+    }
+}
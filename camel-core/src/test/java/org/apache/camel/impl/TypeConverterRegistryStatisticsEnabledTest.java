@@ -19,6 +19,7 @@ package org.apache.camel.impl;
 import org.apache.camel.CamelContext;
 import org.apache.camel.ContextTestSupport;
 import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.impl.converter.BaseTypeConverterRegistry;
 import org.apache.camel.spi.TypeConverterRegistry;
 
 /**
@@ -49,6 +50,7 @@ public class TypeConverterRegistryStatisticsEnabledTest extends ContextTestSuppo
         Long miss = reg.getStatistics().getMissCounter();
         assertEquals(0, miss.intValue());
 
+
         try {
             template.sendBody("direct:start", "foo");
             fail("Should have thrown exception");
@@ -62,6 +64,11 @@ public class TypeConverterRegistryStatisticsEnabledTest extends ContextTestSuppo
         miss = reg.getStatistics().getMissCounter();
         assertEquals(0, miss.intValue());
 
+        // the type converter from string to int was looked up before
+        BaseTypeConverterRegistry base = (BaseTypeConverterRegistry) reg;
+        assertTrue("Should have cache hits", base.getCacheHitCounter() > 0);
+        assertTrue("Should have cache misses", base.getCacheMissCounter() > 0);
+
         // reset
         reg.getStatistics().reset();
 
@@ -69,6 +76,9 @@ public class TypeConverterRegistryStatisticsEnabledTest extends ContextTestSuppo
         assertEquals(0, failed.intValue());
         miss = reg.getStatistics().getMissCounter();
         assertEquals(0, miss.intValue());
+        assertEquals(0, base.getCacheHitCounter());
+        assertEquals(0, base.getCacheMissCounter());
+        assertEquals(0, base.getLookupTime());
     }
 
     @Override
@@ -0,0 +1,95 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl.converter;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+public class TypeConverterCacheTest extends TestCase {
+
+    public void testPutAndGet() {
+        TypeConverterCache cache = new TypeConverterCache();
+        int generation = cache.getGeneration();
+        cache.put(String.class, Integer.class, "a", generation);
+        cache.put(Integer.class, String.class, "b", generation);
+
+        assertEquals("a", cache.get(String.class, Integer.class));
+        assertEquals("b", cache.get(Integer.class, String.class));
+        assertNull(cache.get(String.class, Long.class));
+
+        // the first value cached is kept
+        cache.put(String.class, Integer.class, "c", generation);
+        assertEquals("a", cache.get(String.class, Integer.class));
+        assertEquals(2, cache.size());
+    }
+
+    public void testReplace() {
+        TypeConverterCache cache = new TypeConverterCache();
+        int generation = cache.getGeneration();
+        cache.replace(String.class, Integer.class, "a", "b", generation);
+        assertEquals("b", cache.get(String.class, Integer.class));
+
+        // only the expected value is replaced
+        cache.replace(String.class, Integer.class, "a", "c", generation);
+        assertEquals("b", cache.get(String.class, Integer.class));
+        cache.replace(String.class, Integer.class, "b", "c", generation);
+        assertEquals("c", cache.get(String.class, Integer.class));
+        assertEquals(1, cache.size());
+    }
+
+    public void testClearStartsNewGeneration() {
+        TypeConverterCache cache = new TypeConverterCache();
+        int generation = cache.getGeneration();
+        cache.put(String.class, Integer.class, "a", generation);
+
+        cache.clear();
+        assertNull(cache.get(String.class, Integer.class));
+
+        // a value looked up before the cache was cleared must not be cached
+        cache.put(String.class, Integer.class, "a", generation);
+        assertNull(cache.get(String.class, Integer.class));
+
+        cache.put(String.class, Integer.class, "b", cache.getGeneration());
+        assertEquals("b", cache.get(String.class, Integer.class));
+    }
+
+    public void testBounded() {
+        // array classes of increasing dimension gives us plenty of distinct classes
+        List<Class<?>> types = new ArrayList<Class<?>>();
+        Class<?> type = String.class;
+        for (int i = 0; i < 40; i++) {
+            type = Array.newInstance(type, 0).getClass();
+            types.add(type);
+        }
+
+        TypeConverterCache cache = new TypeConverterCache();
+        int generation = cache.getGeneration();
+        for (Class<?> to : types) {
+            for (Class<?> from : types) {
+                cache.put(to, from, "x", generation);
+                assertTrue("Should be bounded, was: " + cache.size(), cache.size() <= TypeConverterCache.MAXIMUM_SIZE);
+            }
+        }
+        // starting over does not change the generation
+        assertEquals(generation, cache.getGeneration());
+        Class<?> last = types.get(types.size() - 1);
+        assertEquals("x", cache.get(last, last));
+    }
+}
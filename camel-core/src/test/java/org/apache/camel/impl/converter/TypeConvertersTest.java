@@ -16,7 +16,11 @@
  */
 package org.apache.camel.impl.converter;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.support.TypeConverterSupport;
 
 public class TypeConvertersTest extends ContextTestSupport {
 
@@ -40,4 +44,21 @@ public class TypeConvertersTest extends ContextTestSupport {
         assertEquals("en", iso);
     }
 
+    public void testFailedConversionIsNotRetried() throws Exception {
+        final AtomicInteger attempts = new AtomicInteger();
+        context.getTypeConverterRegistry().addFallbackTypeConverter(new TypeConverterSupport() {
+            public <T> T convertTo(Class<T> type, Exchange exchange, Object value) {
+                attempts.incrementAndGet();
+                return null;
+            }
+        }, false);
+
+        assertNull(context.getTypeConverter().convertTo(Country.class, new MyConverters()));
+        assertEquals(1, attempts.get());
+
+        // the miss is remembered so the fallback type converters are not tried again
+        assertNull(context.getTypeConverter().convertTo(Country.class, new MyConverters()));
+        assertEquals(1, attempts.get());
+    }
+
 }
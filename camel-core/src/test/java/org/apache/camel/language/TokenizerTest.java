@@ -22,6 +22,7 @@ import org.apache.camel.Exchange;
 import org.apache.camel.ExchangeTestSupport;
 import org.apache.camel.Expression;
 import org.apache.camel.language.tokenizer.TokenizeLanguage;
+import org.apache.camel.model.language.TokenizerExpression;
 
 public class TokenizerTest extends ExchangeTestSupport {
 
@@ -348,4 +349,40 @@ public class TokenizerTest extends ExchangeTestSupport {
         assertEquals("<person id=\"4\" xmlns=\"http:acme.com/persons\">Hadrian</person>", names.get(3));
     }
 
-}
\ No newline at end of file
+    public void testTokenizeXMLPairNested() throws Exception {
+        Expression exp = TokenizeLanguage.tokenizeXML("<person>", null);
+
+        exchange.getIn().setBody("<persons><person name=\"a>b\">James<friends><person>Claus</person></friends></person>"
+                + "<!-- <person>Jonathan</person> --><person><![CDATA[<person>Hadrian</person>]]></person></persons>");
+
+        List<?> names = exp.evaluate(exchange, List.class);
+        assertEquals(2, names.size());
+
+        assertEquals("<person name=\"a>b\">James<friends><person>Claus</person></friends></person>", names.get(0));
+        assertEquals("<person><![CDATA[<person>Hadrian</person>]]></person>", names.get(1));
+    }
+
+    public void testTokenizeXMLLenient() throws Exception {
+        // not well-formed as there is no root element and the br element is not closed
+        exchange.getIn().setBody("<person>James</person><br><person>Claus</person>");
+
+        Expression exp = TokenizeLanguage.tokenizeXML("<person>", null);
+        try {
+            exp.evaluate(exchange, List.class);
+            fail("Should have thrown an exception");
+        } catch (RuntimeException e) {
+            // expected
+        }
+
+        TokenizerExpression lenient = new TokenizerExpression();
+        lenient.setToken("<person>");
+        lenient.setXml(true);
+        lenient.setLenientXml(true);
+        List<?> names = lenient.createExpression(context).evaluate(exchange, List.class);
+        assertEquals(2, names.size());
+
+        assertEquals("<person>James</person>", names.get(0));
+        assertEquals("<person>Claus</person>", names.get(1));
+    }
+
+}
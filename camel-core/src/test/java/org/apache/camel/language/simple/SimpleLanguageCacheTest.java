@@ -0,0 +1,132 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.language.simple;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.camel.Expression;
+import org.apache.camel.LanguageTestSupport;
+import org.apache.camel.Predicate;
+
+public class SimpleLanguageCacheTest extends LanguageTestSupport {
+
+    @Override
+    protected String getLanguageName() {
+        return "simple";
+    }
+
+    public void testCacheExpressionAndPredicate() throws Exception {
+        SimpleLanguage simple = (SimpleLanguage) context.resolveLanguage("simple");
+
+        Expression expression = simple.createExpression("Hello ${body}");
+        assertSame(expression, simple.createExpression("Hello ${body}"));
+
+        Predicate predicate = simple.createPredicate("${header.foo} == 'abc'");
+        assertSame(predicate, simple.createPredicate("${header.foo} == 'abc'"));
+
+        simple.setCacheSize(10);
+        assertNotSame(expression, simple.createExpression("Hello ${body}"));
+        assertNotSame(predicate, simple.createPredicate("${header.foo} == 'abc'"));
+    }
+
+    public void testChangeFunctionTokensClearsCache() throws Exception {
+        exchange.getIn().setBody("Camel");
+        assertExpression("Hi ${body}", "Hi Camel");
+        try {
+            SimpleLanguage.changeFunctionStartToken("[[");
+            SimpleLanguage.changeFunctionEndToken("]]");
+            assertExpression("Hi ${body}", "Hi ${body}");
+        } finally {
+            SimpleLanguage.changeFunctionStartToken("${", "$simple{");
+            SimpleLanguage.changeFunctionEndToken("}");
+        }
+        assertExpression("Hi ${body}", "Hi Camel");
+    }
+
+    public void testOgnlGetters() throws Exception {
+        exchange.getIn().setBody(new Order(new Customer("Donald"), "Beer", "Wine"));
+        assertExpression("${body.customer.name}", "Donald");
+        assertExpression("${body.getCustomer().getName()}", "Donald");
+        assertExpression("${body.customer.name.length}", 6);
+        // index lookups and methods with parameters are still supported
+        assertExpression("${body.lines[1]}", "Wine");
+        assertExpression("${body.customer.name.substring(1)}", "onald");
+
+        exchange.getIn().setBody(new Order(null));
+        assertExpression("${body?.customer?.name}", null);
+
+        // the getters are resolved per class
+        exchange.getIn().setBody(new Order(new VipCustomer("Daisy")));
+        assertExpression("${body.customer.name}", "VIP Daisy");
+        exchange.getIn().setHeader("order", new Order(new Customer("Goofy")));
+        assertExpression("${header.order.customer.name}", "Goofy");
+    }
+
+    public void testOgnlStaticMethod() throws Exception {
+        // static methods are not invoked using the fast path, but still by the bean component
+        exchange.getIn().setBody(new Order(new Customer("Donald")));
+        assertExpression("${body.customer.code}", "ACME");
+        assertExpression("${body.customer.getCode()}", "ACME");
+    }
+
+    public static class Order {
+        private final Customer customer;
+        private final List<String> lines;
+
+        public Order(Customer customer, String... lines) {
+            this.customer = customer;
+            this.lines = Arrays.asList(lines);
+        }
+
+        public Customer getCustomer() {
+            return customer;
+        }
+
+        public List<String> getLines() {
+            return lines;
+        }
+    }
+
+    public static class Customer {
+        private final String name;
+
+        public Customer(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public static String getCode() {
+            return "ACME";
+        }
+    }
+
+    public static class VipCustomer extends Customer {
+
+        public VipCustomer(String name) {
+            super(name);
+        }
+
+        @Override
+        public String getName() {
+            return "VIP " + super.getName();
+        }
+    }
+}
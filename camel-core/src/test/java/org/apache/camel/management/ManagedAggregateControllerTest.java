@@ -165,6 +165,10 @@ public class ManagedAggregateControllerTest extends ManagementTestSupport {
 
         assertEquals(1, client.getCompletedByForce());
         assertEquals(4, client.getTotalIn());
+
+        // not parallel processing so a single lock is used
+        assertEquals(1, client.getLockStripes());
+        assertEquals(0, client.getLockContentionCount());
     }
 
     @Override
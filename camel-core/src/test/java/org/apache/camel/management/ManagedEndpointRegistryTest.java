@@ -94,6 +94,42 @@ public class ManagedEndpointRegistryTest extends ManagementTestSupport {
         assertEquals(2, data.size());
     }
 
+    public void testNormalizedUriCache() throws Exception {
+        // JMX tests dont work well on AIX CI servers (hangs them)
+        if (isPlatform("aix")) {
+            return;
+        }
+
+        MBeanServer mbeanServer = getMBeanServer();
+        ObjectName on = null;
+        for (ObjectName name : mbeanServer.queryNames(new ObjectName("*:type=services,*"), null)) {
+            if (name.getCanonicalName().contains("DefaultEndpointRegistry")) {
+                on = name;
+                break;
+            }
+        }
+        assertNotNull("Should have found EndpointRegistry", on);
+
+        mbeanServer.invoke(on, "resetStatistics", null, null);
+
+        // the same endpoint using uris with the parameters in a different order
+        template.sendBody("log:foo?showAll=true&level=INFO", "Hello World");
+        template.sendBody("log:foo?showAll=true&level=INFO", "Hello World");
+        template.sendBody("log:foo?level=INFO&showAll=true", "Hello World");
+
+        assertSame(context.getEndpoint("log:foo?showAll=true&level=INFO"), context.getEndpoint("log:foo?level=INFO&showAll=true"));
+
+        Long hits = (Long) mbeanServer.getAttribute(on, "NormalizedUriHits");
+        assertTrue("Should have hits: " + hits, hits > 0);
+        Long misses = (Long) mbeanServer.getAttribute(on, "NormalizedUriMisses");
+        assertTrue("Should have misses: " + misses, misses > 0);
+        Integer size = (Integer) mbeanServer.getAttribute(on, "NormalizedUriCacheSize");
+        assertTrue("Should have cached uris: " + size, size >= 2);
+
+        hits = (Long) mbeanServer.getAttribute(on, "Hits");
+        assertTrue("Should have hits: " + hits, hits > 0);
+    }
+
     @Override
     protected RouteBuilder createRouteBuilder() throws Exception {
         return new RouteBuilder() {
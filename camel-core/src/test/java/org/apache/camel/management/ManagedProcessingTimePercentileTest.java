@@ -0,0 +1,79 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.management;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.camel.builder.RouteBuilder;
+
+/**
+ * @version 
+ */
+public class ManagedProcessingTimePercentileTest extends ManagementTestSupport {
+
+    public void testProcessingTimePercentiles() throws Exception {
+        // JMX tests dont work well on AIX CI servers (hangs them)
+        if (isPlatform("aix")) {
+            return;
+        }
+
+        MBeanServer mbeanServer = getMBeanServer();
+        ObjectName on = ObjectName.getInstance("org.apache.camel:context=camel-1,type=routes,name=\"route1\"");
+
+        Long median = (Long) mbeanServer.getAttribute(on, "MedianProcessingTime");
+        assertEquals(0, median.longValue());
+
+        getMockEndpoint("mock:result").expectedMessageCount(10);
+
+        for (int i = 0; i < 10; i++) {
+            template.sendBody("direct:start", "Hello World");
+        }
+
+        assertMockEndpointsSatisfied();
+
+        median = (Long) mbeanServer.getAttribute(on, "MedianProcessingTime");
+        Long p99 = (Long) mbeanServer.getAttribute(on, "P99ProcessingTime");
+        Long p999 = (Long) mbeanServer.getAttribute(on, "P999ProcessingTime");
+        Long min = (Long) mbeanServer.getAttribute(on, "MinProcessingTime");
+        Long max = (Long) mbeanServer.getAttribute(on, "MaxProcessingTime");
+
+        assertTrue("Should take around 50 millis: was " + median, median >= 45);
+        assertTrue(median >= min);
+        assertTrue(p99 >= median);
+        assertTrue(p999 >= p99);
+        assertTrue(p999 <= max);
+
+        String xml = (String) mbeanServer.invoke(on, "dumpStatsAsXml", new Object[]{false}, new String[]{"boolean"});
+        assertTrue(xml, xml.contains("p99ProcessingTime=\"" + p99 + "\""));
+
+        mbeanServer.invoke(on, "reset", null, null);
+        median = (Long) mbeanServer.getAttribute(on, "MedianProcessingTime");
+        assertEquals(0, median.longValue());
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start").delay(50).to("mock:result");
+            }
+        };
+    }
+
+}
@@ -81,6 +81,11 @@ public class ManagedTypeConverterRegistryTest extends ManagementTestSupport {
         assertEquals(1, failed.intValue());
         miss = (Long) mbeanServer.getAttribute(name, "MissCounter");
         assertEquals(0, miss.intValue());
+        Long cacheHits = (Long) mbeanServer.getAttribute(name, "CacheHitCounter");
+        Long cacheMisses = (Long) mbeanServer.getAttribute(name, "CacheMissCounter");
+        assertTrue("Should have looked up type converters", cacheHits + cacheMisses > 0);
+        Long lookupTime = (Long) mbeanServer.getAttribute(name, "LookupTime");
+        assertTrue(lookupTime >= 0);
 
         // reset
         mbeanServer.invoke(name, "resetTypeConversionCounters", null, null);
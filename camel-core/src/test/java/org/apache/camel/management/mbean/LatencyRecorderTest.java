@@ -0,0 +1,110 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.management.mbean;
+
+import junit.framework.TestCase;
+
+public class LatencyRecorderTest extends TestCase {
+
+    public void testEmpty() throws Exception {
+        LatencyRecorder recorder = new LatencyRecorder();
+        assertEquals(0, recorder.getCount());
+        assertEquals(0, recorder.getMin());
+        assertEquals(0, recorder.getMax());
+        assertEquals(0, recorder.getMean());
+        assertEquals(0, recorder.getValueAtPercentile(99));
+    }
+
+    public void testPercentiles() throws Exception {
+        LatencyRecorder recorder = new LatencyRecorder();
+        for (int i = 1; i <= 1000; i++) {
+            recorder.record(i);
+        }
+
+        assertEquals(1000, recorder.getCount());
+        assertEquals(1, recorder.getMin());
+        assertEquals(1000, recorder.getMax());
+        assertEquals(500, recorder.getMean());
+        assertEquals(500500, recorder.getTotal());
+
+        // accurate within about 3%
+        assertInRange(500, recorder.getValueAtPercentile(50));
+        assertInRange(990, recorder.getValueAtPercentile(99));
+        assertEquals(1000, recorder.getValueAtPercentile(99.9));
+        assertEquals(1000, recorder.getValueAtPercentile(100));
+    }
+
+    public void testSmallValuesAreExact() throws Exception {
+        LatencyRecorder recorder = new LatencyRecorder();
+        for (int i = 0; i < 100; i++) {
+            recorder.record(i < 99 ? 5 : 60);
+        }
+
+        assertEquals(5, recorder.getValueAtPercentile(50));
+        assertEquals(5, recorder.getValueAtPercentile(99));
+        assertEquals(60, recorder.getValueAtPercentile(99.9));
+    }
+
+    public void testLargeValues() throws Exception {
+        LatencyRecorder recorder = new LatencyRecorder();
+        recorder.record(Long.MAX_VALUE);
+        recorder.record(-1);
+
+        assertEquals(0, recorder.getMin());
+        assertEquals(Long.MAX_VALUE, recorder.getMax());
+        assertEquals(Long.MAX_VALUE, recorder.getValueAtPercentile(99));
+    }
+
+    public void testReset() throws Exception {
+        LatencyRecorder recorder = new LatencyRecorder();
+        recorder.record(123);
+        recorder.reset();
+
+        assertEquals(0, recorder.getCount());
+        assertEquals(0, recorder.getMax());
+        assertEquals(0, recorder.getValueAtPercentile(50));
+    }
+
+    public void testConcurrentRecording() throws Exception {
+        final LatencyRecorder recorder = new LatencyRecorder();
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(new Runnable() {
+                public void run() {
+                    for (int j = 0; j < 10000; j++) {
+                        recorder.record(j % 100);
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(40000, recorder.getCount());
+        assertEquals(0, recorder.getMin());
+        assertEquals(99, recorder.getMax());
+        assertEquals(49, recorder.getMean());
+        assertEquals(49, recorder.getValueAtPercentile(50));
+    }
+
+    private static void assertInRange(long expected, long actual) {
+        assertTrue("Expected around " + expected + " was " + actual, Math.abs(actual - expected) <= expected * 0.03);
+    }
+
+}
@@ -0,0 +1,140 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.impl.CompactMessageHistory;
+import org.apache.camel.impl.CompactMessageHistoryFactory;
+import org.apache.camel.spi.MessageHistoryExporter;
+import org.apache.camel.util.MessageHelper;
+
+public class CompactMessageHistoryTest extends ContextTestSupport {
+
+    private final CompactMessageHistoryFactory factory = new CompactMessageHistoryFactory();
+    private final List<CompactMessageHistory> exported = new CopyOnWriteArrayList<CompactMessageHistory>();
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        CamelContext context = super.createCamelContext();
+        factory.setExporter(new MessageHistoryExporter() {
+            public void export(Exchange exchange, CompactMessageHistory history) {
+                exported.add(history);
+            }
+        });
+        context.setMessageHistoryFactory(factory);
+        return context;
+    }
+
+    public void testCompactMessageHistory() throws Exception {
+        getMockEndpoint("mock:a").expectedMessageCount(1);
+        getMockEndpoint("mock:bar").expectedMessageCount(1);
+
+        template.sendBody("direct:start", "Hello World");
+
+        assertMockEndpointsSatisfied();
+
+        Exchange exchange = getMockEndpoint("mock:bar").getReceivedExchanges().get(0);
+        List<?> list = exchange.getProperty(Exchange.MESSAGE_HISTORY, List.class);
+        assertTrue(list instanceof CompactMessageHistory);
+
+        CompactMessageHistory history = (CompactMessageHistory) list;
+        assertEquals(5, history.size());
+        assertEquals("foo", history.getNode(0).getId());
+        assertEquals("a", history.getNode(1).getId());
+        assertEquals("to-bar", history.getNode(2).getId());
+        assertEquals("bar", history.getNode(3).getId());
+        assertEquals("mock-bar", history.getNode(4).getId());
+        assertEquals("start", history.getRouteId(0));
+        assertEquals("bar", history.getRouteId(3));
+        assertTrue(history.isDone(0));
+        assertTrue(history.isDone(1));
+        assertTrue(history.getStartNanos(1) >= history.getStartNanos(0));
+
+        // the entries are views of the compact history
+        assertEquals("a", history.get(1).getNode().getId());
+        assertEquals("start", history.get(1).getRouteId());
+
+        String dump = MessageHelper.dumpMessageHistoryStacktrace(exchange, null, false);
+        assertTrue(dump, dump.contains("mock-bar"));
+
+        // the history is exported when the exchange is done
+        assertEquals(1, exported.size());
+        CompactMessageHistory done = exported.get(0);
+        assertEquals(5, done.size());
+        for (int i = 0; i < done.size(); i++) {
+            assertTrue(done.isDone(i));
+        }
+    }
+
+    public void testCopyOfCompactMessageHistory() throws Exception {
+        getMockEndpoint("mock:bar").expectedMessageCount(1);
+
+        template.sendBody("direct:start", "Hello World");
+
+        assertMockEndpointsSatisfied();
+
+        Exchange exchange = getMockEndpoint("mock:bar").getReceivedExchanges().get(0);
+        Exchange copy = exchange.copy();
+        Object history = exchange.getProperty(Exchange.MESSAGE_HISTORY);
+        Object copied = copy.getProperty(Exchange.MESSAGE_HISTORY);
+        assertTrue(copied instanceof CompactMessageHistory);
+        assertNotSame(history, copied);
+        assertEquals(5, ((List<?>) copied).size());
+    }
+
+    public void testSampledMessageHistory() throws Exception {
+        // practically never sampled
+        factory.setSampleRate(Integer.MAX_VALUE);
+
+        getMockEndpoint("mock:bar").expectedMessageCount(10);
+
+        for (int i = 0; i < 10; i++) {
+            template.sendBody("direct:start", "Hello World");
+        }
+
+        assertMockEndpointsSatisfied();
+
+        for (Exchange exchange : getMockEndpoint("mock:bar").getReceivedExchanges()) {
+            List<?> list = exchange.getProperty(Exchange.MESSAGE_HISTORY, List.class);
+            assertTrue(list.isEmpty());
+        }
+        assertEquals(0, exported.size());
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start").routeId("start")
+                    .to("log:foo").id("foo")
+                    .to("mock:a").id("a")
+                    .to("direct:bar").id("to-bar");
+
+                from("direct:bar").routeId("bar")
+                    .to("log:bar").id("bar")
+                    .to("mock:bar").id("mock-bar");
+            }
+        };
+    }
+}
@@ -0,0 +1,185 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import junit.framework.TestCase;
+import org.apache.camel.processor.idempotent.ConcurrentMemoryIdempotentRepository;
+
+/**
+ * @version 
+ */
+public class ConcurrentMemoryIdempotentRepositoryTest extends TestCase {
+
+    public void testAddContainsRemove() throws Exception {
+        ConcurrentMemoryIdempotentRepository repo = new ConcurrentMemoryIdempotentRepository();
+        repo.start();
+
+        assertTrue(repo.add("1"));
+        assertTrue(repo.add("2"));
+        assertFalse(repo.add("1"));
+        assertTrue(repo.contains("1"));
+        assertFalse(repo.contains("3"));
+        assertEquals(2, repo.getSize());
+
+        assertTrue(repo.remove("1"));
+        assertFalse(repo.remove("1"));
+        assertFalse(repo.contains("1"));
+        assertEquals(1, repo.getSize());
+
+        // can be added again after removal
+        assertTrue(repo.add("1"));
+        assertTrue(repo.contains("1"));
+
+        // only adding a key counts as a hit or a miss
+        assertEquals(1, repo.getHitCount());
+        assertEquals(3, repo.getMissCount());
+        assertEquals(0, repo.getEvictionCount());
+
+        repo.clear();
+        assertEquals(0, repo.getSize());
+        assertFalse(repo.contains("2"));
+
+        repo.stop();
+    }
+
+    public void testEvictOldestWhenFull() throws Exception {
+        ConcurrentMemoryIdempotentRepository repo = new ConcurrentMemoryIdempotentRepository(3);
+        repo.start();
+
+        assertTrue(repo.add("1"));
+        assertTrue(repo.add("2"));
+        assertTrue(repo.add("3"));
+        assertTrue(repo.add("4"));
+
+        assertEquals(3, repo.getSize());
+        assertEquals(1, repo.getEvictionCount());
+        assertFalse(repo.contains("1"));
+        assertTrue(repo.contains("2"));
+        assertTrue(repo.contains("3"));
+        assertTrue(repo.contains("4"));
+
+        // removed keys are not evicted again
+        repo.remove("2");
+        assertTrue(repo.add("5"));
+        assertTrue(repo.add("6"));
+        assertEquals(3, repo.getSize());
+        assertEquals(2, repo.getEvictionCount());
+        assertFalse(repo.contains("3"));
+        assertTrue(repo.contains("4"));
+        assertTrue(repo.contains("5"));
+        assertTrue(repo.contains("6"));
+
+        repo.stop();
+    }
+
+    public void testTimeToLive() throws Exception {
+        ConcurrentMemoryIdempotentRepository repo = new ConcurrentMemoryIdempotentRepository(100, 200);
+        repo.start();
+
+        assertTrue(repo.add("1"));
+        assertFalse(repo.add("1"));
+        assertTrue(repo.contains("1"));
+
+        Thread.sleep(300);
+
+        assertFalse(repo.contains("1"));
+        assertEquals(0, repo.getSize());
+        assertTrue(repo.add("1"));
+        assertTrue(repo.add("2"));
+
+        Thread.sleep(300);
+
+        // expired keys can be added again
+        assertTrue(repo.add("2"));
+        assertTrue(repo.add("3"));
+        assertFalse(repo.contains("1"));
+        assertEquals(2, repo.getSize());
+        assertEquals(3, repo.getEvictionCount());
+
+        repo.stop();
+    }
+
+    public void testFingerprint() throws Exception {
+        ConcurrentMemoryIdempotentRepository repo = new ConcurrentMemoryIdempotentRepository(100000);
+        repo.setFingerprint(true);
+        repo.start();
+
+        for (int i = 0; i < 50000; i++) {
+            assertTrue(repo.add("/var/data/inbox/order-" + i + ".xml"));
+        }
+        for (int i = 0; i < 50000; i++) {
+            assertTrue(repo.contains("/var/data/inbox/order-" + i + ".xml"));
+            assertFalse(repo.contains("/var/data/inbox/order-" + i + ".txt"));
+        }
+        // keys which only differ in the tail or in length
+        assertTrue(repo.add(""));
+        assertTrue(repo.add("a"));
+        assertTrue(repo.add("a\u0000"));
+        assertTrue(repo.add("abcdefgh"));
+        assertTrue(repo.add("abcdefghi"));
+        assertFalse(repo.add("abcdefghi"));
+        assertEquals(50005, repo.getSize());
+
+        assertTrue(repo.remove("abcdefgh"));
+        assertFalse(repo.contains("abcdefgh"));
+        assertTrue(repo.contains("abcdefghi"));
+
+        repo.stop();
+    }
+
+    public void testConcurrentAdd() throws Exception {
+        final ConcurrentMemoryIdempotentRepository repo = new ConcurrentMemoryIdempotentRepository(1000);
+        repo.start();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+        for (int t = 0; t < 4; t++) {
+            futures.add(executor.submit(new Callable<Integer>() {
+                public Integer call() throws Exception {
+                    int added = 0;
+                    for (int i = 0; i < 500; i++) {
+                        if (repo.add("key" + i)) {
+                            added++;
+                        }
+                    }
+                    return added;
+                }
+            }));
+        }
+
+        int added = 0;
+        for (Future<Integer> future : futures) {
+            added += future.get();
+        }
+        executor.shutdownNow();
+
+        // each key must only be added once
+        assertEquals(500, added);
+        assertEquals(500, repo.getSize());
+        assertEquals(500, repo.getMissCount());
+        assertEquals(1500, repo.getHitCount());
+
+        repo.stop();
+    }
+}
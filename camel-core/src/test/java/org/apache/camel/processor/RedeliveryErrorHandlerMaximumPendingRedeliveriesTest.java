@@ -0,0 +1,123 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.builder.RouteBuilder;
+
+/**
+ * @version 
+ */
+public class RedeliveryErrorHandlerMaximumPendingRedeliveriesTest extends ContextTestSupport {
+
+    public void testMaximumPendingRedeliveries() throws Exception {
+        // the first message is parked in the redelivery timer
+        Future<Object> future = template.asyncRequestBody("direct:start", "World");
+
+        RedeliveryTimer timer = context.hasService(RedeliveryTimer.class);
+        assertNotNull("Should have a redelivery timer", timer);
+        for (int i = 0; i < 50 && timer.getParkedCount() == 0; i++) {
+            Thread.sleep(100);
+        }
+        assertEquals(1, timer.getParkedCount());
+        assertEquals(1, timer.getPendingCount("foo"));
+
+        // the maximum has been reached so the second message is redelivered by the current thread
+        String thread = Thread.currentThread().getName();
+        assertEquals("Hello Camel by " + thread, template.requestBody("direct:start", "Camel"));
+
+        String reply = (String) future.get(10, TimeUnit.SECONDS);
+        assertTrue(reply, reply.startsWith("Hello World by "));
+        assertFalse(reply, reply.equals("Hello World by " + thread));
+
+        assertEquals(0, timer.getParkedCount());
+        assertEquals(0, timer.getPendingCount("foo"));
+    }
+
+    public void testMaximumPendingRedeliveriesPerErrorHandler() throws Exception {
+        RedeliveryTimer timer = context.hasService(RedeliveryTimer.class);
+        assertNotNull("Should have a redelivery timer", timer);
+
+        // the messages are parked by a route without a maximum
+        Future<Object> slow1 = template.asyncRequestBody("direct:slow", "Slow1");
+        Future<Object> slow2 = template.asyncRequestBody("direct:slow", "Slow2");
+        waitForPending(timer, "slow", 2);
+
+        // which does not count towards the maximum of the other error handlers so this message is parked as well
+        Future<Object> future = template.asyncRequestBody("direct:start", "World");
+        for (int i = 0; i < 50 && timer.getParkedCount() < 3; i++) {
+            Thread.sleep(100);
+        }
+        assertEquals(3, timer.getParkedCount());
+        assertEquals(1, timer.getPendingCount("foo"));
+
+        // the maximum of the error handler has been reached so this message is redelivered by the current thread
+        String thread = Thread.currentThread().getName();
+        assertEquals("Hello Camel by " + thread, template.requestBody("direct:start", "Camel"));
+
+        String reply = (String) future.get(10, TimeUnit.SECONDS);
+        assertTrue(reply, reply.startsWith("Hello World by "));
+        assertFalse(reply, reply.equals("Hello World by " + thread));
+
+        assertTrue(((String) slow1.get(10, TimeUnit.SECONDS)).startsWith("Hello Slow1 by "));
+        assertTrue(((String) slow2.get(10, TimeUnit.SECONDS)).startsWith("Hello Slow2 by "));
+
+        assertEquals(0, timer.getParkedCount());
+        assertEquals(0, timer.getPendingCount("foo"));
+        assertEquals(0, timer.getPendingCount("slow"));
+    }
+
+    private static void waitForPending(RedeliveryTimer timer, String routeId, int expected) throws InterruptedException {
+        for (int i = 0; i < 50 && timer.getPendingCount(routeId) < expected; i++) {
+            Thread.sleep(100);
+        }
+        assertEquals(expected, timer.getPendingCount(routeId));
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                errorHandler(defaultErrorHandler().maximumRedeliveries(1).redeliveryDelay(2000)
+                    .asyncDelayedRedelivery().maximumPendingRedeliveries(1));
+
+                Processor hello = new Processor() {
+                    public void process(Exchange exchange) throws Exception {
+                        if (!exchange.getIn().getHeader(Exchange.REDELIVERED, false, Boolean.class)) {
+                            throw new IllegalArgumentException("Damn");
+                        }
+                        String body = exchange.getIn().getBody(String.class);
+                        exchange.getIn().setBody("Hello " + body + " by " + Thread.currentThread().getName());
+                    }
+                };
+
+                from("direct:start").routeId("foo")
+                    .process(hello);
+
+                from("direct:slow").routeId("slow")
+                    .errorHandler(defaultErrorHandler().maximumRedeliveries(1).redeliveryDelay(2000).asyncDelayedRedelivery())
+                    .process(hello);
+            }
+        };
+    }
+}
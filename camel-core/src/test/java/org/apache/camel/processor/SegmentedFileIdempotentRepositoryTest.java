@@ -0,0 +1,262 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.processor.idempotent.SegmentedFileIdempotentRepository;
+
+/**
+ * @version 
+ */
+public class SegmentedFileIdempotentRepositoryTest extends ContextTestSupport {
+
+    private File store = new File("target/idempotentsegments");
+    private SegmentedFileIdempotentRepository repo;
+
+    @Override
+    protected void setUp() throws Exception {
+        deleteDirectory(store);
+        repo = createRepository();
+        super.setUp();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        repo.stop();
+    }
+
+    public void testDuplicateMessagesAreFilteredOut() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedBodiesReceived("one", "two", "three");
+
+        template.sendBodyAndHeader("direct:start", "one", "messageId", "1");
+        template.sendBodyAndHeader("direct:start", "two", "messageId", "2");
+        template.sendBodyAndHeader("direct:start", "one", "messageId", "1");
+        template.sendBodyAndHeader("direct:start", "two", "messageId", "2");
+        template.sendBodyAndHeader("direct:start", "three", "messageId", "3");
+
+        assertMockEndpointsSatisfied();
+
+        assertTrue(repo.contains("1"));
+        assertTrue(repo.contains("2"));
+        assertTrue(repo.contains("3"));
+        assertFalse(repo.contains("4"));
+    }
+
+    public void testReloadOnRestart() throws Exception {
+        assertTrue(repo.add("foo"));
+        assertTrue(repo.add("bar"));
+        assertTrue(repo.add("baz"));
+        assertFalse(repo.add("foo"));
+        assertTrue(repo.remove("bar"));
+        assertFalse(repo.remove("bar"));
+        assertEquals(2, repo.getSize());
+
+        repo.stop();
+        assertFalse(repo.contains("foo"));
+        repo.start();
+
+        assertEquals(2, repo.getSize());
+        assertTrue(repo.contains("foo"));
+        assertFalse(repo.contains("bar"));
+        assertTrue(repo.contains("baz"));
+
+        // and continue appending after the existing records
+        assertTrue(repo.add("bar"));
+        repo.stop();
+        repo.start();
+        assertEquals(3, repo.getSize());
+        assertTrue(repo.contains("bar"));
+    }
+
+    public void testReloadWithoutFingerprint() throws Exception {
+        repo.stop();
+        deleteDirectory(store);
+        repo = createRepository();
+        repo.setFingerprint(false);
+        repo.start();
+        assertTrue(repo.add("foo"));
+        assertTrue(repo.add("bår"));
+
+        repo.stop();
+        repo.start();
+        assertTrue(repo.contains("foo"));
+        assertTrue(repo.contains("bår"));
+    }
+
+    public void testRollOverSegments() throws Exception {
+        repo.stop();
+        deleteDirectory(store);
+        repo = createRepository();
+        repo.setSegmentSize(100);
+        repo.start();
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(repo.add("key" + i));
+        }
+        assertTrue(repo.getSegmentCount() >= 10);
+
+        repo.stop();
+        repo.start();
+        assertEquals(100, repo.getSize());
+        for (int i = 0; i < 100; i++) {
+            assertTrue(repo.contains("key" + i));
+        }
+
+        try {
+            repo.add("a key which is longer than the size of the segments of the repository, and cannot be stored at all");
+            fail("Should have thrown an exception");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    public void testCompaction() throws Exception {
+        repo.stop();
+        deleteDirectory(store);
+        repo = createRepository();
+        repo.setSegmentSize(100);
+        repo.start();
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(repo.add("key" + i));
+        }
+        // remove most of the keys, but a few
+        for (int i = 0; i < 100; i++) {
+            if (i % 10 != 0) {
+                assertTrue(repo.remove("key" + i));
+            }
+        }
+        int segments = repo.getSegmentCount();
+
+        repo.compact();
+
+        assertTrue(repo.getCompactionCount() > 0);
+        assertTrue("Should have fewer segments", repo.getSegmentCount() < segments);
+        assertEquals(10, repo.getSize());
+
+        repo.stop();
+        repo.start();
+        assertEquals(10, repo.getSize());
+        for (int i = 0; i < 100; i++) {
+            assertEquals("key" + i, i % 10 == 0, repo.contains("key" + i));
+        }
+    }
+
+    public void testPartlyWrittenRecordIsIgnored() throws Exception {
+        assertTrue(repo.add("foo"));
+        repo.stop();
+
+        // simulate a crash while the length and key of a record were written, but not its type
+        File segment = new File(store, "0000000001.segment");
+        RandomAccessFile raf = new RandomAccessFile(segment, "rw");
+        try {
+            raf.seek(8);
+            raf.writeInt(3);
+            raf.write("bar".getBytes());
+        } finally {
+            raf.close();
+        }
+
+        repo.start();
+        assertEquals(1, repo.getSize());
+        assertTrue(repo.contains("foo"));
+        assertFalse(repo.contains("bar"));
+
+        assertTrue(repo.add("bar"));
+        repo.stop();
+        repo.start();
+        assertTrue(repo.contains("bar"));
+    }
+
+    public void testPartlyWrittenRecordIsTruncated() throws Exception {
+        assertTrue(repo.add("foo"));
+        repo.stop();
+
+        // simulate a crash while a record was written, whose key looks like a record after a shorter record
+        File segment = new File(store, "0000000001.segment");
+        RandomAccessFile raf = new RandomAccessFile(segment, "rw");
+        try {
+            raf.seek(9);
+            raf.writeInt(11);
+            raf.write("xyz".getBytes());
+            raf.write(1);
+            raf.writeInt(3);
+            raf.write("baz".getBytes());
+        } finally {
+            raf.close();
+        }
+
+        repo.start();
+        assertEquals(1, repo.getSize());
+
+        // the record is appended over the partly written record
+        assertTrue(repo.add("bar"));
+        repo.stop();
+        repo.start();
+        assertEquals(2, repo.getSize());
+        assertTrue(repo.contains("foo"));
+        assertTrue(repo.contains("bar"));
+        assertFalse(repo.contains("baz"));
+    }
+
+    public void testClear() throws Exception {
+        repo.stop();
+        deleteDirectory(store);
+        repo = createRepository();
+        repo.setSegmentSize(100);
+        repo.start();
+
+        for (int i = 0; i < 20; i++) {
+            assertTrue(repo.add("key" + i));
+        }
+        repo.clear();
+        assertEquals(0, repo.getSize());
+        assertEquals(1, repo.getSegmentCount());
+        assertFalse(repo.contains("key1"));
+
+        repo.stop();
+        repo.start();
+        assertEquals(0, repo.getSize());
+    }
+
+    private SegmentedFileIdempotentRepository createRepository() {
+        SegmentedFileIdempotentRepository answer = new SegmentedFileIdempotentRepository(store);
+        answer.setCamelContext(context);
+        answer.setSyncBatchSize(1);
+        answer.setCompactionInterval(0);
+        return answer;
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start")
+                    .idempotentConsumer(header("messageId"), repo)
+                    .to("mock:result");
+            }
+        };
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.io.ByteArrayInputStream;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.converter.stream.ByteBufferInputStreamCache;
+
+/**
+ *
+ */
+public class SplitTokenizerBinaryTest extends ContextTestSupport {
+
+    @Override
+    protected void setUp() throws Exception {
+        deleteDirectory("target/tokenize");
+        super.setUp();
+    }
+
+    public void testSplitFile() throws Exception {
+        getMockEndpoint("mock:line").expectedBodiesReceived("ABC", "DEF", "GHI", "JKL", "MN");
+        getMockEndpoint("mock:line").message(0).body().isInstanceOf(ByteBufferInputStreamCache.class);
+
+        template.sendBodyAndHeader("file:target/tokenize", "ABC\nDEF\nGHI\nJKL\nMN\n", Exchange.FILE_NAME, "data.txt");
+
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testSplitStreamGroup() throws Exception {
+        getMockEndpoint("mock:group").expectedBodiesReceived("DEF\nGHI", "JKL\nMN");
+
+        template.sendBody("direct:group", new ByteArrayInputStream("ABC\nDEF\nGHI\nJKL\nMN".getBytes()));
+
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testSplitStringFallback() throws Exception {
+        getMockEndpoint("mock:group").expectedBodiesReceived("DEF\nGHI", "JKL\nMN");
+
+        template.sendBody("direct:group", "ABC\nDEF\nGHI\nJKL\nMN");
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("file:target/tokenize?initialDelay=0&delay=10")
+                    .split().tokenizeBinary("\n").streaming()
+                        .to("mock:line");
+
+                from("direct:group")
+                    // skip the header line and group by 2
+                    .split().tokenizeBinary("\n", 2, true).streaming()
+                        .to("mock:group");
+            }
+        };
+    }
+
+}
@@ -0,0 +1,127 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+
+/**
+ * @version 
+ */
+public class SplitterCopyOnWriteTest extends ContextTestSupport {
+
+    public void testSplitterCopyOnWrite() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:split");
+        mock.expectedBodiesReceived("A", "B", "C");
+        mock.allMessages().header("foo").isEqualTo("123");
+        mock.allMessages().exchangeProperty("bar").isEqualTo("456");
+        mock.message(0).header("letter").isEqualTo("A");
+        mock.message(1).header("letter").isEqualTo("B");
+        mock.message(2).header("letter").isEqualTo("C");
+        mock.message(0).exchangeProperty(Exchange.SPLIT_INDEX).isEqualTo(0);
+        mock.message(2).exchangeProperty(Exchange.SPLIT_COMPLETE).isEqualTo(true);
+
+        MockEndpoint result = getMockEndpoint("mock:result");
+        result.expectedBodiesReceived("A,B,C");
+        result.message(0).header("letter").isNull();
+        result.message(0).exchangeProperty(Exchange.SPLIT_INDEX).isNull();
+
+        template.sendBodyAndHeader("direct:start", "A,B,C", "foo", "123");
+
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testMulticastCopyOnWrite() throws Exception {
+        getMockEndpoint("mock:a").expectedHeaderReceived("letter", "A");
+        getMockEndpoint("mock:a").message(0).exchangeProperty("bar").isEqualTo("456");
+        getMockEndpoint("mock:b").expectedHeaderReceived("letter", "B");
+        getMockEndpoint("mock:b").message(0).header("foo").isEqualTo("123");
+
+        template.sendBodyAndHeader("direct:multicast", "Hello World", "foo", "123");
+
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testWireTapCopyOnWrite() throws Exception {
+        getMockEndpoint("mock:tap").expectedMessageCount(1);
+        getMockEndpoint("mock:tap").expectedHeaderReceived("letter", "T");
+        getMockEndpoint("mock:tap").message(0).exchangeProperty("bar").isEqualTo("456");
+        getMockEndpoint("mock:result").expectedBodiesReceived("Hello World");
+        getMockEndpoint("mock:result").message(0).header("foo").isEqualTo("123");
+
+        template.sendBodyAndHeader("direct:wiretap", "Hello World", "foo", "123");
+
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testRecipientListCopyOnWrite() throws Exception {
+        getMockEndpoint("mock:a").expectedHeaderReceived("letter", "A");
+        getMockEndpoint("mock:b").expectedHeaderReceived("letter", "B");
+        getMockEndpoint("mock:b").message(0).exchangeProperty("bar").isEqualTo("456");
+
+        template.sendBodyAndHeader("direct:recipientList", "Hello World", "foo", "123");
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start")
+                    .setProperty("bar", constant("456"))
+                    .split(body().tokenize(",")).copyOnWrite()
+                        .process(new SetLetterProcessor())
+                        .to("mock:split")
+                    .end()
+                    .to("mock:result");
+
+                from("direct:multicast")
+                    .setProperty("bar", constant("456"))
+                    .multicast().copyOnWrite()
+                        .to("direct:a", "direct:b")
+                    .end()
+                    .to("mock:result");
+
+                from("direct:wiretap")
+                    .setProperty("bar", constant("456"))
+                    .wireTap("direct:tap").copyOnWrite()
+                    .to("mock:result");
+
+                from("direct:recipientList")
+                    .setProperty("bar", constant("456"))
+                    .recipientList(constant("direct:a,direct:b")).copyOnWrite();
+
+                from("direct:a").setBody(constant("A")).process(new SetLetterProcessor()).to("mock:a");
+                from("direct:b").setBody(constant("B")).process(new SetLetterProcessor()).to("mock:b");
+                from("direct:tap").setBody(constant("T")).process(new SetLetterProcessor()).to("mock:tap");
+            }
+        };
+    }
+
+    private static final class SetLetterProcessor implements Processor {
+        public void process(Exchange exchange) throws Exception {
+            exchange.getIn().setHeader("letter", exchange.getIn().getBody(String.class));
+            exchange.setProperty("bar", exchange.getProperty("bar"));
+        }
+    }
+
+}
@@ -0,0 +1,177 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+
+public class ThrottlerTokenBucketTest extends ContextTestSupport {
+    private static final int INTERVAL = 500;
+
+    protected boolean canTest() {
+        // skip test on windows as it does not run well there
+        return !isPlatform("windows");
+    }
+
+    public void testSendLotsOfMessagesSimultaneously() throws Exception {
+        if (!canTest()) {
+            return;
+        }
+
+        MockEndpoint resultEndpoint = getMockEndpoint("mock:result");
+        resultEndpoint.expectedMessageCount(9);
+
+        ExecutorService executor = Executors.newFixedThreadPool(9);
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < 9; i++) {
+                executor.execute(new Runnable() {
+                    public void run() {
+                        template.sendBody("direct:a", "<message>payload</message>");
+                    }
+                });
+            }
+            resultEndpoint.assertIsSatisfied();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // 3 per period means the last 3 messages must wait for two periods
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue("Should take at least " + (2 * INTERVAL - 50) + "ms, was: " + elapsed, elapsed >= 2 * INTERVAL - 50);
+    }
+
+    public void testNoMoreThanMaximumRequestsWithinPeriod() throws Exception {
+        if (!canTest()) {
+            return;
+        }
+
+        MockEndpoint resultEndpoint = getMockEndpoint("mock:result");
+        resultEndpoint.expectedMessageCount(12);
+
+        ExecutorService executor = Executors.newFixedThreadPool(12);
+        try {
+            for (int i = 0; i < 12; i++) {
+                executor.execute(new Runnable() {
+                    public void run() {
+                        template.sendBody("direct:a", "<message>payload</message>");
+                    }
+                });
+            }
+            resultEndpoint.assertIsSatisfied();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<Long> received = new ArrayList<Long>();
+        for (Exchange exchange : resultEndpoint.getReceivedExchanges()) {
+            received.add(exchange.getProperty(Exchange.RECEIVED_TIMESTAMP, Date.class).getTime());
+        }
+        Collections.sort(received);
+
+        // 3 per period means the 4th message after any message must be at least a period later
+        for (int i = 3; i < received.size(); i++) {
+            long elapsed = received.get(i) - received.get(i - 3);
+            assertTrue("Should be at least " + (INTERVAL - 50) + "ms between message " + (i - 3) + " and " + i + ", was: " + elapsed,
+                    elapsed >= INTERVAL - 50);
+        }
+    }
+
+    public void testSendLotsOfMessagesWithRejectExecution() throws Exception {
+        getMockEndpoint("mock:result").expectedMessageCount(2);
+        getMockEndpoint("mock:error").expectedMessageCount(4);
+
+        for (int i = 0; i < 6; i++) {
+            template.sendBody("direct:reject", "<message>" + i + "</message>");
+        }
+
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testThrottlePerCorrelationKey() throws Exception {
+        getMockEndpoint("mock:result").expectedBodiesReceivedInAnyOrder("a0", "a1", "b0", "b1");
+        getMockEndpoint("mock:error").expectedBodiesReceivedInAnyOrder("a2", "b2");
+
+        for (int i = 0; i < 3; i++) {
+            template.sendBodyAndHeader("direct:key", "a" + i, "key", "a");
+            template.sendBodyAndHeader("direct:key", "b" + i, "key", "b");
+        }
+
+        assertMockEndpointsSatisfied();
+
+        TokenBucketThrottler throttler = context.getProcessor("keyThrottler", TokenBucketThrottler.class);
+        assertEquals(2, throttler.getBucketCount());
+        assertEquals(2, throttler.getCurrentMaximumRequestsPerPeriod());
+    }
+
+    public void testAsyncDelayed() throws Exception {
+        if (!canTest()) {
+            return;
+        }
+
+        MockEndpoint resultEndpoint = getMockEndpoint("mock:result");
+        resultEndpoint.expectedBodiesReceived("0", "1", "2", "3", "4", "5");
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 6; i++) {
+            template.sendBody("seda:async", "" + i);
+        }
+        resultEndpoint.assertIsSatisfied();
+
+        // 2 per period means the last 2 messages must wait for two periods
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue("Should take at least " + (2 * INTERVAL - 50) + "ms, was: " + elapsed, elapsed >= 2 * INTERVAL - 50);
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                onException(ThrottlerRejectedExecutionException.class)
+                    .handled(true)
+                    .to("mock:error");
+
+                from("direct:a")
+                    .throttle(3).timePeriodMillis(INTERVAL).tokenBucket()
+                    .to("mock:result");
+
+                from("direct:reject")
+                    .throttle(2).timePeriodMillis(10000).tokenBucket().rejectExecution(true)
+                    .to("mock:result");
+
+                from("direct:key")
+                    .throttle(2).timePeriodMillis(10000).correlationExpression(header("key")).rejectExecution(true).id("keyThrottler")
+                    .to("mock:result");
+
+                from("seda:async")
+                    .throttle(2).timePeriodMillis(INTERVAL).tokenBucket().asyncDelayed()
+                    .to("mock:result");
+            }
+        };
+    }
+}
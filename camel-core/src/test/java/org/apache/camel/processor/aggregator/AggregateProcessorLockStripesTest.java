@@ -0,0 +1,251 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.aggregator;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.Expression;
+import org.apache.camel.Processor;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.impl.DefaultExchange;
+import org.apache.camel.processor.BodyInAggregatingStrategy;
+import org.apache.camel.processor.SendProcessor;
+import org.apache.camel.processor.aggregate.AggregateProcessor;
+import org.apache.camel.processor.aggregate.AggregationStrategy;
+
+/**
+ * @version 
+ */
+public class AggregateProcessorLockStripesTest extends ContextTestSupport {
+
+    private ExecutorService executorService;
+
+    @Override
+    public boolean isUseRouteBuilder() {
+        return false;
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        executorService = Executors.newSingleThreadExecutor();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        executorService.shutdownNow();
+        super.tearDown();
+    }
+
+    public void testLockStripes() throws Exception {
+        Processor done = new SendProcessor(context.getEndpoint("mock:result"));
+        Expression corr = header("id");
+        AggregationStrategy as = new BodyInAggregatingStrategy();
+
+        AggregateProcessor ap = new AggregateProcessor(context, done, corr, as, executorService, true);
+        ap.setCompletionSize(2);
+        ap.start();
+        assertEquals("Should use a single lock by default", 1, ap.getLockStripes());
+        ap.stop();
+
+        ap = new AggregateProcessor(context, done, corr, as, executorService, true);
+        ap.setCompletionSize(2);
+        ap.setParallelProcessing(true);
+        ap.start();
+        assertEquals("Should not use lock stripes unless configured", 1, ap.getLockStripes());
+        ap.stop();
+
+        ap = new AggregateProcessor(context, done, corr, as, executorService, true);
+        ap.setCompletionSize(2);
+        ap.setLockStripes(10);
+        ap.start();
+        assertEquals("Should round up to a power of two", 16, ap.getLockStripes());
+        ap.stop();
+    }
+
+    public void testLockStripesFromRoute() throws Exception {
+        context.addRoutes(new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start")
+                    .aggregate(header("id"), new BodyInAggregatingStrategy()).lockStripes(10).parallelProcessing().completionSize(2).id("aggregator")
+                        .to("mock:result");
+            }
+        });
+        context.start();
+
+        AggregateProcessor ap = context.getProcessor("aggregator", AggregateProcessor.class);
+        assertEquals(16, ap.getLockStripes());
+
+        getMockEndpoint("mock:result").expectedBodiesReceived("A+B");
+        template.sendBodyAndHeader("direct:start", "A", "id", 1);
+        template.sendBodyAndHeader("direct:start", "B", "id", 1);
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testDifferentKeysAggregateInParallel() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedBodiesReceivedInAnyOrder("A+B", "C+D");
+
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        Processor done = new SendProcessor(context.getEndpoint("mock:result"));
+        Expression corr = header("id");
+        AggregationStrategy as = new BodyInAggregatingStrategy() {
+            @Override
+            public Exchange aggregate(Exchange oldExchange, Exchange newExchange) {
+                if ("A".equals(newExchange.getIn().getBody())) {
+                    // block the aggregation of this correlation key until the other key has completed
+                    blocked.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        // ignore
+                    }
+                }
+                return super.aggregate(oldExchange, newExchange);
+            }
+        };
+
+        final AggregateProcessor ap = new AggregateProcessor(context, done, corr, as, executorService, true);
+        ap.setCompletionSize(2);
+        ap.setLockStripes(16);
+        ap.start();
+
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        Future<?> future = caller.submit(new Runnable() {
+            public void run() {
+                try {
+                    ap.process(createExchange("A", "foo"));
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        assertTrue(blocked.await(10, TimeUnit.SECONDS));
+
+        // find a correlation key which is not striped to the same lock as the blocked key
+        String key = null;
+        for (int i = 0; key == null; i++) {
+            String candidate = "bar" + i;
+            int a = "foo".hashCode() ^ ("foo".hashCode() >>> 16);
+            int b = candidate.hashCode() ^ (candidate.hashCode() >>> 16);
+            if ((a & 15) != (b & 15)) {
+                key = candidate;
+            }
+        }
+
+        // the other correlation key is not blocked
+        ap.process(createExchange("C", key));
+        ap.process(createExchange("D", key));
+        assertEquals(0, ap.getStatistics().getLockContentionCount());
+
+        release.countDown();
+        future.get(10, TimeUnit.SECONDS);
+        ap.process(createExchange("B", "foo"));
+
+        assertMockEndpointsSatisfied();
+        assertEquals(4, ap.getStatistics().getTotalIn());
+        assertEquals(2, ap.getStatistics().getCompletedBySize());
+
+        caller.shutdownNow();
+        ap.stop();
+    }
+
+    public void testSameKeyIsContended() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedBodiesReceived("A+B");
+
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        Processor done = new SendProcessor(context.getEndpoint("mock:result"));
+        Expression corr = header("id");
+        AggregationStrategy as = new BodyInAggregatingStrategy() {
+            @Override
+            public Exchange aggregate(Exchange oldExchange, Exchange newExchange) {
+                if ("A".equals(newExchange.getIn().getBody())) {
+                    blocked.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        // ignore
+                    }
+                }
+                return super.aggregate(oldExchange, newExchange);
+            }
+        };
+
+        final AggregateProcessor ap = new AggregateProcessor(context, done, corr, as, executorService, true);
+        ap.setCompletionSize(2);
+        ap.setLockStripes(16);
+        ap.start();
+
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        Future<?> future = caller.submit(new Runnable() {
+            public void run() {
+                try {
+                    ap.process(createExchange("A", "foo"));
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        assertTrue(blocked.await(10, TimeUnit.SECONDS));
+
+        // release the blocked aggregation a bit later, while the same correlation key waits for the lock
+        new Thread(new Runnable() {
+            public void run() {
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    // ignore
+                }
+                release.countDown();
+            }
+        }).start();
+
+        ap.process(createExchange("B", "foo"));
+        future.get(10, TimeUnit.SECONDS);
+
+        assertMockEndpointsSatisfied();
+        assertEquals(1, ap.getStatistics().getLockContentionCount());
+        assertTrue(ap.getStatistics().getLockWaitTime() > 0);
+
+        ap.getStatistics().reset();
+        assertEquals(0, ap.getStatistics().getLockContentionCount());
+        assertEquals(0, ap.getStatistics().getLockWaitTime());
+
+        caller.shutdownNow();
+        ap.stop();
+    }
+
+    private Exchange createExchange(String body, String id) {
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setBody(body);
+        exchange.getIn().setHeader("id", id);
+        return exchange;
+    }
+}
@@ -182,14 +182,18 @@ public class AggregateProcessorTest extends ContextTestSupport {
     }
 
     public void testAggregateProcessorCompletionTimeout() throws Exception {
-        doTestAggregateProcessorCompletionTimeout(false);
+        doTestAggregateProcessorCompletionTimeout(false, false);
     }
 
     public void testAggregateProcessorCompletionTimeoutEager() throws Exception {
-        doTestAggregateProcessorCompletionTimeout(true);
+        doTestAggregateProcessorCompletionTimeout(true, false);
     }
 
-    private void doTestAggregateProcessorCompletionTimeout(boolean eager) throws Exception {
+    public void testAggregateProcessorCompletionTimeoutTimingWheel() throws Exception {
+        doTestAggregateProcessorCompletionTimeout(false, true);
+    }
+
+    private void doTestAggregateProcessorCompletionTimeout(boolean eager, boolean timingWheel) throws Exception {
         MockEndpoint mock = getMockEndpoint("mock:result");
         mock.expectedBodiesReceived("A+B+C");
         mock.expectedPropertyReceived(Exchange.AGGREGATED_COMPLETED_BY, "timeout");
@@ -201,6 +205,7 @@ public class AggregateProcessorTest extends ContextTestSupport {
         AggregateProcessor ap = new AggregateProcessor(context, done, corr, as, executorService, true);
         ap.setCompletionTimeout(3000);
         ap.setEagerCheckCompletion(eager);
+        ap.setCompletionTimeoutTimingWheel(timingWheel);
         ap.start();
 
         Exchange e1 = new DefaultExchange(context);
@@ -0,0 +1,180 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.resequencer;
+
+import org.apache.camel.TestSupport;
+
+public class RingResequencerEngineTest extends TestSupport {
+
+    private ManualRingResequencerEngine resequencer;
+    private SequenceBuffer<Integer> buffer;
+
+    public void setUp() throws Exception {
+        buffer = new SequenceBuffer<Integer>();
+        resequencer = new ManualRingResequencerEngine();
+        resequencer.setSequenceSender(buffer);
+        resequencer.setTimeout(100);
+        resequencer.setCapacity(100);
+        resequencer.start();
+    }
+
+    public void tearDown() throws Exception {
+        resequencer.stop();
+    }
+
+    public void testCapacity() throws Exception {
+        assertEquals(128, resequencer.getCapacity());
+        resequencer.setCapacity(10);
+        assertEquals(64, resequencer.getCapacity());
+    }
+
+    public void testFirstElementTimesOut() throws Exception {
+        resequencer.insert(4);
+        resequencer.deliver();
+        assertEquals(0, buffer.size());
+        assertEquals(100, resequencer.getNextTimeoutDelay());
+
+        resequencer.now += 100;
+        assertEquals(0, resequencer.getNextTimeoutDelay());
+        resequencer.deliver();
+        assertEquals((Integer) 4, buffer.poll(0));
+        assertEquals((Integer) 4, resequencer.getLastDelivered());
+        assertEquals(-1, resequencer.getNextTimeoutDelay());
+    }
+
+    public void testSuccessorDeliveredImmediately() throws Exception {
+        resequencer.setLastDelivered(3);
+        resequencer.insert(4);
+        resequencer.deliver();
+        assertEquals((Integer) 4, buffer.poll(0));
+        assertEquals((Integer) 4, resequencer.getLastDelivered());
+    }
+
+    public void testGapFilledDeliversRun() throws Exception {
+        resequencer.setLastDelivered(2);
+        resequencer.insert(6);
+        resequencer.insert(4);
+        resequencer.insert(5);
+        resequencer.deliver();
+        assertEquals(0, buffer.size());
+        assertEquals(3, resequencer.size());
+        assertEquals(1, resequencer.getGaps());
+
+        resequencer.insert(3);
+        resequencer.deliver();
+        assertEquals(4, buffer.size());
+        for (int i = 3; i <= 6; i++) {
+            assertEquals((Integer) i, buffer.poll(0));
+        }
+        assertEquals(0, resequencer.size());
+        assertEquals(0, resequencer.getGaps());
+        assertEquals(0, resequencer.getTimedOutGaps());
+    }
+
+    public void testGapTimesOut() throws Exception {
+        resequencer.setLastDelivered(2);
+        resequencer.insert(5);
+        resequencer.insert(4);
+        resequencer.insert(8);
+        assertEquals(3, resequencer.getGaps());
+
+        resequencer.now += 100;
+        resequencer.deliver();
+        assertEquals((Integer) 4, buffer.poll(0));
+        assertEquals((Integer) 5, buffer.poll(0));
+        assertEquals((Integer) 8, buffer.poll(0));
+        assertEquals(2, resequencer.getTimedOutGaps());
+
+        resequencer.insert(9);
+        resequencer.deliver();
+        assertEquals((Integer) 9, buffer.poll(0));
+    }
+
+    public void testWindowMovesBackBeforeFirstDelivery() throws Exception {
+        resequencer.insert(5);
+        resequencer.insert(3);
+        resequencer.insert(4);
+        resequencer.now += 100;
+        resequencer.deliver();
+        assertEquals((Integer) 3, buffer.poll(0));
+        assertEquals((Integer) 4, buffer.poll(0));
+        assertEquals((Integer) 5, buffer.poll(0));
+    }
+
+    public void testOverflow() throws Exception {
+        resequencer.setLastDelivered(0);
+        resequencer.insert(1000);
+        resequencer.insert(1);
+        resequencer.insert(1001);
+        assertEquals(3, resequencer.size());
+
+        resequencer.deliver();
+        assertEquals((Integer) 1, buffer.poll(0));
+        assertEquals(0, buffer.size());
+
+        resequencer.now += 100;
+        assertEquals(0, resequencer.getNextTimeoutDelay());
+        resequencer.deliver();
+        assertEquals((Integer) 1000, buffer.poll(0));
+        assertEquals((Integer) 1001, buffer.poll(0));
+        assertEquals(0, resequencer.size());
+    }
+
+    public void testDuplicateIgnored() throws Exception {
+        resequencer.setLastDelivered(0);
+        resequencer.insert(2);
+        resequencer.insert(2);
+        assertEquals(1, resequencer.size());
+    }
+
+    public void testRejectOld() throws Exception {
+        resequencer.setRejectOld(true);
+        resequencer.setLastDelivered(5);
+        try {
+            resequencer.insert(3);
+            fail("Should have thrown exception");
+        } catch (MessageRejectedException e) {
+            // expected
+        }
+    }
+
+    public void testReverse() throws Exception {
+        resequencer.setLastDelivered(-1);
+        for (int i = 199; i >= 0; i--) {
+            resequencer.insert(i);
+        }
+        resequencer.deliver();
+        for (int i = 0; i < 200; i++) {
+            assertEquals((Integer) i, buffer.poll(0));
+        }
+        assertEquals(0, resequencer.size());
+    }
+
+    private static class ManualRingResequencerEngine extends RingResequencerEngine<Integer> {
+
+        private long now;
+
+        ManualRingResequencerEngine() {
+            super(new IntegerComparator());
+        }
+
+        @Override
+        protected long currentTime() {
+            return now;
+        }
+    }
+}
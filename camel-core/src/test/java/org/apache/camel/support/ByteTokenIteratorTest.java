@@ -0,0 +1,146 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.support;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.regex.Pattern;
+
+import junit.framework.TestCase;
+
+import org.apache.camel.converter.stream.ByteBufferInputStreamCache;
+
+public class ByteTokenIteratorTest extends TestCase {
+
+    public void testTokenize() throws Exception {
+        assertEquals("[a, b, c]", tokenize("a,b,c", ",", 1, false, 64).toString());
+        assertEquals("[a, , b]", tokenize("a,,b", ",", 1, false, 64).toString());
+        assertEquals("[a, b]", tokenize("a,b,", ",", 1, false, 64).toString());
+        assertEquals("[a]", tokenize(",a", ",", 1, false, 64).toString());
+        assertEquals(Collections.emptyList(), tokenize("", ",", 1, false, 64));
+        assertEquals(Collections.emptyList(), tokenize(",", ",", 1, false, 64));
+        assertEquals(Collections.singletonList(""), tokenize(",,", ",", 1, false, 64));
+    }
+
+    public void testLeadingDelimiterSameAsScanner() throws Exception {
+        // a single delimiter at the start is skipped by the scanner
+        for (String text : new String[]{",a", ",,a", ",", ",,"}) {
+            List<String> expected = new ArrayList<String>();
+            Scanner scanner = new Scanner(text).useDelimiter(",");
+            while (scanner.hasNext()) {
+                expected.add(scanner.next());
+            }
+            assertEquals("Tokenizing: " + text, expected, tokenize(text, ",", 1, false, 64));
+        }
+        assertEquals("[a]", tokenize(",a", ",", 1, false, 64).toString());
+        assertEquals("[, a]", tokenize(",,a", ",", 1, false, 64).toString());
+    }
+
+    public void testFileCanBeDeletedAfterSplit() throws Exception {
+        File file = File.createTempFile("tokenize", ".txt");
+        FileOutputStream fos = new FileOutputStream(file);
+        fos.write("Hello,World,Camel".getBytes("UTF-8"));
+        fos.close();
+
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        ByteTokenIterator it = new ByteTokenIterator(raf.getChannel(), ",".getBytes("UTF-8"), 1, false, 8);
+        List<Object> parts = new ArrayList<Object>();
+        while (it.hasNext()) {
+            parts.add(it.next());
+        }
+        // the iterator is closed when there are no more parts, which releases the file
+        assertTrue("Should delete file", file.delete());
+
+        // and the parts can still be read
+        assertEquals(3, parts.size());
+        assertEquals("Hello", ((ByteBufferInputStreamCache) parts.get(0)).toString("UTF-8"));
+        assertEquals("Camel", ((ByteBufferInputStreamCache) parts.get(2)).toString("UTF-8"));
+    }
+
+    public void testTokenizeSmallChunks() throws Exception {
+        assertEquals("[Hello, World, Camel, rocks]", tokenize("Hello\r\nWorld\r\nCamel\r\nrocks\r\n", "\r\n", 1, false, 1).toString());
+        assertEquals("[Hello, World, Camel, rocks]", tokenize("Hello\r\nWorld\r\nCamel\r\nrocks\r\n", "\r\n", 1, false, 3).toString());
+    }
+
+    public void testGroupAndSkipFirst() throws Exception {
+        assertEquals("[a,b, c,d, e]", tokenize("a,b,c,d,e", ",", 2, false, 4).toString());
+        assertEquals("[b,c, d,e]", tokenize("a,b,c,d,e", ",", 2, true, 4).toString());
+        assertEquals("[b, c]", tokenize("a,b,c", ",", 1, true, 4).toString());
+    }
+
+    public void testUtf8() throws Exception {
+        assertEquals("[Æble, Øl, Å]", tokenize("Æble€Øl€Å", "€", 1, false, 2).toString());
+    }
+
+    public void testSameAsScanner() throws Exception {
+        Random random = new Random(4711);
+        for (int run = 0; run < 200; run++) {
+            StringBuilder sb = new StringBuilder();
+            int length = random.nextInt(200);
+            for (int i = 0; i < length; i++) {
+                sb.append("ab\n".charAt(random.nextInt(3)));
+            }
+            String token = random.nextBoolean() ? "\n" : "\n\n";
+            String text = sb.toString();
+
+            List<String> expected = new ArrayList<String>();
+            Scanner scanner = new Scanner(text).useDelimiter(Pattern.quote(token));
+            while (scanner.hasNext()) {
+                expected.add(scanner.next());
+            }
+
+            int chunk = 1 + random.nextInt(16);
+            assertEquals("Tokenizing: " + text, expected, tokenize(text, token, 1, false, chunk));
+            assertEquals("Tokenizing file: " + text, expected, tokenizeFile(text, token, chunk));
+        }
+    }
+
+    private static List<String> tokenize(String text, String token, int group, boolean skipFirst, int chunkSize) throws Exception {
+        ByteArrayInputStream is = new ByteArrayInputStream(text.getBytes("UTF-8"));
+        ByteTokenIterator it = new ByteTokenIterator(Channels.newChannel(is), token.getBytes("UTF-8"), group, skipFirst, chunkSize);
+        return toList(it);
+    }
+
+    private static List<String> tokenizeFile(String text, String token, int regionSize) throws Exception {
+        File file = File.createTempFile("tokenize", ".txt");
+        try {
+            FileOutputStream fos = new FileOutputStream(file);
+            fos.write(text.getBytes("UTF-8"));
+            fos.close();
+            RandomAccessFile raf = new RandomAccessFile(file, "r");
+            return toList(new ByteTokenIterator(raf.getChannel(), token.getBytes("UTF-8"), 1, false, regionSize));
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static List<String> toList(ByteTokenIterator it) {
+        List<String> answer = new ArrayList<String>();
+        while (it.hasNext()) {
+            answer.add(((ByteBufferInputStreamCache) it.next()).toString("UTF-8"));
+        }
+        return answer;
+    }
+}
@@ -0,0 +1,213 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+import junit.framework.TestCase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class HashedWheelTimeoutMapTest extends TestCase {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HashedWheelTimeoutMapTest.class);
+    private ScheduledExecutorService executor = new ScheduledThreadPoolExecutor(1);
+
+    public void testPurge() throws Exception {
+        HashedWheelTimeoutMap<String, Integer> map = new HashedWheelTimeoutMap<String, Integer>(executor, 100);
+        map.start();
+
+        map.put("A", 123, 50);
+        assertEquals(1, map.size());
+
+        Thread.sleep(350);
+        if (map.size() > 0) {
+            LOG.warn("Waiting extra due slow CI box");
+            Thread.sleep(1000);
+        }
+
+        assertEquals(0, map.size());
+
+        map.stop();
+    }
+
+    public void testGetRemove() throws Exception {
+        HashedWheelTimeoutMap<String, Integer> map = new HashedWheelTimeoutMap<String, Integer>(executor, 100);
+        map.start();
+
+        map.put("A", 123, 50);
+        map.put("B", 456, 50);
+        assertEquals(2, map.size());
+        assertEquals(2, map.getKeys().length);
+
+        assertEquals(123, (int) map.get("A"));
+
+        Object old = map.remove("A");
+        assertEquals(123, old);
+        assertEquals(null, map.get("A"));
+        assertEquals(1, map.size());
+
+        assertEquals(456, (int) map.putIfAbsent("B", 789, 50));
+        assertEquals(456, (int) map.put("B", 789, 50));
+        assertEquals(789, (int) map.get("B"));
+
+        map.stop();
+        assertEquals(0, map.size());
+    }
+
+    public void testExpiredInCorrectOrder() throws Exception {
+        ManualTimeoutMap map = new ManualTimeoutMap();
+        map.purge();
+
+        map.put("A", 1, 50);
+        map.put("B", 2, 30);
+        map.put("C", 3, 40);
+        map.put("D", 4, 20);
+        map.put("E", 5, 45);
+        // is not expired
+        map.put("F", 6, 800);
+
+        map.advance(100);
+
+        assertEquals("[D, B, C, E, A]", map.evicted.toString());
+        assertEquals(1, map.size());
+    }
+
+    public void testNotEvictedBeforeTimeout() throws Exception {
+        ManualTimeoutMap map = new ManualTimeoutMap();
+        map.purge();
+
+        map.put("A", 1, 25);
+        map.advance(20);
+        assertEquals(0, map.evicted.size());
+
+        // expires at the first tick after its timeout
+        map.advance(10);
+        assertEquals("[A]", map.evicted.toString());
+        assertEquals(0, map.size());
+    }
+
+    public void testRemovedNotEvicted() throws Exception {
+        ManualTimeoutMap map = new ManualTimeoutMap();
+        map.purge();
+
+        map.put("A", 1, 50);
+        map.put("B", 2, 50);
+        map.advance(10);
+        map.remove("A");
+        // replace B with a new entry which times out later
+        map.put("B", 3, 500);
+
+        map.advance(100);
+        assertEquals(0, map.evicted.size());
+
+        map.advance(500);
+        assertEquals("[B]", map.evicted.toString());
+    }
+
+    public void testGetRefreshesTimeout() throws Exception {
+        ManualTimeoutMap map = new ManualTimeoutMap();
+        map.purge();
+
+        map.put("A", 1, 100);
+        for (int i = 0; i < 20; i++) {
+            map.advance(50);
+            assertEquals(1, (int) map.get("A"));
+        }
+        assertEquals(0, map.evicted.size());
+
+        map.advance(150);
+        assertEquals("[A]", map.evicted.toString());
+    }
+
+    public void testVetoEviction() throws Exception {
+        ManualTimeoutMap map = new ManualTimeoutMap();
+        map.purge();
+        map.veto = "gold";
+
+        map.put("gold", 1, 15);
+        map.put("A", 2, 25);
+        map.advance(20);
+        assertEquals("[gold]", map.evicted.toString());
+
+        // is tried again at the next tick
+        map.advance(10);
+        assertEquals("[gold, gold, A]", map.evicted.toString());
+        assertEquals(1, map.size());
+
+        map.veto = null;
+        map.advance(10);
+        assertEquals("[gold, gold, A, gold]", map.evicted.toString());
+        assertEquals(0, map.size());
+    }
+
+    public void testLongTimeouts() throws Exception {
+        ManualTimeoutMap map = new ManualTimeoutMap();
+        map.purge();
+
+        // cascades down from the higher levels of the timing wheel
+        map.put("A", 1, 10 * 64 * 64 * 3 + 5);
+        map.put("B", 2, 10 * 64 + 1);
+
+        map.advance(10 * 64);
+        assertEquals(0, map.evicted.size());
+        map.advance(10);
+        assertEquals("[B]", map.evicted.toString());
+
+        map.advance(10 * 64 * 64 * 3 - 10 * 64 - 10);
+        assertEquals("[B]", map.evicted.toString());
+        map.advance(10);
+        assertEquals("[B, A]", map.evicted.toString());
+    }
+
+    /**
+     * A timeout map with a tick of 10 millis and a clock which is advanced by the test
+     */
+    private final class ManualTimeoutMap extends HashedWheelTimeoutMap<String, Integer> {
+        private final List<String> evicted = new ArrayList<String>();
+        private long now = 1000;
+        private String veto;
+
+        private ManualTimeoutMap() {
+            super(executor, 10);
+        }
+
+        @Override
+        protected long currentTime() {
+            return now;
+        }
+
+        @Override
+        public boolean onEviction(String key, Integer value) {
+            evicted.add(key);
+            return !key.equals(veto);
+        }
+
+        private void advance(long millis) {
+            // purge at every tick
+            long end = now + millis;
+            while (now < end) {
+                now = Math.min(now + 10, end);
+                purge();
+            }
+        }
+    }
+
+}
@@ -78,6 +78,30 @@ public class URISupportTest extends ContextTestSupport {
         assertNotSame(out1, out2);
     }
 
+    public void testNormalizeSimpleUri() throws Exception {
+        assertEquals("log://foo?level=INFO&showAll=true", URISupport.normalizeSimpleUri("log:foo?showAll=true&level=INFO"));
+        assertEquals("file:///tmp/in?delete=true", URISupport.normalizeSimpleUri("file:/tmp/in?delete=true"));
+        assertEquals("jms://queue:foo", URISupport.normalizeSimpleUri("jms:queue:foo"));
+
+        // already normalized uris are returned as is
+        String uri = "log://foo?level=INFO&showAll=true";
+        assertSame(uri, URISupport.normalizeSimpleUri(uri));
+
+        // uris which need encoding or have duplicate or empty parameters are not simple
+        assertNull(URISupport.normalizeSimpleUri("log:foo?level=INFO&level=DEBUG"));
+        assertNull(URISupport.normalizeSimpleUri("log:foo?level="));
+        assertNull(URISupport.normalizeSimpleUri("log:foo?password=RAW(se+ret)"));
+        assertNull(URISupport.normalizeSimpleUri("http://user@host:8080/foo"));
+        assertNull(URISupport.normalizeSimpleUri("log:foo bar"));
+        assertNull(URISupport.normalizeSimpleUri("foo"));
+
+        // and give the same result as parsing the uri
+        String[] uris = {"log:foo?showAll=true&level=INFO", "file:/tmp/in?delete=true", "jms:queue:foo", "seda://bar?size=10&concurrentConsumers=2"};
+        for (String u : uris) {
+            assertEquals(URISupport.normalizeUri(u), URISupport.normalizeSimpleUri(u));
+        }
+    }
+
     public void testNormalizeEndpointUriWithFragments() throws Exception {
         String out1 = URISupport.normalizeUri("irc://someserver/#camel?user=davsclaus");
         String out2 = URISupport.normalizeUri("irc:someserver/#camel?user=davsclaus");
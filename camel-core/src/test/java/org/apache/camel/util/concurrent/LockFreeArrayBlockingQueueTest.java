@@ -0,0 +1,176 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.util.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+/**
+ *
+ */
+public class LockFreeArrayBlockingQueueTest extends TestCase {
+
+    public void testOfferAndPoll() throws Exception {
+        LockFreeArrayBlockingQueue<String> queue = new LockFreeArrayBlockingQueue<String>(3);
+        assertTrue(queue.isEmpty());
+        assertEquals(3, queue.remainingCapacity());
+
+        assertTrue(queue.offer("A"));
+        assertTrue(queue.offer("B"));
+        assertTrue(queue.offer("C"));
+        assertFalse("Should be full", queue.offer("D"));
+        assertEquals(3, queue.size());
+        assertEquals(0, queue.remainingCapacity());
+        assertEquals("A", queue.peek());
+
+        assertEquals("A", queue.poll());
+        assertTrue(queue.offer("D"));
+        assertEquals("B", queue.poll());
+        assertEquals("C", queue.poll());
+        assertEquals("D", queue.poll());
+        assertNull(queue.poll());
+        assertNull(queue.peek());
+    }
+
+    public void testRemove() throws Exception {
+        LockFreeArrayBlockingQueue<String> queue = new LockFreeArrayBlockingQueue<String>(4);
+        queue.add("A");
+        queue.add("B");
+        queue.add("C");
+
+        assertTrue(queue.remove("A"));
+        assertTrue(queue.remove("C"));
+        assertFalse(queue.remove("D"));
+        assertEquals("[B]", new ArrayList<String>(queue).toString());
+
+        assertEquals("B", queue.peek());
+        assertEquals("B", queue.poll());
+        assertNull(queue.poll());
+    }
+
+    public void testDrainTo() throws Exception {
+        LockFreeArrayBlockingQueue<Integer> queue = new LockFreeArrayBlockingQueue<Integer>(10);
+        for (int i = 0; i < 10; i++) {
+            queue.add(i);
+        }
+
+        List<Integer> list = new ArrayList<Integer>();
+        assertEquals(4, queue.drainTo(list, 4));
+        assertEquals("[0, 1, 2, 3]", list.toString());
+        assertEquals(6, queue.drainTo(list));
+        assertEquals(10, list.size());
+        assertTrue(queue.isEmpty());
+    }
+
+    public void testPollTimeout() throws Exception {
+        LockFreeArrayBlockingQueue<String> queue = new LockFreeArrayBlockingQueue<String>(1);
+        long start = System.currentTimeMillis();
+        assertNull(queue.poll(100, TimeUnit.MILLISECONDS));
+        assertTrue(System.currentTimeMillis() - start >= 90);
+
+        queue.add("A");
+        assertFalse(queue.offer("B", 100, TimeUnit.MILLISECONDS));
+    }
+
+    public void testTakeIsWokenUp() throws Exception {
+        final LockFreeArrayBlockingQueue<String> queue = new LockFreeArrayBlockingQueue<String>(1);
+        final CountDownLatch latch = new CountDownLatch(1);
+        Thread consumer = new Thread() {
+            public void run() {
+                try {
+                    if ("A".equals(queue.take())) {
+                        latch.countDown();
+                    }
+                } catch (InterruptedException e) {
+                    // ignore
+                }
+            }
+        };
+        consumer.start();
+
+        // let the consumer park
+        Thread.sleep(100);
+        queue.put("A");
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    public void testConcurrentProducersAndConsumers() throws Exception {
+        final int producers = 4;
+        final int consumers = 4;
+        final int count = 50000;
+        final LockFreeArrayBlockingQueue<Integer> queue = new LockFreeArrayBlockingQueue<Integer>(64);
+        final ConcurrentHashMap<Integer, Boolean> seen = new ConcurrentHashMap<Integer, Boolean>();
+        final AtomicInteger duplicates = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(producers * count);
+
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int p = 0; p < producers; p++) {
+            final int offset = p * count;
+            threads.add(new Thread() {
+                public void run() {
+                    try {
+                        for (int i = 0; i < count; i++) {
+                            queue.put(offset + i);
+                        }
+                    } catch (InterruptedException e) {
+                        // ignore
+                    }
+                }
+            });
+        }
+        for (int c = 0; c < consumers; c++) {
+            threads.add(new Thread() {
+                public void run() {
+                    try {
+                        while (true) {
+                            Integer i = queue.poll(100, TimeUnit.MILLISECONDS);
+                            if (i == null) {
+                                if (done.getCount() == 0) {
+                                    return;
+                                }
+                                continue;
+                            }
+                            if (seen.put(i, Boolean.TRUE) != null) {
+                                duplicates.incrementAndGet();
+                            }
+                            done.countDown();
+                        }
+                    } catch (InterruptedException e) {
+                        // ignore
+                    }
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+
+        assertTrue("Should receive all elements", done.await(30, TimeUnit.SECONDS));
+        assertEquals(0, duplicates.get());
+        assertEquals(producers * count, seen.size());
+        assertTrue(queue.isEmpty());
+        for (Thread thread : threads) {
+            thread.join(5000);
+        }
+    }
+}
@@ -43,6 +43,7 @@ import org.apache.camel.component.properties.PropertiesComponent;
 import org.apache.camel.component.properties.PropertiesFunction;
 import org.apache.camel.component.properties.PropertiesParser;
 import org.apache.camel.component.properties.PropertiesResolver;
+import org.apache.camel.impl.DefaultStreamCachingStrategy;
 import org.apache.camel.management.DefaultManagementAgent;
 import org.apache.camel.management.DefaultManagementLifecycleStrategy;
 import org.apache.camel.management.DefaultManagementStrategy;
@@ -538,6 +539,14 @@ public abstract class AbstractCamelContextFactoryBean<T extends ModelCamelContex
         if (spoolChiper != null) {
             getContext().getStreamCachingStrategy().setSpoolChiper(spoolChiper);
         }
+        Long offHeapMemory = CamelContextHelper.parseLong(getContext(), streamCaching.getOffHeapMemory());
+        if (offHeapMemory != null) {
+            if (getContext().getStreamCachingStrategy() instanceof DefaultStreamCachingStrategy) {
+                ((DefaultStreamCachingStrategy) getContext().getStreamCachingStrategy()).setOffHeapMemory(offHeapMemory);
+            } else {
+                LOG.warn("Cannot use offHeapMemory as it is not supported by the StreamCachingStrategy: {}", getContext().getStreamCachingStrategy());
+            }
+        }
         Boolean remove = CamelContextHelper.parseBoolean(getContext(), streamCaching.getRemoveSpoolDirectoryWhenStopping());
         if (remove != null) {
             getContext().getStreamCachingStrategy().setRemoveSpoolDirectoryWhenStopping(remove);
@@ -56,6 +56,9 @@ public class CamelStreamCachingStrategyDefinition extends IdentifiedType {
     @XmlAttribute
     private String bufferSize;
 
+    @XmlAttribute
+    private String offHeapMemory;
+
     @XmlAttribute
     private String removeSpoolDirectoryWhenStopping;
 
@@ -129,6 +132,14 @@ public class CamelStreamCachingStrategyDefinition extends IdentifiedType {
         this.bufferSize = bufferSize;
     }
 
+    public String getOffHeapMemory() {
+        return offHeapMemory;
+    }
+
+    public void setOffHeapMemory(String offHeapMemory) {
+        this.offHeapMemory = offHeapMemory;
+    }
+
     public String getRemoveSpoolDirectoryWhenStopping() {
         return removeSpoolDirectoryWhenStopping;
     }
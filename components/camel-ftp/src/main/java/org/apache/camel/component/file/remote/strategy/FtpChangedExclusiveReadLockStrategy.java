@@ -25,6 +25,7 @@ import org.apache.camel.component.file.GenericFile;
 import org.apache.camel.component.file.GenericFileEndpoint;
 import org.apache.camel.component.file.GenericFileExclusiveReadLockStrategy;
 import org.apache.camel.component.file.GenericFileOperations;
+import org.apache.camel.component.file.strategy.FileChangedReadinessTracker;
 import org.apache.camel.util.CamelLogger;
 import org.apache.camel.util.StopWatch;
 import org.apache.commons.net.ftp.FTPFile;
@@ -39,13 +40,21 @@ public class FtpChangedExclusiveReadLockStrategy implements GenericFileExclusive
     private long minLength = 1;
     private long minAge;
     private boolean fastExistsCheck;
+    private boolean nonBlocking;
+    private FileChangedReadinessTracker readinessTracker;
 
     @Override
     public void prepareOnStartup(GenericFileOperations<FTPFile> tGenericFileOperations, GenericFileEndpoint<FTPFile> tGenericFileEndpoint) throws Exception {
-        // noop
+        // start over with a clean slate
+        readinessTracker = null;
     }
 
     public boolean acquireExclusiveReadLock(GenericFileOperations<FTPFile> operations, GenericFile<FTPFile> file, Exchange exchange) throws Exception {
+        if (nonBlocking) {
+            // use the file information from the listing of the current poll, so there are no extra remote calls per file
+            return getReadinessTracker().isReady(file, file.getFileLength(), file.getLastModified());
+        }
+
         boolean exclusive = false;
 
         LOG.trace("Waiting for exclusive read lock to file: " + file);
@@ -126,6 +135,19 @@ public class FtpChangedExclusiveReadLockStrategy implements GenericFileExclusive
         }
     }
 
+    private FileChangedReadinessTracker getReadinessTracker() {
+        if (readinessTracker == null) {
+            FileChangedReadinessTracker tracker = new FileChangedReadinessTracker();
+            tracker.setTimeout(timeout);
+            tracker.setCheckInterval(checkInterval);
+            tracker.setMinLength(minLength);
+            tracker.setMinAge(minAge);
+            tracker.setReadLockLoggingLevel(readLockLoggingLevel);
+            readinessTracker = tracker;
+        }
+        return readinessTracker;
+    }
+
     @Override
     public void releaseExclusiveReadLockOnAbort(GenericFileOperations<FTPFile> operations, GenericFile<FTPFile> file, Exchange exchange) throws Exception {
         // noop
@@ -197,4 +219,12 @@ public class FtpChangedExclusiveReadLockStrategy implements GenericFileExclusive
     public void setFastExistsCheck(boolean fastExistsCheck) {
         this.fastExistsCheck = fastExistsCheck;
     }
-}
\ No newline at end of file
+
+    public boolean isNonBlocking() {
+        return nonBlocking;
+    }
+
+    public void setNonBlocking(boolean nonBlocking) {
+        this.nonBlocking = nonBlocking;
+    }
+}
@@ -134,6 +134,10 @@ public final class FtpProcessStrategyFactory {
                 if (null != minAge) {
                     readLockStrategy.setMinAge(minAge);
                 }
+                Boolean nonBlocking = (Boolean) params.get("readLockNonBlocking");
+                if (nonBlocking != null) {
+                    readLockStrategy.setNonBlocking(nonBlocking);
+                }
                 Boolean fastExistsCheck = (Boolean) params.get("fastExistsCheck");
                 if (fastExistsCheck != null) {
                     readLockStrategy.setFastExistsCheck(fastExistsCheck);
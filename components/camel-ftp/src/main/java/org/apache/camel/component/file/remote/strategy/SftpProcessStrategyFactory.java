@@ -130,6 +130,10 @@ public final class SftpProcessStrategyFactory {
                 if (null != minAge) {
                     readLockStrategy.setMinAge(minAge);
                 }
+                Boolean nonBlocking = (Boolean) params.get("readLockNonBlocking");
+                if (nonBlocking != null) {
+                    readLockStrategy.setNonBlocking(nonBlocking);
+                }
                 Boolean fastExistsCheck = (Boolean) params.get("fastExistsCheck");
                 if (fastExistsCheck != null) {
                     readLockStrategy.setFastExistsCheck(fastExistsCheck);
@@ -581,6 +581,15 @@ public class JmsComponent extends UriEndpointComponent implements ApplicationCon
         getConfiguration().setRequestTimeoutCheckerInterval(requestTimeoutCheckerInterval);
     }
 
+    /**
+     * Whether to use a timing wheel to keep track of the timed out Exchanges when doing request/reply over JMS,
+     * instead of checking all the outstanding Exchanges every requestTimeoutCheckerInterval.
+     * This is recommended when a lot of request/reply messages are outstanding at the same time.
+     */
+    public void setRequestTimeoutTimingWheel(boolean requestTimeoutTimingWheel) {
+        getConfiguration().setRequestTimeoutTimingWheel(requestTimeoutTimingWheel);
+    }
+
     /**
      * You can transfer the exchange over the wire instead of just the body and headers.
      * The following fields are transferred: In body, Out body, Fault body, In headers, Out headers, Fault headers,
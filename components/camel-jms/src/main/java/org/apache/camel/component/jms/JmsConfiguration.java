@@ -158,6 +158,11 @@ public class JmsConfiguration implements Cloneable {
                     + " By default Camel checks once per second. But if you must react faster when a timeout occurs,"
                     + " then you can lower this interval, to check more frequently. The timeout is determined by the option requestTimeout.")
     private long requestTimeoutCheckerInterval = 1000L;
+    @UriParam(label = "advanced",
+            description = "Whether to use a timing wheel to keep track of the timed out Exchanges when doing request/reply over JMS,"
+                    + " instead of checking all the outstanding Exchanges every requestTimeoutCheckerInterval."
+                    + " This is recommended when a lot of request/reply messages are outstanding at the same time.")
+    private boolean requestTimeoutTimingWheel;
     @UriParam(defaultValue = "1", label = "advanced",
             description = "Specifies the limit for idle executions of a receive task, not having received any message within its execution."
                     + " If this limit is reached, the task will shut down and leave receiving to other executing tasks"
@@ -1599,6 +1604,19 @@ public class JmsConfiguration implements Cloneable {
         this.requestTimeoutCheckerInterval = requestTimeoutCheckerInterval;
     }
 
+    public boolean isRequestTimeoutTimingWheel() {
+        return requestTimeoutTimingWheel;
+    }
+
+    /**
+     * Whether to use a timing wheel to keep track of the timed out Exchanges when doing request/reply over JMS,
+     * instead of checking all the outstanding Exchanges every requestTimeoutCheckerInterval.
+     * This is recommended when a lot of request/reply messages are outstanding at the same time.
+     */
+    public void setRequestTimeoutTimingWheel(boolean requestTimeoutTimingWheel) {
+        this.requestTimeoutTimingWheel = requestTimeoutTimingWheel;
+    }
+
     public String getReplyTo() {
         return replyTo;
     }
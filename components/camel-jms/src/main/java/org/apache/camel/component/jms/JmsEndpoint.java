@@ -661,6 +661,11 @@ public class JmsEndpoint extends DefaultEndpoint implements HeaderFilterStrategy
         return getConfiguration().getRequestTimeoutCheckerInterval();
     }
 
+    @ManagedAttribute
+    public boolean isRequestTimeoutTimingWheel() {
+        return getConfiguration().isRequestTimeoutTimingWheel();
+    }
+
     public TaskExecutor getTaskExecutor() {
         return getConfiguration().getTaskExecutor();
     }
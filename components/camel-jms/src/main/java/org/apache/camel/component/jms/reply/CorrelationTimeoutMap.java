@@ -18,21 +18,47 @@ package org.apache.camel.component.jms.reply;
 
 import java.util.concurrent.ScheduledExecutorService;
 
+import org.apache.camel.TimeoutMap;
 import org.apache.camel.support.DefaultTimeoutMap;
+import org.apache.camel.support.HashedWheelTimeoutMap;
+import org.apache.camel.util.ServiceHelper;
 
 /**
  * A {@link org.apache.camel.TimeoutMap} which is used to track reply messages which
  * has been timed out, and thus should trigger the waiting {@link org.apache.camel.Exchange} to
  * timeout as well.
+ * <p/>
+ * When the timing wheel is enabled the reply messages are tracked by a {@link HashedWheelTimeoutMap} instead,
+ * which is recommended when a lot of request/reply messages are outstanding at the same time.
  *
  * @version 
  */
 public class CorrelationTimeoutMap extends DefaultTimeoutMap<String, ReplyHandler> {
 
+    private final TimeoutMap<String, ReplyHandler> timingWheel;
     private CorrelationListener listener;
 
     public CorrelationTimeoutMap(ScheduledExecutorService executor, long requestMapPollTimeMillis) {
+        this(executor, requestMapPollTimeMillis, false);
+    }
+
+    public CorrelationTimeoutMap(ScheduledExecutorService executor, long requestMapPollTimeMillis, boolean timingWheel) {
         super(executor, requestMapPollTimeMillis);
+        this.timingWheel = timingWheel ? createTimingWheel(executor, requestMapPollTimeMillis) : null;
+    }
+
+    /**
+     * Creates the timing wheel which the reply messages are tracked by, instead of this map.
+     * <p/>
+     * This method is called from the constructor.
+     */
+    protected TimeoutMap<String, ReplyHandler> createTimingWheel(ScheduledExecutorService executor, long requestMapPollTimeMillis) {
+        return new HashedWheelTimeoutMap<String, ReplyHandler>(executor, requestMapPollTimeMillis) {
+            @Override
+            public boolean onEviction(String key, ReplyHandler value) {
+                return CorrelationTimeoutMap.this.onEviction(key, value);
+            }
+        };
     }
 
     public void setListener(CorrelationListener listener) {
@@ -64,7 +90,7 @@ public class CorrelationTimeoutMap extends DefaultTimeoutMap<String, ReplyHandle
 
     @Override
     public ReplyHandler get(String key) {
-        ReplyHandler answer = super.get(key);
+        ReplyHandler answer = timingWheel != null ? timingWheel.get(key) : super.get(key);
         log.trace("Get correlationID: {} -> {}", key, answer != null);
         return answer;
     }
@@ -82,9 +108,9 @@ public class CorrelationTimeoutMap extends DefaultTimeoutMap<String, ReplyHandle
         ReplyHandler result;
         if (timeoutMillis <= 0) {
             // no timeout (must use Integer.MAX_VALUE)
-            result = super.put(key, value, Integer.MAX_VALUE);
+            result = timingWheel != null ? timingWheel.put(key, value, Integer.MAX_VALUE) : super.put(key, value, Integer.MAX_VALUE);
         } else {
-            result = super.put(key, value, timeoutMillis);
+            result = timingWheel != null ? timingWheel.put(key, value, timeoutMillis) : super.put(key, value, timeoutMillis);
         }
         log.trace("Added correlationID: {} to timeout after: {} millis", key, timeoutMillis);
         return result;
@@ -103,9 +129,9 @@ public class CorrelationTimeoutMap extends DefaultTimeoutMap<String, ReplyHandle
         ReplyHandler result;
         if (timeoutMillis <= 0) {
             // no timeout (must use Integer.MAX_VALUE)
-            result = super.putIfAbsent(key, value, Integer.MAX_VALUE);
+            result = timingWheel != null ? timingWheel.putIfAbsent(key, value, Integer.MAX_VALUE) : super.putIfAbsent(key, value, Integer.MAX_VALUE);
         } else {
-            result = super.putIfAbsent(key, value, timeoutMillis);
+            result = timingWheel != null ? timingWheel.putIfAbsent(key, value, timeoutMillis) : super.putIfAbsent(key, value, timeoutMillis);
         }
         if (result == null) {
             log.trace("Added correlationID: {} to timeout after: {} millis", key, timeoutMillis);
@@ -125,9 +151,55 @@ public class CorrelationTimeoutMap extends DefaultTimeoutMap<String, ReplyHandle
             // ignore
         }
 
-        ReplyHandler answer = super.remove(key);
+        ReplyHandler answer = timingWheel != null ? timingWheel.remove(key) : super.remove(key);
         log.trace("Removed correlationID: {} -> {}", key, answer != null);
         return answer;
     }
 
+    @Override
+    public Object[] getKeys() {
+        return timingWheel != null ? timingWheel.getKeys() : super.getKeys();
+    }
+
+    @Override
+    public int size() {
+        return timingWheel != null ? timingWheel.size() : super.size();
+    }
+
+    @Override
+    public void purge() {
+        if (timingWheel != null) {
+            timingWheel.purge();
+        } else {
+            super.purge();
+        }
+    }
+
+    @Override
+    public void run() {
+        if (timingWheel != null) {
+            timingWheel.run();
+        } else {
+            super.run();
+        }
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        if (timingWheel != null) {
+            ServiceHelper.startService(timingWheel);
+        } else {
+            super.doStart();
+        }
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        if (timingWheel != null) {
+            ServiceHelper.stopService(timingWheel);
+        } else {
+            super.doStop();
+        }
+    }
+
 }
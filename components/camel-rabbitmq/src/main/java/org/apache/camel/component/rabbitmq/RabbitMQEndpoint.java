@@ -140,6 +140,8 @@ public class RabbitMQEndpoint extends DefaultEndpoint {
     @UriParam
     private long requestTimeoutCheckerInterval = 1000;
     @UriParam
+    private boolean requestTimeoutTimingWheel;
+    @UriParam
     private boolean transferException;
     @UriParam(label = "producer")
     private boolean publisherAcknowledgements;
@@ -763,6 +765,18 @@ public class RabbitMQEndpoint extends DefaultEndpoint {
         return requestTimeoutCheckerInterval;
     }
 
+    /**
+     * Set whether to use a timing wheel to keep track of timed out inOut exchanges, which is recommended
+     * when a lot of inOut exchanges are outstanding at the same time
+     */
+    public void setRequestTimeoutTimingWheel(boolean requestTimeoutTimingWheel) {
+        this.requestTimeoutTimingWheel = requestTimeoutTimingWheel;
+    }
+
+    public boolean isRequestTimeoutTimingWheel() {
+        return requestTimeoutTimingWheel;
+    }
+
     /**
      * Get useMessageIDAsCorrelationID for inOut exchange
      */
@@ -0,0 +1,96 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Header;
+import org.apache.camel.ProducerTemplate;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks invoking bean methods, with the method given by name, and chosen by the type of the message body.
+ */
+public class BeanInvocationBenchmarkTest {
+
+    @Test
+    public void launchBenchmark() throws Exception {
+        BenchmarkLauncher.launch(BeanInvocationBenchmarkTest.class);
+    }
+
+    public static class MyBean {
+
+        public String hello(String body, @Header("name") String name) {
+            return body + " " + name;
+        }
+
+        public String echo(String body) {
+            return body;
+        }
+
+        public Integer echo(Integer body) {
+            return body;
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class BeanState {
+
+        CamelContext camel;
+        ProducerTemplate template;
+
+        @Setup(Level.Trial)
+        public void setup() throws Exception {
+            camel = new DefaultCamelContext();
+            camel.disableJMX();
+            camel.addRoutes(new RouteBuilder() {
+                @Override
+                public void configure() throws Exception {
+                    MyBean bean = new MyBean();
+                    from("direct:hello").bean(bean, "hello");
+                    from("direct:echo").bean(bean, "echo");
+                }
+            });
+            camel.start();
+            template = camel.createProducerTemplate();
+        }
+
+        @TearDown(Level.Trial)
+        public void teardown() throws Exception {
+            camel.stop();
+        }
+    }
+
+    @Benchmark
+    public void namedMethod(BeanState state, Blackhole bh) {
+        bh.consume(state.template.requestBodyAndHeader("direct:hello", "Hello", "name", "World"));
+    }
+
+    @Benchmark
+    public void chosenByBodyType(BeanState state, Blackhole bh) {
+        bh.consume(state.template.requestBody("direct:echo", "Hello"));
+        bh.consume(state.template.requestBody("direct:echo", 123));
+    }
+}
@@ -0,0 +1,188 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.Assert.fail;
+
+/**
+ * Launches the JMH benchmarks of a given class from a JUnit test.
+ * <p/>
+ * The benchmarks are measured as throughput and as sampled time (to report the latency percentiles),
+ * with the GC profiler enabled to report the allocation per operation. The results are stored in
+ * <tt>target/jmh</tt> as a JMH json file and as a baseline properties file. If the
+ * <tt>camel.jmh.baseline.dir</tt> system property points to a directory with a previous baseline file
+ * for the benchmark, then the results are checked against it and regressions larger than
+ * <tt>camel.jmh.baseline.tolerance</tt> fail the test.
+ * <p/>
+ * The runs can be tuned with the system properties <tt>jmh.forks</tt>, <tt>jmh.warmupIterations</tt>,
+ * <tt>jmh.measurementIterations</tt>, <tt>jmh.iterationTime</tt> (in millis) and <tt>jmh.threads</tt>.
+ */
+public final class BenchmarkLauncher {
+
+    public static final String BASELINE_DIR = "camel.jmh.baseline.dir";
+    public static final String BASELINE_TOLERANCE = "camel.jmh.baseline.tolerance";
+
+    private static final Logger LOG = LoggerFactory.getLogger(BenchmarkLauncher.class);
+    private static final String ALLOCATION = "\u00b7gc.alloc.rate.norm";
+    private static final double MIN_ALLOCATION_CHANGE = 16;
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private BenchmarkLauncher() {
+    }
+
+    /**
+     * Runs all the benchmarks of the given class and checks the results against the baseline, if any.
+     */
+    public static void launch(Class<?> benchmark) throws Exception {
+        File dir = new File("target/jmh");
+        dir.mkdirs();
+        String name = benchmark.getSimpleName();
+
+        Options options = new OptionsBuilder()
+                .include(benchmark.getName() + ".*")
+                .mode(Mode.Throughput)
+                .mode(Mode.SampleTime)
+                .timeUnit(TimeUnit.MICROSECONDS)
+                .forks(Integer.getInteger("jmh.forks", 1))
+                .threads(Integer.getInteger("jmh.threads", 1))
+                .warmupIterations(Integer.getInteger("jmh.warmupIterations", 5))
+                .warmupTime(TimeValue.milliseconds(Long.getLong("jmh.iterationTime", 1000)))
+                .measurementIterations(Integer.getInteger("jmh.measurementIterations", 5))
+                .measurementTime(TimeValue.milliseconds(Long.getLong("jmh.iterationTime", 1000)))
+                .addProfiler(GCProfiler.class)
+                .shouldFailOnError(true)
+                .shouldDoGC(true)
+                .resultFormat(ResultFormatType.JSON)
+                .result(new File(dir, name + ".json").getPath())
+                .build();
+
+        Collection<RunResult> results = new Runner(options).run();
+
+        Properties scores = toBaseline(results);
+        OutputStream os = new FileOutputStream(new File(dir, name + ".properties"));
+        try {
+            scores.store(os, "JMH baseline of " + benchmark.getName());
+        } finally {
+            os.close();
+        }
+
+        String baselineDir = System.getProperty(BASELINE_DIR);
+        if (baselineDir != null && !baselineDir.isEmpty()) {
+            File file = new File(baselineDir, name + ".properties");
+            if (file.exists()) {
+                double tolerance = Double.parseDouble(System.getProperty(BASELINE_TOLERANCE, "0.10"));
+                checkBaseline(file, scores, tolerance);
+            } else {
+                LOG.warn("No baseline file {} exists for benchmark {}", file, name);
+            }
+        }
+    }
+
+    /**
+     * Turns the results into baseline entries keyed by <tt>benchmark.param-value.mode.metric</tt>
+     */
+    private static Properties toBaseline(Collection<RunResult> results) {
+        Properties answer = new Properties();
+        for (RunResult result : results) {
+            BenchmarkParams params = result.getParams();
+            StringBuilder sb = new StringBuilder(params.getBenchmark());
+            for (String param : params.getParamsKeys()) {
+                sb.append(".").append(param).append("-").append(params.getParam(param));
+            }
+            String key = sb.append(".").append(params.getMode().shortLabel()).toString();
+            Result primary = result.getPrimaryResult();
+            answer.setProperty(key + ".score", String.valueOf(primary.getScore()));
+            if (params.getMode() == Mode.SampleTime) {
+                for (double percentile : PERCENTILES) {
+                    double value = primary.getStatistics().getPercentile(percentile * 100);
+                    answer.setProperty(key + ".p" + percentile, String.valueOf(value));
+                }
+            }
+            Map<String, Result> secondary = result.getSecondaryResults();
+            Result allocation = secondary.get(ALLOCATION);
+            if (allocation != null) {
+                answer.setProperty(key + ".alloc", String.valueOf(allocation.getScore()));
+            }
+        }
+        return answer;
+    }
+
+    private static void checkBaseline(File file, Properties scores, double tolerance) throws Exception {
+        Properties baseline = new Properties();
+        InputStream is = new FileInputStream(file);
+        try {
+            baseline.load(is);
+        } finally {
+            is.close();
+        }
+
+        List<String> regressions = new ArrayList<String>();
+        for (String key : scores.stringPropertyNames()) {
+            String expected = baseline.getProperty(key);
+            if (expected == null || key.contains(".p0.")) {
+                // percentiles are too noisy to be checked, they are only kept for reference
+                continue;
+            }
+            double before = Double.parseDouble(expected);
+            double now = Double.parseDouble(scores.getProperty(key));
+            // higher is better for throughput, lower is better for time and allocation
+            boolean higherIsBetter = key.endsWith("." + Mode.Throughput.shortLabel() + ".score");
+            double change = before == 0 ? 0 : (now - before) / before;
+            if (key.endsWith(".alloc") && Math.abs(now - before) < MIN_ALLOCATION_CHANGE) {
+                // a few bytes per operation are just the noise of the profiler
+                continue;
+            }
+            if (higherIsBetter ? change < -tolerance : change > tolerance) {
+                regressions.add(String.format("%s: %.3f -> %.3f (%+.1f%%)", key, before, now, change * 100));
+            }
+        }
+
+        if (!regressions.isEmpty()) {
+            StringBuilder sb = new StringBuilder("Regressions compared to baseline " + file + ":");
+            for (String regression : regressions) {
+                sb.append("\n    ").append(regression);
+            }
+            fail(sb.toString());
+        }
+        LOG.info("No regressions compared to baseline {}", file);
+    }
+}
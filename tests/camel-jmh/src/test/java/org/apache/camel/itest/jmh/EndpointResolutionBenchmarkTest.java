@@ -0,0 +1,74 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.util.URISupport;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks normalizing endpoint uris and resolving endpoints by uri, as done by dynamic routing
+ * such as toD, recipient list, routing slip and dynamic router for every message.
+ */
+public class EndpointResolutionBenchmarkTest {
+
+    @Test
+    public void launchBenchmark() throws Exception {
+        BenchmarkLauncher.launch(EndpointResolutionBenchmarkTest.class);
+    }
+
+    @State(Scope.Benchmark)
+    public static class EndpointState {
+
+        @Param({"log:foo", "log://foo?showHeaders=true&level=INFO&showBody=false", "log:foo?password=RAW(se+re?t&%)&level=INFO"})
+        String uri;
+
+        CamelContext camel;
+
+        @Setup(Level.Trial)
+        public void setup() throws Exception {
+            camel = new DefaultCamelContext();
+            camel.disableJMX();
+            camel.start();
+            camel.getEndpoint(uri);
+        }
+
+        @TearDown(Level.Trial)
+        public void teardown() throws Exception {
+            camel.stop();
+        }
+    }
+
+    @Benchmark
+    public void normalizeUri(EndpointState state, Blackhole bh) throws Exception {
+        bh.consume(URISupport.normalizeUri(state.uri));
+    }
+
+    @Benchmark
+    public void getEndpoint(EndpointState state, Blackhole bh) {
+        bh.consume(state.camel.getEndpoint(state.uri));
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.DefaultExchange;
+import org.apache.camel.util.ExchangeHelper;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks copying an {@link Exchange} with a varying number of headers and properties,
+ * as done by the EIPs such as multicast, splitter and wire tap for every branch.
+ */
+public class ExchangeCopyBenchmarkTest {
+
+    @Test
+    public void launchBenchmark() throws Exception {
+        BenchmarkLauncher.launch(ExchangeCopyBenchmarkTest.class);
+    }
+
+    @State(Scope.Benchmark)
+    public static class ExchangeState {
+
+        @Param({"0", "5", "30"})
+        int headers;
+
+        CamelContext camel;
+        Exchange exchange;
+
+        @Setup(Level.Trial)
+        public void setup() throws Exception {
+            camel = new DefaultCamelContext();
+            camel.disableJMX();
+            camel.start();
+
+            exchange = new DefaultExchange(camel);
+            exchange.getIn().setBody("Hello World");
+            for (int i = 0; i < headers; i++) {
+                exchange.getIn().setHeader("header" + i, "value" + i);
+                exchange.setProperty("property" + i, "value" + i);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void teardown() throws Exception {
+            camel.stop();
+        }
+    }
+
+    @Benchmark
+    public void copy(ExchangeState state, Blackhole bh) {
+        bh.consume(state.exchange.copy());
+    }
+
+    @Benchmark
+    public void safeCopy(ExchangeState state, Blackhole bh) {
+        bh.consume(state.exchange.copy(true));
+    }
+
+    @Benchmark
+    public void correlatedCopy(ExchangeState state, Blackhole bh) {
+        bh.consume(ExchangeHelper.createCorrelatedCopy(state.exchange, false));
+    }
+
+    @Benchmark
+    public void getHeader(ExchangeState state, Blackhole bh) {
+        bh.consume(state.exchange.getIn().getHeader("HEADER0"));
+        bh.consume(state.exchange.getIn().getHeader(Exchange.FILE_NAME));
+    }
+}
@@ -0,0 +1,143 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Endpoint;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.Producer;
+import org.apache.camel.ProducerTemplate;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.DefaultExchange;
+import org.apache.camel.impl.ProducerCache;
+import org.apache.camel.processor.Pipeline;
+import org.apache.camel.processor.SendProcessor;
+import org.apache.camel.util.ServiceHelper;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the routing hot path: a {@link Pipeline}, a route (which runs the
+ * {@link org.apache.camel.processor.CamelInternalProcessor} advices and a
+ * {@link org.apache.camel.processor.interceptor.DefaultChannel} per node),
+ * the {@link SendProcessor} and the {@link ProducerCache}.
+ */
+public class RoutingBenchmarkTest {
+
+    @Test
+    public void launchBenchmark() throws Exception {
+        BenchmarkLauncher.launch(RoutingBenchmarkTest.class);
+    }
+
+    @State(Scope.Benchmark)
+    public static class RoutingState {
+
+        @Param({"false", "true"})
+        boolean jmx;
+
+        CamelContext camel;
+        ProducerTemplate template;
+        Processor pipeline;
+        SendProcessor send;
+        ProducerCache producerCache;
+        Endpoint endpoint;
+
+        @Setup(Level.Trial)
+        public void setup() throws Exception {
+            camel = new DefaultCamelContext();
+            if (!jmx) {
+                camel.disableJMX();
+            }
+            camel.addRoutes(new RouteBuilder() {
+                @Override
+                public void configure() throws Exception {
+                    from("direct:start").routeId("bench")
+                        .setHeader("foo", constant("bar"))
+                        .process(new NoopProcessor())
+                        .to("log:bench?level=OFF");
+                }
+            });
+            camel.start();
+            template = camel.createProducerTemplate();
+
+            List<Processor> processors = new ArrayList<Processor>();
+            for (int i = 0; i < 5; i++) {
+                processors.add(new NoopProcessor());
+            }
+            pipeline = Pipeline.newInstance(camel, processors);
+
+            endpoint = camel.getEndpoint("log:send?level=OFF");
+            send = new SendProcessor(endpoint);
+            producerCache = new ProducerCache(this, camel);
+            ServiceHelper.startServices(pipeline, send, producerCache);
+        }
+
+        @TearDown(Level.Trial)
+        public void teardown() throws Exception {
+            ServiceHelper.stopServices(producerCache, send, pipeline);
+            template.stop();
+            camel.stop();
+        }
+    }
+
+    @Benchmark
+    public void pipeline(RoutingState state, Blackhole bh) throws Exception {
+        Exchange exchange = new DefaultExchange(state.camel);
+        exchange.getIn().setBody("Hello World");
+        state.pipeline.process(exchange);
+        bh.consume(exchange);
+    }
+
+    @Benchmark
+    public void route(RoutingState state, Blackhole bh) {
+        bh.consume(state.template.requestBody("direct:start", "Hello World"));
+    }
+
+    @Benchmark
+    public void sendProcessor(RoutingState state, Blackhole bh) throws Exception {
+        Exchange exchange = new DefaultExchange(state.camel);
+        exchange.getIn().setBody("Hello World");
+        state.send.process(exchange);
+        bh.consume(exchange);
+    }
+
+    @Benchmark
+    public void producerCache(RoutingState state, Blackhole bh) throws Exception {
+        Producer producer = state.producerCache.acquireProducer(state.endpoint);
+        bh.consume(producer);
+        state.producerCache.releaseProducer(state.endpoint, producer);
+    }
+
+    private static final class NoopProcessor implements Processor {
+        @Override
+        public void process(Exchange exchange) throws Exception {
+            // noop
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.Expression;
+import org.apache.camel.Predicate;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.DefaultExchange;
+import org.apache.camel.spi.Language;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks parsing and evaluating simple language expressions and predicates.
+ */
+public class SimpleLanguageBenchmarkTest {
+
+    @Test
+    public void launchBenchmark() throws Exception {
+        BenchmarkLauncher.launch(SimpleLanguageBenchmarkTest.class);
+    }
+
+    @State(Scope.Benchmark)
+    public static class SimpleState {
+
+        CamelContext camel;
+        Language simple;
+        Exchange exchange;
+        Expression header;
+        Expression ognl;
+        Expression template;
+        Predicate predicate;
+
+        @Setup(Level.Trial)
+        public void setup() throws Exception {
+            camel = new DefaultCamelContext();
+            camel.disableJMX();
+            camel.start();
+
+            simple = camel.resolveLanguage("simple");
+            header = simple.createExpression("${header.foo}");
+            ognl = simple.createExpression("${body.length}");
+            template = simple.createExpression("Hello ${header.foo} from ${exchangeId} at ${in.header.bar}");
+            predicate = simple.createPredicate("${header.foo} == 'gold' && ${header.bar} > 100");
+
+            exchange = new DefaultExchange(camel);
+            exchange.getIn().setBody("Hello World");
+            exchange.getIn().setHeader("foo", "gold");
+            exchange.getIn().setHeader("bar", 123);
+        }
+
+        @TearDown(Level.Trial)
+        public void teardown() throws Exception {
+            camel.stop();
+        }
+    }
+
+    @Benchmark
+    public void parsePredicate(SimpleState state, Blackhole bh) {
+        bh.consume(state.simple.createPredicate("${header.foo} == 'gold' && ${header.bar} > 100"));
+    }
+
+    @Benchmark
+    public void header(SimpleState state, Blackhole bh) {
+        bh.consume(state.header.evaluate(state.exchange, Object.class));
+    }
+
+    @Benchmark
+    public void ognl(SimpleState state, Blackhole bh) {
+        bh.consume(state.ognl.evaluate(state.exchange, Object.class));
+    }
+
+    @Benchmark
+    public void template(SimpleState state, Blackhole bh) {
+        bh.consume(state.template.evaluate(state.exchange, String.class));
+    }
+
+    @Benchmark
+    public void predicate(SimpleState state, Blackhole bh) {
+        bh.consume(state.predicate.matches(state.exchange));
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import java.io.InputStream;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.TypeConverter;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.DefaultExchange;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks {@link org.apache.camel.impl.converter.BaseTypeConverterRegistry#convertTo(Class, Exchange, Object)}
+ * for exact matches, conversions found by walking the type hierarchy and conversions with no converter.
+ */
+public class TypeConverterBenchmarkTest {
+
+    @Test
+    public void launchBenchmark() throws Exception {
+        BenchmarkLauncher.launch(TypeConverterBenchmarkTest.class);
+    }
+
+    @State(Scope.Benchmark)
+    public static class ConverterState {
+
+        CamelContext camel;
+        TypeConverter converter;
+        Exchange exchange;
+        StringBuilder builder;
+
+        @Setup(Level.Trial)
+        public void setup() throws Exception {
+            camel = new DefaultCamelContext();
+            camel.disableJMX();
+            camel.start();
+
+            converter = camel.getTypeConverter();
+            exchange = new DefaultExchange(camel);
+            builder = new StringBuilder("Hello World");
+        }
+
+        @TearDown(Level.Trial)
+        public void teardown() throws Exception {
+            camel.stop();
+        }
+    }
+
+    @Benchmark
+    public void sameType(ConverterState state, Blackhole bh) {
+        bh.consume(state.converter.convertTo(String.class, state.exchange, "Hello World"));
+    }
+
+    @Benchmark
+    public void stringToInteger(ConverterState state, Blackhole bh) {
+        bh.consume(state.converter.convertTo(Integer.class, state.exchange, "12345"));
+    }
+
+    @Benchmark
+    public void stringToBytes(ConverterState state, Blackhole bh) {
+        bh.consume(state.converter.convertTo(byte[].class, state.exchange, "Hello World"));
+    }
+
+    @Benchmark
+    public void superType(ConverterState state, Blackhole bh) {
+        // there is no converter from StringBuilder, so the lookup walks its interfaces to CharSequence
+        bh.consume(state.converter.convertTo(InputStream.class, state.exchange, state.builder));
+    }
+
+    @Benchmark
+    public void noConverter(ConverterState state, Blackhole bh) {
+        bh.consume(state.converter.convertTo(TypeConverterBenchmarkTest.class, state.exchange, "Hello World"));
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.DefaultExchange;
+import org.apache.camel.impl.DefaultRouteContext;
+import org.apache.camel.impl.DefaultUnitOfWorkFactory;
+import org.apache.camel.spi.RouteContext;
+import org.apache.camel.spi.Synchronization;
+import org.apache.camel.spi.UnitOfWork;
+import org.apache.camel.support.SynchronizationAdapter;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the lifecycle of a {@link UnitOfWork} as done for every exchange being routed, comparing
+ * the default unit of work with the thread confined unit of work which does not lock.
+ * <p/>
+ * The allocation per operation is reported by the GC profiler.
+ */
+public class UnitOfWorkBenchmarkTest {
+
+    @Test
+    public void launchBenchmark() throws Exception {
+        BenchmarkLauncher.launch(UnitOfWorkBenchmarkTest.class);
+    }
+
+    @State(Scope.Benchmark)
+    public static class UnitOfWorkState {
+
+        @Param({"false", "true"})
+        boolean threadConfined;
+
+        CamelContext camel;
+        DefaultUnitOfWorkFactory factory;
+        RouteContext routeContext;
+        Synchronization synchronization;
+
+        @Setup(Level.Trial)
+        public void setup() throws Exception {
+            camel = new DefaultCamelContext();
+            camel.disableJMX();
+            camel.start();
+
+            factory = new DefaultUnitOfWorkFactory();
+            factory.setThreadConfined(threadConfined);
+            routeContext = new DefaultRouteContext(camel);
+            synchronization = new SynchronizationAdapter();
+        }
+
+        @TearDown(Level.Trial)
+        public void teardown() throws Exception {
+            camel.stop();
+        }
+    }
+
+    @Benchmark
+    public void unitOfWork(UnitOfWorkState state, Blackhole bh) throws Exception {
+        Exchange exchange = new DefaultExchange(state.camel);
+        UnitOfWork uow = state.factory.createUnitOfWork(exchange);
+        exchange.setUnitOfWork(uow);
+        uow.start();
+
+        // routed through a route which calls another route
+        uow.pushRouteContext(state.routeContext);
+        uow.addSynchronization(state.synchronization);
+        uow.pushRouteContext(state.routeContext);
+        bh.consume(uow.getRouteContext());
+        bh.consume(uow.popRouteContext());
+        bh.consume(uow.getRouteContext());
+        bh.consume(uow.popRouteContext());
+
+        uow.done(exchange);
+        uow.stop();
+    }
+}
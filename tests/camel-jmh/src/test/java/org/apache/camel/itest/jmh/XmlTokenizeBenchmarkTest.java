@@ -0,0 +1,162 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import java.io.Closeable;
+import java.io.InputStream;
+import java.util.Iterator;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.Expression;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.DefaultExchange;
+import org.apache.camel.support.TokenXMLExpressionIterator;
+import org.apache.camel.support.XMLTokenExpressionIterator;
+import org.apache.camel.util.IOHelper;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks splitting a large XML document into tokens using <tt>tokenizeXML</tt> with the StAX based iterator,
+ * <tt>tokenizeXML</tt> with the former regular expression scanner and <tt>xtokenize</tt>.
+ * <p/>
+ * The document is generated while it is read, so its size does not depend on the heap, and an operation is
+ * taking the next token from it. The allocation per operation shows whether the memory used stays bounded.
+ */
+public class XmlTokenizeBenchmarkTest {
+
+    private static final byte[] HEAD = "<?xml version=\"1.0\"?>\n<orders xmlns:x=\"urn:x\">\n".getBytes();
+    private static final byte[] ORDER = ("  <order id=\"12345\" x:type=\"online\"><x:amount currency='EUR'>10</x:amount>"
+            + "<note>some text &amp; more</note></order>\n").getBytes();
+    private static final byte[] TAIL = "</orders>".getBytes();
+
+    @Test
+    public void launchBenchmark() throws Exception {
+        BenchmarkLauncher.launch(XmlTokenizeBenchmarkTest.class);
+    }
+
+    @State(Scope.Thread)
+    public static class TokenizeState {
+
+        @Param({"stax", "scanner", "xtokenize"})
+        String tokenizer;
+
+        @Param({"1073741824"})
+        long size;
+
+        CamelContext camel;
+        Expression expression;
+        Iterator<?> iterator;
+
+        @Setup(Level.Trial)
+        public void setup() throws Exception {
+            camel = new DefaultCamelContext();
+            camel.disableJMX();
+            camel.start();
+
+            if ("stax".equals(tokenizer)) {
+                expression = new TokenXMLExpressionIterator("<order>", "<orders>");
+            } else if ("scanner".equals(tokenizer)) {
+                expression = new TokenXMLExpressionIterator("<order>", "<orders>") {
+                    @Override
+                    protected Iterator<?> createIterator(InputStream in, String charset) {
+                        return createScannerIterator(in, charset);
+                    }
+                };
+            } else {
+                expression = new XMLTokenExpressionIterator("//order", 'i');
+            }
+        }
+
+        @Setup(Level.Iteration)
+        public void open() {
+            Exchange exchange = new DefaultExchange(camel);
+            exchange.getIn().setBody(new GeneratedInputStream(size));
+            iterator = expression.evaluate(exchange, Iterator.class);
+        }
+
+        @TearDown(Level.Iteration)
+        public void close() {
+            if (iterator instanceof Closeable) {
+                IOHelper.close((Closeable) iterator);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void teardown() throws Exception {
+            camel.stop();
+        }
+
+        Object next() {
+            if (!iterator.hasNext()) {
+                // the whole document has been read, so start all over
+                close();
+                open();
+            }
+            return iterator.next();
+        }
+    }
+
+    @Benchmark
+    public void nextToken(TokenizeState state, Blackhole bh) {
+        bh.consume(state.next());
+    }
+
+    /**
+     * Generates a document with orders of the given size in bytes.
+     */
+    static final class GeneratedInputStream extends InputStream {
+        private final long size;
+        private long count;
+        private byte[] current = HEAD;
+        private int pos;
+
+        GeneratedInputStream(long size) {
+            this.size = size;
+        }
+
+        @Override
+        public int read() {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) < 0 ? -1 : b[0];
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (pos == current.length) {
+                if (current == TAIL) {
+                    return -1;
+                }
+                current = count < size ? ORDER : TAIL;
+                count += current.length;
+                pos = 0;
+            }
+            int n = Math.min(len, current.length - pos);
+            System.arraycopy(current, pos, b, off, n);
+            pos += n;
+            return n;
+        }
+    }
+}